@@ -0,0 +1,102 @@
+package com.solace.spring.cloud.stream.binder.inbound.queue;
+
+import com.solace.spring.cloud.stream.binder.util.RingBufferWaitStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hand-off from the single Solace dispatcher thread to the worker threads: the benchmark thread plays the
+ * dispatcher and offers into the worker queue while {@code workers} threads poll it the way
+ * {@code FlowXMLMessageListener} does. The score is the number of messages the dispatcher hands off per second.
+ * <p>Both queues are bounded to the same capacity so a slow worker side throttles the dispatcher in the same way.</p>
+ * <pre>
+ * mvn -P jmh test-compile exec:exec -Djmh.args="WorkerQueueBenchmark -f 1 -wi 3 -i 5"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1)
+public class WorkerQueueBenchmark {
+    private static final int CAPACITY = 16384;
+    private static final Object MESSAGE = new Object();
+
+    @Param({"LINKED", "RING_BUFFER_BLOCKING", "RING_BUFFER_YIELDING", "RING_BUFFER_BUSY_SPIN"})
+    public String queueType;
+
+    @Param({"1", "4", "16"})
+    public int workers;
+
+    /**
+     * Simulated processing cost per message in {@link Blackhole#consumeCPU} tokens.
+     */
+    @Param({"0", "200"})
+    public int workTokens;
+
+    private BlockingQueue<Object> queue;
+    private List<Thread> workerThreads;
+    private volatile boolean running;
+
+    @Setup(Level.Iteration)
+    public void startWorkers() {
+        queue = switch (queueType) {
+            case "LINKED" -> new LinkedBlockingDeque<>(CAPACITY);
+            case "RING_BUFFER_BLOCKING" -> new RingBufferQueue<>(CAPACITY, RingBufferWaitStrategy.BLOCKING);
+            case "RING_BUFFER_YIELDING" -> new RingBufferQueue<>(CAPACITY, RingBufferWaitStrategy.YIELDING);
+            case "RING_BUFFER_BUSY_SPIN" -> new RingBufferQueue<>(CAPACITY, RingBufferWaitStrategy.BUSY_SPIN);
+            default -> throw new IllegalArgumentException(queueType);
+        };
+        running = true;
+        workerThreads = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            Thread thread = new Thread(this::poll, "worker-" + i);
+            thread.setDaemon(true);
+            workerThreads.add(thread);
+            thread.start();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopWorkers() throws InterruptedException {
+        running = false;
+        for (Thread thread : workerThreads) {
+            thread.join(5000);
+        }
+    }
+
+    @Benchmark
+    public void handOff() {
+        while (!queue.offer(MESSAGE)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private void poll() {
+        while (running) {
+            try {
+                if (queue.poll(100, TimeUnit.MILLISECONDS) != null && workTokens > 0) {
+                    Blackhole.consumeCPU(workTokens);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.util.SerializationUtils;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of a serialized payload: Java serialization, the path {@code XMLMessageMapper} takes by
+ * default, against the {@link BinaryPayloadCodec}. The payload is a map of {@code entries} entries with a mix of
+ * strings, numbers, UUIDs, instants and small lists.
+ * <pre>
+ * mvn -P jmh test-compile exec:exec -Djmh.args="PayloadCodecBenchmark -f 1 -wi 3 -i 5"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PayloadCodecBenchmark {
+    @Param({"java", BinaryPayloadCodec.ENCODING})
+    public String encoding;
+
+    @Param({"1", "32", "1024"})
+    public int entries;
+
+    private PayloadCodec codec;
+    private Map<String, Object> payload;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        codec = PayloadCodecs.JAVA_SERIALIZATION.equals(encoding) ? new JavaSerializationCodec() : PayloadCodecs.get(encoding);
+        payload = new LinkedHashMap<>();
+        for (int i = 0; i < entries; i++) {
+            Object value = switch (i % 4) {
+                case 0 -> "value-" + i;
+                case 1 -> (long) i;
+                case 2 -> UUID.randomUUID();
+                default -> List.of(Instant.now(), i, "item-" + i);
+            };
+            payload.put("key-" + i, value);
+        }
+        encoded = codec.encode(payload);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return codec.encode(payload);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return codec.decode(encoded);
+    }
+
+    private static final class JavaSerializationCodec implements PayloadCodec {
+        @Override
+        public String getEncoding() {
+            return PayloadCodecs.JAVA_SERIALIZATION;
+        }
+
+        @Override
+        public byte[] encode(Object payload) {
+            return SerializationUtils.serialize(payload);
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public Object decode(byte[] data) {
+            return SerializationUtils.deserialize(data);
+        }
+    }
+}
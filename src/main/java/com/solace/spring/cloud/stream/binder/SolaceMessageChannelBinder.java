@@ -1,11 +1,13 @@
 package com.solace.spring.cloud.stream.binder;
 
 import com.solace.spring.cloud.stream.binder.health.SolaceBinderHealthAccessor;
+import com.solace.spring.cloud.stream.binder.inbound.queue.ConsumerShutdownCoordinator;
 import com.solace.spring.cloud.stream.binder.inbound.queue.JCSMPInboundQueueMessageProducer;
 import com.solace.spring.cloud.stream.binder.inbound.topic.JCSMPInboundTopicMessageMultiplexer;
 import com.solace.spring.cloud.stream.binder.inbound.topic.JCSMPInboundTopicMessageProducer;
 import com.solace.spring.cloud.stream.binder.meter.SolaceMeterAccessor;
 import com.solace.spring.cloud.stream.binder.outbound.JCSMPOutboundMessageHandler;
+import com.solace.spring.cloud.stream.binder.outbound.SolacePublisher;
 import com.solace.spring.cloud.stream.binder.properties.SolaceConsumerProperties;
 import com.solace.spring.cloud.stream.binder.properties.SolaceExtendedBindingProperties;
 import com.solace.spring.cloud.stream.binder.properties.SolaceProducerProperties;
@@ -46,6 +48,7 @@ public class SolaceMessageChannelBinder
     private final Context jcsmpContext;
     private final JCSMPSessionProducerManager sessionProducerManager;
     private final String errorHandlerProducerKey = UUID.randomUUID().toString();
+    private final ConsumerShutdownCoordinator consumerShutdownCoordinator = new ConsumerShutdownCoordinator();
     private final BeanFactory beanFactory;
     private final Optional<SolaceMeterAccessor> solaceMeterAccessor;
     private final Optional<TracingProxy> tracingProxy;
@@ -53,6 +56,8 @@ public class SolaceMessageChannelBinder
 
     @Setter
     private SolaceExtendedBindingProperties extendedBindingProperties = new SolaceExtendedBindingProperties();
+    @Setter
+    private SolacePublisher solacePublisher;
     private static final SolaceMessageHeaderErrorMessageStrategy errorMessageStrategy = new SolaceMessageHeaderErrorMessageStrategy();
 
     public SolaceMessageChannelBinder(JCSMPSession jcsmpSession,
@@ -80,6 +85,8 @@ public class SolaceMessageChannelBinder
 
     @Override
     public void destroy() {
+        // bindings with parallelStop may still be draining on the session
+        consumerShutdownCoordinator.shutdown();
         if (jcsmpSession != null) {
             log.info("Closing JCSMP session {}", jcsmpSession.getSessionName());
         }
@@ -105,21 +112,34 @@ public class SolaceMessageChannelBinder
                 sessionProducerManager,
                 producerProperties,
                 solaceMeterAccessor,
-                tracingProxy);
+                tracingProxy,
+                solaceBinderHealthAccessor);
 
         if (errorChannel != null) {
             handler.setErrorMessageStrategy(errorMessageStrategy);
         }
+        if (solacePublisher != null) {
+            solacePublisher.register(producerProperties.getBindingName(), handler);
+        }
 
         return handler;
     }
 
     @Override
-    protected MessageProducer createConsumerEndpoint(ConsumerDestination destination, String group, ExtendedConsumerProperties<SolaceConsumerProperties> properties) {
-        if (properties.isBatchMode()) {
-            throw new IllegalArgumentException("Batched consumers are not supported");
+    protected void afterUnbindProducer(ProducerDestination destination,
+                                       ExtendedProducerProperties<SolaceProducerProperties> producerProperties) {
+        if (solacePublisher != null) {
+            solacePublisher.unregister(producerProperties.getBindingName());
         }
+        super.afterUnbindProducer(destination, producerProperties);
+    }
+
+    @Override
+    protected MessageProducer createConsumerEndpoint(ConsumerDestination destination, String group, ExtendedConsumerProperties<SolaceConsumerProperties> properties) {
         if (properties.getExtension() != null && properties.getExtension().getQualityOfService() == QualityOfService.AT_MOST_ONCE) {
+            if (properties.isBatchMode()) {
+                throw new IllegalArgumentException("Batched consumers are only supported on queue bindings");
+            }
             return createTopicMessageProducer(destination, group, properties);
         }
         return createQueueMessageProducer(destination, group, properties);
@@ -172,6 +192,7 @@ public class SolaceMessageChannelBinder
             adapter.setErrorChannel(errorInfra.getErrorChannel());
         }
         adapter.setErrorMessageStrategy(errorMessageStrategy);
+        adapter.setShutdownCoordinator(consumerShutdownCoordinator);
         return adapter;
 
     }
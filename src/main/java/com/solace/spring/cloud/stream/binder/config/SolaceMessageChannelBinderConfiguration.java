@@ -4,6 +4,7 @@ import com.solace.spring.cloud.stream.binder.SolaceMessageChannelBinder;
 import com.solace.spring.cloud.stream.binder.config.autoconfigure.JCSMPSessionConfiguration;
 import com.solace.spring.cloud.stream.binder.health.SolaceBinderHealthAccessor;
 import com.solace.spring.cloud.stream.binder.meter.SolaceMeterAccessor;
+import com.solace.spring.cloud.stream.binder.outbound.SolacePublisher;
 import com.solace.spring.cloud.stream.binder.properties.SolaceExtendedBindingProperties;
 import com.solace.spring.cloud.stream.binder.provisioning.SolaceEndpointProvisioner;
 import com.solace.spring.cloud.stream.binder.tracing.TracingProxy;
@@ -32,7 +33,8 @@ public class SolaceMessageChannelBinderConfiguration {
                                                           BeanFactory beanFactory,
                                                           Optional<SolaceMeterAccessor> solaceMeterAccessor,
                                                           Optional<TracingProxy> tracingProxy,
-                                                          Optional<SolaceBinderHealthAccessor> solaceBinderHealthAccessor) {
+                                                          Optional<SolaceBinderHealthAccessor> solaceBinderHealthAccessor,
+                                                          Optional<SolacePublisher> solacePublisher) {
         SolaceMessageChannelBinder binder = new SolaceMessageChannelBinder(jcsmpSession,
                 context,
                 solaceEndpointProvisioner,
@@ -41,6 +43,7 @@ public class SolaceMessageChannelBinderConfiguration {
                 tracingProxy,
                 solaceBinderHealthAccessor);
         binder.setExtendedBindingProperties(solaceExtendedBindingProperties);
+        solacePublisher.ifPresent(binder::setSolacePublisher);
         return binder;
     }
 }
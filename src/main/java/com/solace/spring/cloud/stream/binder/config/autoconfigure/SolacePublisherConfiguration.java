@@ -0,0 +1,19 @@
+package com.solace.spring.cloud.stream.binder.config.autoconfigure;
+
+import com.solace.spring.cloud.stream.binder.outbound.SolacePublisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Defines the {@link SolacePublisher} in the application context, the binder contexts register their producer
+ * bindings with it.
+ */
+@Configuration
+public class SolacePublisherConfiguration {
+    @Bean
+    @ConditionalOnMissingBean
+    public SolacePublisher solacePublisher() {
+        return new SolacePublisher();
+    }
+}
@@ -42,6 +42,16 @@ public class SolaceHealthIndicator implements HealthIndicator {
         logDebugStatus(String.valueOf(Status.DOWN));
     }
 
+    public void healthUp(String detailName, Object detail) {
+        health = Health.up().withDetail(detailName, detail).build();
+        logDebugStatus(String.valueOf(Status.UP));
+    }
+
+    public void healthDown(String detailName, Object detail) {
+        health = Health.down().withDetail(detailName, detail).build();
+        logDebugStatus(String.valueOf(Status.DOWN));
+    }
+
     public <T> Health.Builder addEventDetails(Health.Builder builder, @Nullable T eventArgs) {
         if (eventArgs == null) {
             return builder;
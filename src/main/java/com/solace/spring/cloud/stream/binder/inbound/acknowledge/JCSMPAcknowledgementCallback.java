@@ -3,21 +3,33 @@ package com.solace.spring.cloud.stream.binder.inbound.acknowledge;
 import com.solace.spring.cloud.stream.binder.util.ErrorQueueInfrastructure;
 import com.solace.spring.cloud.stream.binder.util.SolaceAcknowledgmentException;
 import com.solacesystems.jcsmp.BytesXMLMessage;
+import com.solacesystems.jcsmp.JCSMPException;
 import com.solacesystems.jcsmp.XMLMessage;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.integration.acks.AcknowledgmentCallback;
 
 import java.util.Optional;
 
 @Slf4j
-@RequiredArgsConstructor
 public class JCSMPAcknowledgementCallback implements AcknowledgmentCallback {
     private final BytesXMLMessage message;
     private final Optional<ErrorQueueInfrastructure> errorQueueInfrastructure;
+    // settles on the acker thread of the flow when set, otherwise on the calling thread
+    private final SettlementPipeline settlementPipeline;
     private boolean acknowledged = false;
     private boolean autoAckEnabled = true;
 
+    public JCSMPAcknowledgementCallback(BytesXMLMessage message, Optional<ErrorQueueInfrastructure> errorQueueInfrastructure) {
+        this(message, errorQueueInfrastructure, null);
+    }
+
+    public JCSMPAcknowledgementCallback(BytesXMLMessage message, Optional<ErrorQueueInfrastructure> errorQueueInfrastructure,
+                                        SettlementPipeline settlementPipeline) {
+        this.message = message;
+        this.errorQueueInfrastructure = errorQueueInfrastructure;
+        this.settlementPipeline = settlementPipeline;
+    }
+
     @Override
     public void acknowledge(Status status) {
         if (acknowledged) {
@@ -28,19 +40,19 @@ public class JCSMPAcknowledgementCallback implements AcknowledgmentCallback {
         try {
             switch (status) {
                 case ACCEPT:
-                    message.ackMessage();
+                    settle(XMLMessage.Outcome.ACCEPTED);
                     break;
                 case REJECT:
                     if (republishToErrorQueue()) {
                         break;
                     } else {
-                        message.settle(XMLMessage.Outcome.REJECTED);
+                        settle(XMLMessage.Outcome.REJECTED);
                     }
                     break;
                 case REQUEUE:
                     log.debug("{} {}: Will be re-queued",
                             XMLMessage.class.getSimpleName(), message.getMessageId());
-                    message.settle(XMLMessage.Outcome.FAILED);
+                    settle(XMLMessage.Outcome.FAILED);
             }
         } catch (SolaceAcknowledgmentException e) {
             throw e;
@@ -51,6 +63,16 @@ public class JCSMPAcknowledgementCallback implements AcknowledgmentCallback {
         acknowledged = true;
     }
 
+    private void settle(XMLMessage.Outcome outcome) throws JCSMPException {
+        if (settlementPipeline != null) {
+            settlementPipeline.settle(message, outcome);
+        } else if (outcome == XMLMessage.Outcome.ACCEPTED) {
+            message.ackMessage();
+        } else {
+            message.settle(outcome);
+        }
+    }
+
     /**
      * Send the message to the error queue and acknowledge the message.
      *
@@ -0,0 +1,161 @@
+package com.solace.spring.cloud.stream.binder.inbound.acknowledge;
+
+import com.solace.spring.cloud.stream.binder.meter.SolaceMeterAccessor;
+import com.solacesystems.jcsmp.BytesXMLMessage;
+import com.solacesystems.jcsmp.XMLMessage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Settles (ACK/NACK) the messages of one flow on a dedicated acker thread, so worker threads hand a settlement over
+ * and go back to the business logic instead of doing the JCSMP bookkeeping themselves.
+ * <p>The acker takes all settlements that queued up since its last wake-up, at most {@code maxBatchSize} at once,
+ * and settles them back to back. Under load a single wake-up settles many messages; when idle a settlement is done
+ * right away, nothing is delayed on purpose. Settlements are done in the order they were handed over.</p>
+ * <p>A settlement that fails is logged, it cannot be reported to the worker anymore. The broker redelivers the
+ * message like any other unsettled message.</p>
+ */
+@Slf4j
+public class SettlementPipeline {
+    private final String bindingName;
+    private final int maxBatchSize;
+    private final Optional<SolaceMeterAccessor> solaceMeterAccessor;
+    private final BlockingQueue<Settlement> settlements = new LinkedBlockingQueue<>();
+    private final Thread acker;
+    private volatile boolean running = true;
+
+    public SettlementPipeline(String bindingName, int maxBatchSize, Optional<SolaceMeterAccessor> solaceMeterAccessor) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive");
+        }
+        this.bindingName = bindingName;
+        this.maxBatchSize = maxBatchSize;
+        this.solaceMeterAccessor = solaceMeterAccessor;
+        this.acker = new Thread(this::run, bindingName + "-acker");
+        this.acker.setDaemon(true);
+        this.acker.start();
+    }
+
+    /**
+     * Hands the settlement of {@code message} to the acker. After {@link #stop(long)} the message is settled on the
+     * calling thread.
+     *
+     * @param outcome {@link XMLMessage.Outcome#ACCEPTED} acknowledges the message
+     */
+    public void settle(BytesXMLMessage message, XMLMessage.Outcome outcome) {
+        settlements.add(new Settlement(message, outcome, System.nanoTime(), null));
+        if (!running) {
+            // the acker may have ended before it saw this settlement
+            settleRemaining();
+        }
+    }
+
+    /**
+     * Waits until every settlement handed over before this call has been done.
+     *
+     * @return {@code false} on timeout
+     */
+    public boolean flush(long timeoutMs) {
+        if (!running) {
+            settleRemaining();
+            return true;
+        }
+        CountDownLatch flushed = new CountDownLatch(1);
+        settlements.add(new Settlement(null, null, System.nanoTime(), flushed));
+        try {
+            return flushed.await(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Flushes the pending settlements and ends the acker thread. Must be called before the flow is closed.
+     */
+    public void stop(long timeoutMs) {
+        if (!flush(timeoutMs)) {
+            log.warn("Settlements of binding={} were not done within {}ms, {} remain", bindingName, timeoutMs, settlements.size());
+        }
+        running = false;
+        acker.interrupt();
+        try {
+            acker.join(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        settleRemaining();
+    }
+
+    int getQueuedSettlements() {
+        return settlements.size();
+    }
+
+    private void run() {
+        List<Settlement> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                Settlement first = settlements.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                settlements.drainTo(batch, maxBatchSize - 1);
+                int queued = batch.size() + settlements.size();
+                solaceMeterAccessor.ifPresent(meter -> meter.recordSettleQueueSize(bindingName, queued));
+                for (Settlement settlement : batch) {
+                    execute(settlement);
+                }
+            } catch (InterruptedException e) {
+                if (running) {
+                    log.warn("Acker of binding={} interrupted", bindingName);
+                }
+            } catch (Throwable e) { // the only acker of the binding, settlements and flush() would wait forever without it
+                log.error("Acker of binding={} failed", bindingName, e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void settleRemaining() {
+        Settlement settlement;
+        while ((settlement = settlements.poll()) != null) {
+            execute(settlement);
+        }
+    }
+
+    private void execute(Settlement settlement) {
+        if (settlement.flushed() != null) {
+            settlement.flushed().countDown();
+            return;
+        }
+        BytesXMLMessage message = settlement.message();
+        try {
+            if (settlement.outcome() == XMLMessage.Outcome.ACCEPTED) {
+                message.ackMessage();
+            } else {
+                message.settle(settlement.outcome());
+            }
+        } catch (Exception e) {
+            log.error("Failed to settle XMLMessage {} with outcome {}", message.getMessageId(), settlement.outcome(), e);
+            return;
+        }
+        long latencyMs = (System.nanoTime() - settlement.submittedNanos()) / 1_000_000L;
+        solaceMeterAccessor.ifPresent(meter -> meter.recordSettleLatency(bindingName, latencyMs));
+    }
+
+    /**
+     * A message to settle, or a flush marker when {@code flushed} is set.
+     */
+    private record Settlement(BytesXMLMessage message, XMLMessage.Outcome outcome, long submittedNanos,
+                              CountDownLatch flushed) {
+    }
+}
@@ -0,0 +1,79 @@
+package com.solace.spring.cloud.stream.binder.inbound.queue;
+
+import lombok.Getter;
+
+/**
+ * Decides how many worker threads a binding should run, between {@code minWorkers} and {@code maxWorkers}, from the
+ * signals the watchdog samples every second.
+ * <p>The binding scales up when the oldest waiting message is older than {@code scaleUpBackpressureMs}: by half of
+ * the current workers at once, so a morning peak is absorbed in a few steps. It scales down by one worker once the
+ * queue has been empty with at least one idle worker for {@code scaleDownIdleMs}. Between these two conditions
+ * nothing changes (hysteresis), and after every change no further decision is taken for {@code cooldownMs}.</p>
+ * <p>Not thread-safe, only called by the watchdog thread.</p>
+ */
+@Getter
+class ConcurrencyAutoscaler {
+    private final int minWorkers;
+    private final int maxWorkers;
+    private final long scaleUpBackpressureMs;
+    private final long scaleDownIdleMs;
+    private final long cooldownMs;
+
+    private long lastScaleNanos;
+    private boolean scaled = false;
+    private long idleSinceNanos;
+    private boolean idle = false;
+
+    ConcurrencyAutoscaler(int minWorkers, int maxWorkers, long scaleUpBackpressureMs, long scaleDownIdleMs, long cooldownMs) {
+        if (minWorkers < 1 || maxWorkers < minWorkers) {
+            throw new IllegalArgumentException(String.format("Invalid worker range [%d, %d]", minWorkers, maxWorkers));
+        }
+        this.minWorkers = minWorkers;
+        this.maxWorkers = maxWorkers;
+        this.scaleUpBackpressureMs = scaleUpBackpressureMs;
+        this.scaleDownIdleMs = scaleDownIdleMs;
+        this.cooldownMs = cooldownMs;
+    }
+
+    int clamp(int workers) {
+        return Math.max(minWorkers, Math.min(maxWorkers, workers));
+    }
+
+    /**
+     * @param workers        current number of worker threads
+     * @param queued         messages waiting for a worker
+     * @param active         messages being processed
+     * @param backpressureMs age of the oldest waiting message
+     * @return the wanted number of worker threads
+     */
+    int decide(int workers, int queued, int active, long backpressureMs, long nowNanos) {
+        if (workers != clamp(workers)) {
+            return clamp(workers);
+        }
+
+        boolean spareCapacity = queued == 0 && active < workers;
+        if (!spareCapacity) {
+            idle = false;
+        } else if (!idle) {
+            idle = true;
+            idleSinceNanos = nowNanos;
+        }
+
+        if (scaled && nowNanos - lastScaleNanos < cooldownMs * 1_000_000L) {
+            return workers;
+        }
+
+        int target = workers;
+        if (queued > 0 && backpressureMs >= scaleUpBackpressureMs && workers < maxWorkers) {
+            target = clamp(workers + Math.max(1, workers / 2));
+        } else if (idle && nowNanos - idleSinceNanos >= scaleDownIdleMs * 1_000_000L && workers > minWorkers) {
+            target = workers - 1;
+            idleSinceNanos = nowNanos; // the next worker has to be idle for a full period again
+        }
+        if (target != workers) {
+            scaled = true;
+            lastScaleNanos = nowNanos;
+        }
+        return target;
+    }
+}
@@ -0,0 +1,60 @@
+package com.solace.spring.cloud.stream.binder.inbound.queue;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Finishes the stop of queue consumer bindings in the background, all bindings of a binder in parallel.
+ * <p>Spring stops the bindings one after another. With {@code parallelStop} a binding only stops its flow
+ * synchronously and hands draining, closing the flow and joining its worker threads to this coordinator, so an
+ * application with many bindings shuts down in about the time of its slowest binding instead of the sum of all.
+ * The binder waits for every pending stop before it closes the session.</p>
+ */
+@Slf4j
+public class ConsumerShutdownCoordinator {
+    private final AtomicInteger threadIndex = new AtomicInteger();
+    private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "solace-consumer-stop-" + threadIndex.getAndIncrement());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<CompletableFuture<Void>> pendingStops = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @return completes when {@code stop} has run, never exceptionally
+     */
+    CompletableFuture<Void> submit(String bindingName, Runnable stop) {
+        CompletableFuture<Void> pendingStop = CompletableFuture.runAsync(() -> {
+            try {
+                stop.run();
+            } catch (RuntimeException e) {
+                log.error("Failed to stop binding={}", bindingName, e);
+            }
+        }, executor);
+        pendingStops.add(pendingStop);
+        pendingStop.whenComplete((result, e) -> pendingStops.remove(pendingStop));
+        return pendingStop;
+    }
+
+    int getPendingStopCount() {
+        return pendingStops.size();
+    }
+
+    /**
+     * Waits until every binding handed to this coordinator is stopped and releases the stop threads.
+     */
+    public void shutdown() {
+        CompletableFuture<?>[] pending = pendingStops.toArray(new CompletableFuture<?>[0]);
+        if (pending.length > 0) {
+            log.info("Waiting for {} consumer binding(s) to finish stopping", pending.length);
+            CompletableFuture.allOf(pending).join();
+        }
+        executor.shutdown();
+    }
+}
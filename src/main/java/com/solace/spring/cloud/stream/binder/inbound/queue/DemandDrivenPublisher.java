@@ -0,0 +1,125 @@
+package com.solace.spring.cloud.stream.binder.inbound.queue;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+/**
+ * Publishes the messages of a consumer binding as a {@link Flux} and lets the subscriber's {@code request(n)}
+ * decide how many messages the worker threads may hand over.
+ * <p>Every worker thread that got a message from the worker queue takes one credit of the outstanding demand before
+ * it emits the message; without credit it waits, so messages stay in the worker queue instead of piling up in an
+ * unbounded buffer of the subscriber. Running out of demand and getting new demand is reported to
+ * {@code onDemandChanged}, which the binding uses to stop and start the {@code FlowReceiver}, so the broker stops
+ * delivering as long as the subscriber does not ask for more. The callback only signals that the demand changed,
+ * the receiver reads the current state with {@link #isDemandExhausted()}, so callbacks that race each other
+ * cannot leave a stale state behind.</p>
+ * <p>Only one subscriber is supported, like the {@code FlowReceiver} there is exactly one consumer per binding.</p>
+ */
+@Slf4j
+class DemandDrivenPublisher {
+    private final String name;
+    private final Runnable onDemandChanged;
+    private final Flux<Message<?>> flux;
+    // guarded by this
+    private FluxSink<Message<?>> sink;
+    // guarded by this, Long.MAX_VALUE is unbounded demand
+    private long demand = 0;
+    private volatile boolean cancelled = false;
+
+    /**
+     * @param onDemandChanged called when the demand is used up, when the subscriber requests more after that and on
+     *                        cancel, never called while the lock of this publisher is held
+     */
+    DemandDrivenPublisher(String name, Runnable onDemandChanged) {
+        this.name = name;
+        this.onDemandChanged = onDemandChanged;
+        this.flux = Flux.create(this::attach, FluxSink.OverflowStrategy.ERROR);
+    }
+
+    Flux<Message<?>> getFlux() {
+        return flux;
+    }
+
+    private void attach(FluxSink<Message<?>> newSink) {
+        synchronized (this) {
+            if (sink != null || cancelled) {
+                newSink.error(new IllegalStateException("Binding " + name + " supports only one subscriber"));
+                return;
+            }
+            sink = newSink;
+        }
+        newSink.onRequest(this::request);
+        newSink.onDispose(this::cancel);
+    }
+
+    private void request(long n) {
+        boolean wasExhausted;
+        synchronized (this) {
+            wasExhausted = demand == 0;
+            demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+            notifyAll();
+        }
+        if (wasExhausted) {
+            onDemandChanged.run();
+        }
+    }
+
+    /**
+     * Called by a worker thread, waits until the subscriber requested a message.
+     *
+     * @return {@code false} if the subscriber cancelled or the binding stopped, the caller must requeue the message
+     */
+    boolean emit(Message<?> message) throws InterruptedException {
+        FluxSink<Message<?>> currentSink;
+        boolean exhausted = false;
+        synchronized (this) {
+            while ((sink == null || demand == 0) && !cancelled) {
+                wait();
+            }
+            if (cancelled) {
+                return false;
+            }
+            if (demand != Long.MAX_VALUE && --demand == 0) {
+                exhausted = true;
+            }
+            currentSink = sink;
+        }
+        if (exhausted) {
+            log.trace("Demand of binding={} is used up", name);
+            onDemandChanged.run();
+        }
+        // the sink serializes concurrent calls of the worker threads
+        currentSink.next(message);
+        return true;
+    }
+
+    synchronized long getDemand() {
+        return demand;
+    }
+
+    synchronized boolean isDemandExhausted() {
+        return demand == 0 || cancelled;
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * The subscriber cancelled or the binding stops: waiting worker threads give up their message and the flow
+     * stays stopped, so the requeued messages go to other consumers instead of coming back to this binding. The
+     * subscriber itself is not signalled, the binding cancels its subscription.
+     */
+    void cancel() {
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            notifyAll();
+        }
+        onDemandChanged.run();
+    }
+}
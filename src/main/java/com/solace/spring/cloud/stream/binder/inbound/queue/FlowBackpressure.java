@@ -0,0 +1,199 @@
+package com.solace.spring.cloud.stream.binder.inbound.queue;
+
+import com.solacesystems.jcsmp.JCSMPException;
+import com.solacesystems.jcsmp.XMLMessage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Heap budget for the messages a consumer binding holds locally, i.e. messages waiting in the worker queue
+ * plus messages being processed by a worker thread. The budget is counted in messages and in payload bytes.
+ * <p>When the buffered amount reaches a high watermark the {@code FlowReceiver} is stopped, so the broker
+ * stops delivering to this flow; once it falls to the low watermark the flow is started again. This turns the
+ * unbounded worker queue into real end-to-end backpressure towards the broker.</p>
+ * <p>{@link #onEnqueued} runs on the Solace dispatcher thread and must never block, so the actual
+ * {@code stop()}/{@code start()} calls are handed to a dedicated single-thread executor. That thread does not
+ * replay individual transitions but reconciles the flow with the latest wanted state, so transitions that race
+ * each other can never leave the flow stopped while the buffer is already empty.</p>
+ * <p>A reactive binding additionally keeps the flow stopped while its subscriber has no outstanding demand, see
+ * {@link #setDemandExhausted}.</p>
+ */
+@Slf4j
+class FlowBackpressure {
+
+    @FunctionalInterface
+    interface FlowAction {
+        void run() throws JCSMPException;
+    }
+
+    private final String name;
+    private final long highWatermarkMessages;
+    private final long lowWatermarkMessages;
+    private final long highWatermarkBytes;
+    private final long lowWatermarkBytes;
+    private final FlowAction stopFlow;
+    private final FlowAction startFlow;
+
+    private final AtomicLong bufferedMessages = new AtomicLong();
+    private final AtomicLong bufferedBytes = new AtomicLong();
+    // wanted state, flipped by the dispatcher and worker threads
+    private final AtomicBoolean flowStopped = new AtomicBoolean(false);
+    // applied state, only accessed by the flow control thread
+    private boolean flowStoppedApplied = false;
+    private volatile BooleanSupplier demandExhausted = () -> false;
+    private final ThreadPoolExecutor flowControlExecutor;
+    private volatile boolean closed = false;
+
+    /**
+     * @param highWatermarkMessages stop the flow when this many messages are buffered, {@code <= 0} disables the message budget
+     * @param lowWatermarkMessages  start the flow again when at most this many messages are buffered
+     * @param highWatermarkBytes    stop the flow when this many payload bytes are buffered, {@code <= 0} disables the byte budget
+     * @param lowWatermarkBytes     start the flow again when at most this many payload bytes are buffered
+     */
+    FlowBackpressure(String name,
+                     long highWatermarkMessages, long lowWatermarkMessages,
+                     long highWatermarkBytes, long lowWatermarkBytes,
+                     FlowAction stopFlow, FlowAction startFlow) {
+        this.name = name;
+        this.highWatermarkMessages = highWatermarkMessages;
+        this.lowWatermarkMessages = lowWatermarkMessages;
+        this.highWatermarkBytes = highWatermarkBytes;
+        this.lowWatermarkBytes = lowWatermarkBytes;
+        this.stopFlow = stopFlow;
+        this.startFlow = startFlow;
+        this.flowControlExecutor = new ThreadPoolExecutor(0, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, name + "-backpressure");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return the payload size used for the byte budget
+     */
+    static long payloadBytes(XMLMessage message) {
+        return (long) message.getAttachmentContentLength() + message.getContentLength();
+    }
+
+    /**
+     * A message was taken over from the dispatcher. Called on the Solace dispatcher thread, never blocks.
+     */
+    void onEnqueued(long payloadBytes) {
+        long messages = bufferedMessages.incrementAndGet();
+        long bytes = bufferedBytes.addAndGet(payloadBytes);
+        if (!flowStopped.get() && isAboveHighWatermark(messages, bytes) && flowStopped.compareAndSet(false, true)) {
+            log.debug("Buffer of binding={} reached high watermark (messages={}, bytes={}), stopping flow", name, messages, bytes);
+            reconcile();
+        }
+    }
+
+    /**
+     * A message was fully processed and settled (or dropped) and no longer occupies the heap budget.
+     */
+    void onCompleted(long payloadBytes) {
+        long messages = bufferedMessages.decrementAndGet();
+        long bytes = bufferedBytes.addAndGet(-payloadBytes);
+        if (flowStopped.get() && isBelowLowWatermark(messages, bytes) && flowStopped.compareAndSet(true, false)) {
+            log.debug("Buffer of binding={} fell to low watermark (messages={}, bytes={}), starting flow", name, messages, bytes);
+            reconcile();
+        }
+    }
+
+    /**
+     * Stops the flow, independent of the watermarks, as long as {@code demandExhausted} is {@code true}.
+     * {@link #onDemandChanged()} must be called whenever the result may have changed.
+     */
+    void setDemandExhausted(BooleanSupplier demandExhausted) {
+        this.demandExhausted = demandExhausted;
+        reconcile();
+    }
+
+    /**
+     * The demand of the subscriber changed. The current state is read by the flow control thread, so this may be
+     * called from any thread and in any order.
+     */
+    void onDemandChanged() {
+        reconcile();
+    }
+
+    boolean isFlowStopped() {
+        return flowStopped.get() || demandExhausted.getAsBoolean();
+    }
+
+    long getBufferedMessages() {
+        return bufferedMessages.get();
+    }
+
+    long getBufferedBytes() {
+        return bufferedBytes.get();
+    }
+
+    /**
+     * Stops issuing flow control calls and waits for a pending one to finish, so the caller can safely
+     * stop or close the flow itself afterwards.
+     */
+    void close() {
+        closed = true;
+        flowControlExecutor.shutdown();
+        try {
+            if (!flowControlExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                log.warn("Flow control of binding={} did not finish within timeout", name);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean isAboveHighWatermark(long messages, long bytes) {
+        return (highWatermarkMessages > 0 && messages >= highWatermarkMessages)
+                || (highWatermarkBytes > 0 && bytes >= highWatermarkBytes);
+    }
+
+    private boolean isBelowLowWatermark(long messages, long bytes) {
+        return (highWatermarkMessages <= 0 || messages <= lowWatermarkMessages)
+                && (highWatermarkBytes <= 0 || bytes <= lowWatermarkBytes);
+    }
+
+    private void reconcile() {
+        try {
+            flowControlExecutor.execute(this::applyFlowState);
+        } catch (RejectedExecutionException e) {
+            log.debug("Flow control of binding={} is closed, ignoring backpressure transition", name);
+        }
+    }
+
+    private void applyFlowState() {
+        if (closed) {
+            return;
+        }
+        boolean stop = isFlowStopped();
+        if (stop == flowStoppedApplied) {
+            return;
+        }
+        try {
+            if (stop) {
+                stopFlow.run();
+            } else {
+                startFlow.run();
+            }
+            flowStoppedApplied = stop;
+        } catch (JCSMPException | RuntimeException e) {
+            // no new transition may ever come (e.g. a stopped flow delivers nothing), so retry until applied
+            log.error("Failed to {} flow of binding={} for backpressure, retrying in 1s", stop ? "stop" : "start", name, e);
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            reconcile();
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.solace.spring.cloud.stream.binder.inbound.queue;
 
 import com.solace.spring.cloud.stream.binder.meter.SolaceMeterAccessor;
+import com.solace.spring.cloud.stream.binder.util.RingBufferWaitStrategy;
+import com.solace.spring.cloud.stream.binder.util.WorkerQueueType;
+import com.solace.spring.cloud.stream.binder.util.WorkerThreadType;
 import com.solacesystems.jcsmp.BytesXMLMessage;
 import com.solacesystems.jcsmp.JCSMPException;
 import com.solacesystems.jcsmp.SDTException;
@@ -13,61 +16,161 @@ import lombok.Setter;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Deque;
 import java.util.List;
-import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 @Slf4j
 public class FlowXMLMessageListener implements XMLMessageListener {
+    private static final int FULL_QUEUE_SPIN_TRIES = 100;
+    private static final long FULL_QUEUE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
 
     /**
-     * Local queues on the heap that distribute messages to worker threads.
-     * <p>In the default (throughput) mode this list holds a single queue that every worker thread polls.
-     * In partition-aware mode (consumer {@code partitionAware = true} with {@code concurrency > 1}) it
-     * holds one queue per worker thread, and {@link #onReceive} routes each message to the queue selected
-     * by its partition key so that a given partition is always processed by the same thread, in receive
-     * order. The list is replaced atomically on each (re)start and never mutated in place.</p>
-     * <p>The queues are unbounded, but their effective size is influenced by the client flow transport
+     * Local queue on the heap that distributes messages to worker threads. Every worker polls it.
+     * <p>In partition-aware mode (consumer {@code partitionAware = true} with {@code concurrency > 1})
+     * {@link PartitionLanes} holds back a message while an earlier message of the same partition key is still
+     * being processed, and enqueues it once its predecessor completes. So only the next message of each partition key
+     * is in the queue and any idle worker may pick it up: a slow partition key occupies one worker, but never
+     * delays the other keys. The queue is replaced on each (re)start.</p>
+     * <p>By default the queue is an unbounded linked deque. With {@link WorkerQueueType#RING_BUFFER} it is a
+     * bounded {@link RingBufferQueue} instead, see {@link #setWorkerQueue}.</p>
+     * <p>The unbounded queue's effective size is influenced by the client flow transport
      * window, the broker queue's "Maximum Delivered Unacknowledged Messages per Flow" setting, and
      * {@code max-guaranteed-message-size}. Together these settings create backpressure towards the broker
-     * and help protect the heap from overflow.</p>
+     * and help protect the heap from overflow. An optional {@link FlowBackpressure} additionally bounds
+     * the buffered messages and payload bytes by stopping and restarting the flow.</p>
      */
-    private volatile List<BlockingQueue<MessageInProgress>> messageQueues = List.of(new LinkedBlockingDeque<>());
-    private final AtomicInteger partitionRoundRobin = new AtomicInteger();
-    private final Set<MessageInProgress> activeMessages = ConcurrentHashMap.newKeySet();
+    private volatile BlockingQueue<MessageInProgress> messageQueue = new LinkedBlockingDeque<>();
+    // messages in processing; which message a worker processes is tracked in its WorkerSlot
+    private final AtomicInteger activeMessageCount = new AtomicInteger();
+    // messages received and not yet fully processed, replaced on every start together with the worker queue
+    private volatile InFlightCounter inFlightCounter = new InFlightCounter();
+    private final AtomicLong stuckMessageCount = new AtomicLong();
+    private volatile StuckMessageWheel stuckMessageWheel = new StuckMessageWheel(TimeUnit.SECONDS.toNanos(1));
+    private volatile long watchdogTimeoutNanos;
     private final AtomicReference<SolaceMeterAccessor> solaceMeterAccessor = new AtomicReference<>();
     private final AtomicReference<Supplier<String>> bindingNameSupplier = new AtomicReference<>();
-    private final Set<Thread> receiverThreads = new HashSet<>();
+    // Also serves as lifecycle lock of start/stop. Concurrent, because the watchdog adds workers when scaling up.
+    private final Set<Thread> receiverThreads = ConcurrentHashMap.newKeySet();
+    // Platform workers in start order, only touched under the lifecycle lock before the watchdog starts, or by the watchdog.
+    private final Deque<Worker> workers = new ArrayDeque<>();
+    private int nextWorkerIndex;
+    private volatile ConcurrencyAutoscaler autoscaler;
     private volatile boolean running = true;
-
+    private volatile FlowBackpressure backpressure;
+    private volatile PartitionLanes partitionLanes;
+    private volatile VirtualThreadWorkers virtualThreadWorkers;
+    private volatile Consumer<BytesXMLMessage> messageConsumer;
+    private volatile WorkerQueueType workerQueueType = WorkerQueueType.LINKED;
+    private volatile int ringBufferSize;
+    private volatile RingBufferWaitStrategy ringBufferWaitStrategy = RingBufferWaitStrategy.BLOCKING;
+    // batch mode, see setBatching
+    private volatile Consumer<List<BytesXMLMessage>> batchConsumer;
+    private volatile int batchMaxSize;
+    private volatile long batchTimeoutNanos;
 
     public void setSolaceMeterAccessor(SolaceMeterAccessor solaceMeterAccessor, Supplier<String> bindingNameSupplier) {
         this.solaceMeterAccessor.set(solaceMeterAccessor);
         this.bindingNameSupplier.set(bindingNameSupplier);
     }
 
+    /**
+     * Installs the heap budget for this listener, or removes it with {@code null}. A previously installed
+     * budget is closed, so it no longer issues flow control calls.
+     */
+    void setBackpressure(FlowBackpressure backpressure) {
+        FlowBackpressure previous = this.backpressure;
+        this.backpressure = backpressure;
+        if (previous != null && previous != backpressure) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Selects the worker queue implementation, applied by the next {@link #startReceiverThreads} call.
+     *
+     * @param ringBufferSize capacity of each ring buffer (rounded up to a power of two), only used with
+     *                       {@link WorkerQueueType#RING_BUFFER}
+     * @param waitStrategy   how idle worker threads wait on a ring buffer
+     */
+    public void setWorkerQueue(WorkerQueueType workerQueueType, int ringBufferSize, RingBufferWaitStrategy waitStrategy) {
+        this.workerQueueType = workerQueueType;
+        this.ringBufferSize = ringBufferSize;
+        this.ringBufferWaitStrategy = waitStrategy;
+    }
+
+    /**
+     * Enables batch mode for the next {@link #startReceiverThreads} call, or disables it with {@code null}. In batch
+     * mode every worker thread collects up to {@code maxSize} messages, waiting at most {@code timeoutMs} after the
+     * first one, and hands them to {@code batchConsumer} at once instead of calling the message consumer per message.
+     * Only platform worker threads collect batches.
+     */
+    void setBatching(int maxSize, long timeoutMs, Consumer<List<BytesXMLMessage>> batchConsumer) {
+        this.batchMaxSize = maxSize;
+        this.batchTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        this.batchConsumer = batchConsumer;
+    }
+
+    /**
+     * Enables adaptive concurrency for the next {@link #startReceiverThreads} call, or disables it with
+     * {@code null}. Only platform worker threads are scaled.
+     */
+    void setAutoscaler(ConcurrencyAutoscaler autoscaler) {
+        this.autoscaler = autoscaler;
+    }
+
+    /**
+     * @return the number of platform worker threads currently taking messages
+     */
+    int getWorkerCount() {
+        return (int) receiverThreads.stream()
+                .filter(thread -> thread instanceof Worker worker && !worker.retired && worker.isAlive())
+                .count();
+    }
+
+    /**
+     * @return {@code true} when the flow is currently stopped because the heap budget is exhausted
+     */
+    boolean isFlowStoppedByBackpressure() {
+        FlowBackpressure currentBackpressure = this.backpressure;
+        return currentBackpressure != null && currentBackpressure.isFlowStopped();
+    }
+
     public void startReceiverThreads(int threadCount, String threadNamePrefix, Consumer<BytesXMLMessage> messageConsumer, long watchdogTimeoutMs) {
         startReceiverThreads(threadCount, threadNamePrefix, messageConsumer, watchdogTimeoutMs, false);
     }
 
     /**
-     * @param partitionAware when {@code true} and {@code threadCount > 1}, one queue is created per worker
-     *                       thread and {@link #onReceive} routes each message to a queue by its partition
-     *                       key, so a given partition is always handled by the same thread in receive
-     *                       order. When {@code false}, a single shared queue feeds all worker threads
-     *                       (maximum throughput, no per-partition ordering).
+     * @param partitionAware when {@code true} and {@code threadCount > 1}, the messages of a partition key are
+     *                       processed one after another in receive order, by whichever worker is idle. Messages
+     *                       of different partition keys are processed in parallel. When {@code false}, every
+     *                       message may be processed as soon as a worker is idle (no per-partition ordering).
      */
     public void startReceiverThreads(int threadCount, String threadNamePrefix, Consumer<BytesXMLMessage> messageConsumer, long watchdogTimeoutMs, boolean partitionAware) {
+        startReceiverThreads(threadCount, threadNamePrefix, messageConsumer, watchdogTimeoutMs, partitionAware, WorkerThreadType.PLATFORM);
+    }
+
+    /**
+     * @param threadCount      the number of worker threads; with an autoscaler only the initial number, clamped
+     *                         to its range
+     * @param workerThreadType with {@link WorkerThreadType#VIRTUAL} no polling threads are started: every
+     *                         message is processed as a task on a virtual thread, at most {@code threadCount}
+     *                         at the same time.
+     */
+    public void startReceiverThreads(int threadCount, String threadNamePrefix, Consumer<BytesXMLMessage> messageConsumer, long watchdogTimeoutMs, boolean partitionAware, WorkerThreadType workerThreadType) {
 
         // Check if threads are already running and stop them first (outside synchronized block to avoid deadlock)
         boolean needToStop;
@@ -81,40 +184,95 @@ public class FlowXMLMessageListener implements XMLMessageListener {
         }
 
         synchronized (receiverThreads) {
-            // Per-thread queues only make sense for ordered partition dispatch with more than one worker.
-            boolean perThreadQueues = partitionAware && threadCount > 1;
-
-            // Build fresh, empty worker queues. Replacing the list (rather than clearing in place) discards
-            // any stale messages from a previous run and publishes the new queues atomically before the
-            // first message can arrive (the FlowReceiver is created only after this method returns).
-            int queueCount = perThreadQueues ? threadCount : 1;
-            List<BlockingQueue<MessageInProgress>> queues = new ArrayList<>(queueCount);
-            for (int i = 0; i < queueCount; i++) {
-                queues.add(new LinkedBlockingDeque<>());
+            boolean virtualThreads = workerThreadType == WorkerThreadType.VIRTUAL;
+            if (virtualThreads && batchConsumer != null) {
+                throw new IllegalStateException("Batch mode is not supported with virtual worker threads " + threadNamePrefix);
+            }
+            ConcurrencyAutoscaler scaler = this.autoscaler;
+            if (scaler != null && virtualThreads) {
+                log.warn("Adaptive concurrency is not supported with virtual worker threads, using {} worker tasks {}", threadCount, threadNamePrefix);
+                scaler = null;
+                this.autoscaler = null;
             }
-            this.messageQueues = List.copyOf(queues);
-            this.partitionRoundRobin.set(0);
+            int workerCount = scaler != null ? scaler.clamp(threadCount) : threadCount;
+            int maxWorkerCount = scaler != null ? scaler.getMaxWorkers() : threadCount;
+
+            // Build a fresh, empty worker queue. Replacing it (rather than clearing in place) discards any stale
+            // messages from a previous run and publishes the new queue before the first message can arrive
+            // (the FlowReceiver is created only after this method returns).
+            BlockingQueue<MessageInProgress> queue = newWorkerQueue();
+            this.messageQueue = queue;
+            this.inFlightCounter = new InFlightCounter();
+            // Serializing per partition key only matters with more than one worker.
+            this.partitionLanes = partitionAware && maxWorkerCount > 1 ? new PartitionLanes() : null;
+            this.messageConsumer = messageConsumer;
 
             // Set running to true before starting threads
             running = true;
 
-            for (int i = 0; i < threadCount; i++) {
-                String threadName = threadNamePrefix + "-" + i;
-                // In partition-aware mode worker i drains its own queue; otherwise all workers share queue 0.
-                BlockingQueue<MessageInProgress> workerQueue = this.messageQueues.get(perThreadQueues ? i : 0);
-                Thread thread = new Thread(() -> loop(threadName, messageConsumer, workerQueue));
-                thread.setName(threadName);
-                receiverThreads.add(thread);
-                thread.start();
-                log.info("Started receiving thread {}", thread.getName());
+            if (virtualThreads) {
+                this.virtualThreadWorkers = new VirtualThreadWorkers(threadCount, threadNamePrefix);
+                log.info("Dispatching to up to {} worker tasks {} (virtual threads supported: {})",
+                        threadCount, threadNamePrefix, VirtualThreadWorkers.isVirtualThreadSupported());
             }
-            Thread watchdogThread = new Thread(() -> watchdog(watchdogTimeoutMs));
+            this.workers.clear();
+            this.nextWorkerIndex = 0;
+            for (int i = 0; i < (virtualThreads ? 0 : workerCount); i++) {
+                startWorker(threadNamePrefix, messageConsumer, queue);
+            }
+            if (scaler != null) {
+                log.info("Adaptive concurrency for {}: {} worker threads, scaling between {} and {}",
+                        threadNamePrefix, workerCount, scaler.getMinWorkers(), scaler.getMaxWorkers());
+            }
+            // the wheel turns once per watchdog tick, see watchdog()
+            this.stuckMessageWheel = new StuckMessageWheel(TimeUnit.MILLISECONDS.toNanos(watchdogTickMs(watchdogTimeoutMs)));
+            this.watchdogTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(watchdogTimeoutMs);
+            Thread watchdogThread = new Thread(() -> watchdog(watchdogTimeoutMs, threadNamePrefix));
             watchdogThread.setName(threadNamePrefix + "-watchdog");
             receiverThreads.add(watchdogThread);
             watchdogThread.start();
         }
     }
 
+    private void startWorker(String threadNamePrefix, Consumer<BytesXMLMessage> messageConsumer, BlockingQueue<MessageInProgress> queue) {
+        Worker worker = new Worker(threadNamePrefix + "-" + nextWorkerIndex++, messageConsumer, queue);
+        workers.addLast(worker);
+        receiverThreads.add(worker);
+        worker.start();
+        log.info("Started receiving thread {}", worker.getName());
+    }
+
+    /**
+     * Runs on the watchdog thread. Scaling never touches the flow: new workers poll the same queue, and a retired
+     * worker finishes its current message before it ends.
+     */
+    private void autoscale(ConcurrencyAutoscaler scaler, int queued, int active, long backpressureMs, String threadNamePrefix) {
+        // workers that already ended after being retired do not need to be joined on stop
+        receiverThreads.removeIf(thread -> thread instanceof Worker worker && worker.retired && !worker.isAlive());
+
+        int current = workers.size();
+        int target = scaler.decide(current, queued, active, backpressureMs, System.nanoTime());
+        if (target == current || !running) {
+            return;
+        }
+        log.info("Scaling worker threads {} from {} to {} (queued={}, active={}, backpressure={}ms)",
+                threadNamePrefix, current, target, queued, active, backpressureMs);
+        // a worker started while a concurrent stop is in progress sees running == false and ends right away
+        while (workers.size() < target) {
+            startWorker(threadNamePrefix, messageConsumer, messageQueue);
+        }
+        while (workers.size() > target) {
+            workers.pollLast().retired = true;
+        }
+    }
+
+    private BlockingQueue<MessageInProgress> newWorkerQueue() {
+        if (workerQueueType == WorkerQueueType.RING_BUFFER) {
+            return new RingBufferQueue<>(ringBufferSize, ringBufferWaitStrategy);
+        }
+        return new LinkedBlockingDeque<>();
+    }
+
     public void stopReceiverThreads() {
         running = false;
 
@@ -125,12 +283,24 @@ public class FlowXMLMessageListener implements XMLMessageListener {
 
             log.info("Stopping {} receiver threads", receiverThreads.size());
 
+            // All threads stop at the same time, so they share one 5 second timeout instead of 5 seconds each
+            long deadlineNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            VirtualThreadWorkers virtualWorkers = this.virtualThreadWorkers;
+            if (virtualWorkers != null) {
+                virtualWorkers.shutdown(5000);
+                this.virtualThreadWorkers = null;
+            }
+
             // Wait for all threads to finish
             for (Thread thread : receiverThreads) {
                 try {
-                    thread.join(5000); // Wait up to 5 seconds for each thread
+                    long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+                    if (remainingMs > 0) {
+                        thread.join(remainingMs);
+                    }
                     if (thread.isAlive()) {
-                        log.warn("Thread {} did not stop within timeout, interrupting", thread.getName());
+                        MessageInProgress current = thread instanceof Worker worker ? worker.slot.current : null;
+                        log.warn("Thread {} did not stop within timeout, interrupting (processing {})", thread.getName(), current);
                         thread.interrupt();
                     } else {
                         log.info("Thread {} stopped successfully", thread.getName());
@@ -143,48 +313,60 @@ public class FlowXMLMessageListener implements XMLMessageListener {
 
             // Clear the thread tracking
             receiverThreads.clear();
+            workers.clear();
             log.info("All receiver threads stopped and cleared");
         }
     }
 
     /**
      * @return {@code true} when nothing is waiting in the internal queue and nothing is currently
-     * being processed. Note that {@code activeMessages} membership spans the whole worker
-     * {@code loop} iteration, which includes the consumer callback's ACK/settle, so "idle" means all
-     * received messages have been fully settled.
+     * being processed. Note that a message counts as active for the whole worker {@code loop} iteration,
+     * which includes the consumer callback's ACK/settle, so "idle" means all received messages have been
+     * fully settled.
      */
     public boolean isIdle() {
-        return totalQueued() == 0 && activeMessages.isEmpty();
+        return inFlightCounter.get() == 0;
+    }
+
+    /**
+     * @return the number of messages currently being processed
+     */
+    int getActiveMessageCount() {
+        return activeMessageCount.get();
+    }
+
+    /**
+     * @return the number of messages the watchdog reported as stuck since this listener was created
+     */
+    long getStuckMessageCount() {
+        return stuckMessageCount.get();
     }
 
     /**
-     * @return the total number of messages waiting across all worker queues.
+     * @return the total number of messages waiting in the worker queue, including messages held back behind an
+     * earlier message of the same partition key.
      */
     private int totalQueued() {
-        int total = 0;
-        for (BlockingQueue<MessageInProgress> queue : messageQueues) {
-            total += queue.size();
+        int total = messageQueue.size();
+        PartitionLanes lanes = this.partitionLanes;
+        if (lanes != null) {
+            total += lanes.parkedMessages();
         }
         return total;
     }
 
     /**
-     * @return the oldest message waiting at the head of any worker queue, or {@code null} if all queues
-     * are empty. Used to measure queue backpressure (how long the oldest unprocessed message has waited).
+     * @return the message waiting at the head of the worker queue, or {@code null} if it is empty. Used to measure
+     * queue backpressure (how long the oldest unprocessed message has waited). A message held back behind a slow
+     * message of its partition key is not taken into account until it is enqueued.
      */
     private MessageInProgress oldestQueuedMessage() {
-        MessageInProgress oldest = null;
-        for (BlockingQueue<MessageInProgress> queue : messageQueues) {
-            MessageInProgress head = queue.peek();
-            if (head != null && (oldest == null || head.getReceivedNanos() < oldest.getReceivedNanos())) {
-                oldest = head;
-            }
-        }
-        return oldest;
+        return messageQueue.peek();
     }
 
     /**
-     * Blocks until {@link #isIdle()} returns {@code true} or {@code timeoutMs} elapses.
+     * Blocks until {@link #isIdle()} returns {@code true} or {@code timeoutMs} elapses. The last message to complete
+     * wakes the caller up, there is no polling.
      *
      * <p>The caller MUST have stopped the {@code FlowReceiver} first (so the broker delivers no new
      * messages) but MUST NOT have closed it yet, so that messages already pulled into the internal
@@ -192,147 +374,371 @@ public class FlowXMLMessageListener implements XMLMessageListener {
      * running for the duration. On timeout the method returns anyway; any unsettled messages will be
      * redelivered by the broker (client-ack = at-least-once).
      */
-    @SuppressWarnings("BusyWait")
     public void drain(long timeoutMs) {
-        long deadlineNanos = System.nanoTime() + timeoutMs * 1_000_000L;
-        while (!isIdle()) {
-            if (System.nanoTime() >= deadlineNanos) {
+        try {
+            if (!inFlightCounter.awaitZero(timeoutMs, TimeUnit.MILLISECONDS)) {
                 log.warn("Drain timeout after {}ms: {} queued and {} in-flight message(s) remain; "
                                 + "closing flow anyway (unsettled messages will be redelivered)",
-                        timeoutMs, totalQueued(), activeMessages.size());
-                return;
-            }
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                log.warn("Drain interrupted; closing flow with messages still in-flight");
+                        timeoutMs, totalQueued(), activeMessageCount.get());
                 return;
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Drain interrupted; closing flow with messages still in-flight");
+            return;
         }
         log.info("Drain complete: all in-flight messages processed and settled");
     }
 
     @SuppressWarnings("BusyWait")
-    private void watchdog(long watchdogTimeoutMs) {
+    private void watchdog(long watchdogTimeoutMs, String threadNamePrefix) {
         while (running) {
             try {
+                int queued = totalQueued();
+                int active = activeMessageCount.get();
+                // measure backpressure by looking at the oldest message in the worker queue
+                MessageInProgress oldestMessage = oldestQueuedMessage();
+                long backpressure = oldestMessage != null ? (System.nanoTime() - oldestMessage.getReceivedNanos()) / 1_000_000L : 0;
+
+                ConcurrencyAutoscaler scaler = this.autoscaler;
+                if (scaler != null) {
+                    autoscale(scaler, queued, active, backpressure, threadNamePrefix);
+                }
+
                 SolaceMeterAccessor meter = solaceMeterAccessor.get();
                 Supplier<String> bindingSupplier = bindingNameSupplier.get();
                 String binding = bindingSupplier != null ? bindingSupplier.get() : null;
                 if (meter != null && binding != null) {
-                    meter.recordQueueSize(binding, totalQueued());
-                    meter.recordActiveMessages(binding, activeMessages.size());
-
-                    // measure backpressure by looking at the oldest message across all worker queues
-                    MessageInProgress oldestMessage = oldestQueuedMessage();
-                    long backpressure = oldestMessage != null ? (System.nanoTime() - oldestMessage.getReceivedNanos()) / 1_000_000L : 0;
+                    meter.recordQueueSize(binding, queued);
+                    meter.recordActiveMessages(binding, active);
                     meter.recordQueueBackpressure(binding, backpressure);
-                }
-
-                long currentTimeNanos = System.nanoTime();
-                for (MessageInProgress messageInProgress : activeMessages) {
-                    // startNanos is set before adding to activeMessages (happens-before via ConcurrentHashMap),
-                    // but guard defensively against seeing a zero value
-                    if (messageInProgress.getStartNanos() == 0) {
-                        continue;
+                    if (scaler != null) {
+                        meter.recordWorkerThreads(binding, workers.size());
                     }
-                    long timeInProcessing = (currentTimeNanos - messageInProgress.getStartNanos()) / 1_000_000L;
-
-                    // Deadlock detection: warn once if processing exceeds timeout
-                    if (timeInProcessing > watchdogTimeoutMs && !messageInProgress.isWarned()) {
-                        log.warn("Message processing exceeded {} ms (potential deadlock): thread={}, messageId={}, destination={}",
-                                watchdogTimeoutMs,
-                                messageInProgress.getThreadName(),
-                                messageInProgress.getBytesXMLMessage().getMessageId(),
-                                messageInProgress.getBytesXMLMessage().getDestination().getName());
-                        messageInProgress.setWarned(true);
+
+                    FlowBackpressure currentBackpressure = this.backpressure;
+                    if (currentBackpressure != null) {
+                        meter.recordQueueBytes(binding, currentBackpressure.getBufferedBytes());
                     }
                 }
 
-                // Sleep for a short interval to update metrics frequently, but at most watchdogTimeoutMs.
-                // This ensures metrics like queue size and backpressure are updated every 1 second even if the deadlock timeout is large (e.g. 5 minutes).
-                // Ensure sleep time is at least 10ms to avoid IllegalArgumentException and excessive CPU usage if watchdogTimeoutMs is small/zero
-                long sleepTime = Math.max(10, Math.min(watchdogTimeoutMs, 1000));
-                Thread.sleep(sleepTime);
+                // Deadlock detection: the wheel hands out each message whose processing exceeded the timeout exactly once
+                stuckMessageWheel.expire(System.nanoTime(), messageInProgress -> {
+                    messageInProgress.setWarned(true);
+                    stuckMessageCount.incrementAndGet();
+                    log.warn("Message processing exceeded {} ms (potential deadlock): thread={}, messageId={}, destination={}",
+                            watchdogTimeoutMs,
+                            messageInProgress.getThreadName(),
+                            messageInProgress.getBytesXMLMessage().getMessageId(),
+                            messageInProgress.getBytesXMLMessage().getDestination().getName());
+                });
+
+                Thread.sleep(watchdogTickMs(watchdogTimeoutMs));
             } catch (Throwable e) { // Catch Throwable because spring sometimes catches Throwable
                 log.error(e.getMessage(), e);
             }
         }
     }
 
-    private void loop(String threadName, Consumer<BytesXMLMessage> messageConsumer, BlockingQueue<MessageInProgress> queue) {
-        while (running) {
+    /**
+     * Sleep for a short interval to update metrics frequently, but at most watchdogTimeoutMs.
+     * This ensures metrics like queue size and backpressure are updated every 1 second even if the deadlock timeout is large (e.g. 5 minutes).
+     * Ensure sleep time is at least 10ms to avoid IllegalArgumentException and excessive CPU usage if watchdogTimeoutMs is small/zero
+     */
+    private static long watchdogTickMs(long watchdogTimeoutMs) {
+        return Math.max(10, Math.min(watchdogTimeoutMs, 1000));
+    }
+
+    private void loop(String threadName, Consumer<BytesXMLMessage> messageConsumer, BlockingQueue<MessageInProgress> queue, Worker worker) {
+        while (running && !worker.retired) {
             try {
                 MessageInProgress polled = queue.poll(1, TimeUnit.SECONDS);
-                if (polled != null) {
-                    long now = System.nanoTime();
-                    polled.setStartNanos(now);
-                    polled.setThreadName(threadName);
-
-                    SolaceMeterAccessor meter = solaceMeterAccessor.get();
-                    Supplier<String> bindingSupplier = bindingNameSupplier.get();
-                    String binding = bindingSupplier != null ? bindingSupplier.get() : null;
-                    if (meter != null && binding != null) {
-                        meter.recordMessageQueueWaitTime(binding, (now - polled.getReceivedNanos()) / 1_000_000L);
+                Consumer<List<BytesXMLMessage>> currentBatchConsumer = this.batchConsumer;
+                if (polled != null && currentBatchConsumer != null) {
+                    List<MessageInProgress> batch = pollBatch(polled, queue, worker);
+                    while (!batch.isEmpty()) {
+                        batch = processBatch(batch, threadName, currentBatchConsumer, queue, worker.slot);
                     }
+                } else if (polled != null) {
+                    process(polled, threadName, messageConsumer, queue, worker.slot);
+                }
+            } catch (InterruptedException e) {
+                log.error("Error was not properly handled in JCSMPInboundQueueMessageProducer", e);
+            }
+        }
+    }
 
-                    log.trace("loop add mip={}", polled);
-                    activeMessages.add(polled);
-                    try {
-                        messageConsumer.accept(polled.getBytesXMLMessage());
-                    } finally {
-                        log.trace("loop remove mip={}", polled);
-                        activeMessages.remove(polled);
-                        if (meter != null && binding != null) {
-                            meter.recordMessageProcessingTimeDuration(binding, (System.nanoTime() - polled.getStartNanos()) / 1_000_000L);
-                        }
+    /**
+     * Body of a worker task on a virtual thread. The task holds a permit of {@code workers} and keeps processing
+     * until the queue is empty. After returning the permit it checks the queue once more, so a message offered
+     * while all permits were taken is never left behind.
+     */
+    private void runWorkerTask(VirtualThreadWorkers workers, BlockingQueue<MessageInProgress> queue) {
+        Consumer<BytesXMLMessage> consumer = this.messageConsumer;
+        String threadName = Thread.currentThread().getName();
+        WorkerSlot slot = new WorkerSlot();
+        do {
+            try {
+                MessageInProgress polled;
+                while (running && (polled = queue.poll()) != null) {
+                    process(polled, threadName, consumer, queue, slot);
+                }
+            } finally {
+                workers.release();
+            }
+        } while (running && !queue.isEmpty() && workers.tryAcquire());
+    }
+
+    private void scheduleWorkerTask(BlockingQueue<MessageInProgress> queue) {
+        VirtualThreadWorkers workers = this.virtualThreadWorkers;
+        if (workers != null && workers.tryAcquire()) {
+            try {
+                workers.execute(() -> runWorkerTask(workers, queue));
+            } catch (RejectedExecutionException e) {
+                workers.release();
+                log.debug("Worker tasks are shut down, message stays queued");
+            }
+        }
+    }
+
+    /**
+     * Processes the message and, should the worker queue be full when it hands on the next message of the same
+     * partition key, that message as well.
+     */
+    private void process(MessageInProgress polled, String threadName, Consumer<BytesXMLMessage> messageConsumer, BlockingQueue<MessageInProgress> queue, WorkerSlot slot) {
+        MessageInProgress next = polled;
+        while (next != null) {
+            next = processMessage(next, threadName, messageConsumer, queue, slot);
+        }
+    }
+
+    /**
+     * @return the next message of the partition key if it did not fit into the full worker queue
+     */
+    private MessageInProgress processMessage(MessageInProgress polled, String threadName, Consumer<BytesXMLMessage> messageConsumer, BlockingQueue<MessageInProgress> queue, WorkerSlot slot) {
+        MessageInProgress overflow = null;
+        try {
+            long now = System.nanoTime();
+            SolaceMeterAccessor meter = solaceMeterAccessor.get();
+            Supplier<String> bindingSupplier = bindingNameSupplier.get();
+            String binding = bindingSupplier != null ? bindingSupplier.get() : null;
+            beginProcessing(polled, now, threadName, meter, binding);
+
+            log.trace("loop start mip={}", polled);
+            StuckMessageWheel wheel = this.stuckMessageWheel;
+            activeMessageCount.incrementAndGet();
+            slot.current = polled;
+            wheel.schedule(polled, now + watchdogTimeoutNanos);
+            try {
+                messageConsumer.accept(polled.getBytesXMLMessage());
+            } finally {
+                log.trace("loop end mip={}", polled);
+                wheel.cancel(polled);
+                slot.current = null;
+                activeMessageCount.decrementAndGet();
+                overflow = endProcessing(polled, meter, binding, queue);
+            }
+        } catch (Exception e) {
+            log.error("Error was not properly handled in JCSMPInboundQueueMessageProducer", e);
+        } finally {
+            completeInFlight(polled);
+        }
+        return overflow;
+    }
+
+    /**
+     * Collects the batch of a worker, starting with {@code first}: waits for further messages until the batch is
+     * full or {@code batchTimeoutNanos} passed, after that it only takes messages that are already queued. With
+     * partition lanes the messages parked behind a message of the batch join it right away, in receive order, so
+     * the batch is processed as one step of each of its lanes.
+     */
+    private List<MessageInProgress> pollBatch(MessageInProgress first, BlockingQueue<MessageInProgress> queue, Worker worker) {
+        int maxSize = this.batchMaxSize;
+        List<MessageInProgress> batch = new ArrayList<>(Math.min(maxSize, 1024));
+        PartitionLanes lanes = this.partitionLanes;
+        long deadlineNanos = System.nanoTime() + batchTimeoutNanos;
+        MessageInProgress next = first;
+        while (next != null) {
+            batch.add(next);
+            if (lanes != null) {
+                lanes.takeParked(next, maxSize - batch.size(), batch);
+            }
+            if (batch.size() >= maxSize || !running || worker.retired) {
+                break;
+            }
+            long remainingNanos = deadlineNanos - System.nanoTime();
+            try {
+                next = remainingNanos > 0 ? queue.poll(remainingNanos, TimeUnit.NANOSECONDS) : queue.poll();
+            } catch (InterruptedException e) {
+                // the collected messages must still be processed, like in loop() the interrupt only ends the wait
+                next = null;
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Processes a batch like {@link #process} processes a single message. The watchdog watches the batch through
+     * its first message.
+     *
+     * @return the next messages of the partition keys of the batch that did not fit into the full worker queue, the
+     * next batch of this worker
+     */
+    private List<MessageInProgress> processBatch(List<MessageInProgress> batch, String threadName, Consumer<List<BytesXMLMessage>> batchConsumer, BlockingQueue<MessageInProgress> queue, WorkerSlot slot) {
+        List<MessageInProgress> overflow = new ArrayList<>(0);
+        try {
+            long now = System.nanoTime();
+            SolaceMeterAccessor meter = solaceMeterAccessor.get();
+            Supplier<String> bindingSupplier = bindingNameSupplier.get();
+            String binding = bindingSupplier != null ? bindingSupplier.get() : null;
+            List<BytesXMLMessage> messages = new ArrayList<>(batch.size());
+            for (MessageInProgress messageInProgress : batch) {
+                beginProcessing(messageInProgress, now, threadName, meter, binding);
+                messages.add(messageInProgress.getBytesXMLMessage());
+            }
+
+            log.trace("loop start batch of {} first mip={}", batch.size(), batch.get(0));
+            StuckMessageWheel wheel = this.stuckMessageWheel;
+            activeMessageCount.addAndGet(batch.size());
+            slot.current = batch.get(0);
+            wheel.schedule(batch.get(0), now + watchdogTimeoutNanos);
+            try {
+                batchConsumer.accept(messages);
+            } finally {
+                log.trace("loop end batch of {} first mip={}", batch.size(), batch.get(0));
+                wheel.cancel(batch.get(0));
+                slot.current = null;
+                activeMessageCount.addAndGet(-batch.size());
+                for (MessageInProgress messageInProgress : batch) {
+                    MessageInProgress next = endProcessing(messageInProgress, meter, binding, queue);
+                    if (next != null) {
+                        overflow.add(next);
                     }
                 }
-            } catch (Exception e) {
-                log.error("Error was not properly handled in JCSMPInboundQueueMessageProducer", e);
             }
+        } catch (Exception e) {
+            log.error("Error was not properly handled in JCSMPInboundQueueMessageProducer", e);
+        } finally {
+            batch.forEach(FlowXMLMessageListener::completeInFlight);
+        }
+        return overflow;
+    }
+
+    private static void beginProcessing(MessageInProgress messageInProgress, long now, String threadName, SolaceMeterAccessor meter, String binding) {
+        messageInProgress.setStartNanos(now);
+        messageInProgress.setThreadName(threadName);
+        if (meter != null && binding != null) {
+            meter.recordMessageQueueWaitTime(binding, (now - messageInProgress.getReceivedNanos()) / 1_000_000L);
+        }
+    }
+
+    /**
+     * @return the next message of the partition key if it did not fit into the full worker queue, the worker
+     * processes it itself rather than waiting for a slot that only the workers can free
+     */
+    private MessageInProgress endProcessing(MessageInProgress messageInProgress, SolaceMeterAccessor meter, String binding, BlockingQueue<MessageInProgress> queue) {
+        FlowBackpressure currentBackpressure = this.backpressure;
+        if (currentBackpressure != null) {
+            currentBackpressure.onCompleted(FlowBackpressure.payloadBytes(messageInProgress.getBytesXMLMessage()));
+        }
+        if (meter != null && binding != null) {
+            meter.recordMessageProcessingTimeDuration(binding, (System.nanoTime() - messageInProgress.getStartNanos()) / 1_000_000L);
+        }
+        // hand the next message of the same partition key to the workers
+        MessageInProgress next = completeLane(messageInProgress);
+        if (next == null) {
+            return null;
+        }
+        if (!queue.offer(next)) {
+            return next;
         }
+        scheduleWorkerTask(queue);
+        return null;
     }
 
     @Override
     public void onReceive(BytesXMLMessage bytesXMLMessage) {
         log.debug("Received BytesXMLMessage:{}", bytesXMLMessage);
-        // The worker queues are local queues on the heap.
+        // The worker queue is a local queue on the heap.
         // It distributes messages to worker threads and prevents blocking the single Solace dispatcher thread.
         // This queue should be protected by the client flow transport window, the broker queue's delivered-unacked limit,
         // or max-guaranteed-message-size to prevent heap overflow.
         // The onReceive method runs on the Solace dispatcher thread and must not block; otherwise, the entire connection is stalled.
-        // Use non-blocking offer since the queue is unbounded and blocking the dispatcher must be avoided.
-        BlockingQueue<MessageInProgress> queue = selectQueue(bytesXMLMessage);
-        if (!queue.offer(new MessageInProgress(System.nanoTime(), bytesXMLMessage))) {
-            // This should never happen with an unbounded queue
-            log.error("Failed to enqueue message, message will be rejected: {}", bytesXMLMessage);
-            settleMessageAsFailed(bytesXMLMessage);
+        // Use non-blocking offer since blocking the dispatcher must be avoided, only a full ring buffer makes it wait.
+        // The heap budget is charged before the offer, so a fast worker can never release it before it was taken.
+        BlockingQueue<MessageInProgress> queue = this.messageQueue;
+        FlowBackpressure currentBackpressure = this.backpressure;
+        if (currentBackpressure != null) {
+            currentBackpressure.onEnqueued(FlowBackpressure.payloadBytes(bytesXMLMessage));
+        }
+        MessageInProgress messageInProgress = new MessageInProgress(System.nanoTime(), bytesXMLMessage);
+        InFlightCounter counter = this.inFlightCounter;
+        counter.increment();
+        messageInProgress.setInFlightCounter(counter);
+        PartitionLanes lanes = this.partitionLanes;
+        if (lanes != null) {
+            String partitionKey = readPartitionKey(bytesXMLMessage);
+            if (partitionKey != null && !partitionKey.isEmpty() && lanes.admit(messageInProgress, partitionKey) == null) {
+                return; // parked until the previous message of this partition key completes
+            }
+        }
+        enqueue(queue, messageInProgress);
+    }
+
+    private void enqueue(BlockingQueue<MessageInProgress> queue, MessageInProgress messageInProgress) {
+        if (queue.offer(messageInProgress) || awaitFreeSlot(queue, messageInProgress)) {
+            scheduleWorkerTask(queue);
+            return;
+        }
+        // stopped while waiting: left unsettled, the broker redelivers the messages once the flow is closed
+        MessageInProgress next = messageInProgress;
+        while (next != null) {
+            BytesXMLMessage bytesXMLMessage = next.getBytesXMLMessage();
+            log.warn("Worker queue stopped while full, message will be redelivered: {}", bytesXMLMessage);
+            FlowBackpressure currentBackpressure = this.backpressure;
+            if (currentBackpressure != null) {
+                currentBackpressure.onCompleted(FlowBackpressure.payloadBytes(bytesXMLMessage));
+            }
+            MessageInProgress dropped = next;
+            next = completeLane(dropped);
+            completeInFlight(dropped);
         }
     }
 
     /**
-     * Selects the worker queue for an incoming message. With a single shared queue (default throughput
-     * mode) this is always queue 0. In partition-aware mode the message is routed by the hash of its
-     * Solace partition key ({@code JMSXGroupID}) so that all messages of one partition land on the same
-     * worker thread and are therefore processed sequentially in receive order. Messages without a
-     * partition key carry no ordering constraint and are spread round-robin across the queues.
+     * Makes the dispatcher wait until a worker frees a slot of the full ring buffer, an unbounded queue is never
+     * full. Settling the message as failed instead would count a delivery attempt, so under plain load messages
+     * would run out of redeliveries. The flow watermarks keep the wait rare: they stop the flow while the ring still
+     * has room for the messages in transit.
      *
-     * <p>Runs on the single Solace dispatcher thread, so the relative order of {@code offer()} calls into
-     * any given queue matches the broker delivery order — that is what guarantees per-partition ordering.
+     * @return {@code false} if the workers were stopped or the queue was replaced while waiting
      */
-    private BlockingQueue<MessageInProgress> selectQueue(BytesXMLMessage bytesXMLMessage) {
-        List<BlockingQueue<MessageInProgress>> queues = this.messageQueues;
-        int queueCount = queues.size();
-        if (queueCount == 1) {
-            return queues.get(0);
+    private boolean awaitFreeSlot(BlockingQueue<MessageInProgress> queue, MessageInProgress messageInProgress) {
+        log.debug("Worker queue is full, the dispatcher waits for a free slot");
+        int tries = 0;
+        while (running && queue == this.messageQueue && !Thread.currentThread().isInterrupted()) {
+            if (queue.offer(messageInProgress)) {
+                return true;
+            }
+            if (++tries <= FULL_QUEUE_SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(FULL_QUEUE_PARK_NANOS);
+            }
         }
-        String partitionKey = readPartitionKey(bytesXMLMessage);
-        int index = (partitionKey == null || partitionKey.isEmpty())
-                ? Math.floorMod(partitionRoundRobin.getAndIncrement(), queueCount)
-                : Math.floorMod(partitionKey.hashCode(), queueCount);
-        return queues.get(index);
+        return false;
+    }
+
+    private static void completeInFlight(MessageInProgress messageInProgress) {
+        InFlightCounter counter = messageInProgress.getInFlightCounter();
+        if (counter != null) {
+            counter.decrement();
+        }
+    }
+
+    private MessageInProgress completeLane(MessageInProgress messageInProgress) {
+        PartitionLanes lanes = this.partitionLanes;
+        return lanes != null ? lanes.complete(messageInProgress) : null;
     }
 
     private static String readPartitionKey(BytesXMLMessage bytesXMLMessage) {
@@ -342,61 +748,69 @@ public class FlowXMLMessageListener implements XMLMessageListener {
                 return properties.getString(XMLMessage.MessageUserPropertyConstants.QUEUE_PARTITION_KEY);
             }
         } catch (SDTException e) {
-            log.warn("Failed to read partition key for partition-aware dispatch; falling back to round-robin", e);
+            log.warn("Failed to read partition key for partition-aware dispatch; message is not ordered", e);
         }
         return null;
     }
 
-    private void settleMessageAsFailed(BytesXMLMessage bytesXMLMessage) {
-        try {
-            bytesXMLMessage.settle(XMLMessage.Outcome.FAILED);
-        } catch (JCSMPException ex) {
-            log.error("Failed to settle message as FAILED: {}", ex.getMessage(), ex);
-        }
-    }
-
     @Override
     public void onException(JCSMPException e) {
         log.error("Failed to receive message", e);
     }
 
+    /**
+     * The message a worker (platform thread or virtual worker task) is processing, {@code null} while it is idle.
+     * A plain field write per message, instead of inserting into and removing from a shared set.
+     */
+    static final class WorkerSlot {
+        volatile MessageInProgress current;
+    }
+
+    /**
+     * Platform worker thread. A retired worker finishes its current message and ends, used to scale down.
+     */
+    private final class Worker extends Thread {
+        private final Consumer<BytesXMLMessage> consumer;
+        private final BlockingQueue<MessageInProgress> queue;
+        private final WorkerSlot slot = new WorkerSlot();
+        private volatile boolean retired = false;
+
+        private Worker(String name, Consumer<BytesXMLMessage> consumer, BlockingQueue<MessageInProgress> queue) {
+            super(name);
+            this.consumer = consumer;
+            this.queue = queue;
+        }
+
+        @Override
+        public void run() {
+            loop(getName(), consumer, queue, this);
+        }
+    }
+
+    /**
+     * A received message on its way through the listener. Equality is identity: the listener never looks messages up
+     * by value, so there is no {@code equals}/{@code hashCode} to compute.
+     */
     @Getter
     @Setter
-    @ToString(exclude = "cachedHashCode")
+    @ToString(exclude = {"lane", "inFlightCounter", "wheelBucket", "wheelPrev", "wheelNext"})
     @RequiredArgsConstructor
     static class MessageInProgress {
         private final long receivedNanos;
         private final BytesXMLMessage bytesXMLMessage;
         private long startNanos;
         private String threadName;
-
-        // Should not be part of hashcode. Because a changing hash or equal will prevent removing from `activeMessages` set.
         private volatile boolean warned = false;
 
-        // Lazy-initialized cached hashCode (immutable fields only).
-        // Intentionally NOT synchronized: worst case is computing hashCode twice,
-        // which is cheaper than paying synchronization cost on every access.
-        private Integer cachedHashCode;
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) {
-                return true;
-            }
-            if (!(o instanceof MessageInProgress that)) {
-                return false;
-            }
+        // partition key lane when per-key serialization is active, see PartitionLanes
+        private PartitionLanes.Lane lane;
+        // the counter of the run that received the message, so a message of a previous run cannot count down a new one
+        private InFlightCounter inFlightCounter;
 
-            return receivedNanos == that.receivedNanos &&
-                    Objects.equals(bytesXMLMessage, that.bytesXMLMessage);
-        }
-
-        @Override
-        public int hashCode() {
-            if (cachedHashCode == null) {
-                cachedHashCode = Objects.hash(receivedNanos, bytesXMLMessage);
-            }
-            return cachedHashCode;
-        }
+        // watchdog deadline and intrusive links of the StuckMessageWheel bucket, guarded by the bucket lock
+        private long deadlineNanos;
+        volatile StuckMessageWheel.Bucket wheelBucket;
+        MessageInProgress wheelPrev;
+        MessageInProgress wheelNext;
     }
 }
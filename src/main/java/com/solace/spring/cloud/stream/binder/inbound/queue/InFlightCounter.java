@@ -0,0 +1,52 @@
+package com.solace.spring.cloud.stream.binder.inbound.queue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the messages of one run of the worker threads from receipt until they are fully processed (queued, held
+ * back behind their partition key or in processing), and wakes up a draining thread when the count reaches zero.
+ * <p>Incrementing and decrementing is a single atomic operation; the monitor is only taken on the transition to
+ * zero while somebody is draining.</p>
+ */
+class InFlightCounter {
+    private final AtomicInteger count = new AtomicInteger();
+    private volatile boolean draining = false;
+
+    void increment() {
+        count.incrementAndGet();
+    }
+
+    void decrement() {
+        if (count.decrementAndGet() == 0 && draining) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    int get() {
+        return count.get();
+    }
+
+    /**
+     * @return {@code true} if the count reached zero, {@code false} on timeout
+     */
+    synchronized boolean awaitZero(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadlineNanos = System.nanoTime() + unit.toNanos(timeout);
+        draining = true;
+        try {
+            // the count is read after draining is set, so a decrement to zero from here on notifies this monitor
+            while (count.get() > 0) {
+                long remainingNanos = deadlineNanos - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+            }
+            return true;
+        } finally {
+            draining = false;
+        }
+    }
+}
@@ -3,6 +3,9 @@ package com.solace.spring.cloud.stream.binder.inbound.queue;
 import com.solace.spring.cloud.stream.binder.health.SolaceBinderHealthAccessor;
 import com.solace.spring.cloud.stream.binder.health.base.SolaceHealthIndicator;
 import com.solace.spring.cloud.stream.binder.inbound.acknowledge.JCSMPAcknowledgementCallback;
+import com.solace.spring.cloud.stream.binder.inbound.acknowledge.NestedAcknowledgementCallback;
+import com.solace.spring.cloud.stream.binder.inbound.acknowledge.SettlementPipeline;
+import com.solace.spring.cloud.stream.binder.messaging.SolaceBinderHeaders;
 import com.solace.spring.cloud.stream.binder.meter.SolaceMeterAccessor;
 import com.solace.spring.cloud.stream.binder.properties.SolaceConsumerProperties;
 import com.solace.spring.cloud.stream.binder.provisioning.SolaceConsumerDestination;
@@ -11,6 +14,7 @@ import com.solace.spring.cloud.stream.binder.tracing.TracingProxy;
 import com.solace.spring.cloud.stream.binder.util.*;
 import com.solacesystems.jcsmp.*;
 import com.solacesystems.jcsmp.impl.JCSMPBasicSession;
+import lombok.AccessLevel;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.exception.ExceptionUtils;
@@ -20,19 +24,28 @@ import org.springframework.cloud.stream.binder.RequeueCurrentMessageException;
 import org.springframework.core.AttributeAccessor;
 import org.springframework.core.retry.RetryException;
 import org.springframework.core.retry.RetryTemplate;
+import org.springframework.integration.IntegrationMessageHeaderAccessor;
 import org.springframework.integration.StaticMessageHeaderAccessor;
 import org.springframework.integration.acks.AckUtils;
 import org.springframework.integration.acks.AcknowledgmentCallback;
+import org.springframework.integration.channel.ReactiveStreamsSubscribableChannel;
 import org.springframework.integration.context.OrderlyShutdownCapable;
 import org.springframework.integration.core.Pausable;
 import org.springframework.integration.endpoint.MessageProducerSupport;
 import org.springframework.integration.handler.advice.ErrorMessageSendingRecoverer;
 import org.springframework.integration.support.ErrorMessageUtils;
 import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.MessagingException;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -42,6 +55,10 @@ import java.util.function.Consumer;
 @Slf4j
 @Setter
 public class JCSMPInboundQueueMessageProducer extends MessageProducerSupport implements OrderlyShutdownCapable, Pausable {
+    // JCSMP defaults of the flow's transport window and of the ack threshold, in percent of that window
+    private static final int DEFAULT_SUB_ACK_WINDOW_SIZE = 255;
+    private static final int DEFAULT_FLOW_ACK_THRESHOLD = 60;
+
     private final SolaceConsumerDestination consumerDestination;
     private final JCSMPSession jcsmpSession;
     private final ExtendedConsumerProperties<SolaceConsumerProperties> consumerProperties;
@@ -54,12 +71,24 @@ public class JCSMPInboundQueueMessageProducer extends MessageProducerSupport imp
     private final Optional<ErrorMessageSendingRecoverer> recoveryCallback;
     private final Optional<ErrorQueueInfrastructure> errorQueueInfrastructure;
 
-    private final ThreadLocal<XMLMessageMapper> xmlMessageMapper = ThreadLocal.withInitial(XMLMessageMapper::new);
+    private final XMLMessageMapper xmlMessageMapper = new XMLMessageMapper();
+    private final HeaderMappingPlan headerMappingPlan;
     private final AtomicBoolean paused = new AtomicBoolean(false);
     private final SolaceFlowEventHandler solaceFlowEventHandler = new SolaceFlowEventHandler();
     private final FlowXMLMessageListener flowXMLMessageListener = new FlowXMLMessageListener();
     private final AtomicReference<FlowReceiver> flowReceiver = new AtomicReference<>();
-    private final LargeMessageSupport largeMessageSupport = new LargeMessageSupport();
+    private final LargeMessageSupport largeMessageSupport;
+    // finishes the stop in the background when parallelStop is enabled, set by the binder
+    private ConsumerShutdownCoordinator shutdownCoordinator;
+    @Setter(AccessLevel.NONE)
+    private volatile CompletableFuture<Void> pendingStop;
+    @Setter(AccessLevel.NONE)
+    private volatile SettlementPipeline settlementPipeline;
+    @Setter(AccessLevel.NONE)
+    private volatile DemandDrivenPublisher demandDrivenPublisher;
+    // cancelling the reactive subscription calls stop() again from within doStop()
+    @Setter(AccessLevel.NONE)
+    private boolean stopping = false;
 
     public JCSMPInboundQueueMessageProducer(
             SolaceConsumerDestination consumerDestination,
@@ -78,6 +107,7 @@ public class JCSMPInboundQueueMessageProducer extends MessageProducerSupport imp
         this.consumerDestination = consumerDestination;
         this.jcsmpSession = jcsmpSession;
         this.consumerProperties = consumerProperties;
+        this.headerMappingPlan = HeaderMappingPlan.forConsumer(consumerProperties.getExtension());
         this.endpointProperties = endpointProperties;
         this.postStart = postStart;
         setBeanFactory(beanFactory);
@@ -87,6 +117,19 @@ public class JCSMPInboundQueueMessageProducer extends MessageProducerSupport imp
         this.retryTemplate = retryTemplate;
         this.recoveryCallback = recoveryCallback;
         this.errorQueueInfrastructure = errorQueueInfrastructure;
+        this.largeMessageSupport = new LargeMessageSupport(getLargeMessageDirectory(consumerProperties, consumerDestination.getName()));
+    }
+
+    private static Path getLargeMessageDirectory(ExtendedConsumerProperties<SolaceConsumerProperties> consumerProperties, String queueName) {
+        SolaceConsumerProperties properties = consumerProperties.getExtension();
+        if (properties.getLargeMessageReassembly() != LargeMessageReassembly.FILE) {
+            return null;
+        }
+        // one directory per binding, a starting binding deletes the files it left behind without touching others
+        String bindingName = consumerProperties.getBindingName() != null ? consumerProperties.getBindingName() : queueName;
+        return Path.of(properties.getLargeMessageDirectory() != null
+                        ? properties.getLargeMessageDirectory() : System.getProperty("java.io.tmpdir"))
+                .resolve("large-messages-" + bindingName.replaceAll("[^A-Za-z0-9._-]", "_"));
     }
 
 
@@ -131,6 +174,19 @@ public class JCSMPInboundQueueMessageProducer extends MessageProducerSupport imp
         }
     }
 
+    private static void handleMessageReactive(Consumer<Message<?>> emitToSubscriber, Message<?> message, BytesXMLMessage bytesXMLMessage, AcknowledgmentCallback acknowledgmentCallback) {
+        // the subscriber settles the message, usually after it was emitted
+        acknowledgmentCallback.noAutoAck();
+        try {
+            emitToSubscriber.accept(message);
+        } catch (RequeueCurrentMessageException ex) {
+            log.debug("Subscriber is gone, requeueing messageId={}", bytesXMLMessage.getMessageId());
+            AckUtils.requeue(acknowledgmentCallback);
+        } catch (Exception ex) {
+            handleException(acknowledgmentCallback, bytesXMLMessage, ex);
+        }
+    }
+
     private static void handleException(AcknowledgmentCallback acknowledgmentCallback, BytesXMLMessage bytesXMLMessage, Exception ex) {
         if (ExceptionUtils.indexOfType(ex, RequeueCurrentMessageException.class) > -1) {
             //noinspection deprecation
@@ -151,10 +207,26 @@ public class JCSMPInboundQueueMessageProducer extends MessageProducerSupport imp
         sendMessage(message);
     }
 
+    private void emitToSubscriber(DemandDrivenPublisher publisher, Message<?> message) {
+        AtomicInteger deliveryAttempt = StaticMessageHeaderAccessor.getDeliveryAttempt(message);
+        if (deliveryAttempt != null) {
+            deliveryAttempt.incrementAndGet();
+        }
+        try {
+            if (publisher.emit(message)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new RequeueCurrentMessageException("Subscriber of binding=" + consumerDestination.getName() + " cancelled");
+    }
+
     public void onReceiveConcurrent(BytesXMLMessage bytesXMLMessageRaw) {
         long startTs = System.currentTimeMillis();
 
-        AcknowledgmentCallback acknowledgmentCallback = new JCSMPAcknowledgementCallback(bytesXMLMessageRaw, errorQueueInfrastructure);
+        DemandDrivenPublisher currentPublisher = this.demandDrivenPublisher;
+        AcknowledgmentCallback acknowledgmentCallback = new JCSMPAcknowledgementCallback(bytesXMLMessageRaw, errorQueueInfrastructure, settlementPipeline);
         LargeMessageSupport.MessageContext messageContext = largeMessageSupport.assemble(bytesXMLMessageRaw, acknowledgmentCallback);
         // we got an incomplete large message and wait for more chunks
         if (messageContext == null) {
@@ -167,21 +239,28 @@ public class JCSMPInboundQueueMessageProducer extends MessageProducerSupport imp
         long ts = System.currentTimeMillis();
 
         try {
-            Message<?> message = mapMessageToSpring(bytesXMLMessage, acknowledgmentCallback);
+            // a reactive subscriber settles with the callback of the header, it must cover all chunks of a large message
+            // and delete the file it was reassembled in
+            Message<?> message = mapMessageToSpring(bytesXMLMessage, messageContext.payloadFile(),
+                    currentPublisher != null || messageContext.payloadFile() != null ? messageContext.acknowledgmentCallback() : acknowledgmentCallback);
             if (message == null) {
                 return;
             }
             log.trace("onReceiveConcurrent step=convertToSpringMsg duration={}ms messageId={}", System.currentTimeMillis() - ts, bytesXMLMessageRaw.getMessageId());
             ts = System.currentTimeMillis();
 
-            Consumer<Message<?>> sendToCustomerConsumer = this::sendToConsumer;
+            Consumer<Message<?>> sendToCustomerConsumer = currentPublisher != null
+                    ? m -> emitToSubscriber(currentPublisher, m)
+                    : this::sendToConsumer;
             if (tracingProxy.isPresent() && bytesXMLMessage.getProperties() != null && tracingProxy.get().hasTracingHeader(bytesXMLMessage.getProperties())) {
                 sendToCustomerConsumer = tracingProxy.get().wrapInTracingContext(bytesXMLMessage.getProperties(), sendToCustomerConsumer);
             }
             log.trace("onReceiveConcurrent step=tracing duration={}ms messageId={}", System.currentTimeMillis() - ts, bytesXMLMessageRaw.getMessageId());
             ts = System.currentTimeMillis();
 
-            if (retryTemplate.isPresent()) {
+            if (currentPublisher != null) {
+                handleMessageReactive(sendToCustomerConsumer, message, bytesXMLMessage, messageContext.acknowledgmentCallback());
+            } else if (retryTemplate.isPresent()) {
                 handleMessageWithRetry(message, sendToCustomerConsumer, messageContext.acknowledgmentCallback(), bytesXMLMessage);
             } else {
                 handleMessageWithoutRetry(sendToCustomerConsumer, message, bytesXMLMessage, messageContext.acknowledgmentCallback());
@@ -200,9 +279,81 @@ public class JCSMPInboundQueueMessageProducer extends MessageProducerSupport imp
     }
 
 
-    private Message<?> mapMessageToSpring(BytesXMLMessage bytesXMLMessage, AcknowledgmentCallback acknowledgmentCallback) {
+    /**
+     * Batch mode: hands the messages a worker thread collected to the consumer as one {@code Message<List<?>>}.
+     * Each element keeps its own acknowledgment callback in {@link SolaceBinderHeaders#BATCHED_HEADERS}; the
+     * callback of the batch settles every element that was not settled individually.
+     */
+    public void onReceiveBatch(List<BytesXMLMessage> bytesXMLMessagesRaw) {
+        long startTs = System.currentTimeMillis();
+        List<Object> payloads = new ArrayList<>(bytesXMLMessagesRaw.size());
+        List<Map<String, Object>> batchedHeaders = new ArrayList<>(bytesXMLMessagesRaw.size());
+        List<BytesXMLMessage> bytesXMLMessages = new ArrayList<>(bytesXMLMessagesRaw.size());
+        NestedAcknowledgementCallback batchAcknowledgmentCallback = new NestedAcknowledgementCallback();
+        for (BytesXMLMessage bytesXMLMessageRaw : bytesXMLMessagesRaw) {
+            AcknowledgmentCallback acknowledgmentCallback = new JCSMPAcknowledgementCallback(bytesXMLMessageRaw, errorQueueInfrastructure, settlementPipeline);
+            LargeMessageSupport.MessageContext messageContext = largeMessageSupport.assemble(bytesXMLMessageRaw, acknowledgmentCallback);
+            // we got an incomplete large message and wait for more chunks
+            if (messageContext == null) {
+                continue;
+            }
+            Message<?> message = mapMessageToSpring(messageContext.bytesMessage(), messageContext.payloadFile(), messageContext.acknowledgmentCallback());
+            if (message == null) {
+                continue;
+            }
+            payloads.add(message.getPayload());
+            batchedHeaders.add(message.getHeaders());
+            bytesXMLMessages.add(messageContext.bytesMessage());
+            batchAcknowledgmentCallback.addAcknowledgmentCallback(messageContext.acknowledgmentCallback());
+        }
+        if (payloads.isEmpty()) {
+            return;
+        }
+        BytesXMLMessage firstBytesXMLMessage = bytesXMLMessages.get(0);
+        log.trace("onReceiveBatch step=convertToSpringMsg size={} duration={}ms firstMessageId={}", payloads.size(), System.currentTimeMillis() - startTs, firstBytesXMLMessage.getMessageId());
+
+        try {
+            Message<?> batchMessage = getMessageBuilderFactory().withPayload(payloads)
+                    .setHeader(SolaceBinderHeaders.BATCHED_HEADERS, batchedHeaders)
+                    .setHeader(IntegrationMessageHeaderAccessor.ACKNOWLEDGMENT_CALLBACK, batchAcknowledgmentCallback)
+                    .setHeader(IntegrationMessageHeaderAccessor.DELIVERY_ATTEMPT, new AtomicInteger(0))
+                    .setHeader(IntegrationMessageHeaderAccessor.SOURCE_DATA, bytesXMLMessages)
+                    // the elements are converted with the content type of the batch
+                    .setHeader(MessageHeaders.CONTENT_TYPE, batchedHeaders.get(0).get(MessageHeaders.CONTENT_TYPE))
+                    .build();
+
+            if (retryTemplate.isPresent()) {
+                handleMessageWithRetry(batchMessage, this::sendToConsumer, batchAcknowledgmentCallback, firstBytesXMLMessage);
+            } else {
+                handleMessageWithoutRetry(this::sendToConsumer, batchMessage, firstBytesXMLMessage, batchAcknowledgmentCallback);
+            }
+            log.trace("onReceiveBatch step=total size={} duration={}ms firstMessageId={}", payloads.size(), System.currentTimeMillis() - startTs, firstBytesXMLMessage.getMessageId());
+
+            solaceMeterAccessor.ifPresent(meterAccessor -> bytesXMLMessages.forEach(bytesXMLMessage ->
+                    meterAccessor.recordMessage(consumerProperties.getBindingName(), bytesXMLMessage)));
+        } catch (Exception ex) {
+            log.error("onReceiveBatch", ex);
+            bytesXMLMessages.forEach(this::requeueMessage);
+        }
+    }
+
+    /**
+     * @param payloadFile the file a large message was reassembled in, {@code null} if the payload is the message data
+     */
+    private Message<?> mapMessageToSpring(BytesXMLMessage bytesXMLMessage, Path payloadFile, AcknowledgmentCallback acknowledgmentCallback) {
         try {
-            return xmlMessageMapper.get().map(bytesXMLMessage, acknowledgmentCallback, true, consumerProperties.getExtension());
+            if (payloadFile != null) {
+                return xmlMessageMapper.mapReassembled(bytesXMLMessage,
+                        LargeMessageSupport.filePayload(payloadFile, consumerProperties.getExtension().getBytesPayloadType()),
+                        acknowledgmentCallback, true, headerMappingPlan);
+            }
+            return xmlMessageMapper.map(bytesXMLMessage, acknowledgmentCallback, true, headerMappingPlan,
+                    consumerProperties.getExtension().getBytesPayloadType());
+        } catch (IOException e) {
+            // the chunks were consumed into the file, requeue all of them
+            log.warn("Failed to read the reassembled large message file {}, the message will be requeued", payloadFile, e);
+            acknowledgmentCallback.acknowledge(AcknowledgmentCallback.Status.REQUEUE);
+            return null;
         } catch (RuntimeException e) {
             boolean processedByErrorHandler = this.sendErrorMessageIfNecessary(null, e);
             if (processedByErrorHandler) {
@@ -229,6 +380,18 @@ public class JCSMPInboundQueueMessageProducer extends MessageProducerSupport imp
             log.warn("Nothing to do. Inbound message channel adapter binding={} is already running", consumerDestination.getName());
             return;
         }
+        awaitPendingStop();
+        if (consumerProperties.getExtension().getLargeMessageReassembly() == LargeMessageReassembly.FILE) {
+            try {
+                largeMessageSupport.openReassemblyDirectory();
+            } catch (IOException e) {
+                String msg = String.format("Unable to open the large message directory <inbound adapter binding=%s>", consumerDestination.getName());
+                log.warn(msg, e);
+                throw new MessagingException(msg, e);
+            }
+            // expires the files of incomplete messages, they would stay on disk otherwise
+            largeMessageSupport.startHousekeeping();
+        }
         try {
             startFlowReceiver();
         } catch (Exception e) {
@@ -239,25 +402,122 @@ public class JCSMPInboundQueueMessageProducer extends MessageProducerSupport imp
 
     private void startFlowReceiver() throws Exception {
         final String endpointName = consumerDestination.getName();
-        log.info("Creating {} threads for binding={} <inbound adapter>", consumerProperties.getConcurrency(), endpointName);
+        log.info("Creating {} {} worker threads for binding={} <inbound adapter>", consumerProperties.getConcurrency(),
+                consumerProperties.getExtension().getWorkerThreadType(), endpointName);
         checkPropertiesAndBroker();
         setupFlowEventHandler();
         ConsumerFlowProperties consumerFlowProperties = getConsumerFlowProperties(endpointName);
         this.solaceMeterAccessor.ifPresent(ma -> this.flowXMLMessageListener.setSolaceMeterAccessor(ma, consumerProperties::getBindingName));
+        FlowBackpressure backpressure = createBackpressure();
+        this.flowXMLMessageListener.setBackpressure(backpressure);
+        this.flowXMLMessageListener.setAutoscaler(createAutoscaler());
+        if (consumerProperties.isBatchMode()) {
+            this.flowXMLMessageListener.setBatching(consumerProperties.getExtension().getBatchMaxSize(),
+                    consumerProperties.getExtension().getBatchTimeoutMs(), this::onReceiveBatch);
+        } else {
+            this.flowXMLMessageListener.setBatching(0, 0, null);
+        }
+        DemandDrivenPublisher publisher = null;
+        if (consumerProperties.getExtension().isReactive()) {
+            publisher = new DemandDrivenPublisher(consumerDestination.getBindingDestinationName(), backpressure::onDemandChanged);
+            this.demandDrivenPublisher = publisher;
+            subscribeToPublisher(publisher.getFlux());
+        }
+        this.settlementPipeline = createSettlementPipeline();
+        this.flowXMLMessageListener.setWorkerQueue(
+                consumerProperties.getExtension().getWorkerQueueType(),
+                consumerProperties.getExtension().getRingBufferSize(),
+                consumerProperties.getExtension().getRingBufferWaitStrategy());
         this.flowXMLMessageListener.startReceiverThreads(
                 consumerProperties.getConcurrency(),
                 consumerDestination.getBindingDestinationName(),
                 this::onReceiveConcurrent,
                 consumerProperties.getExtension().getWatchdogTimeoutMs(),
-                consumerProperties.getExtension().isPartitionAware());
+                consumerProperties.getExtension().isPartitionAware(),
+                consumerProperties.getExtension().getWorkerThreadType());
         this.flowReceiver.set(jcsmpSession.createFlow(flowXMLMessageListener, consumerFlowProperties, endpointProperties, solaceFlowEventHandler));
         if (!paused.get()) {
             this.flowReceiver.get().start();
         }
+        if (publisher != null) {
+            // from now on the flow only runs while the subscriber has outstanding demand
+            backpressure.setDemandExhausted(publisher::isDemandExhausted);
+        }
         addPostStartToFlowEventHandler();
         postStart.accept(flowReceiver.get().getEndpoint());
     }
 
+    /**
+     * The acker settles at most as many messages at once as the flow receives before JCSMP sends a transport
+     * acknowledgement on its own: {@code flowAckThreshold} percent of the {@code subAckWindowSize}.
+     */
+    private SettlementPipeline createSettlementPipeline() {
+        SolaceConsumerProperties extension = consumerProperties.getExtension();
+        if (!extension.isAsyncSettlement()) {
+            return null;
+        }
+        int windowSize = getSubAckWindowSize(extension);
+        int ackThreshold = extension.getFlowAckThreshold() != null ? extension.getFlowAckThreshold() : DEFAULT_FLOW_ACK_THRESHOLD;
+        int maxBatchSize = Math.max(1, windowSize * ackThreshold / 100);
+        return new SettlementPipeline(consumerDestination.getBindingDestinationName(), maxBatchSize, solaceMeterAccessor);
+    }
+
+    private static int getSubAckWindowSize(SolaceConsumerProperties extension) {
+        return extension.getSubAckWindowSize() != null ? extension.getSubAckWindowSize() : DEFAULT_SUB_ACK_WINDOW_SIZE;
+    }
+
+    private FlowBackpressure createBackpressure() {
+        SolaceConsumerProperties extension = consumerProperties.getExtension();
+        long highWatermarkMessages = extension.getBufferHighWatermarkMessages();
+        long highWatermarkBytes = extension.getBufferHighWatermarkBytes();
+        if (extension.getWorkerQueueType() == WorkerQueueType.RING_BUFFER && highWatermarkMessages <= 0) {
+            // a full ring buffer makes the dispatcher wait, so stop the flow while the messages in transit still fit
+            highWatermarkMessages = Math.min(extension.getRingBufferSize() * 3L / 4,
+                    extension.getRingBufferSize() - getSubAckWindowSize(extension));
+        }
+        if (highWatermarkMessages <= 0 && highWatermarkBytes <= 0 && !extension.isReactive()) {
+            return null;
+        }
+        return new FlowBackpressure(consumerDestination.getBindingDestinationName(),
+                highWatermarkMessages,
+                extension.getBufferLowWatermarkMessages() != null ? extension.getBufferLowWatermarkMessages() : highWatermarkMessages / 2,
+                highWatermarkBytes,
+                extension.getBufferLowWatermarkBytes() != null ? extension.getBufferLowWatermarkBytes() : highWatermarkBytes / 2,
+                this::stopFlowForBackpressure,
+                this::startFlowAfterBackpressure);
+    }
+
+    private ConcurrencyAutoscaler createAutoscaler() {
+        SolaceConsumerProperties extension = consumerProperties.getExtension();
+        if (extension.getMaxConcurrency() == null) {
+            return null;
+        }
+        return new ConcurrencyAutoscaler(
+                extension.getMinConcurrency() != null ? extension.getMinConcurrency() : 1,
+                extension.getMaxConcurrency(),
+                extension.getScaleUpBackpressureMs(),
+                extension.getScaleDownIdleMs(),
+                extension.getScaleCooldownMs());
+    }
+
+    private void stopFlowForBackpressure() throws JCSMPException {
+        FlowReceiver currentFlowReceiver = this.flowReceiver.get();
+        if (currentFlowReceiver != null) {
+            log.info("Stopping flow receiver binding={} for backpressure", consumerDestination.getName());
+            currentFlowReceiver.stop();
+            solaceMeterAccessor.ifPresent(meterAccessor -> meterAccessor.recordFlowBackpressure(consumerProperties.getBindingName(), true));
+        }
+    }
+
+    private void startFlowAfterBackpressure() throws JCSMPException {
+        FlowReceiver currentFlowReceiver = this.flowReceiver.get();
+        if (currentFlowReceiver != null && !paused.get()) {
+            log.info("Starting flow receiver binding={} after backpressure", consumerDestination.getName());
+            currentFlowReceiver.start();
+            solaceMeterAccessor.ifPresent(meterAccessor -> meterAccessor.recordFlowBackpressure(consumerProperties.getBindingName(), false));
+        }
+    }
+
     /**
      * Ensures the subscriptions are added after a reconnect
      */
@@ -272,6 +532,79 @@ public class JCSMPInboundQueueMessageProducer extends MessageProducerSupport imp
             log.warn(msg);
             throw new MessagingException(msg);
         }
+        SolaceConsumerProperties extension = consumerProperties.getExtension();
+        if (extension.isReactive() && !(getOutputChannel() instanceof ReactiveStreamsSubscribableChannel)) {
+            // any other channel subscribes with unbounded demand, the messages would only lose their auto-ack
+            String msg = String.format("reactive requires a reactive output channel such as FluxMessageChannel, was %s <inbound adapter binding=%s>",
+                    getOutputChannel() != null ? getOutputChannel().getClass().getSimpleName() : null, consumerDestination.getName());
+            log.warn(msg);
+            throw new MessagingException(msg);
+        }
+        if (extension.getBufferHighWatermarkMessages() > 0 && extension.getBufferLowWatermarkMessages() != null
+                && extension.getBufferLowWatermarkMessages() >= extension.getBufferHighWatermarkMessages()) {
+            String msg = String.format("bufferLowWatermarkMessages must be less than bufferHighWatermarkMessages, was %d >= %d <inbound adapter binding=%s>",
+                    extension.getBufferLowWatermarkMessages(), extension.getBufferHighWatermarkMessages(), consumerDestination.getName());
+            log.warn(msg);
+            throw new MessagingException(msg);
+        }
+        if (extension.getBufferHighWatermarkBytes() > 0 && extension.getBufferLowWatermarkBytes() != null
+                && extension.getBufferLowWatermarkBytes() >= extension.getBufferHighWatermarkBytes()) {
+            String msg = String.format("bufferLowWatermarkBytes must be less than bufferHighWatermarkBytes, was %d >= %d <inbound adapter binding=%s>",
+                    extension.getBufferLowWatermarkBytes(), extension.getBufferHighWatermarkBytes(), consumerDestination.getName());
+            log.warn(msg);
+            throw new MessagingException(msg);
+        }
+        if (extension.getMaxConcurrency() != null) {
+            int minConcurrency = extension.getMinConcurrency() != null ? extension.getMinConcurrency() : 1;
+            if (minConcurrency < 1 || extension.getMaxConcurrency() < minConcurrency) {
+                String msg = String.format("minConcurrency must be greater than 0 and not exceed maxConcurrency, was %d and %d <inbound adapter binding=%s>",
+                        minConcurrency, extension.getMaxConcurrency(), consumerDestination.getName());
+                log.warn(msg);
+                throw new MessagingException(msg);
+            }
+            if (extension.getWorkerThreadType() == WorkerThreadType.VIRTUAL) {
+                String msg = String.format("maxConcurrency is not supported with workerThreadType VIRTUAL <inbound adapter binding=%s>",
+                        consumerDestination.getName());
+                log.warn(msg);
+                throw new MessagingException(msg);
+            }
+        }
+        if (consumerProperties.isBatchMode()) {
+            if (extension.getBatchMaxSize() < 1 || extension.getBatchTimeoutMs() < 0) {
+                String msg = String.format("batchMaxSize must be greater than 0 and batchTimeoutMs must not be negative, was %d and %d <inbound adapter binding=%s>",
+                        extension.getBatchMaxSize(), extension.getBatchTimeoutMs(), consumerDestination.getName());
+                log.warn(msg);
+                throw new MessagingException(msg);
+            }
+            if (extension.getWorkerThreadType() == WorkerThreadType.VIRTUAL || extension.isReactive()) {
+                String msg = String.format("batchMode is not supported with workerThreadType VIRTUAL or reactive <inbound adapter binding=%s>",
+                        consumerDestination.getName());
+                log.warn(msg);
+                throw new MessagingException(msg);
+            }
+        }
+        if (extension.getWorkerQueueType() == WorkerQueueType.RING_BUFFER
+                && (extension.getRingBufferSize() < 2 || extension.getRingBufferSize() > (1 << 30))) {
+            String msg = String.format("ringBufferSize must be between 2 and 2^30, was %d <inbound adapter binding=%s>",
+                    extension.getRingBufferSize(), consumerDestination.getName());
+            log.warn(msg);
+            throw new MessagingException(msg);
+        }
+        if (extension.getWorkerQueueType() == WorkerQueueType.RING_BUFFER
+                && extension.getRingBufferSize() <= getSubAckWindowSize(extension)) {
+            String msg = String.format("ringBufferSize must be greater than subAckWindowSize, was %d <= %d <inbound adapter binding=%s>",
+                    extension.getRingBufferSize(), getSubAckWindowSize(extension), consumerDestination.getName());
+            log.warn(msg);
+            throw new MessagingException(msg);
+        }
+        if (extension.getWorkerQueueType() == WorkerQueueType.RING_BUFFER
+                && extension.getBufferHighWatermarkMessages() > extension.getRingBufferSize() - getSubAckWindowSize(extension)) {
+            // the flow stops asynchronously, up to a window of messages may still arrive after the watermark
+            String msg = String.format("bufferHighWatermarkMessages must not exceed ringBufferSize minus subAckWindowSize, was %d > %d - %d <inbound adapter binding=%s>",
+                    extension.getBufferHighWatermarkMessages(), extension.getRingBufferSize(), getSubAckWindowSize(extension), consumerDestination.getName());
+            log.warn(msg);
+            throw new MessagingException(msg);
+        }
         if (jcsmpSession instanceof JCSMPBasicSession jcsmpBasicSession
                 && !jcsmpBasicSession.isRequiredSettlementCapable(
                 Set.of(XMLMessage.Outcome.ACCEPTED, XMLMessage.Outcome.FAILED, XMLMessage.Outcome.REJECTED))) {
@@ -308,20 +641,73 @@ public class JCSMPInboundQueueMessageProducer extends MessageProducerSupport imp
 
     @Override
     protected void doStop() {
-        if (!isRunning()) return;
+        if (!isRunning() || stopping) return;
+        stopping = true;
+        try {
+            stopFlowReceiver();
+        } finally {
+            largeMessageSupport.stopHousekeeping();
+            stopping = false;
+        }
+    }
+
+    private void stopFlowReceiver() {
         solaceBinderHealthAccessor.ifPresent(solaceBinderHealth -> solaceBinderHealth.removeBindingHealthIndicator(consumerProperties.getBindingName()));
-        FlowReceiver currentFlowReceiver = this.flowReceiver.get();
+        // no backpressure flow control from here on, it must not start the flow again while draining
+        this.flowXMLMessageListener.setBackpressure(null);
+        FlowReceiver currentFlowReceiver = this.flowReceiver.getAndSet(null); // Clear the reference to ensure clean restart
         if (currentFlowReceiver != null) {
             currentFlowReceiver.stop(); // stop new deliveries, but keep the flow open so in-flight messages can still be ACKed
+        }
+        DemandDrivenPublisher currentPublisher = this.demandDrivenPublisher;
+        if (currentPublisher != null) {
+            this.demandDrivenPublisher = null;
+            currentPublisher.cancel(); // workers waiting for demand requeue their messages
+            super.doStop(); // cancels the subscription
+        }
+        ConsumerShutdownCoordinator coordinator = this.shutdownCoordinator;
+        if (coordinator != null && consumerProperties.getExtension().isParallelStop()) {
+            // nothing is delivered anymore, the rest runs in parallel with the stop of the other bindings
+            this.pendingStop = coordinator.submit(consumerDestination.getName(), () -> closeFlowAndStopWorkers(currentFlowReceiver));
+        } else {
+            closeFlowAndStopWorkers(currentFlowReceiver);
+        }
+    }
+
+    private void closeFlowAndStopWorkers(FlowReceiver stoppedFlowReceiver) {
+        if (stoppedFlowReceiver != null) {
             long drainTimeoutMs = consumerProperties.getExtension().getDrainTimeoutMs();
             if (drainTimeoutMs > 0) {
                 // opt-in graceful shutdown: let workers finish + settle in-flight messages before closing the flow
                 this.flowXMLMessageListener.drain(drainTimeoutMs);
             }
-            currentFlowReceiver.close(); // now safe to close: nothing left to ACK on this flow
-            this.flowReceiver.set(null); // Clear the reference to ensure clean restart
+            largeMessageSupport.discardIncompleteFiles(); // requeues their chunks on the open flow
+            stopSettlementPipeline(); // settlements handed to the acker must be done on the open flow
+            stoppedFlowReceiver.close(); // now safe to close: nothing left to ACK on this flow
         }
         this.flowXMLMessageListener.stopReceiverThreads();
+        stopSettlementPipeline();
+        largeMessageSupport.closeReassemblyDirectory(); // also deletes the files of chunks received while stopping
+    }
+
+    private void stopSettlementPipeline() {
+        SettlementPipeline currentSettlementPipeline = this.settlementPipeline;
+        if (currentSettlementPipeline != null) {
+            currentSettlementPipeline.stop(5000);
+            this.settlementPipeline = null;
+        }
+    }
+
+    /**
+     * A restarted binding must not create its flow and workers before the previous stop has finished.
+     */
+    private void awaitPendingStop() {
+        CompletableFuture<Void> currentPendingStop = this.pendingStop;
+        if (currentPendingStop != null) {
+            log.info("Waiting for the previous stop of binding={} to finish", consumerDestination.getName());
+            currentPendingStop.join();
+            this.pendingStop = null;
+        }
     }
 
     @Override
@@ -353,7 +739,9 @@ public class JCSMPInboundQueueMessageProducer extends MessageProducerSupport imp
         paused.set(false);
         try {
             FlowReceiver currentFlowReceiver = this.flowReceiver.get();
-            if (currentFlowReceiver != null) {
+            if (this.flowXMLMessageListener.isFlowStoppedByBackpressure()) {
+                log.info("Flow receiver binding={} stays stopped until the buffer falls to its low watermark", consumerDestination.getName());
+            } else if (currentFlowReceiver != null) {
                 currentFlowReceiver.start();
             }
         } catch (JCSMPException e) {
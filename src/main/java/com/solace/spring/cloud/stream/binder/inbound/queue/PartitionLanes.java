@@ -0,0 +1,118 @@
+package com.solace.spring.cloud.stream.binder.inbound.queue;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serializes the processing of messages that share a partition key ({@code JMSXGroupID}).
+ * <p>Each partition key with work in progress has a lane. Only one message per lane is handed out for
+ * processing at a time; the messages that arrive meanwhile are parked in the lane in receive order and released
+ * one by one as their predecessor completes. A lane exists only while it has work, so the number of lanes is
+ * bounded by the number of buffered messages, not by the number of partition keys ever seen.</p>
+ */
+class PartitionLanes {
+
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+    private final AtomicInteger parkedMessages = new AtomicInteger();
+
+    /**
+     * Called in receive order (on the Solace dispatcher thread).
+     *
+     * @return the message if it may be processed right away, or {@code null} if it was parked behind an
+     * earlier message of the same partition key
+     */
+    FlowXMLMessageListener.MessageInProgress admit(FlowXMLMessageListener.MessageInProgress messageInProgress, String partitionKey) {
+        while (true) {
+            Lane lane = lanes.computeIfAbsent(partitionKey, Lane::new);
+            synchronized (lane) {
+                if (lane.retired) {
+                    // lane went idle and was removed concurrently, a new one will be created
+                    continue;
+                }
+                messageInProgress.setLane(lane);
+                if (lane.busy) {
+                    lane.parked.add(messageInProgress);
+                    parkedMessages.incrementAndGet();
+                    return null;
+                }
+                lane.busy = true;
+                return messageInProgress;
+            }
+        }
+    }
+
+    /**
+     * Called once the processing of a message handed out by {@link #admit} or {@link #complete} finished.
+     *
+     * @return the next parked message of the same partition key, which may now be processed, or {@code null}
+     */
+    FlowXMLMessageListener.MessageInProgress complete(FlowXMLMessageListener.MessageInProgress messageInProgress) {
+        Lane lane = messageInProgress.getLane();
+        if (lane == null) {
+            return null;
+        }
+        synchronized (lane) {
+            FlowXMLMessageListener.MessageInProgress next = lane.parked.poll();
+            if (next != null) {
+                parkedMessages.decrementAndGet();
+                return next;
+            }
+            lane.busy = false;
+            lane.retired = true;
+            lanes.remove(lane.partitionKey, lane);
+            return null;
+        }
+    }
+
+    /**
+     * Hands the parked messages of the lane of {@code messageInProgress} to the same batch, in receive order, while
+     * {@code messageInProgress} itself is not completed yet. The taken messages leave their lane: only
+     * {@code messageInProgress} is completed afterwards, which releases the next message that arrived meanwhile.
+     *
+     * @return the number of messages added to {@code batch}, at most {@code max}
+     */
+    int takeParked(FlowXMLMessageListener.MessageInProgress messageInProgress, int max,
+                   List<FlowXMLMessageListener.MessageInProgress> batch) {
+        Lane lane = messageInProgress.getLane();
+        if (lane == null || max <= 0) {
+            return 0;
+        }
+        int taken = 0;
+        synchronized (lane) {
+            FlowXMLMessageListener.MessageInProgress next;
+            while (taken < max && (next = lane.parked.poll()) != null) {
+                next.setLane(null);
+                batch.add(next);
+                taken++;
+            }
+        }
+        parkedMessages.addAndGet(-taken);
+        return taken;
+    }
+
+    /**
+     * @return the number of messages waiting for an earlier message of their partition key
+     */
+    int parkedMessages() {
+        return parkedMessages.get();
+    }
+
+    static final class Lane {
+        private final String partitionKey;
+        private final ArrayDeque<FlowXMLMessageListener.MessageInProgress> parked = new ArrayDeque<>();
+        private boolean busy;
+        private boolean retired;
+
+        private Lane(String partitionKey) {
+            this.partitionKey = partitionKey;
+        }
+
+        @Override
+        public String toString() {
+            return "Lane{" + partitionKey + "}";
+        }
+    }
+}
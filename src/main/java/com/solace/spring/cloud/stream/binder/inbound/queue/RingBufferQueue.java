@@ -0,0 +1,300 @@
+package com.solace.spring.cloud.stream.binder.inbound.queue;
+
+import com.solace.spring.cloud.stream.binder.util.RingBufferWaitStrategy;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded worker queue on a pre-allocated ring buffer, built for one main producer (the Solace dispatcher thread)
+ * and many consumers (the worker threads). Workers handing on the next message of a partition key offer too, so
+ * the write position is claimed by CAS as well.
+ * <p>Every slot has a sequence number that tells whether it is free for the write at position {@code p}
+ * ({@code sequence == p}) or holds the element of position {@code p} ({@code sequence == p + 1}). Producer and
+ * consumers claim a position with a single CAS and publish by advancing the slot sequence, so neither side takes a
+ * lock and no node is allocated per element. The slots are reused on every lap of the ring.</p>
+ * <p>Only the waiting of idle consumers depends on the {@link RingBufferWaitStrategy}. With
+ * {@link RingBufferWaitStrategy#BLOCKING} the producer signals the condition only while a consumer is actually
+ * waiting, so a busy binding never touches the lock.</p>
+ * <p>{@link #offer} returns {@code false} when the ring is full; it never blocks the dispatcher.</p>
+ */
+class RingBufferQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+    private static final int SPIN_TRIES = 100;
+
+    private final int capacity;
+    private final int mask;
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final PaddedPosition tail = new PaddedPosition();
+    private final PaddedPosition head = new PaddedPosition();
+    private final RingBufferWaitStrategy waitStrategy;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final AtomicInteger waitingConsumers = new AtomicInteger();
+
+    /**
+     * @param capacity rounded up to the next power of two
+     */
+    RingBufferQueue(int capacity, RingBufferWaitStrategy waitStrategy) {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Ring buffer capacity must be between 1 and 2^30, but was " + capacity);
+        }
+        this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.elements = new Object[this.capacity];
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.waitStrategy = Objects.requireNonNull(waitStrategy);
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        Objects.requireNonNull(e);
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements[index] = e;
+                    sequences.set(index, position + 1);
+                    signalNotEmpty();
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false; // the slot still holds the element of the previous lap: full
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long position = head.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    E e = (E) elements[index];
+                    elements[index] = null;
+                    sequences.set(index, position + capacity);
+                    return e;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                return null; // not yet published: empty
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        E e = poll();
+        if (e != null) {
+            return e;
+        }
+        long deadlineNanos = System.nanoTime() + unit.toNanos(timeout);
+        return switch (waitStrategy) {
+            case BLOCKING -> pollBlocking(deadlineNanos);
+            case YIELDING -> pollSpinning(deadlineNanos, true);
+            case BUSY_SPIN -> pollSpinning(deadlineNanos, false);
+        };
+    }
+
+    private E pollBlocking(long deadlineNanos) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            // registering as waiter before the re-check pairs with the producer publishing before reading the
+            // waiter count: either this poll sees the element or the producer sees the waiter and signals
+            waitingConsumers.incrementAndGet();
+            try {
+                E e;
+                while ((e = poll()) == null) {
+                    long remainingNanos = deadlineNanos - System.nanoTime();
+                    if (remainingNanos <= 0) {
+                        return null;
+                    }
+                    notEmpty.awaitNanos(remainingNanos);
+                }
+                return e;
+            } finally {
+                waitingConsumers.decrementAndGet();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private E pollSpinning(long deadlineNanos, boolean yield) throws InterruptedException {
+        int tries = 0;
+        E e;
+        while ((e = poll()) == null) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (System.nanoTime() - deadlineNanos >= 0) {
+                return null;
+            }
+            if (yield && ++tries > SPIN_TRIES) {
+                Thread.yield();
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+        return e;
+    }
+
+    private void signalNotEmpty() {
+        if (waitStrategy == RingBufferWaitStrategy.BLOCKING && waitingConsumers.get() > 0) {
+            lock.lock();
+            try {
+                notEmpty.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Weakly consistent: may return {@code null} or an already taken element while consumers are polling.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        long position = head.get();
+        int index = (int) (position & mask);
+        if (sequences.get(index) == position + 1) {
+            return (E) elements[index];
+        }
+        return null;
+    }
+
+    @Override
+    public int size() {
+        long currentHead = head.get();
+        long currentTail = tail.get();
+        return (int) Math.max(0, Math.min(capacity, currentTail - currentHead));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return capacity - size();
+    }
+
+    /**
+     * Waits for a free slot by spinning, meant for tests and benchmarks only. The dispatcher uses {@link #offer}.
+     */
+    @Override
+    public void put(E e) throws InterruptedException {
+        while (!offer(e)) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            Thread.yield();
+        }
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadlineNanos = System.nanoTime() + unit.toNanos(timeout);
+        while (!offer(e)) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (System.nanoTime() - deadlineNanos >= 0) {
+                return false;
+            }
+            Thread.yield();
+        }
+        return true;
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        E e;
+        do {
+            e = poll(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } while (e == null);
+        return e;
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        Objects.requireNonNull(c);
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+        int drained = 0;
+        E e;
+        while (drained < maxElements && (e = poll()) != null) {
+            c.add(e);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Iterates over a snapshot of the published elements, the iterator does not support removal.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterator<E> iterator() {
+        List<E> snapshot = new ArrayList<>();
+        long position = head.get();
+        long end = tail.get();
+        for (; position < end; position++) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) == position + 1) {
+                Object element = elements[index];
+                if (element != null) {
+                    snapshot.add((E) element);
+                }
+            }
+        }
+        return Collections.unmodifiableList(snapshot).iterator();
+    }
+
+    /**
+     * Keeps the hot position counter on its own cache line, so the dispatcher advancing the tail does not
+     * invalidate the line the workers read the head from.
+     */
+    @SuppressWarnings({"unused", "serial"})
+    private static final class PaddedPosition extends AtomicLong {
+        private long p1, p2, p3, p4, p5, p6, p7;
+    }
+}
@@ -0,0 +1,125 @@
+package com.solace.spring.cloud.stream.binder.inbound.queue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel for the watchdog deadlines of messages in processing.
+ * <p>A worker registers the deadline when it starts processing a message and cancels it when it is done; both are
+ * O(1) because the message itself is the list node ({@link FlowXMLMessageListener.MessageInProgress} carries the
+ * links) and every bucket has its own lock, so workers rarely contend. The watchdog only visits the buckets of the
+ * ticks that passed since its last call, instead of scanning every message in processing. Deadlines further away
+ * than one revolution simply stay in their bucket until a later revolution reaches them.</p>
+ */
+class StuckMessageWheel {
+    private static final int DEFAULT_BUCKETS = 512;
+
+    private final Bucket[] buckets;
+    private final int mask;
+    private final long tickNanos;
+    // only accessed by the watchdog thread
+    private long lastTick;
+
+    StuckMessageWheel(long tickNanos) {
+        this(tickNanos, DEFAULT_BUCKETS, System.nanoTime());
+    }
+
+    /**
+     * @param bucketCount must be a power of two
+     */
+    StuckMessageWheel(long tickNanos, int bucketCount, long nowNanos) {
+        if (tickNanos <= 0 || Integer.bitCount(bucketCount) != 1) {
+            throw new IllegalArgumentException("tickNanos must be positive and bucketCount a power of two");
+        }
+        this.tickNanos = tickNanos;
+        this.buckets = new Bucket[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new Bucket();
+        }
+        this.mask = bucketCount - 1;
+        this.lastTick = Math.floorDiv(nowNanos, tickNanos);
+    }
+
+    /**
+     * Called by the worker thread when processing starts.
+     */
+    void schedule(FlowXMLMessageListener.MessageInProgress messageInProgress, long deadlineNanos) {
+        Bucket bucket = buckets[(int) (Math.floorDiv(deadlineNanos, tickNanos) & mask)];
+        synchronized (bucket) {
+            messageInProgress.setDeadlineNanos(deadlineNanos);
+            messageInProgress.wheelPrev = null;
+            messageInProgress.wheelNext = bucket.head;
+            if (bucket.head != null) {
+                bucket.head.wheelPrev = messageInProgress;
+            }
+            bucket.head = messageInProgress;
+            messageInProgress.wheelBucket = bucket;
+        }
+    }
+
+    /**
+     * Called by the worker thread when processing ends, no-op if the deadline already expired.
+     */
+    void cancel(FlowXMLMessageListener.MessageInProgress messageInProgress) {
+        Bucket bucket = messageInProgress.wheelBucket;
+        if (bucket == null) {
+            return;
+        }
+        synchronized (bucket) {
+            if (messageInProgress.wheelBucket == bucket) {
+                bucket.unlink(messageInProgress);
+            }
+        }
+    }
+
+    /**
+     * Called by the watchdog thread. Removes every message whose deadline passed and hands it to {@code onExpired},
+     * outside the bucket locks.
+     */
+    void expire(long nowNanos, Consumer<FlowXMLMessageListener.MessageInProgress> onExpired) {
+        long currentTick = Math.floorDiv(nowNanos, tickNanos);
+        // the bucket of lastTick is visited again: it may have received deadlines after the previous call
+        long ticks = Math.min(currentTick - lastTick + 1, buckets.length);
+        List<FlowXMLMessageListener.MessageInProgress> expired = null;
+        for (long tick = currentTick - ticks + 1; tick <= currentTick; tick++) {
+            Bucket bucket = buckets[(int) (tick & mask)];
+            synchronized (bucket) {
+                FlowXMLMessageListener.MessageInProgress node = bucket.head;
+                while (node != null) {
+                    FlowXMLMessageListener.MessageInProgress next = node.wheelNext;
+                    if (node.getDeadlineNanos() - nowNanos <= 0) {
+                        bucket.unlink(node);
+                        if (expired == null) {
+                            expired = new ArrayList<>();
+                        }
+                        expired.add(node);
+                    }
+                    node = next;
+                }
+            }
+        }
+        lastTick = currentTick;
+        if (expired != null) {
+            expired.forEach(onExpired);
+        }
+    }
+
+    static final class Bucket {
+        private FlowXMLMessageListener.MessageInProgress head;
+
+        private void unlink(FlowXMLMessageListener.MessageInProgress node) {
+            if (node.wheelPrev != null) {
+                node.wheelPrev.wheelNext = node.wheelNext;
+            } else {
+                head = node.wheelNext;
+            }
+            if (node.wheelNext != null) {
+                node.wheelNext.wheelPrev = node.wheelPrev;
+            }
+            node.wheelPrev = null;
+            node.wheelNext = null;
+            node.wheelBucket = null;
+        }
+    }
+}
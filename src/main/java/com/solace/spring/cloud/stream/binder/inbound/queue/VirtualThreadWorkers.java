@@ -0,0 +1,109 @@
+package com.solace.spring.cloud.stream.binder.inbound.queue;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs message processing as tasks instead of on long-lived polling threads, limited to {@code concurrency}
+ * tasks per binding by a semaphore. No thread is kept while a binding is idle.
+ * <p>The binder is built for Java 17, so virtual threads are looked up reflectively. On a Java 21+ runtime every
+ * task gets its own virtual thread; on older runtimes the tasks run on an elastic platform thread pool that
+ * releases idle threads after a minute.</p>
+ */
+@Slf4j
+class VirtualThreadWorkers {
+    private static final ThreadFactoryBuilder VIRTUAL_THREAD_FACTORY_BUILDER = lookupVirtualThreadFactoryBuilder();
+
+    private final int concurrency;
+    private final Semaphore permits;
+    private final ThreadPoolExecutor executor;
+
+    VirtualThreadWorkers(int concurrency, String threadNamePrefix) {
+        this.concurrency = concurrency;
+        this.permits = new Semaphore(concurrency);
+        if (VIRTUAL_THREAD_FACTORY_BUILDER != null) {
+            this.executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 0, TimeUnit.SECONDS,
+                    new SynchronousQueue<>(), VIRTUAL_THREAD_FACTORY_BUILDER.build(threadNamePrefix + "-"));
+        } else {
+            log.warn("Virtual threads are not available on this Java runtime, binding={} uses an elastic platform thread pool", threadNamePrefix);
+            AtomicInteger threadIndex = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                    new SynchronousQueue<>(), r -> new Thread(r, threadNamePrefix + "-" + threadIndex.getAndIncrement()));
+        }
+    }
+
+    static boolean isVirtualThreadSupported() {
+        return VIRTUAL_THREAD_FACTORY_BUILDER != null;
+    }
+
+    /**
+     * Non-blocking, safe to call on the Solace dispatcher thread.
+     *
+     * @return {@code true} if a task may be started, it must call {@link #release()} when it ends
+     */
+    boolean tryAcquire() {
+        return permits.tryAcquire();
+    }
+
+    void release() {
+        permits.release();
+    }
+
+    /**
+     * Runs a task that holds a permit.
+     */
+    void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    /**
+     * Waits until no task is running anymore (all permits returned) and stops the executor.
+     */
+    void shutdown(long timeoutMs) {
+        try {
+            if (permits.tryAcquire(concurrency, timeoutMs, TimeUnit.MILLISECONDS)) {
+                permits.release(concurrency);
+                log.info("All worker tasks stopped");
+            } else {
+                log.warn("{} worker task(s) did not stop within timeout, interrupting", concurrency - permits.availablePermits());
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            log.warn("Interrupted while waiting for worker tasks to stop");
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdown();
+    }
+
+    @FunctionalInterface
+    private interface ThreadFactoryBuilder {
+        ThreadFactory build(String namePrefix);
+    }
+
+    private static ThreadFactoryBuilder lookupVirtualThreadFactoryBuilder() {
+        try {
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Method name = builderClass.getMethod("name", String.class, long.class);
+            Method factory = builderClass.getMethod("factory");
+            ofVirtual.invoke(null); // fails on runtimes where virtual threads are a disabled preview feature
+            return namePrefix -> {
+                try {
+                    Object builder = name.invoke(ofVirtual.invoke(null), namePrefix, 0L);
+                    return (ThreadFactory) factory.invoke(builder);
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Failed to create virtual thread factory", e);
+                }
+            };
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
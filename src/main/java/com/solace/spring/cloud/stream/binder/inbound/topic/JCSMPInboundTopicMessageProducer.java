@@ -4,6 +4,7 @@ import com.solace.spring.cloud.stream.binder.meter.SolaceMeterAccessor;
 import com.solace.spring.cloud.stream.binder.properties.SolaceConsumerProperties;
 import com.solace.spring.cloud.stream.binder.provisioning.SolaceConsumerDestination;
 import com.solace.spring.cloud.stream.binder.tracing.TracingProxy;
+import com.solace.spring.cloud.stream.binder.util.HeaderMappingPlan;
 import com.solace.spring.cloud.stream.binder.util.XMLMessageMapper;
 import com.solacesystems.jcsmp.BytesXMLMessage;
 import lombok.Setter;
@@ -38,6 +39,7 @@ public class JCSMPInboundTopicMessageProducer extends MessageProducerSupport imp
     private final ExecutorService executorService;
     private final JCSMPInboundTopicMessageMultiplexer.LivecycleHooks livecycleHooks;
     private final XMLMessageMapper xmlMessageMapper = new XMLMessageMapper();
+    private final HeaderMappingPlan headerMappingPlan;
     private final List<BytesXMLMessage> pauseQueue = new ArrayList<>();
     private final AcknowledgmentCallback noop = status -> {
     };
@@ -52,6 +54,7 @@ public class JCSMPInboundTopicMessageProducer extends MessageProducerSupport imp
         this.consumerDestination = consumerDestination;
         this.group = group;
         this.consumerProperties = consumerProperties;
+        this.headerMappingPlan = HeaderMappingPlan.forConsumer(consumerProperties.getExtension());
         setBeanFactory(beanFactory);
         this.solaceMeterAccessor = solaceMeterAccessor;
         this.tracingProxy = tracingProxy;
@@ -71,7 +74,7 @@ public class JCSMPInboundTopicMessageProducer extends MessageProducerSupport imp
                 Message<?> message;
                 // since the BytesXMLMessage is not thread safe we can't access it with multiple threads and therefore need a lock to avoid race conditions
                 synchronized (msg) {
-                    message = xmlMessageMapper.map(msg, noop, consumerProperties.getExtension());
+                    message = xmlMessageMapper.map(msg, noop, false, headerMappingPlan, consumerProperties.getExtension().getBytesPayloadType());
                 }
                 Consumer<Message<?>> sendToCustomerConsumer = this::sendMessageWithProcessingTimeTracking;
                 if (tracingProxy.isPresent() && msg.getProperties() != null && tracingProxy.get().hasTracingHeader(msg.getProperties())) {
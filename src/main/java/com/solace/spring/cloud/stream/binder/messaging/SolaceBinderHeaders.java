@@ -40,11 +40,21 @@ public final class SolaceBinderHeaders {
     /**
      * <p><b>Acceptable Value Type:</b> {@link Boolean}</p>
      * <br>
-     * <p>When <b>true</b> large messages are split in 4MB chunks and reassembled in the consumer.</p>
+     * <p>When <b>true</b> large messages are split in chunks of {@code largeMessageChunkSize} bytes and reassembled
+     * in the consumer. The payload may also be an {@link java.io.InputStream}, a {@link java.nio.ByteBuffer} or a
+     * {@link java.nio.file.Path}, which is read chunk by chunk while the chunks are published.</p>
      * <p>The Queue needs to be partitioned to support this feature</p>
      */
     public static final String LARGE_MESSAGE_SUPPORT = PREFIX + "largeMessageSupport";
 
+    /**
+     * <p><b>Acceptable Value Type:</b> {@link Long}</p>
+     * <br>
+     * <p>The number of bytes of an {@link java.io.InputStream} payload of a large message, required to publish
+     * it. See {@link #LARGE_MESSAGE_SUPPORT}.</p>
+     */
+    public static final String LARGE_MESSAGE_LENGTH = PREFIX + "largeMessageLength";
+
     /**
      * <p><b>Acceptable Value Type:</b> {@link Long}</p>
      * <p><b>Access:</b> Internal Binder Use Only</p>
@@ -87,6 +97,24 @@ public final class SolaceBinderHeaders {
      */
     public static final String SERIALIZED_PAYLOAD = PREFIX + "serializedPayload";
 
+    /**
+     * <p><b>Acceptable Value Type:</b> {@link String}</p>
+     * <p><b>Access:</b> Internal Binder Use Only</p>
+     * <br>
+     * <p>The encoding of a payload indicated by {@link #SERIALIZED_PAYLOAD}. Is undefined if the payload is
+     * Java-serialized.</p>
+     */
+    public static final String SERIALIZED_PAYLOAD_ENCODING = PREFIX + "serializedPayloadEncoding";
+
+    /**
+     * <p><b>Acceptable Value Type:</b> {@link String}</p>
+     * <p><b>Access:</b> Internal Binder Use Only</p>
+     * <br>
+     * <p>The compression of the data of a binary message, e.g. {@code gzip}. Consumers decompress the data before
+     * the payload is mapped. Is undefined if the data is not compressed.</p>
+     */
+    public static final String PAYLOAD_COMPRESSION = PREFIX + "payloadCompression";
+
     /**
      * <p><b>Acceptable Value Type:</b> {@link String}</p>
      * <p><b>Access:</b> Internal Binder Use Only</p>
@@ -133,4 +161,15 @@ public final class SolaceBinderHeaders {
      * <p>When absent, the binding’s configured destination-type is used.</p>
      */
     public static final String TARGET_DESTINATION_TYPE = PREFIX + "targetDestinationType";
+
+    /**
+     * <p><b>Acceptable Value Type:</b> {@link java.util.List List}&lt;{@link java.util.Map Map}&lt;{@link String},
+     * {@link Object}&gt;&gt;</p>
+     * <p><b>Access:</b> Read</p>
+     * <br>
+     * <p>Only present on the {@code Message<List<?>>} of a batch consumer ({@code batchMode = true}). The headers of
+     * each message of the batch, in the order of the payload list. Each entry holds the
+     * {@code acknowledgmentCallback} of its message, which settles only that message.</p>
+     */
+    public static final String BATCHED_HEADERS = PREFIX + "batchedHeaders";
 }
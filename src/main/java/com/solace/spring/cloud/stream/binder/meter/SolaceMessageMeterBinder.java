@@ -1,13 +1,17 @@
 package com.solace.spring.cloud.stream.binder.meter;
 
+import com.solace.spring.cloud.stream.binder.util.MeteredLruCache;
 import com.solacesystems.jcsmp.XMLMessage;
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.binder.BaseUnits;
 import io.micrometer.core.instrument.binder.MeterBinder;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
 
 public class SolaceMessageMeterBinder implements MeterBinder {
     MeterRegistry registry;
@@ -19,6 +23,13 @@ public class SolaceMessageMeterBinder implements MeterBinder {
     public static final String METER_NAME_ACTIVE_MESSAGES_SIZE = "solace.message.active.size";
     public static final String METER_NAME_QUEUE_BACKPRESSURE = "solace.message.queue.backpressure";
     public static final String METER_NAME_QUEUE_WAIT_TIME = "solace.message.queue.wait.time";
+    public static final String METER_NAME_QUEUE_BYTES = "solace.message.queue.bytes";
+    public static final String METER_NAME_FLOW_BACKPRESSURE = "solace.message.flow.backpressure";
+    public static final String METER_NAME_WORKER_THREADS = "solace.message.worker.threads";
+    public static final String METER_NAME_SETTLE_LATENCY = "solace.message.settle.latency";
+    public static final String METER_NAME_SETTLE_QUEUE_SIZE = "solace.message.settle.queue.size";
+    public static final String METER_NAME_SEND_CIRCUIT_BREAKER = "solace.message.send.circuit.breaker";
+    public static final String METER_NAME_CACHE = "solace.message.cache";
     public static final String METER_DESCRIPTION_TOTAL_SIZE = "Total message size";
     public static final String METER_DESCRIPTION_PAYLOAD_SIZE = "Message payload size";
     public static final String METER_DESCRIPTION_PROCESSING_TIME = "How long each message has been processed, before thread has been handed back";
@@ -26,9 +37,25 @@ public class SolaceMessageMeterBinder implements MeterBinder {
     public static final String METER_DESCRIPTION_ACTIVE_MESSAGES_SIZE = "Messages active in processing";
     public static final String METER_DESCRIPTION_QUEUE_BACKPRESSURE = "The age of the oldest message that is waiting for being processed in process queue.";
     public static final String METER_DESCRIPTION_QUEUE_WAIT_TIME = "Time a message spent in the queue before processing started.";
+    public static final String METER_DESCRIPTION_QUEUE_BYTES = "Payload bytes buffered in the queue or in processing";
+    public static final String METER_DESCRIPTION_FLOW_BACKPRESSURE = "Flow stops and starts caused by the buffer watermarks";
+    public static final String METER_DESCRIPTION_WORKER_THREADS = "Worker threads of a binding with adaptive concurrency";
+    public static final String METER_DESCRIPTION_SETTLE_LATENCY = "Time from handing a settlement to the acker until the message was settled";
+    public static final String METER_DESCRIPTION_SETTLE_QUEUE_SIZE = "Settlements waiting for the acker";
+    public static final String METER_DESCRIPTION_SEND_CIRCUIT_BREAKER = "State transitions of the send circuit breaker of a producer binding";
+    public static final String METER_DESCRIPTION_CACHE = "Hits, misses and evictions of a cache of a binding";
     public static final String TAG_NAME = "name";
+    public static final String TAG_STATE = "state";
+    public static final String TAG_CACHE = "cache";
+    public static final String TAG_RESULT = "result";
+    public static final String RESULT_HIT = "hit";
+    public static final String RESULT_MISS = "miss";
+    public static final String RESULT_EVICTION = "eviction";
+    public static final String STATE_STOPPED = "stopped";
+    public static final String STATE_STARTED = "started";
 
     final Map<String, DistributionSummary> meterCache = new ConcurrentHashMap<>();
+    final Map<String, Counter> counterCache = new ConcurrentHashMap<>();
 
     @Override
     public void bindTo(MeterRegistry registry) {
@@ -127,6 +154,120 @@ public class SolaceMessageMeterBinder implements MeterBinder {
                 .record(processingDurationMs);
     }
 
+    public void recordQueueBytes(String bindingName, long bufferedBytes) {
+        if (registry == null) {
+            return;
+        }
+
+        registerSizeMeter(METER_NAME_QUEUE_BYTES, METER_DESCRIPTION_QUEUE_BYTES, bindingName)
+                .record(bufferedBytes);
+    }
+
+    public void recordFlowBackpressure(String bindingName, boolean flowStopped) {
+        if (registry == null) {
+            return;
+        }
+
+        String state = flowStopped ? STATE_STOPPED : STATE_STARTED;
+        counterCache.computeIfAbsent(
+                        METER_NAME_FLOW_BACKPRESSURE + bindingName + state,
+                        ignored -> Counter.builder(METER_NAME_FLOW_BACKPRESSURE)
+                                .description(METER_DESCRIPTION_FLOW_BACKPRESSURE)
+                                .tag(TAG_NAME, bindingName)
+                                .tag(TAG_STATE, state)
+                                .register(registry)
+                )
+                .increment();
+    }
+
+    public void recordWorkerThreads(String bindingName, int workerThreads) {
+        if (registry == null) {
+            return;
+        }
+
+        meterCache.computeIfAbsent(
+                        METER_NAME_WORKER_THREADS + bindingName,
+                        ignored -> DistributionSummary.builder(METER_NAME_WORKER_THREADS)
+                                .description(METER_DESCRIPTION_WORKER_THREADS)
+                                .tag(TAG_NAME, bindingName)
+                                .baseUnit(BaseUnits.THREADS)
+                                .register(registry)
+                )
+                .record(workerThreads);
+    }
+
+    public void recordSettleLatency(String bindingName, long settleLatencyMs) {
+        if (registry == null) {
+            return;
+        }
+
+        meterCache.computeIfAbsent(
+                        METER_NAME_SETTLE_LATENCY + bindingName,
+                        ignored -> DistributionSummary.builder(METER_NAME_SETTLE_LATENCY)
+                                .description(METER_DESCRIPTION_SETTLE_LATENCY)
+                                .tag(TAG_NAME, bindingName)
+                                .baseUnit(BaseUnits.MILLISECONDS)
+                                .register(registry)
+                )
+                .record(settleLatencyMs);
+    }
+
+    public void recordSettleQueueSize(String bindingName, int settleQueueSize) {
+        if (registry == null) {
+            return;
+        }
+
+        meterCache.computeIfAbsent(
+                        METER_NAME_SETTLE_QUEUE_SIZE + bindingName,
+                        ignored -> DistributionSummary.builder(METER_NAME_SETTLE_QUEUE_SIZE)
+                                .description(METER_DESCRIPTION_SETTLE_QUEUE_SIZE)
+                                .tag(TAG_NAME, bindingName)
+                                .baseUnit(BaseUnits.MESSAGES)
+                                .register(registry)
+                )
+                .record(settleQueueSize);
+    }
+
+    public void recordSendCircuitBreaker(String bindingName, String state) {
+        if (registry == null) {
+            return;
+        }
+
+        counterCache.computeIfAbsent(
+                        METER_NAME_SEND_CIRCUIT_BREAKER + bindingName + state,
+                        ignored -> Counter.builder(METER_NAME_SEND_CIRCUIT_BREAKER)
+                                .description(METER_DESCRIPTION_SEND_CIRCUIT_BREAKER)
+                                .tag(TAG_NAME, bindingName)
+                                .tag(TAG_STATE, state)
+                                .register(registry)
+                )
+                .increment();
+    }
+
+    /**
+     * Registers the counters of the cache, which are read from the cache when the registry is scraped instead of
+     * being recorded on every lookup.
+     */
+    public void registerCache(String bindingName, String cacheName, MeteredLruCache<?, ?> cache) {
+        if (registry == null) {
+            return;
+        }
+
+        registerCacheCounter(bindingName, cacheName, RESULT_HIT, cache, MeteredLruCache::getHitCount);
+        registerCacheCounter(bindingName, cacheName, RESULT_MISS, cache, MeteredLruCache::getMissCount);
+        registerCacheCounter(bindingName, cacheName, RESULT_EVICTION, cache, MeteredLruCache::getEvictionCount);
+    }
+
+    private void registerCacheCounter(String bindingName, String cacheName, String result, MeteredLruCache<?, ?> cache,
+                                      ToLongFunction<MeteredLruCache<?, ?>> count) {
+        FunctionCounter.builder(METER_NAME_CACHE, cache, c -> count.applyAsLong(c))
+                .description(METER_DESCRIPTION_CACHE)
+                .tag(TAG_NAME, bindingName)
+                .tag(TAG_CACHE, cacheName)
+                .tag(TAG_RESULT, result)
+                .register(registry);
+    }
+
     private DistributionSummary registerSizeMeter(String meterName,
                                                   String description,
                                                   String bindingName) {
@@ -1,5 +1,6 @@
 package com.solace.spring.cloud.stream.binder.meter;
 
+import com.solace.spring.cloud.stream.binder.util.MeteredLruCache;
 import com.solacesystems.jcsmp.XMLMessage;
 
 /**
@@ -37,4 +38,32 @@ public class SolaceMeterAccessor {
     public void recordMessageProcessingTimeDuration(String bindingName, long processingDurationMs) {
         solaceMessageMeterBinder.recordMessageProcessingTimeDuration(bindingName, processingDurationMs);
     }
+
+    public void recordQueueBytes(String bindingName, long bufferedBytes) {
+        solaceMessageMeterBinder.recordQueueBytes(bindingName, bufferedBytes);
+    }
+
+    public void recordFlowBackpressure(String bindingName, boolean flowStopped) {
+        solaceMessageMeterBinder.recordFlowBackpressure(bindingName, flowStopped);
+    }
+
+    public void recordWorkerThreads(String bindingName, int workerThreads) {
+        solaceMessageMeterBinder.recordWorkerThreads(bindingName, workerThreads);
+    }
+
+    public void recordSettleLatency(String bindingName, long settleLatencyMs) {
+        solaceMessageMeterBinder.recordSettleLatency(bindingName, settleLatencyMs);
+    }
+
+    public void recordSettleQueueSize(String bindingName, int settleQueueSize) {
+        solaceMessageMeterBinder.recordSettleQueueSize(bindingName, settleQueueSize);
+    }
+
+    public void recordSendCircuitBreaker(String bindingName, String state) {
+        solaceMessageMeterBinder.recordSendCircuitBreaker(bindingName, state);
+    }
+
+    public void registerCache(String bindingName, String cacheName, MeteredLruCache<?, ?> cache) {
+        solaceMessageMeterBinder.registerCache(bindingName, cacheName, cache);
+    }
 }
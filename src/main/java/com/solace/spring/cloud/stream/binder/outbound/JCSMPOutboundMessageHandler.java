@@ -1,5 +1,7 @@
 package com.solace.spring.cloud.stream.binder.outbound;
 
+import com.solace.spring.cloud.stream.binder.health.SolaceBinderHealthAccessor;
+import com.solace.spring.cloud.stream.binder.health.base.SolaceHealthIndicator;
 import com.solace.spring.cloud.stream.binder.messaging.SolaceBinderHeaders;
 import com.solace.spring.cloud.stream.binder.meter.SolaceMeterAccessor;
 import com.solace.spring.cloud.stream.binder.properties.SolaceProducerProperties;
@@ -17,19 +19,42 @@ import org.springframework.cloud.stream.binder.BinderHeaders;
 import org.springframework.cloud.stream.binder.ExtendedProducerProperties;
 import org.springframework.cloud.stream.provisioning.ProducerDestination;
 import org.springframework.context.Lifecycle;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.EvaluationException;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.integration.support.ErrorMessageStrategy;
+import org.springframework.integration.support.MutableMessage;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.MessagingException;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 public class JCSMPOutboundMessageHandler implements MessageHandler, Lifecycle {
-    private static final Duration SEND_RETRY_BACKOFF = Duration.ofSeconds(1);
+    private static final String SEND_CIRCUIT_BREAKER_DETAIL = "sendCircuitBreaker";
+    private static final long PUBLISH_BATCHER_STOP_TIMEOUT_MS = 5000;
+    private static final long OUTBOX_STOP_TIMEOUT_MS = 5000;
+    private static final String DESTINATION_CACHE = "destination";
+    private static final String CONTENT_TYPE_CACHE = "contentType";
     private final String id = UUID.randomUUID().toString();
     private final DestinationType configDestinationType;
     private final Destination configDestination;
@@ -41,9 +66,28 @@ public class JCSMPOutboundMessageHandler implements MessageHandler, Lifecycle {
     private final LargeMessageSupport largeMessageSupport = new LargeMessageSupport();
     private final Optional<SolaceMeterAccessor> solaceMeterAccessor;
     private final Optional<TracingProxy> tracing;
-    private XMLMessageProducer producer;
+    private final Optional<SolaceBinderHealthAccessor> solaceBinderHealthAccessor;
+    // one flow producer per producerFlowCount, or the session producer with deliveryMode=DIRECT
+    private List<XMLMessageProducer> producers = List.of();
+    private final AtomicInteger nextProducerFlow = new AtomicInteger();
     private final XMLMessageMapper xmlMessageMapper = new XMLMessageMapper();
-    private boolean isRunning = false;
+    private final MeteredLruCache<DynamicDestination, Destination> destinationCache;
+    private final EvaluationContext evaluationContext = new StandardEvaluationContext();
+    // parsed on start, like the header mapping plan
+    private volatile Expression destinationExpression;
+    // compiled on start, the producer properties may still change until then
+    private volatile HeaderMappingPlan headerMappingPlan;
+    // only with publishBatchMaxSize > 1, one per producer flow
+    private List<PublishBatcher> publishBatchers = List.of();
+    // only with outboxDirectory
+    private volatile Outbox outbox;
+    // created on start, used by publishAsync
+    private volatile Semaphore publishAsyncWindow;
+    private volatile ScheduledExecutorService retryScheduler;
+    // created on start, shared by all threads publishing on this binding
+    private volatile SendRetryBackoff sendRetryBackoff;
+    private volatile SendCircuitBreaker sendCircuitBreaker;
+    private volatile boolean isRunning = false;
     @Setter
     private ErrorMessageStrategy errorMessageStrategy;
 
@@ -54,7 +98,8 @@ public class JCSMPOutboundMessageHandler implements MessageHandler, Lifecycle {
                                        JCSMPSessionProducerManager producerManager,
                                        ExtendedProducerProperties<SolaceProducerProperties> properties,
                                        Optional<SolaceMeterAccessor> solaceMeterAccessor,
-                                       Optional<TracingProxy> tracing) {
+                                       Optional<TracingProxy> tracing,
+                                       Optional<SolaceBinderHealthAccessor> solaceBinderHealthAccessor) {
         this.configDestinationType = properties.getExtension().getDestinationType();
         this.configDestination = configDestinationType == DestinationType.TOPIC ?
                 JCSMPFactory.onlyInstance().createTopic(destination.getName()) :
@@ -65,11 +110,195 @@ public class JCSMPOutboundMessageHandler implements MessageHandler, Lifecycle {
         this.properties = properties;
         this.solaceMeterAccessor = solaceMeterAccessor;
         this.tracing = tracing;
+        this.solaceBinderHealthAccessor = solaceBinderHealthAccessor;
+        this.destinationCache = new MeteredLruCache<>(properties.getExtension().getDestinationCacheSize(),
+                dynamicDestination -> dynamicDestination.type() == DestinationType.TOPIC ?
+                        JCSMPFactory.onlyInstance().createTopic(dynamicDestination.name()) :
+                        JCSMPFactory.onlyInstance().createQueue(dynamicDestination.name()));
     }
 
     @SneakyThrows
     @Override
     public void handleMessage(Message<?> message) throws MessagingException {
+        Outbox currentOutbox = outbox;
+        if (currentOutbox != null) {
+            appendToOutbox(currentOutbox, message);
+            return;
+        }
+
+        PreparedPublish publish = prepare(message);
+        if (publish.smfMessages() instanceof LargeMessageSupport.ChunkedMessages chunks) {
+            sendChunks(publish, chunks);
+            return;
+        }
+        List<XMLMessage> smfMessages = publish.smfMessages();
+        Destination targetDestination = publish.destination();
+        ErrorChannelSendingCorrelationKey correlationKey = publish.correlationKey();
+        XMLMessageProducer producer = producers.get(publish.flow());
+
+        if (!publishBatchers.isEmpty()) {
+            try {
+                publishBatchers.get(publish.flow()).publish(smfMessages, targetDestination, correlationKey);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw handleMessagingException(correlationKey, "Interrupted while handing over message(s) to be sent", e);
+            } catch (ClosedChannelBindingException e) {
+                throw handleMessagingException(correlationKey, String.format("Cannot send message using handler %s", id), e);
+            }
+            return;
+        }
+
+        try {
+            for (int i = 0; i < smfMessages.size(); i++) {
+                XMLMessage smfMessage = smfMessages.get(i);
+                log.debug("Publishing message {} of {} to destination [ {}:{} ] on flow {} <message handler ID: {}>",
+                        i + 1, smfMessages.size(), targetDestination instanceof Topic ? "TOPIC" : "QUEUE",
+                        targetDestination, publish.flow(), id);
+                sendWithRetry(producer, smfMessage, targetDestination);
+            }
+        } catch (JCSMPException | SendCircuitOpenException e) {
+            throw handleMessagingException(correlationKey, "Unable to send message(s) to destination", e);
+        } finally {
+            for (XMLMessage smfMessage : smfMessages) {
+                recordMessage(smfMessage);
+            }
+        }
+    }
+
+    /**
+     * Publishes the chunks of a streamed payload on the calling thread, reading each chunk just before it is sent,
+     * also with {@code publishBatchMaxSize > 1}. The producer blocks while its publish window is full, so about
+     * {@code pubAckWindowSize} chunks of the payload are on the heap at the same time.
+     */
+    private void sendChunks(PreparedPublish publish, LargeMessageSupport.ChunkedMessages chunks) {
+        XMLMessageProducer producer = producers.get(publish.flow());
+        try (chunks) {
+            for (int i = 0; i < chunks.size(); i++) {
+                XMLMessage chunk = chunks.get(i);
+                log.debug("Publishing chunk {} of {} to destination [ {} ] on flow {} <message handler ID: {}>",
+                        i + 1, chunks.size(), publish.destination(), publish.flow(), id);
+                try {
+                    sendWithRetry(producer, chunk, publish.destination());
+                } finally {
+                    recordMessage(chunk);
+                }
+            }
+        } catch (JCSMPException | SendCircuitOpenException e) {
+            throw handleMessagingException(publish.correlationKey(), "Unable to send message(s) to destination", e);
+        } catch (IOException | UncheckedIOException e) {
+            throw handleMessagingException(publish.correlationKey(), "Unable to read the streamed payload", e);
+        }
+    }
+
+    private void appendToOutbox(Outbox outbox, Message<?> message) {
+        try {
+            outbox.append(message);
+        } catch (IOException | RuntimeException e) {
+            ErrorChannelSendingCorrelationKey correlationKey = new ErrorChannelSendingCorrelationKey(message,
+                    errorChannel, errorMessageStrategy);
+            throw handleMessagingException(correlationKey, "Unable to write message to the outbox", e);
+        }
+    }
+
+    /**
+     * Publishes a message of the {@link Outbox}. Failed sends are retried until they succeed, the outbox is stopped
+     * or the producer was closed.
+     *
+     * @return a future completed once the broker acknowledged all published Solace messages
+     */
+    private CompletableFuture<Void> forwardFromOutbox(Message<?> message) throws InterruptedException {
+        PreparedPublish publish = prepare(message);
+        List<XMLMessage> smfMessages = publish.smfMessages();
+        XMLMessageProducer producer = producers.get(publish.flow());
+        CompletableFuture<Void> published = publish.correlationKey().trackPublish(smfMessages.size());
+        try {
+            for (XMLMessage smfMessage : smfMessages) {
+                for (int attempt = 1; ; attempt++) {
+                    try {
+                        sendWithRetry(producer, smfMessage, publish.destination());
+                        break;
+                    } catch (JCSMPException | SendCircuitOpenException e) {
+                        if (Thread.interrupted() || producer.isClosed()) {
+                            throw new InterruptedException(String.format("Forwarding from the outbox of handler %s stopped", id));
+                        }
+                        long backoffMs = sendRetryBackoff.delayMs(attempt);
+                        log.warn("Unable to forward message from the outbox to destination [ {} ], retrying in {} ms <message handler ID: {}>",
+                                publish.destination(), backoffMs, id, e);
+                        Thread.sleep(backoffMs);
+                    }
+                }
+            }
+        } finally {
+            for (XMLMessage smfMessage : smfMessages) {
+                recordMessage(smfMessage);
+            }
+        }
+        return published;
+    }
+
+    /**
+     * Publishes the message without waiting for it to be sent or acknowledged, the backend of {@link SolacePublisher}.
+     * <p>The first send attempt runs on the calling thread, retries of failed sends run on the retry scheduler of
+     * the binding. At most {@link SolaceProducerProperties#getPublishAsyncWindowSize() publishAsyncWindowSize}
+     * messages may be waiting for their publish to complete.</p>
+     *
+     * @param message the message to publish, its payload is not converted
+     * @return a future completed once the broker acknowledged all published Solace messages (for
+     * {@code deliveryMode=DIRECT} once they were sent), or exceptionally with a {@link MessagingException}
+     */
+    public CompletableFuture<PublishReceipt> publishAsync(Message<?> message) {
+        PreparedPublish publish;
+        try {
+            publish = prepare(message);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        ErrorChannelSendingCorrelationKey correlationKey = publish.correlationKey();
+        List<XMLMessage> smfMessages = publish.smfMessages();
+        if (smfMessages instanceof LargeMessageSupport.ChunkedMessages chunks) {
+            try {
+                chunks.close();
+            } catch (IOException e) {
+                log.warn("Unable to close the streamed payload <message handler ID: {}>", id, e);
+            }
+            return CompletableFuture.failedFuture(correlationKey.fail(String.format("Cannot send message using handler %s", id),
+                    new IllegalArgumentException("Streamed payloads are only published by synchronous sends")));
+        }
+
+        Semaphore window = publishAsyncWindow;
+        if (!window.tryAcquire()) {
+            String msg = String.format("Cannot send message using handler %s", id);
+            log.warn(msg);
+            return CompletableFuture.failedFuture(correlationKey.fail(msg, new IllegalStateException(String.format(
+                    "%s messages are already waiting for their publish to complete",
+                    properties.getExtension().getPublishAsyncWindowSize()))));
+        }
+        CompletableFuture<Void> published = correlationKey.trackPublish(smfMessages.size());
+        published.whenComplete((result, e) -> window.release());
+
+        if (!publishBatchers.isEmpty()) {
+            try {
+                publishBatchers.get(publish.flow()).publish(smfMessages, publish.destination(), correlationKey);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                correlationKey.fail("Interrupted while handing over message(s) to be sent", e);
+            } catch (ClosedChannelBindingException e) {
+                correlationKey.fail(String.format("Cannot send message using handler %s", id), e);
+            }
+        } else {
+            long deadlineNanos = System.nanoTime()
+                    + Duration.ofMillis(Math.max(properties.getExtension().getSendRetryTimeoutMs(), 0L)).toNanos();
+            sendAsync(publish, 0, deadlineNanos, 1, null);
+        }
+        return published.thenApply(result -> new PublishReceipt(message.getHeaders().getId(),
+                publish.destination().getName(), smfMessages.size()));
+    }
+
+    /**
+     * Maps the message and parses its headers, shared by the synchronous and the asynchronous publish.
+     */
+    @SneakyThrows
+    private PreparedPublish prepare(Message<?> message) {
         ErrorChannelSendingCorrelationKey correlationKey = new ErrorChannelSendingCorrelationKey(message,
                 errorChannel, errorMessageStrategy);
 
@@ -99,88 +328,251 @@ public class JCSMPOutboundMessageHandler implements MessageHandler, Lifecycle {
 
         List<XMLMessage> smfMessages;
         Destination dynamicDestination;
-        XMLMessage smfMessageMapped = xmlMessageMapper.map(
-                message,
-                properties.getExtension().getHeaderExclusions(),
-                properties.getExtension().isNonserializableHeaderConvertToString(),
-                properties.getExtension().getDeliveryMode(),
-                properties.getExtension().getDefaultHeader());
+        boolean largeMessage = message.getHeaders().containsKey(SolaceBinderHeaders.LARGE_MESSAGE_SUPPORT);
+        boolean streamed = largeMessage && StreamedPayload.isStreamed(message.getPayload());
+        // the headers of a streamed payload are mapped without it, its chunks are read while they are published
+        XMLMessage smfMessageMapped = xmlMessageMapper.map(streamed ? new MutableMessage<>(new byte[0], message.getHeaders()) : message,
+                headerMappingPlan);
         tracing.ifPresent(tracingProxy -> tracingProxy.injectTracingHeader(smfMessageMapped.getProperties()));
 
         smfMessageMapped.setCorrelationKey(correlationKey);
-        dynamicDestination = getDynamicDestination(message.getHeaders(), correlationKey);
-        if (message.getHeaders().containsKey(SolaceBinderHeaders.LARGE_MESSAGE_SUPPORT)) {
-            smfMessages = largeMessageSupport.split(smfMessageMapped);
+        dynamicDestination = getDynamicDestination(message, correlationKey);
+        int chunkSize = properties.getExtension().getLargeMessageChunkSize();
+        if (streamed) {
+            try {
+                smfMessages = largeMessageSupport.split(smfMessageMapped, StreamedPayload.of(message.getPayload(),
+                        message.getHeaders().get(SolaceBinderHeaders.LARGE_MESSAGE_LENGTH)), chunkSize);
+            } catch (IOException | IllegalArgumentException e) {
+                throw handleMessagingException(correlationKey, "Unable to read the streamed payload", e);
+            }
+        } else if (largeMessage) {
+            smfMessages = largeMessageSupport.split(smfMessageMapped, chunkSize);
         } else {
             smfMessages = List.of(smfMessageMapped);
         }
 
-        correlationKey.setRawMessages(smfMessages);
+        // the chunks of a streamed payload can only be read once, while they are published
+        correlationKey.setRawMessages(streamed ? List.of(smfMessageMapped) : smfMessages);
+        return new PreparedPublish(smfMessages, Objects.requireNonNullElse(dynamicDestination, configDestination),
+                correlationKey, selectProducerFlow(smfMessageMapped));
+    }
+
+    /**
+     * Messages with a partition key always use the same producer flow to keep their order, the others are spread
+     * round-robin. The chunks of a large message share the flow of the original message.
+     */
+    @SneakyThrows
+    private int selectProducerFlow(XMLMessage smfMessage) {
+        int flowCount = producers.size();
+        if (flowCount <= 1) {
+            return 0;
+        }
+        SDTMap userProperties = smfMessage.getProperties();
+        if (userProperties != null && userProperties.containsKey(XMLMessage.MessageUserPropertyConstants.QUEUE_PARTITION_KEY)) {
+            String partitionKey = userProperties.getString(XMLMessage.MessageUserPropertyConstants.QUEUE_PARTITION_KEY);
+            return Math.floorMod(Objects.hashCode(partitionKey), flowCount);
+        }
+        return Math.floorMod(nextProducerFlow.getAndIncrement(), flowCount);
+    }
 
+    /**
+     * Sends the messages of an asynchronous publish from {@code index} on. A failed send is retried on the retry
+     * scheduler until the {@link SolaceProducerProperties#getSendRetryTimeoutMs() sendRetryTimeoutMs} window is
+     * exhausted, so neither the publishing thread nor the scheduler ever waits for the backoff.
+     *
+     * @param lastFailure the last failed send of this publish, {@code null} on the first attempt
+     */
+    private void sendAsync(PreparedPublish publish, int index, long deadlineNanos, int attempt,
+                           JCSMPException lastFailure) {
+        List<XMLMessage> smfMessages = publish.smfMessages();
+        XMLMessageProducer producer = producers.get(publish.flow());
+        int next = index;
         try {
-            for (int i = 0; i < smfMessages.size(); i++) {
-                XMLMessage smfMessage = smfMessages.get(i);
-                Destination targetDestination = Objects.requireNonNullElse(dynamicDestination, configDestination);
-                log.debug("Publishing message {} of {} to destination [ {}:{} ] <message handler ID: {}>",
-                        i + 1, smfMessages.size(), targetDestination instanceof Topic ? "TOPIC" : "QUEUE",
-                        targetDestination, id);
-                sendWithRetry(smfMessage, targetDestination);
-            }
-        } catch (JCSMPException e) {
-            throw handleMessagingException(correlationKey, "Unable to send message(s) to destination", e);
-        } finally {
-            if (solaceMeterAccessor.isPresent()) {
-                for (XMLMessage smfMessage : smfMessages) {
-                    solaceMeterAccessor.get().recordMessage(properties.getBindingName(), smfMessage);
+            for (; next < smfMessages.size(); next++) {
+                if (producer.isClosed() || !isRunning()) {
+                    throw new ClosedFacilityException("Producer is already closed this can never recover. producer-id=%s".formatted(id));
                 }
+                if (!sendCircuitBreaker.tryAcquire()) {
+                    if (lastFailure == null) {
+                        throw new SendCircuitOpenException(getSendCircuitOpenMessage());
+                    }
+                    scheduleSendAsync(publish, next, deadlineNanos, attempt, lastFailure);
+                    return;
+                }
+                XMLMessage smfMessage = smfMessages.get(next);
+                try {
+                    producer.send(smfMessage, publish.destination());
+                } catch (JCSMPException e) {
+                    sendCircuitBreaker.onFailure();
+                    scheduleSendAsync(publish, next, deadlineNanos, attempt, e);
+                    return;
+                }
+                sendCircuitBreaker.onSuccess();
+                recordMessage(smfMessage);
+                acknowledgeDirect(smfMessage);
             }
+        } catch (JCSMPException | RuntimeException e) {
+            failAsync(publish, next, e);
         }
     }
 
+    private void scheduleSendAsync(PreparedPublish publish, int index, long deadlineNanos, int attempt,
+                                   JCSMPException failure) {
+        long retryTimeoutMs = properties.getExtension().getSendRetryTimeoutMs();
+        if (retryTimeoutMs <= 0 || System.nanoTime() - deadlineNanos >= 0) {
+            failAsync(publish, index, failure);
+            return;
+        }
+        long backoffMs = sendRetryBackoff.delayMs(attempt);
+        log.info("Failed to publish message {} of {} to destination [ {} ] on attempt {}. Retrying in {} ms "
+                        + "(retry window: {} ms). <message handler ID: {}>",
+                index + 1, publish.smfMessages().size(), publish.destination(), attempt, backoffMs,
+                retryTimeoutMs, id, failure);
+        try {
+            retryScheduler.schedule(() -> sendAsync(publish, index, deadlineNanos, attempt + 1, failure),
+                    backoffMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            failure.addSuppressed(e);
+            failAsync(publish, index, failure);
+        }
+    }
+
+    private void failAsync(PreparedPublish publish, int index, Exception cause) {
+        List<XMLMessage> smfMessages = publish.smfMessages();
+        for (int i = index; i < smfMessages.size(); i++) {
+            recordMessage(smfMessages.get(i));
+        }
+        log.warn("Unable to send message(s) to destination <message handler ID: {}>", id, cause);
+        publish.correlationKey().fail("Unable to send message(s) to destination", cause);
+    }
+
+    /**
+     * Direct messages are never acknowledged by the broker, their successful send completes an asynchronous publish.
+     */
+    private void acknowledgeDirect(XMLMessage smfMessage) {
+        if (DeliveryMode.DIRECT.equals(properties.getExtension().getDeliveryMode())
+                && smfMessage.getCorrelationKey() instanceof ErrorChannelSendingCorrelationKey key) {
+            key.acknowledged();
+        }
+    }
+
+    private void recordMessage(XMLMessage smfMessage) {
+        solaceMeterAccessor.ifPresent(meter -> meter.recordMessage(properties.getBindingName(), smfMessage));
+    }
+
     /**
      * Publishes a single SMF message, retrying transient {@link JCSMPException}s until the configured
      * {@link SolaceProducerProperties#getSendRetryTimeoutMs() sendRetryTimeoutMs} window is exhausted.
      * When the retry window is {@code 0} (disabled) or has elapsed, the last failure is propagated so the caller can
      * surface it as a {@link MessagingException}.
      */
-    private void sendWithRetry(XMLMessage smfMessage, Destination targetDestination) throws JCSMPException {
+    private void sendWithRetry(XMLMessageProducer producer, XMLMessage smfMessage, Destination targetDestination)
+            throws JCSMPException {
+        retrySend(producer, () -> {
+            producer.send(smfMessage, targetDestination);
+            return 1;
+        }, "message to destination [ " + targetDestination + " ]");
+    }
+
+    /**
+     * Publishes a slice of a batch of the {@link PublishBatcher} with one {@code sendMultiple} call, retrying like
+     * {@link #sendWithRetry(XMLMessageProducer, XMLMessage, Destination)}.
+     */
+    private int sendMultipleWithRetry(XMLMessageProducer producer, JCSMPSendMultipleEntry[] entries, int offset,
+                                      int length) throws JCSMPException {
+        int sent = retrySend(producer, () -> producer.sendMultiple(entries, offset, length, 0),
+                "batch of " + length + " messages");
+        for (int i = offset; i < offset + sent; i++) {
+            acknowledgeDirect(entries[i].getMessage());
+        }
+        return sent;
+    }
+
+    /**
+     * Runs the send action until it succeeds or the retry window is exhausted, with a growing and jittered delay
+     * between the attempts. While the send circuit breaker is open, a first attempt fails right away with a
+     * {@link SendCircuitOpenException} and retries wait without sending.
+     */
+    private int retrySend(XMLMessageProducer producer, SendAction sendAction, String description)
+            throws JCSMPException {
         long retryTimeoutMs = properties.getExtension().getSendRetryTimeoutMs();
         long deadlineNanos = System.nanoTime() + Duration.ofMillis(Math.max(retryTimeoutMs, 0L)).toNanos();
+        JCSMPException lastFailure = null;
         int attempt = 1;
         while (true) {
             if (producer.isClosed() || !isRunning()) {
                 throw new ClosedFacilityException("Producer is already closed this can never recover. producer-id=%s".formatted(id));
             }
-            try {
-                producer.send(smfMessage, targetDestination);
-                return;
-            } catch (JCSMPException e) {
-                // Retry disabled or retry window exhausted -> propagate the failure as a MessagingException.
-                if (retryTimeoutMs <= 0 || System.nanoTime() - deadlineNanos >= 0) {
-                    throw e;
-                }
-                log.info("Failed to publish message to destination [ {} ] on attempt {}. Retrying in {} ms "
-                                + "(retry window: {} ms). <message handler ID: {}>",
-                        targetDestination, attempt, SEND_RETRY_BACKOFF.toMillis(), retryTimeoutMs, id, e);
+            if (sendCircuitBreaker.tryAcquire()) {
                 try {
-                    Thread.sleep(SEND_RETRY_BACKOFF.toMillis());
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    e.addSuppressed(ie);
-                    throw e;
+                    int sent = sendAction.send();
+                    sendCircuitBreaker.onSuccess();
+                    return sent;
+                } catch (JCSMPException e) {
+                    sendCircuitBreaker.onFailure();
+                    lastFailure = e;
                 }
-                attempt++;
+            } else if (lastFailure == null) {
+                throw new SendCircuitOpenException(getSendCircuitOpenMessage());
+            }
+            // Retry disabled or retry window exhausted -> propagate the failure as a MessagingException.
+            if (retryTimeoutMs <= 0 || System.nanoTime() - deadlineNanos >= 0) {
+                throw lastFailure;
+            }
+            long backoffMs = sendRetryBackoff.delayMs(attempt);
+            log.info("Failed to publish {} on attempt {}. Retrying in {} ms "
+                            + "(retry window: {} ms). <message handler ID: {}>",
+                    description, attempt, backoffMs, retryTimeoutMs, id, lastFailure);
+            try {
+                Thread.sleep(backoffMs);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                lastFailure.addSuppressed(ie);
+                throw lastFailure;
             }
+            attempt++;
+        }
+    }
+
+    private String getSendCircuitOpenMessage() {
+        return String.format("The send circuit breaker of binding %s is open, the last %s publish attempts failed",
+                properties.getBindingName(), properties.getExtension().getSendCircuitBreakerFailureThreshold());
+    }
+
+    private void onSendCircuitBreakerStateChange(SendCircuitBreaker.State state) {
+        String bindingName = properties.getBindingName();
+        if (state == SendCircuitBreaker.State.OPEN) {
+            log.warn("Send circuit breaker of binding {} opened, new publishes fail for {} ms <message handler ID: {}>",
+                    bindingName, properties.getExtension().getSendCircuitBreakerOpenMs(), id);
+        } else {
+            log.info("Send circuit breaker of binding {} is {} <message handler ID: {}>", bindingName, state, id);
         }
+        solaceMeterAccessor.ifPresent(meter -> meter.recordSendCircuitBreaker(bindingName,
+                state.name().toLowerCase(Locale.ROOT)));
+        solaceBinderHealthAccessor.ifPresent(health -> {
+            SolaceHealthIndicator bindingHealthIndicator = health.createBindingHealthIndicator(bindingName);
+            if (state == SendCircuitBreaker.State.OPEN) {
+                bindingHealthIndicator.healthDown(SEND_CIRCUIT_BREAKER_DETAIL, state.name());
+            } else {
+                bindingHealthIndicator.healthUp(SEND_CIRCUIT_BREAKER_DETAIL, state.name());
+            }
+        });
     }
 
-    private Destination getDynamicDestination(Map<String, Object> headers, ErrorChannelSendingCorrelationKey correlationKey) {
+    private Destination getDynamicDestination(Message<?> message, ErrorChannelSendingCorrelationKey correlationKey) {
+        MessageHeaders headers = message.getHeaders();
+        String dynamicDestName;
         try {
-            String dynamicDestName;
             String targetDestinationHeader = StaticMessageHeaderMapAccessor.get(headers,
                     BinderHeaders.TARGET_DESTINATION, String.class);
             if (StringUtils.hasText(targetDestinationHeader)) {
                 dynamicDestName = targetDestinationHeader.trim();
+            } else if (destinationExpression != null) {
+                dynamicDestName = destinationExpression.getValue(evaluationContext, message, String.class);
+                if (!StringUtils.hasText(dynamicDestName)) {
+                    return null;
+                }
+                dynamicDestName = dynamicDestName.trim();
             } else {
                 return null;
             }
@@ -190,9 +582,9 @@ public class JCSMPOutboundMessageHandler implements MessageHandler, Lifecycle {
             if (StringUtils.hasText(targetDestinationTypeHeader)) {
                 targetDestinationTypeHeader = targetDestinationTypeHeader.trim().toUpperCase();
                 if (targetDestinationTypeHeader.equals(DestinationType.TOPIC.name())) {
-                    return JCSMPFactory.onlyInstance().createTopic(dynamicDestName);
+                    return destinationCache.get(new DynamicDestination(dynamicDestName, DestinationType.TOPIC));
                 } else if (targetDestinationTypeHeader.equals(DestinationType.QUEUE.name())) {
-                    return JCSMPFactory.onlyInstance().createQueue(dynamicDestName);
+                    return destinationCache.get(new DynamicDestination(dynamicDestName, DestinationType.QUEUE));
                 } else {
                     throw new IllegalArgumentException(String.format("Incorrect value specified for header '%s'. Expected [ %s|%s ] but actual value is [ %s ]",
                             SolaceBinderHeaders.TARGET_DESTINATION_TYPE, DestinationType.TOPIC.name(), DestinationType.QUEUE.name(), targetDestinationTypeHeader));
@@ -200,9 +592,10 @@ public class JCSMPOutboundMessageHandler implements MessageHandler, Lifecycle {
             }
 
             //No dynamic destinationType present so use configured destinationType
-            return configDestinationType == DestinationType.TOPIC ?
-                    JCSMPFactory.onlyInstance().createTopic(dynamicDestName) :
-                    JCSMPFactory.onlyInstance().createQueue(dynamicDestName);
+            return destinationCache.get(new DynamicDestination(dynamicDestName, configDestinationType));
+        } catch (EvaluationException e) {
+            throw handleMessagingException(correlationKey, String.format("Unable to evaluate destinationExpression %s",
+                    destinationExpression.getExpressionString()), e);
         } catch (Exception e) {
             throw handleMessagingException(correlationKey, "Unable to parse headers", e);
         }
@@ -216,23 +609,70 @@ public class JCSMPOutboundMessageHandler implements MessageHandler, Lifecycle {
             return;
         }
 
+        headerMappingPlan = HeaderMappingPlan.forProducer(properties.getExtension());
+        SolaceProducerProperties producerProperties = properties.getExtension();
+        destinationExpression = StringUtils.hasText(producerProperties.getDestinationExpression()) ?
+                new SpelExpressionParser(new SpelParserConfiguration(SpelCompilerMode.MIXED, getClass().getClassLoader()))
+                        .parseExpression(producerProperties.getDestinationExpression()) :
+                null;
+        sendRetryBackoff = new SendRetryBackoff(producerProperties.getSendRetryInitialBackoffMs(),
+                producerProperties.getSendRetryMaxBackoffMs(), producerProperties.getSendRetryBackoffMultiplier(),
+                producerProperties.getSendRetryJitter());
+        sendCircuitBreaker = new SendCircuitBreaker(producerProperties.getSendCircuitBreakerFailureThreshold(),
+                producerProperties.getSendCircuitBreakerOpenMs(), this::onSendCircuitBreakerStateChange);
+        if (StringUtils.hasText(producerProperties.getOutboxDirectory())
+                && DeliveryMode.DIRECT.equals(producerProperties.getDeliveryMode())) {
+            throw new IllegalArgumentException("outboxDirectory requires deliveryMode=PERSISTENT");
+        }
+        if (producerProperties.getLargeMessageChunkSize() < 1) {
+            throw new IllegalArgumentException(String.format("largeMessageChunkSize must be at least 1, but was %s",
+                    producerProperties.getLargeMessageChunkSize()));
+        }
+        if (producerProperties.getProducerFlowCount() < 1) {
+            throw new IllegalArgumentException(String.format("producerFlowCount must be at least 1, but was %s",
+                    producerProperties.getProducerFlowCount()));
+        }
         try {
             XMLMessageProducer defaultProducer = producerManager.get(id);
             // flow producers don't support direct messaging
             if (DeliveryMode.DIRECT.equals(properties.getExtension().getDeliveryMode())) {
-                producer = defaultProducer;
+                producers = List.of(defaultProducer);
             } else {
-                producer = jcsmpSession.createProducer(SolaceProvisioningUtil.getProducerFlowProperties(jcsmpSession, properties),
-                        producerEventHandler);
+                List<XMLMessageProducer> flowProducers = new ArrayList<>(producerProperties.getProducerFlowCount());
+                // closeResources closes the flows created so far if one fails
+                producers = flowProducers;
+                ProducerFlowProperties producerFlowProperties = SolaceProvisioningUtil.getProducerFlowProperties(jcsmpSession, properties);
+                for (int i = 0; i < producerProperties.getProducerFlowCount(); i++) {
+                    // all flows report to the same event handler, acknowledgments are correlated by their key
+                    XMLMessageProducer flowProducer = jcsmpSession.createProducer(producerFlowProperties, producerEventHandler);
+                    flowProducers.add(flowProducer);
+                    logProducerFlow(flowProducer);
+                }
+                producers = List.copyOf(flowProducers);
             }
-            if (producer instanceof JCSMPXMLMessageProducer jcsmpxmlMessageProducer) {
-                PubADManager pubADManager = jcsmpxmlMessageProducer.getPubADManager();
-                if (pubADManager != null) {
-                    // 0x1FFFFF = 2097151 = 000111111111111111111111 remove everything above 21 bit since solace somehow add a bit there
-                    // Masking higher bits to display flowId similar to the Solace broker UI and log format
-                    long flowId = pubADManager.getFlowId() & 0x1FFFFF;
-                    log.info("created producer for binding={} flowId={} destination={} deliveryMode={}", properties.getBindingName(), flowId, configDestination.getName(), properties.getExtension().getDeliveryMode());
+            publishAsyncWindow = new Semaphore(properties.getExtension().getPublishAsyncWindowSize());
+            retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, properties.getBindingName() + "-publish-retry");
+                thread.setDaemon(true);
+                return thread;
+            });
+            if (properties.getExtension().getPublishBatchMaxSize() > 1) {
+                List<PublishBatcher> batchers = new ArrayList<>(producers.size());
+                for (int i = 0; i < producers.size(); i++) {
+                    XMLMessageProducer flowProducer = producers.get(i);
+                    batchers.add(new PublishBatcher(producers.size() > 1 ? properties.getBindingName() + "-" + i : properties.getBindingName(),
+                            properties.getExtension().getPublishBatchMaxSize(),
+                            properties.getExtension().getPublishBatchTimeoutMicros(),
+                            (entries, offset, length) -> sendMultipleWithRetry(flowProducer, entries, offset, length),
+                            this::recordMessage));
                 }
+                publishBatchers = List.copyOf(batchers);
+            }
+            if (StringUtils.hasText(producerProperties.getOutboxDirectory())) {
+                outbox = new Outbox(properties.getBindingName(), new OutboxJournal(
+                        Path.of(producerProperties.getOutboxDirectory(), properties.getBindingName()),
+                        producerProperties.getOutboxSegmentSize(), producerProperties.getOutboxMaxSegments(),
+                        producerProperties.isOutboxSyncWrites()), this::forwardFromOutbox);
             }
         } catch (Exception e) {
             String msg = String.format("Unable to get a message producer for session %s", jcsmpSession.getSessionName());
@@ -241,7 +681,31 @@ public class JCSMPOutboundMessageHandler implements MessageHandler, Lifecycle {
             throw new RuntimeException(msg, e);
         }
 
+        solaceMeterAccessor.ifPresent(meter -> {
+            meter.registerCache(properties.getBindingName(), DESTINATION_CACHE, destinationCache);
+            meter.registerCache(properties.getBindingName(), CONTENT_TYPE_CACHE, xmlMessageMapper.getContentTypeCache());
+        });
+        if (properties.getExtension().getSendCircuitBreakerFailureThreshold() > 0) {
+            solaceBinderHealthAccessor.ifPresent(health -> health.createBindingHealthIndicator(properties.getBindingName())
+                    .healthUp(SEND_CIRCUIT_BREAKER_DETAIL, SendCircuitBreaker.State.CLOSED.name()));
+        }
         isRunning = true;
+        if (outbox != null) {
+            // forwarding needs a running handler
+            outbox.start();
+        }
+    }
+
+    private void logProducerFlow(XMLMessageProducer producer) {
+        if (producer instanceof JCSMPXMLMessageProducer jcsmpxmlMessageProducer) {
+            PubADManager pubADManager = jcsmpxmlMessageProducer.getPubADManager();
+            if (pubADManager != null) {
+                // 0x1FFFFF = 2097151 = 000111111111111111111111 remove everything above 21 bit since solace somehow add a bit there
+                // Masking higher bits to display flowId similar to the Solace broker UI and log format
+                long flowId = pubADManager.getFlowId() & 0x1FFFFF;
+                log.info("created producer for binding={} flowId={} destination={} deliveryMode={}", properties.getBindingName(), flowId, configDestination.getName(), properties.getExtension().getDeliveryMode());
+            }
+        }
     }
 
     @Override
@@ -253,11 +717,31 @@ public class JCSMPOutboundMessageHandler implements MessageHandler, Lifecycle {
 
     private void closeResources() {
         log.info("Stopping producer to {} {} <message handler ID: {}>", configDestinationType, configDestination.getName(), id);
-        if (producer != null && !DeliveryMode.DIRECT.equals(properties.getExtension().getDeliveryMode())) {
-            log.info("Closing producer <message handler ID: {}>", id);
-            producer.close();
+        if (outbox != null) {
+            // the forwarder still needs the producers
+            outbox.stop(OUTBOX_STOP_TIMEOUT_MS);
+            outbox = null;
+        }
+        if (!publishBatchers.isEmpty()) {
+            // sends the waiting messages, the producers must still be open
+            long deadline = System.currentTimeMillis() + PUBLISH_BATCHER_STOP_TIMEOUT_MS;
+            for (PublishBatcher publishBatcher : publishBatchers) {
+                publishBatcher.stop(Math.max(deadline - System.currentTimeMillis(), 0));
+            }
+            publishBatchers = List.of();
+        }
+        if (retryScheduler != null) {
+            // scheduled retries still run and fail their publish, the handler is not running anymore
+            retryScheduler.shutdown();
+        }
+        if (!DeliveryMode.DIRECT.equals(properties.getExtension().getDeliveryMode())) {
+            for (XMLMessageProducer producer : producers) {
+                log.info("Closing producer <message handler ID: {}>", id);
+                producer.close();
+            }
         }
         producerManager.release(id);
+        solaceBinderHealthAccessor.ifPresent(health -> health.removeBindingHealthIndicator(properties.getBindingName()));
     }
 
     @Override
@@ -265,6 +749,21 @@ public class JCSMPOutboundMessageHandler implements MessageHandler, Lifecycle {
         return isRunning;
     }
 
+    private record DynamicDestination(String name, DestinationType type) {
+    }
+
+    private record PreparedPublish(List<XMLMessage> smfMessages, Destination destination,
+                                   ErrorChannelSendingCorrelationKey correlationKey, int flow) {
+    }
+
+    @FunctionalInterface
+    private interface SendAction {
+        /**
+         * @return the number of messages sent
+         */
+        int send() throws JCSMPException;
+    }
+
     private MessagingException handleMessagingException(ErrorChannelSendingCorrelationKey key, String msg, Exception e)
             throws MessagingException {
         log.warn(msg, e);
@@ -0,0 +1,203 @@
+package com.solace.spring.cloud.stream.binder.outbound;
+
+import com.solace.spring.cloud.stream.binder.util.BinaryHeaderCodec;
+import com.solace.spring.cloud.stream.binder.util.CorrelationData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.integration.support.MutableMessage;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Store-and-forward outbox of one producer binding. Messages are written to an {@link OutboxJournal} and a
+ * forwarder thread publishes them in the order they were written, removing them from the journal once the broker
+ * acknowledged them. Messages that were not acknowledged when the binding stopped are published again on the next
+ * start, so they may be published more than once.
+ * <p>The payload and the headers are journaled in the {@code binary} header format. Header values it cannot encode,
+ * such as a {@code CorrelationData} or a channel, are kept in memory until the message is forwarded and are lost if
+ * the application stops before.</p>
+ */
+@Slf4j
+class Outbox {
+    private static final long TAKE_TIMEOUT_MS = 1000;
+    private final String bindingName;
+    private final OutboxJournal journal;
+    private final Forwarder forwarder;
+    // the journal is only written and read by this binding, so it may Java-serialize any value
+    private final BinaryHeaderCodec codec = new BinaryHeaderCodec(List.of("*"));
+    // header values that cannot be journaled by message ID, until the message is forwarded
+    private final Map<UUID, Map<String, Object>> transientHeaders = new ConcurrentHashMap<>();
+    private final Thread forwarderThread;
+    private volatile boolean running = true;
+
+    Outbox(String bindingName, OutboxJournal journal, Forwarder forwarder) {
+        this.bindingName = bindingName;
+        this.journal = journal;
+        this.forwarder = forwarder;
+        this.forwarderThread = new Thread(this::run, bindingName + "-outbox");
+        this.forwarderThread.setDaemon(true);
+    }
+
+    /**
+     * Starts forwarding, the producer of the binding must be ready to publish.
+     */
+    void start() {
+        forwarderThread.start();
+    }
+
+    /**
+     * Journals the message, it is forwarded after the messages journaled before it.
+     *
+     * @throws IllegalArgumentException if the payload cannot be encoded or the message does not fit into a segment
+     * @throws IllegalStateException    if the journal is full or the outbox is stopped
+     */
+    void append(Message<?> message) throws IOException {
+        Map<String, byte[]> headers = new LinkedHashMap<>();
+        Map<String, Object> transients = new HashMap<>();
+        for (Map.Entry<String, Object> header : message.getHeaders().entrySet()) {
+            if (header.getValue() == null) {
+                continue;
+            }
+            if (header.getValue() instanceof CorrelationData) {
+                // completed by the acknowledgment of the forwarded message, a journaled copy would never complete
+                transients.put(header.getKey(), header.getValue());
+                continue;
+            }
+            try {
+                headers.put(header.getKey(), codec.encode(header.getValue()));
+            } catch (IllegalArgumentException e) {
+                transients.put(header.getKey(), header.getValue());
+            }
+        }
+        byte[] record = codec.encode(List.of(message.getPayload(), headers));
+
+        UUID id = message.getHeaders().getId();
+        if (id != null && !transients.isEmpty()) {
+            transientHeaders.put(id, transients);
+        }
+        try {
+            journal.append(record);
+        } catch (IOException | RuntimeException e) {
+            if (id != null) {
+                transientHeaders.remove(id);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Ends the forwarder thread and closes the journal. Must be called before the producer is closed. Messages that
+     * are not acknowledged yet stay in the journal.
+     */
+    void stop(long timeoutMs) {
+        running = false;
+        forwarderThread.interrupt();
+        try {
+            forwarderThread.join(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (forwarderThread.isAlive()) {
+            log.warn("Outbox forwarder of binding={} did not end within {}ms", bindingName, timeoutMs);
+        }
+        long pending = journal.getPendingCount();
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.warn("Unable to close outbox journal of binding={}", bindingName, e);
+        }
+        if (pending > 0) {
+            log.info("Outbox of binding={} stopped with {} messages that were not acknowledged yet, they are published again on the next start",
+                    bindingName, pending);
+        }
+    }
+
+    long getPendingCount() {
+        return journal.getPendingCount();
+    }
+
+    private void run() {
+        OutboxJournal.Entry entry = null;
+        while (running) {
+            try {
+                if (entry == null) {
+                    entry = journal.take(TAKE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                    if (entry == null) {
+                        continue;
+                    }
+                }
+                forward(entry);
+                entry = null;
+            } catch (InterruptedException e) {
+                if (running) {
+                    log.warn("Outbox forwarder of binding={} interrupted, forwarding message {} again", bindingName,
+                            entry != null ? entry.sequence() : null);
+                    pause();
+                }
+            } catch (Throwable e) { // the journaled messages are only published by this thread, retry the entry
+                log.error("Outbox forwarder of binding={} failed, forwarding message {} again", bindingName,
+                        entry != null ? entry.sequence() : null, e);
+                pause();
+            }
+        }
+    }
+
+    private void forward(OutboxJournal.Entry entry) throws InterruptedException {
+        long sequence = entry.sequence();
+        CompletableFuture<Void> published;
+        try {
+            published = forwarder.forward(decode(entry.data()));
+        } catch (RuntimeException e) {
+            // already reported to the error channel if the message could not be mapped, it would fail again
+            log.error("Dropping message {} from the outbox of binding={}, it cannot be published", sequence, bindingName, e);
+            journal.acknowledge(sequence);
+            return;
+        }
+        // rejected messages were reported to the error channel of the binding
+        published.whenComplete((result, e) -> journal.acknowledge(sequence));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Message<?> decode(byte[] record) {
+        List<Object> fields = (List<Object>) codec.decode(record);
+        Map<String, byte[]> encodedHeaders = (Map<String, byte[]>) fields.get(1);
+        Map<String, Object> headers = new HashMap<>();
+        encodedHeaders.forEach((name, value) -> headers.put(name, codec.decode(value)));
+        if (headers.get(MessageHeaders.ID) instanceof UUID id) {
+            Map<String, Object> transients = transientHeaders.remove(id);
+            if (transients != null) {
+                headers.putAll(transients);
+            }
+        }
+        // keeps the ID and timestamp of the journaled message
+        return new MutableMessage<>(fields.get(0), headers);
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(TAKE_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            // stopped
+        }
+    }
+
+    @FunctionalInterface
+    interface Forwarder {
+        /**
+         * Publishes the message, blocking until it was sent.
+         *
+         * @return a future completed once the broker acknowledged the message or rejected it
+         * @throws InterruptedException if forwarding was stopped, the message is forwarded again
+         */
+        CompletableFuture<Void> forward(Message<?> message) throws InterruptedException;
+    }
+}
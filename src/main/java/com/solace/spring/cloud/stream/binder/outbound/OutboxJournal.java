@@ -0,0 +1,384 @@
+package com.solace.spring.cloud.stream.binder.outbound;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of an {@link Outbox}, stored in memory-mapped segment files in one directory.
+ * <p>A record is written as its length, the CRC32 of its data, its sequence number and its data. The length is
+ * written last, so a record torn by a crash is skipped when the journal is opened again. The sequence number up to
+ * which all records were acknowledged is kept in a checkpoint file, segments whose records are all acknowledged are
+ * deleted.</p>
+ * <p>Records are appended by any thread and taken in order by a single forwarder thread. A lock file keeps a second
+ * journal from opening the same directory.</p>
+ */
+@Slf4j
+class OutboxJournal implements Closeable {
+    static final int RECORD_HEADER_SIZE = Integer.BYTES + Integer.BYTES + Long.BYTES;
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final String LOCK_FILE = "lock";
+    private static final int ZERO_FILL_CHUNK_SIZE = 8192;
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final boolean syncWrites;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    // in sequence order, records are appended to the last one
+    private final List<Segment> segments = new ArrayList<>();
+    // acknowledged records above the checkpoint, waiting for the records before them
+    private final SortedSet<Long> acknowledged = new TreeSet<>();
+    private final FileChannel lockChannel;
+    private final FileLock fileLock;
+    private final FileChannel checkpointChannel;
+    private final MappedByteBuffer checkpoint;
+    private long checkpointSequence;
+    private long nextSequence;
+    private Segment readSegment;
+    private int readPosition;
+    private boolean closed;
+
+    record Entry(long sequence, byte[] data) {
+    }
+
+    /**
+     * Opens the journal in the directory, creating it if needed, and recovers the records that were not
+     * acknowledged yet.
+     *
+     * @param segmentSize the size of a segment file in bytes, which limits the size of a record
+     * @param maxSegments the number of segments after which appending fails until records were acknowledged
+     * @param syncWrites  whether every append and checkpoint is forced to the storage device
+     * @throws IllegalStateException if the directory is used by another journal
+     */
+    OutboxJournal(Path directory, int segmentSize, int maxSegments, boolean syncWrites) throws IOException {
+        if (segmentSize <= RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException(String.format("Outbox segment size must be larger than %s bytes, but was %s",
+                    RECORD_HEADER_SIZE, segmentSize));
+        }
+        if (maxSegments < 1) {
+            throw new IllegalArgumentException(String.format("Outbox max segments must be at least 1, but was %s", maxSegments));
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.syncWrites = syncWrites;
+
+        Files.createDirectories(directory);
+        lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock acquiredLock;
+        try {
+            acquiredLock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            acquiredLock = null;
+        }
+        if (acquiredLock == null) {
+            lockChannel.close();
+            throw new IllegalStateException(String.format("Outbox directory %s is used by another producer", directory));
+        }
+        fileLock = acquiredLock;
+
+        try {
+            checkpointChannel = FileChannel.open(directory.resolve(CHECKPOINT_FILE), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            checkpoint = checkpointChannel.map(FileChannel.MapMode.READ_WRITE, 0, Long.BYTES);
+            checkpointSequence = checkpoint.getLong(0);
+            recover();
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the sequence number of the record
+     * @throws IllegalArgumentException if the record does not fit into a segment
+     * @throws IllegalStateException    if the journal is full or closed
+     */
+    long append(byte[] data) throws IOException {
+        if (data.length == 0 || RECORD_HEADER_SIZE + data.length > segmentSize) {
+            throw new IllegalArgumentException(String.format("Outbox records must have 1 to %s bytes, but had %s",
+                    segmentSize - RECORD_HEADER_SIZE, data.length));
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException(String.format("Outbox journal %s is closed", directory));
+            }
+            Segment segment = segments.get(segments.size() - 1);
+            if (segment.writePosition + RECORD_HEADER_SIZE + data.length > segment.capacity) {
+                if (segments.size() >= maxSegments) {
+                    throw new IllegalStateException(String.format("Outbox journal %s is full, %s records are not acknowledged yet",
+                            directory, getPendingCount()));
+                }
+                segment = openSegment(nextSequence);
+                segments.add(segment);
+            }
+
+            long sequence = nextSequence++;
+            int position = segment.writePosition;
+            CRC32 crc = new CRC32();
+            crc.update(data);
+            segment.buffer.putInt(position + Integer.BYTES, (int) crc.getValue());
+            segment.buffer.putLong(position + Integer.BYTES + Integer.BYTES, sequence);
+            segment.buffer.put(position + RECORD_HEADER_SIZE, data);
+            segment.buffer.putInt(position, data.length);
+            segment.writePosition = position + RECORD_HEADER_SIZE + data.length;
+            segment.lastSequence = sequence;
+            if (syncWrites) {
+                segment.buffer.force(position, RECORD_HEADER_SIZE + data.length);
+            }
+            appended.signalAll();
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes the next record, in the order they were appended.
+     *
+     * @return the record, or {@code null} if none was appended within the timeout or the journal was closed
+     */
+    Entry take(long timeout, TimeUnit unit) throws InterruptedException {
+        long remainingNanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (!closed) {
+                Entry entry = readNext();
+                if (entry != null) {
+                    return entry;
+                }
+                if (remainingNanos <= 0) {
+                    return null;
+                }
+                remainingNanos = appended.awaitNanos(remainingNanos);
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the record from the journal. Records may be acknowledged in any order, the checkpoint advances once
+     * all records before it were acknowledged as well.
+     */
+    void acknowledge(long sequence) {
+        lock.lock();
+        try {
+            if (closed || sequence <= checkpointSequence) {
+                return;
+            }
+            acknowledged.add(sequence);
+            long previousCheckpoint = checkpointSequence;
+            while (acknowledged.remove(checkpointSequence + 1)) {
+                checkpointSequence++;
+            }
+            if (checkpointSequence == previousCheckpoint) {
+                return;
+            }
+            checkpoint.putLong(0, checkpointSequence);
+            if (syncWrites) {
+                checkpoint.force();
+            }
+            while (segments.size() > 1 && segments.get(0) != readSegment
+                    && segments.get(0).lastSequence <= checkpointSequence) {
+                deleteSegment(segments.remove(0));
+            }
+        } catch (IOException e) {
+            log.warn("Unable to delete acknowledged segment of outbox journal {}", directory, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of records that were not acknowledged yet
+     */
+    long getPendingCount() {
+        lock.lock();
+        try {
+            return nextSequence - 1 - checkpointSequence - acknowledged.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            appended.signalAll();
+            // the mappings are released once the buffers are garbage collected
+            for (Segment segment : segments) {
+                segment.channel.close();
+            }
+            if (checkpointChannel != null) {
+                checkpointChannel.close();
+            }
+            if (fileLock != null) {
+                fileLock.release();
+            }
+            lockChannel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Path> segmentFiles;
+        try (Stream<Path> files = Files.list(directory)) {
+            segmentFiles = files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+        }
+
+        long lastSequence = checkpointSequence;
+        for (Path segmentFile : segmentFiles) {
+            String fileName = segmentFile.getFileName().toString();
+            Segment segment = openSegment(Long.parseLong(fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length())));
+            scan(segment);
+            lastSequence = Math.max(lastSequence, segment.lastSequence);
+            segments.add(segment);
+        }
+        nextSequence = lastSequence + 1;
+
+        while (segments.size() > 1 && segments.get(0).lastSequence <= checkpointSequence) {
+            deleteSegment(segments.remove(0));
+        }
+        if (segments.isEmpty()) {
+            segments.add(openSegment(nextSequence));
+        }
+
+        readSegment = segments.get(0);
+        readPosition = 0;
+        while (readPosition + RECORD_HEADER_SIZE <= readSegment.capacity) {
+            int length = readSegment.buffer.getInt(readPosition);
+            if (length == 0 || readSegment.buffer.getLong(readPosition + Integer.BYTES + Integer.BYTES) > checkpointSequence) {
+                break;
+            }
+            readPosition += RECORD_HEADER_SIZE + length;
+        }
+
+        if (nextSequence - 1 > checkpointSequence) {
+            log.info("Recovered {} records that were not acknowledged from outbox journal {}",
+                    nextSequence - 1 - checkpointSequence, directory);
+        }
+    }
+
+    /**
+     * Finds the end of the valid records of a segment. A torn record and everything after it is zeroed, so new
+     * records can be appended there.
+     */
+    private void scan(Segment segment) {
+        int position = 0;
+        long expectedSequence = segment.firstSequence;
+        while (position + RECORD_HEADER_SIZE <= segment.capacity) {
+            int length = segment.buffer.getInt(position);
+            if (length == 0) {
+                break;
+            }
+            if (length < 0 || position + RECORD_HEADER_SIZE + length > segment.capacity
+                    || segment.buffer.getLong(position + Integer.BYTES + Integer.BYTES) != expectedSequence
+                    || segment.buffer.getInt(position + Integer.BYTES) != crc(segment.buffer, position + RECORD_HEADER_SIZE, length)) {
+                log.warn("Skipping torn record {} at position {} of outbox journal segment {}", expectedSequence, position, segment.path);
+                zeroFill(segment.buffer, position, segment.capacity);
+                break;
+            }
+            position += RECORD_HEADER_SIZE + length;
+            expectedSequence++;
+        }
+        segment.writePosition = position;
+        segment.lastSequence = expectedSequence - 1;
+    }
+
+    private Entry readNext() {
+        while (true) {
+            if (readPosition + RECORD_HEADER_SIZE <= readSegment.capacity) {
+                int length = readSegment.buffer.getInt(readPosition);
+                if (length > 0) {
+                    long sequence = readSegment.buffer.getLong(readPosition + Integer.BYTES + Integer.BYTES);
+                    byte[] data = new byte[length];
+                    readSegment.buffer.get(readPosition + RECORD_HEADER_SIZE, data);
+                    readPosition += RECORD_HEADER_SIZE + length;
+                    return new Entry(sequence, data);
+                }
+            }
+            // the segment only ends early if the next record did not fit, then a later segment exists
+            int index = segments.indexOf(readSegment);
+            if (index + 1 >= segments.size()) {
+                return null;
+            }
+            readSegment = segments.get(index + 1);
+            readPosition = 0;
+        }
+    }
+
+    private Segment openSegment(long firstSequence) throws IOException {
+        Path path = directory.resolve(String.format("%020d%s", firstSequence, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            // segments written with another segment size keep their size
+            int capacity = (int) Math.max(channel.size(), segmentSize);
+            return new Segment(firstSequence, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void deleteSegment(Segment segment) throws IOException {
+        segment.channel.close();
+        Files.deleteIfExists(segment.path);
+    }
+
+    private static int crc(MappedByteBuffer buffer, int position, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(position, length));
+        return (int) crc.getValue();
+    }
+
+    private static void zeroFill(MappedByteBuffer buffer, int from, int to) {
+        byte[] zeros = new byte[ZERO_FILL_CHUNK_SIZE];
+        for (int position = from; position < to; position += zeros.length) {
+            buffer.put(position, zeros, 0, Math.min(zeros.length, to - position));
+        }
+    }
+
+    private static final class Segment {
+        private final long firstSequence;
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        private int writePosition;
+        private long lastSequence;
+
+        private Segment(long firstSequence, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.firstSequence = firstSequence;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.capacity = buffer.capacity();
+            this.lastSequence = firstSequence - 1;
+        }
+    }
+}
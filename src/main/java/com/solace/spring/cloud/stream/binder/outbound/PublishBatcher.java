@@ -0,0 +1,216 @@
+package com.solace.spring.cloud.stream.binder.outbound;
+
+import com.solace.spring.cloud.stream.binder.util.ClosedChannelBindingException;
+import com.solace.spring.cloud.stream.binder.util.CorrelationData;
+import com.solace.spring.cloud.stream.binder.util.ErrorChannelSendingCorrelationKey;
+import com.solacesystems.jcsmp.Destination;
+import com.solacesystems.jcsmp.JCSMPException;
+import com.solacesystems.jcsmp.JCSMPFactory;
+import com.solacesystems.jcsmp.JCSMPSendMultipleEntry;
+import com.solacesystems.jcsmp.XMLMessage;
+import com.solacesystems.jcsmp.XMLMessageProducer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Publishes the messages of one producer binding in batches with {@link XMLMessageProducer#sendMultiple}, which
+ * hands many messages to JCSMP in one call instead of one {@code send} per message.
+ * <p>Callers hand their messages over and return. A publisher thread takes the first waiting message, collects up
+ * to {@code maxBatchSize} messages for at most {@code batchTimeoutMicros} and sends them together. Messages are sent
+ * in the order they were handed over, the chunks of a large message stay together. At most
+ * {@code QUEUE_CAPACITY_FACTOR * maxBatchSize} messages wait to be sent, callers block until there is room again.</p>
+ * <p>A send that fails cannot be thrown to the caller anymore. It is reported like a failed publish
+ * acknowledgment: to the error channel of the binding and to the {@link CorrelationData} of the message.</p>
+ */
+@Slf4j
+class PublishBatcher {
+    private static final int QUEUE_CAPACITY_FACTOR = 4;
+    private final String bindingName;
+    private final int maxBatchSize;
+    private final long batchTimeoutNanos;
+    private final BatchSender sender;
+    private final Consumer<XMLMessage> sentMessageListener;
+    private final BlockingQueue<Publish> publishes;
+    private final Thread publisher;
+    private volatile boolean running = true;
+
+    /**
+     * @param sender              sends a slice of a batch, the handler retries failed sends
+     * @param sentMessageListener called for every message of a batch after the send, whether it failed or not
+     */
+    PublishBatcher(String bindingName, int maxBatchSize, long batchTimeoutMicros, BatchSender sender,
+                   Consumer<XMLMessage> sentMessageListener) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive");
+        }
+        this.bindingName = bindingName;
+        this.maxBatchSize = maxBatchSize;
+        this.batchTimeoutNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(batchTimeoutMicros, 0));
+        this.sender = sender;
+        this.sentMessageListener = sentMessageListener;
+        this.publishes = new LinkedBlockingQueue<>(QUEUE_CAPACITY_FACTOR * maxBatchSize);
+        this.publisher = new Thread(this::run, bindingName + "-publisher");
+        this.publisher.setDaemon(true);
+        this.publisher.start();
+    }
+
+    /**
+     * Hands the messages of one Spring message over to the publisher thread, blocks while too many messages are
+     * waiting to be sent.
+     *
+     * @throws ClosedChannelBindingException if the batcher was stopped
+     */
+    void publish(List<XMLMessage> messages, Destination destination, ErrorChannelSendingCorrelationKey correlationKey)
+            throws InterruptedException {
+        if (!running) {
+            throw new ClosedChannelBindingException(String.format("Publisher of binding %s is stopped", bindingName));
+        }
+        for (XMLMessage message : messages) {
+            publishes.put(new Publish(message, destination, correlationKey));
+        }
+        if (!running) {
+            // the publisher may have ended before it saw these messages
+            sendRemaining();
+        }
+    }
+
+    /**
+     * Sends the waiting messages and ends the publisher thread. Must be called before the producer is closed.
+     */
+    void stop(long timeoutMs) {
+        running = false;
+        publisher.interrupt();
+        try {
+            publisher.join(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (publisher.isAlive()) {
+            log.warn("Publisher of binding={} did not end within {}ms, {} messages remain", bindingName, timeoutMs, publishes.size());
+        }
+        sendRemaining();
+    }
+
+    int getQueuedMessages() {
+        return publishes.size();
+    }
+
+    private void run() {
+        List<Publish> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                Publish first = publishes.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch);
+                send(batch);
+            } catch (InterruptedException e) {
+                if (running) {
+                    log.warn("Publisher of binding={} interrupted", bindingName);
+                }
+            } catch (Throwable e) { // the only publisher of the binding, later sends would never complete without it
+                log.error("Publisher of binding={} failed", bindingName, e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Adds waiting messages to the batch until it is full or the batch timeout elapsed. An interrupt ends the
+     * collecting, the collected messages are still sent.
+     */
+    private void collect(List<Publish> batch) {
+        long deadline = System.nanoTime() + batchTimeoutNanos;
+        while (batch.size() < maxBatchSize) {
+            if (publishes.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            try {
+                Publish next = publishes.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    return;
+                }
+                batch.add(next);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void sendRemaining() {
+        List<Publish> batch = new ArrayList<>(maxBatchSize);
+        while (publishes.drainTo(batch, maxBatchSize) > 0) {
+            send(batch);
+            batch.clear();
+        }
+    }
+
+    private void send(List<Publish> batch) {
+        JCSMPSendMultipleEntry[] entries = new JCSMPSendMultipleEntry[batch.size()];
+        for (int i = 0; i < entries.length; i++) {
+            Publish publish = batch.get(i);
+            entries[i] = JCSMPFactory.onlyInstance().createSendMultipleEntry(publish.message(), publish.destination());
+        }
+        int sent = 0;
+        try {
+            while (sent < entries.length) {
+                int count = sender.sendMultiple(entries, sent, entries.length - sent);
+                if (count <= 0) {
+                    throw new IllegalStateException(String.format("No message of %s was sent", entries.length - sent));
+                }
+                sent += count;
+            }
+        } catch (Exception e) {
+            fail(batch.subList(sent, batch.size()), e);
+        } finally {
+            for (Publish publish : batch) {
+                sentMessageListener.accept(publish.message());
+            }
+        }
+    }
+
+    private void fail(List<Publish> unsent, Exception cause) {
+        Set<ErrorChannelSendingCorrelationKey> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Publish publish : unsent) {
+            // the chunks of a large message share their correlation key
+            if (!failed.add(publish.correlationKey())) {
+                continue;
+            }
+            String msg = String.format("Unable to send message(s) to destination %s", publish.destination());
+            log.warn(msg, cause);
+            try {
+                publish.correlationKey().fail(msg, cause);
+            } catch (RuntimeException e) {
+                log.error("Failed to report the failed publish of binding={}", bindingName, e);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface BatchSender {
+        /**
+         * @return the number of messages sent, starting at {@code offset}
+         */
+        int sendMultiple(JCSMPSendMultipleEntry[] entries, int offset, int length) throws JCSMPException;
+    }
+
+    private record Publish(XMLMessage message, Destination destination,
+                           ErrorChannelSendingCorrelationKey correlationKey) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.solace.spring.cloud.stream.binder.outbound;
+
+import java.util.UUID;
+
+/**
+ * The outcome of a message published with {@link SolacePublisher}.
+ *
+ * @param messageId   the id of the published Spring message
+ * @param destination the name of the topic or queue the message was published to
+ * @param messages    the number of Solace messages published, more than one if the message was split into chunks
+ */
+public record PublishReceipt(UUID messageId, String destination, int messages) {
+}
@@ -0,0 +1,87 @@
+package com.solace.spring.cloud.stream.binder.outbound;
+
+import java.util.function.Consumer;
+
+/**
+ * Circuit breaker shared by all threads publishing on a producer binding. After {@code failureThreshold}
+ * consecutive failed sends it opens and rejects sends for {@code openMs}, then lets a single trial send through
+ * ({@link State#HALF_OPEN}): its success closes the breaker again, its failure opens it for another {@code openMs}.
+ * A trial that doesn't report back within {@code openMs} is replaced by the next one.
+ * <p>A {@code failureThreshold} of {@code 0} disables the breaker.</p>
+ */
+final class SendCircuitBreaker {
+    private final int failureThreshold;
+    private final long openNanos;
+    private final Consumer<State> stateListener;
+    private volatile State state = State.CLOSED;
+    private volatile int consecutiveFailures;
+    // end of OPEN, or end of the current trial in HALF_OPEN
+    private long waitUntilNanos;
+
+    SendCircuitBreaker(int failureThreshold, long openMs, Consumer<State> stateListener) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openMs * 1_000_000;
+        this.stateListener = stateListener;
+    }
+
+    /**
+     * @return whether the send may be attempted, its outcome must then be reported with {@link #onSuccess()} or
+     * {@link #onFailure()}
+     */
+    boolean tryAcquire() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        synchronized (this) {
+            if (state == State.CLOSED) {
+                return true;
+            }
+            long now = System.nanoTime();
+            if (now - waitUntilNanos < 0) {
+                return false;
+            }
+            waitUntilNanos = now + openNanos;
+            transition(State.HALF_OPEN);
+            return true;
+        }
+    }
+
+    void onSuccess() {
+        // lock-free while closed, which is every send of a healthy binding
+        if (state == State.CLOSED && consecutiveFailures == 0) {
+            return;
+        }
+        synchronized (this) {
+            consecutiveFailures = 0;
+            transition(State.CLOSED);
+        }
+    }
+
+    void onFailure() {
+        if (failureThreshold <= 0) {
+            return;
+        }
+        synchronized (this) {
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+                waitUntilNanos = System.nanoTime() + openNanos;
+                transition(State.OPEN);
+            }
+        }
+    }
+
+    State getState() {
+        return state;
+    }
+
+    private void transition(State newState) {
+        if (state != newState) {
+            state = newState;
+            stateListener.accept(newState);
+        }
+    }
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+}
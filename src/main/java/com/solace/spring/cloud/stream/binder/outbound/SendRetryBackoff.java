@@ -0,0 +1,46 @@
+package com.solace.spring.cloud.stream.binder.outbound;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The delay between two send attempts of a message: it grows by {@code multiplier} from {@code initialMs} up to
+ * {@code maxMs}, and a random share of up to {@code jitter} of it is taken off, so that threads that failed at the
+ * same time don't retry in lockstep.
+ */
+final class SendRetryBackoff {
+    private final long initialMs;
+    private final long maxMs;
+    private final double multiplier;
+    private final double jitter;
+
+    SendRetryBackoff(long initialMs, long maxMs, double multiplier, double jitter) {
+        if (initialMs < 0 || maxMs < initialMs) {
+            throw new IllegalArgumentException(String.format(
+                    "sendRetryInitialBackoffMs must be between 0 and sendRetryMaxBackoffMs %s, but was %s", maxMs, initialMs));
+        }
+        if (multiplier < 1) {
+            throw new IllegalArgumentException(String.format(
+                    "sendRetryBackoffMultiplier must be at least 1, but was %s", multiplier));
+        }
+        if (jitter < 0 || jitter > 1) {
+            throw new IllegalArgumentException(String.format(
+                    "sendRetryJitter must be between 0 and 1, but was %s", jitter));
+        }
+        this.initialMs = initialMs;
+        this.maxMs = maxMs;
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+    }
+
+    /**
+     * @param attempt the failed attempt, starting at {@code 1}
+     * @return the delay in milliseconds before the next attempt
+     */
+    long delayMs(int attempt) {
+        double delay = Math.min(maxMs, initialMs * Math.pow(multiplier, attempt - 1));
+        if (jitter > 0) {
+            delay -= delay * jitter * ThreadLocalRandom.current().nextDouble();
+        }
+        return Math.round(delay);
+    }
+}
@@ -0,0 +1,48 @@
+package com.solace.spring.cloud.stream.binder.outbound;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessagingException;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Publishes messages on the producer bindings of the Solace binder without waiting for the broker. Unlike
+ * {@code StreamBridge}, every publish returns a future completed with the outcome of the publish.
+ * <p>The binding must already be bound, and the payload is published as is, without the message conversion of the
+ * binding: like with {@code useNativeEncoding}, it must be a {@code byte[]}, {@code String}, {@code SDTMap},
+ * {@code SDTStream} or {@link java.io.Serializable}.</p>
+ */
+public class SolacePublisher {
+    private final Map<String, JCSMPOutboundMessageHandler> handlers = new ConcurrentHashMap<>();
+
+    /**
+     * @param bindingName the name of the producer binding
+     * @param message     the message to publish
+     * @return a future completed once the message was published, see
+     * {@link JCSMPOutboundMessageHandler#publishAsync(Message)}
+     */
+    public CompletableFuture<PublishReceipt> publish(String bindingName, Message<?> message) {
+        JCSMPOutboundMessageHandler handler = handlers.get(bindingName);
+        if (handler == null) {
+            return CompletableFuture.failedFuture(new MessagingException(message,
+                    String.format("No Solace producer binding %s is bound", bindingName)));
+        }
+        return handler.publishAsync(message);
+    }
+
+    /**
+     * Called by the binder when it creates a producer binding.
+     */
+    public void register(String bindingName, JCSMPOutboundMessageHandler handler) {
+        handlers.put(bindingName, handler);
+    }
+
+    /**
+     * Called by the binder when it unbinds a producer binding.
+     */
+    public void unregister(String bindingName) {
+        handlers.remove(bindingName);
+    }
+}
@@ -1,6 +1,11 @@
 package com.solace.spring.cloud.stream.binder.properties;
 
+import com.solace.spring.cloud.stream.binder.util.BytesPayloadType;
+import com.solace.spring.cloud.stream.binder.util.LargeMessageReassembly;
 import com.solace.spring.cloud.stream.binder.util.QualityOfService;
+import com.solace.spring.cloud.stream.binder.util.RingBufferWaitStrategy;
+import com.solace.spring.cloud.stream.binder.util.WorkerQueueType;
+import com.solace.spring.cloud.stream.binder.util.WorkerThreadType;
 import com.solacesystems.jcsmp.EndpointProperties;
 import lombok.Getter;
 import lombok.Setter;
@@ -117,23 +122,157 @@ public class SolaceConsumerProperties extends SolaceCommonProperties {
      */
     private long drainTimeoutMs = 0;
 
+    /**
+     * Opt-in: finish stopping the binding in the background, in parallel with the other bindings of the binder.
+     * <p>When {@code true}, stopping the binding only stops the Solace flow, so no new messages are delivered.
+     * Draining ({@code drainTimeoutMs}), closing the flow and joining the worker threads continue in the background,
+     * so an application with many bindings shuts down in about the time of its slowest binding rather than the sum
+     * of all. A restart of the binding and the shutdown of the binder wait for the pending stop.</p>
+     * <p>Default: {@code false}, the binding is fully stopped when the stop returns.</p>
+     */
+    private boolean parallelStop = false;
+
+    /**
+     * Opt-in: settle (ACK/NACK) messages on a dedicated acker thread per flow instead of on the worker thread.
+     * <p>When {@code true}, acknowledging a message only hands the settlement over; the worker thread goes back to
+     * the business logic. The acker settles everything that queued up since its last wake-up back to back, at most
+     * {@code flowAckThreshold} percent of {@code subAckWindowSize} messages at once. A failed settlement is logged
+     * and the broker redelivers the message. Republishing to the error queue stays on the worker thread.</p>
+     * <p>Default: {@code false}, messages are settled on the worker thread.</p>
+     */
+    private boolean asyncSettlement = false;
+
+    /**
+     * Opt-in: publish the messages as a demand-driven {@code Flux} for reactive consumers.
+     * <p>When {@code true}, a worker thread only hands a message to the subscriber if the subscriber requested it
+     * ({@code request(n)}); otherwise the message waits in the worker queue. While the subscriber has no outstanding
+     * demand the Solace flow is stopped. Messages are not acknowledged automatically: the subscriber settles every
+     * message with the {@code AcknowledgmentCallback} of its {@code acknowledgmentCallback} header. The retry
+     * template is not applied. The output channel must be reactive (e.g. a {@code FluxMessageChannel}), any other
+     * channel would request an unbounded amount, so the binding fails to start with it.</p>
+     * <p>Default: {@code false}, messages are pushed to the consumer by the worker threads.</p>
+     */
+    private boolean reactive = false;
+
+    /**
+     * The maximum number of messages per batch, only applies to queue bindings with {@code batchMode = true}.
+     * <p>Every worker thread collects its own batch, so up to {@code concurrency} batches are processed in
+     * parallel.</p>
+     */
+    private int batchMaxSize = 255;
+
+    /**
+     * The maximum time in milliseconds a worker thread waits for a batch to fill up after its first message, only
+     * applies to queue bindings with {@code batchMode = true}. A batch that is not full is processed after this
+     * timeout, {@code 0} processes whatever is queued right away.
+     */
+    private long batchTimeoutMs = 5000;
+
     /**
      * Opt-in: preserve per-partition message ordering when consuming a Solace partitioned queue with
      * {@code concurrency > 1}.
-     * <p>When {@code true}, each received message is dispatched to a worker thread based on its Solace
-     * partition key (the {@code JMSXGroupID} queue-partition-key message property): all messages that
-     * share a partition key are handled by the same worker thread, so they are processed sequentially
-     * in receive order, while messages with different partition keys are still processed in parallel.
-     * Concretely, the single shared worker queue is replaced by one dedicated worker queue per worker
-     * thread and a message is routed to {@code floorMod(partitionKey.hashCode(), concurrency)}.
-     * Messages without a partition key carry no ordering constraint and are distributed round-robin
-     * across the worker threads.
-     * <p>When {@code false} (the default), every worker thread competes for every message from a
-     * single shared queue: maximum throughput but no per-partition ordering guarantee — exactly the
-     * behaviour from before this feature existed.
+     * <p>When {@code true}, the messages that share a Solace partition key (the {@code JMSXGroupID}
+     * queue-partition-key message property) are processed one after another in receive order: a message is only
+     * handed to the worker threads once the previous message of its partition key has been processed. Any idle
+     * worker thread may pick it up, so a slow partition key never delays messages of other partition keys, which
+     * are still processed in parallel. Messages without a partition key carry no ordering constraint.
+     * <p>When {@code false} (the default), every worker thread may take any message: maximum throughput but no
+     * per-partition ordering guarantee.
      * <p>Has no effect when {@code concurrency == 1} (a single worker thread already preserves order).
      */
     private boolean partitionAware = false;
+
+    /**
+     * The kind of threads messages are processed on.
+     * <p>{@code PLATFORM} (the default) starts {@code concurrency} long-lived worker threads per binding.
+     * {@code VIRTUAL} processes every message as a task on a virtual thread, with at most {@code concurrency}
+     * tasks per binding at the same time, so idle bindings hold no threads. Virtual threads
+     * need a Java 21+ runtime; on older runtimes the tasks run on an elastic platform thread pool.
+     */
+    private WorkerThreadType workerThreadType = WorkerThreadType.PLATFORM;
+
+    /**
+     * Lower bound of the worker threads with adaptive concurrency, see {@link #maxConcurrency}.
+     * <p>Default: null (1)
+     */
+    private Integer minConcurrency;
+
+    /**
+     * Enables adaptive concurrency: the number of worker threads grows up to this value while messages wait longer
+     * than {@link #scaleUpBackpressureMs} and shrinks down to {@link #minConcurrency} while workers are idle. The
+     * flow is not restarted for this. {@code concurrency} is then only the initial number of worker threads.
+     * Only supported with {@code workerThreadType} {@code PLATFORM}.
+     * <p>Default: null (fixed {@code concurrency})
+     */
+    private Integer maxConcurrency;
+
+    /**
+     * With adaptive concurrency, add worker threads (half of the current number at once) when the oldest waiting
+     * message is at least this old.
+     */
+    private long scaleUpBackpressureMs = 1000;
+
+    /**
+     * With adaptive concurrency, remove one worker thread after the worker queue has been empty with at least one
+     * idle worker for this long.
+     */
+    private long scaleDownIdleMs = 60000;
+
+    /**
+     * With adaptive concurrency, minimum time between two scaling steps.
+     */
+    private long scaleCooldownMs = 10000;
+
+    /**
+     * The queue that hands received messages from the Solace dispatcher thread to the worker threads.
+     * <p>{@code LINKED} (the default) is an unbounded, lock-based deque. {@code RING_BUFFER} is a bounded ring buffer of
+     * {@link #ringBufferSize} pre-allocated slots that the dispatcher and the workers access without locks. The
+     * dispatcher waits for a free slot of a full ring buffer, so unless {@link #bufferHighWatermarkMessages} is set the
+     * flow is stopped at three quarters of the ring buffer size, at most at the ring buffer size minus
+     * {@link #subAckWindowSize}.
+     */
+    private WorkerQueueType workerQueueType = WorkerQueueType.LINKED;
+
+    /**
+     * Number of slots per ring buffer when {@code workerQueueType} is {@code RING_BUFFER}, rounded up to a power of two.
+     * Must be greater than {@link #subAckWindowSize} and at least the high watermark plus {@link #subAckWindowSize}, the
+     * messages still in transit when the flow stops.
+     */
+    private int ringBufferSize = 16384;
+
+    /**
+     * How idle worker threads wait for messages on a {@code RING_BUFFER} worker queue: {@code BLOCKING} (the default)
+     * parks them, {@code YIELDING} and {@code BUSY_SPIN} lower the hand-off latency but keep one core per idle worker busy.
+     */
+    private RingBufferWaitStrategy ringBufferWaitStrategy = RingBufferWaitStrategy.BLOCKING;
+
+    /**
+     * Maximum number of messages the binding buffers on the heap (waiting in the worker queue or being processed)
+     * before the Solace flow is stopped. The flow is started again once the buffer falls to
+     * {@link #bufferLowWatermarkMessages}.
+     * <p>0 (the default) disables the message budget.
+     */
+    private int bufferHighWatermarkMessages = 0;
+
+    /**
+     * Number of buffered messages at which a flow stopped by {@link #bufferHighWatermarkMessages} is started again.
+     * <p>Default: null (half of {@code bufferHighWatermarkMessages})
+     */
+    private Integer bufferLowWatermarkMessages;
+
+    /**
+     * Maximum payload bytes the binding buffers on the heap (waiting in the worker queue or being processed)
+     * before the Solace flow is stopped. The flow is started again once the buffer falls to
+     * {@link #bufferLowWatermarkBytes}.
+     * <p>0 (the default) disables the byte budget.
+     */
+    private long bufferHighWatermarkBytes = 0;
+
+    /**
+     * Buffered payload bytes at which a flow stopped by {@link #bufferHighWatermarkBytes} is started again.
+     * <p>Default: null (half of {@code bufferHighWatermarkBytes})
+     */
+    private Long bufferLowWatermarkBytes;
     // ------------------------
 
     /**
@@ -141,6 +280,48 @@ public class SolaceConsumerProperties extends SolaceCommonProperties {
      */
     private List<String> headerExclusions = new ArrayList<>();
 
+    /**
+     * The classes that may be deserialized from Java-serialized values of the {@code binary} header and payload
+     * encodings, as {@code java.io.ObjectInputFilter} patterns such as {@code com.example.dto.*} or
+     * {@code com.example.**}. Every class of the deserialized object graph must match.
+     * <p>Default: empty, messages with Java-serialized values in the {@code binary} encoding fail to be mapped.</p>
+     */
+    private List<String> javaSerializationAllowlist = new ArrayList<>();
+
+    /**
+     * The payload type of consumed binary messages.
+     * <p>{@code BYTE_ARRAY} (the default) copies the message data into a new {@code byte[]}. {@code BYTE_BUFFER}
+     * hands over a read-only {@link java.nio.ByteBuffer} view of the received data instead, which saves one
+     * allocation and copy of the payload per message. The view must not be used after the message is processed.
+     * Serialized Java object payloads are deserialized either way.</p>
+     */
+    private BytesPayloadType bytesPayloadType = BytesPayloadType.BYTE_ARRAY;
+
+    /**
+     * The maximum size in bytes a compressed binary payload may have once it is decompressed, see the producer's
+     * {@code compression}. A message exceeding it fails to be mapped, so a small payload that decompresses to a huge
+     * one cannot exhaust the heap.
+     * <p>Default: {@code 268435456} (256 MB)</p>
+     */
+    private int maxDecompressedPayloadSize = 268435456;
+
+    /**
+     * How the chunks of consumed large messages are reassembled.
+     * <p>{@code HEAP} (the default) reassembles them into one {@code byte[]}. {@code FILE} writes each chunk to a
+     * temporary file in {@code largeMessageDirectory} as it arrives, the payload is the {@link java.nio.file.Path} of
+     * the file, or a read-only memory-mapped {@link java.nio.ByteBuffer} of it with {@code bytesPayloadType}
+     * {@code BYTE_BUFFER}. The file is deleted once the message was acknowledged. Compressed and serialized payloads
+     * are reassembled on the heap. Does not apply to {@code AT_MOST_ONCE} consumers.</p>
+     */
+    private LargeMessageReassembly largeMessageReassembly = LargeMessageReassembly.HEAP;
+
+    /**
+     * The directory large messages are reassembled in with {@code largeMessageReassembly} {@code FILE}, each binding
+     * uses its own {@code large-messages-<binding name>} subdirectory of it. Defaults to the {@code java.io.tmpdir}
+     * directory.
+     */
+    private String largeMessageDirectory = null;
+
     /**
      * Maps to the client-side {@code ConsumerFlowProperties.setTransportWindowSize(int)} value.
      * This is the JCSMP subscribe acknowledgment window size: how many messages may be in flight on the wire for this
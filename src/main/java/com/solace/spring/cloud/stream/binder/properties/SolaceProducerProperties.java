@@ -1,6 +1,7 @@
 package com.solace.spring.cloud.stream.binder.properties;
 
 import com.solace.spring.cloud.stream.binder.util.DestinationType;
+import com.solace.spring.cloud.stream.binder.util.LargeMessageSupport;
 import com.solacesystems.jcsmp.DeliveryMode;
 import lombok.Getter;
 import lombok.Setter;
@@ -24,6 +25,20 @@ public class SolaceProducerProperties extends SolaceCommonProperties {
      */
     private DestinationType destinationType = DestinationType.TOPIC;
 
+    /**
+     * A SpEL expression evaluated against each published {@code Message} giving the name of its destination, e.g.
+     * {@code headers['region'] + '/orders/' + payload.type}. A {@code scst_targetDestination} header takes
+     * precedence, {@code null} results publish to the destination of the binding. The expression is compiled to
+     * bytecode once it was evaluated a few times.
+     */
+    private String destinationExpression;
+
+    /**
+     * The maximum number of dynamic destinations, from the {@code scst_targetDestination} header or the
+     * {@link #destinationExpression}, whose JCSMP destination is cached per binding. {@code 0} disables the cache.
+     */
+    private int destinationCacheSize = 1024;
+
     /**
      * A SpEL expression for creating the consumer group’s queue name.
      * Modifying this can cause naming conflicts between the queue names of consumer groups.
@@ -60,6 +75,54 @@ public class SolaceProducerProperties extends SolaceCommonProperties {
      */
     private boolean nonserializableHeaderConvertToString = false;
 
+    /**
+     * The encoding of published headers that are not supported by the Solace user properties.
+     * <p>{@code base64} (the default) Java-serializes them and Base64-encodes the result, which all consumers can
+     * read. {@code binary} writes them in a compact binary format without Java serialization for the common types,
+     * it requires consumers with a binder version that supports it. Values of other types are only published with
+     * {@code binary} if their class is in {@link #javaSerializationAllowlist}, or as a String with
+     * {@link #nonserializableHeaderConvertToString}. Further encodings can be registered as
+     * {@code SerializedHeaderCodec} services.</p>
+     */
+    private String serializedHeadersEncoding = "base64";
+
+    /**
+     * The encoding of published payloads that are not supported by Solace messages, i.e. anything other than
+     * {@code byte[]}, {@code String}, {@code SDTMap} and {@code SDTStream}.
+     * <p>{@code java} (the default) Java-serializes them, which all consumers can read. {@code binary} writes them in
+     * the compact format of the {@code binary} header encoding, it requires consumers with a binder version that
+     * supports it. Further encodings can be registered as {@code PayloadCodec} services.</p>
+     */
+    private String serializedPayloadEncoding = "java";
+
+    /**
+     * The classes the {@code binary} header and payload encodings may Java-serialize, as
+     * {@code java.io.ObjectInputFilter} patterns such as {@code com.example.dto.*} or {@code com.example.**}.
+     * <p>Default: empty, only the types supported natively by the {@code binary} encoding are published with it.</p>
+     */
+    private List<String> javaSerializationAllowlist = new ArrayList<>();
+
+    /**
+     * The compression of published binary payloads, i.e. {@code byte[]} and serialized payloads, of at least
+     * {@link #compressionThreshold} bytes.
+     * <p>{@code none} (the default) publishes them uncompressed. {@code gzip} and {@code deflate} compress them with
+     * the JDK and publish the compression in the {@code solace_scst_payloadCompression} user property, they require
+     * consumers with a binder version that supports it. Further compressions can be registered as
+     * {@code PayloadCompressor} services.</p>
+     */
+    private String compression = "none";
+
+    /**
+     * The size in bytes from which binary payloads are compressed, see {@link #compression}.
+     */
+    private int compressionThreshold = 1024;
+
+    /**
+     * The size in bytes of the chunks large messages ({@code solace_scst_largeMessageSupport}) are split into. Must
+     * not exceed the maximum message size of the broker.
+     */
+    private int largeMessageChunkSize = LargeMessageSupport.CHUNK_SIZE;
+
     /**
      * Indicated if messages should be sending fire and forget or producer has to wait for broker persistence ack.
      */
@@ -74,6 +137,37 @@ public class SolaceProducerProperties extends SolaceCommonProperties {
      */
     private Integer pubAckWindowSize;
 
+    /**
+     * The number of producer flows the binding publishes on, each with its own {@link #pubAckWindowSize} window.
+     * Messages with a partition key always use the same flow, the others are spread round-robin.
+     * Ignored with {@code deliveryMode=DIRECT}.
+     */
+    private int producerFlowCount = 1;
+
+    /**
+     * The directory of the local outbox. When set, sent messages are written to a memory-mapped journal in the
+     * subdirectory of the binding and the send returns, a background thread publishes them in order and removes
+     * them from the journal once the broker acknowledged them. Requires {@code deliveryMode=PERSISTENT}.
+     * Messages published with {@code SolacePublisher} bypass the outbox.
+     */
+    private String outboxDirectory;
+
+    /**
+     * The size in bytes of a segment file of the outbox journal, which limits the size of a journaled message.
+     */
+    private int outboxSegmentSize = 64 * 1024 * 1024;
+
+    /**
+     * The number of outbox segments after which sends fail until journaled messages were acknowledged.
+     */
+    private int outboxMaxSegments = 16;
+
+    /**
+     * Whether every write to the outbox journal is forced to the storage device. Without it, journaled messages
+     * survive a crash of the application but not of the operating system.
+     */
+    private boolean outboxSyncWrites = false;
+
     /**
      * Time window in milliseconds during which a failed synchronous publish ({@code producer.send(...)}) is retried
      * before the send ultimately fails. When a publish attempt throws, the binder keeps retrying until this duration
@@ -88,4 +182,60 @@ public class SolaceProducerProperties extends SolaceCommonProperties {
      * Default: 60000 (60 seconds).
      */
     private long sendRetryTimeoutMs = 60000;
+
+    /**
+     * The delay in milliseconds after the first failed publish attempt of a message. Each further failure
+     * multiplies it by {@link #sendRetryBackoffMultiplier}, up to {@link #sendRetryMaxBackoffMs}.
+     */
+    private long sendRetryInitialBackoffMs = 100;
+
+    /**
+     * The maximum delay in milliseconds between two publish attempts of a message.
+     */
+    private long sendRetryMaxBackoffMs = 5000;
+
+    /**
+     * The factor by which the delay between two publish attempts of a message grows, at least {@code 1}.
+     */
+    private double sendRetryBackoffMultiplier = 2.0;
+
+    /**
+     * The share of each delay between two publish attempts, between {@code 0} and {@code 1}, that is randomly taken
+     * off so that threads that failed at the same time don't retry in lockstep.
+     */
+    private double sendRetryJitter = 0.5;
+
+    /**
+     * The number of consecutive failed publish attempts of the binding that open its send circuit breaker. While it
+     * is open, new publishes fail right away and publishes that are already retrying wait without sending.
+     * {@code 0} disables the circuit breaker.
+     */
+    private int sendCircuitBreakerFailureThreshold = 5;
+
+    /**
+     * The time in milliseconds the send circuit breaker stays open before a single trial publish may close it again.
+     */
+    private long sendCircuitBreakerOpenMs = 5000;
+
+    /**
+     * The maximum number of messages the binding publishes with one {@code XMLMessageProducer.sendMultiple(...)}
+     * call. With {@code 1} (the default) every message is sent on the calling thread with its own
+     * {@code producer.send(...)}.
+     * <p>With a larger value, the outbound message handler hands the messages over to a publisher thread and returns,
+     * publish failures are then reported to the error channel and to the {@code CorrelationData} of the message
+     * instead of being thrown.</p>
+     */
+    private int publishBatchMaxSize = 1;
+
+    /**
+     * The maximum time in microseconds the publisher thread waits for a batch to fill up after its first message,
+     * only applies with {@link #publishBatchMaxSize} {@code > 1}. {@code 0} sends whatever is waiting right away.
+     */
+    private long publishBatchTimeoutMicros = 500;
+
+    /**
+     * The maximum number of messages published with {@code SolacePublisher} on this binding that may be waiting
+     * for their publish to complete. Further publishes fail right away until earlier ones completed.
+     */
+    private int publishAsyncWindowSize = 1024;
 }
@@ -0,0 +1,417 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+import org.springframework.util.ClassUtils;
+import org.springframework.util.SerializationUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.UUID;
+
+/**
+ * Compact binary {@link SerializedHeaderCodec} with the encoding name {@value #ENCODING}.
+ * <p>Every value is written as a one byte type tag followed by its fields: {@link UUID}, {@link Instant},
+ * {@link Duration}, enums (by class and constant name), boxed primitives, strings, primitive arrays and lists, sets
+ * and maps of these types. Lists, sets and maps of the {@code java.util} package are decoded as {@link ArrayList},
+ * {@link LinkedHashSet} and {@link LinkedHashMap}.</p>
+ * <p>Any other value, including sorted and other collections, is only Java-serialized if its class is in the
+ * allowlist the codec was created with, and only Java-serialized values whose classes are all in the allowlist are
+ * deserialized again, so data from the broker is not deserialized unchecked. Without an allowlist such values fail
+ * to be encoded and decoded.</p>
+ */
+public final class BinaryHeaderCodec implements SerializedHeaderCodec {
+    public static final String ENCODING = "binary";
+    private static final byte VERSION = 1;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte BOOLEAN = 2;
+    private static final byte BYTE = 3;
+    private static final byte SHORT = 4;
+    private static final byte CHAR = 5;
+    private static final byte INT = 6;
+    private static final byte LONG = 7;
+    private static final byte FLOAT = 8;
+    private static final byte DOUBLE = 9;
+    private static final byte UUID_TYPE = 10;
+    private static final byte INSTANT = 11;
+    private static final byte DURATION = 12;
+    private static final byte ENUM = 13;
+    private static final byte BYTE_ARRAY = 14;
+    private static final byte BOOLEAN_ARRAY = 15;
+    private static final byte SHORT_ARRAY = 16;
+    private static final byte CHAR_ARRAY = 17;
+    private static final byte INT_ARRAY = 18;
+    private static final byte LONG_ARRAY = 19;
+    private static final byte FLOAT_ARRAY = 20;
+    private static final byte DOUBLE_ARRAY = 21;
+    private static final byte LIST = 22;
+    private static final byte SET = 23;
+    private static final byte MAP = 24;
+    private static final byte JAVA_SERIALIZED = 127;
+
+    // null if no class may be Java-serialized
+    private final ObjectInputFilter javaSerializationFilter;
+
+    /**
+     * Creates a codec that does not Java-serialize any value.
+     */
+    public BinaryHeaderCodec() {
+        this(List.of());
+    }
+
+    /**
+     * @param javaSerializationAllowlist the classes that may be Java-serialized, as {@link ObjectInputFilter}
+     *                                   patterns, e.g. {@code com.example.dto.*} or {@code com.example.**}
+     */
+    public BinaryHeaderCodec(List<String> javaSerializationAllowlist) {
+        this.javaSerializationFilter = javaSerializationAllowlist == null || javaSerializationAllowlist.isEmpty()
+                ? null
+                : ObjectInputFilter.Config.createFilter(String.join(";", javaSerializationAllowlist) + ";!*");
+    }
+
+    @Override
+    public String getEncoding() {
+        return ENCODING;
+    }
+
+    @Override
+    public byte[] encode(Object value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            write(out, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public Object decode(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IllegalArgumentException(String.format("Unsupported %s header version %s", ENCODING, version));
+            }
+            return read(in);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(String.format("Invalid %s header", ENCODING), e);
+        }
+    }
+
+    private void write(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String s) {
+            out.writeByte(STRING);
+            writeString(out, s);
+        } else if (value instanceof Boolean b) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean(b);
+        } else if (value instanceof Byte b) {
+            out.writeByte(BYTE);
+            out.writeByte(b);
+        } else if (value instanceof Short s) {
+            out.writeByte(SHORT);
+            out.writeShort(s);
+        } else if (value instanceof Character c) {
+            out.writeByte(CHAR);
+            out.writeChar(c);
+        } else if (value instanceof Integer i) {
+            out.writeByte(INT);
+            out.writeInt(i);
+        } else if (value instanceof Long l) {
+            out.writeByte(LONG);
+            out.writeLong(l);
+        } else if (value instanceof Float f) {
+            out.writeByte(FLOAT);
+            out.writeFloat(f);
+        } else if (value instanceof Double d) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(d);
+        } else if (value instanceof UUID uuid) {
+            out.writeByte(UUID_TYPE);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        } else if (value instanceof Instant instant) {
+            out.writeByte(INSTANT);
+            out.writeLong(instant.getEpochSecond());
+            out.writeInt(instant.getNano());
+        } else if (value instanceof Duration duration) {
+            out.writeByte(DURATION);
+            out.writeLong(duration.getSeconds());
+            out.writeInt(duration.getNano());
+        } else if (value instanceof Enum<?> e) {
+            out.writeByte(ENUM);
+            writeString(out, e.getDeclaringClass().getName());
+            writeString(out, e.name());
+        } else if (value.getClass().isArray() && value.getClass().getComponentType().isPrimitive()) {
+            writePrimitiveArray(out, value);
+        } else if (isPlainCollection(value, List.class, null)) {
+            out.writeByte(LIST);
+            writeElements(out, (Collection<?>) value);
+        } else if (isPlainCollection(value, Set.class, SortedSet.class)) {
+            out.writeByte(SET);
+            writeElements(out, (Collection<?>) value);
+        } else if (isPlainCollection(value, Map.class, SortedMap.class)) {
+            out.writeByte(MAP);
+            Map<?, ?> map = (Map<?, ?>) value;
+            out.writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                write(out, entry.getKey());
+                write(out, entry.getValue());
+            }
+        } else if (value instanceof Serializable && isJavaSerializationAllowed(value.getClass())) {
+            out.writeByte(JAVA_SERIALIZED);
+            writeBytes(out, SerializationUtils.serialize(value));
+        } else {
+            throw new IllegalArgumentException(String.format("%s is not supported by the %s header encoding", value.getClass(), ENCODING));
+        }
+    }
+
+    private Object read(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        return switch (type) {
+            case NULL -> null;
+            case STRING -> readString(in);
+            case BOOLEAN -> in.readBoolean();
+            case BYTE -> in.readByte();
+            case SHORT -> in.readShort();
+            case CHAR -> in.readChar();
+            case INT -> in.readInt();
+            case LONG -> in.readLong();
+            case FLOAT -> in.readFloat();
+            case DOUBLE -> in.readDouble();
+            case UUID_TYPE -> new UUID(in.readLong(), in.readLong());
+            case INSTANT -> Instant.ofEpochSecond(in.readLong(), in.readInt());
+            case DURATION -> Duration.ofSeconds(in.readLong(), in.readInt());
+            case ENUM -> readEnum(in);
+            case BYTE_ARRAY, BOOLEAN_ARRAY, SHORT_ARRAY, CHAR_ARRAY, INT_ARRAY, LONG_ARRAY, FLOAT_ARRAY, DOUBLE_ARRAY ->
+                    readPrimitiveArray(in, type);
+            case LIST -> readElements(in, new ArrayList<>());
+            case SET -> readElements(in, new LinkedHashSet<>());
+            case MAP -> {
+                int size = readLength(in);
+                Map<Object, Object> map = new LinkedHashMap<>(Math.max(16, (int) (size / .75f) + 1));
+                for (int i = 0; i < size; i++) {
+                    map.put(read(in), read(in));
+                }
+                yield map;
+            }
+            case JAVA_SERIALIZED -> deserialize(readBytes(in));
+            default -> throw new IllegalArgumentException(String.format("Unknown %s header type %s", ENCODING, type));
+        };
+    }
+
+    private boolean isJavaSerializationAllowed(Class<?> type) {
+        return javaSerializationFilter != null
+                && javaSerializationFilter.checkInput(new TopLevelClass(type)) == ObjectInputFilter.Status.ALLOWED;
+    }
+
+    /**
+     * Deserializes with the allowlist as filter, it rejects every class of the object graph that is not allowed.
+     */
+    private Object deserialize(byte[] data) throws IOException {
+        if (javaSerializationFilter == null) {
+            throw new IllegalArgumentException(String.format("Java-serialized values are not allowed by the %s header encoding without an allowlist", ENCODING));
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            in.setObjectInputFilter(javaSerializationFilter);
+            return in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException(String.format("Unknown Java-serialized class %s", e.getMessage()), e);
+        }
+    }
+
+    private void writePrimitiveArray(DataOutputStream out, Object array) throws IOException {
+        if (array instanceof byte[] a) {
+            out.writeByte(BYTE_ARRAY);
+            writeBytes(out, a);
+        } else if (array instanceof boolean[] a) {
+            out.writeByte(BOOLEAN_ARRAY);
+            out.writeInt(a.length);
+            for (boolean v : a) out.writeBoolean(v);
+        } else if (array instanceof short[] a) {
+            out.writeByte(SHORT_ARRAY);
+            out.writeInt(a.length);
+            for (short v : a) out.writeShort(v);
+        } else if (array instanceof char[] a) {
+            out.writeByte(CHAR_ARRAY);
+            out.writeInt(a.length);
+            for (char v : a) out.writeChar(v);
+        } else if (array instanceof int[] a) {
+            out.writeByte(INT_ARRAY);
+            out.writeInt(a.length);
+            for (int v : a) out.writeInt(v);
+        } else if (array instanceof long[] a) {
+            out.writeByte(LONG_ARRAY);
+            out.writeInt(a.length);
+            for (long v : a) out.writeLong(v);
+        } else if (array instanceof float[] a) {
+            out.writeByte(FLOAT_ARRAY);
+            out.writeInt(a.length);
+            for (float v : a) out.writeFloat(v);
+        } else {
+            double[] a = (double[]) array;
+            out.writeByte(DOUBLE_ARRAY);
+            out.writeInt(a.length);
+            for (double v : a) out.writeDouble(v);
+        }
+    }
+
+    private Object readPrimitiveArray(DataInputStream in, byte type) throws IOException {
+        if (type == BYTE_ARRAY) {
+            return readBytes(in);
+        }
+        int length = readLength(in);
+        switch (type) {
+            case BOOLEAN_ARRAY -> {
+                boolean[] a = new boolean[length];
+                for (int i = 0; i < length; i++) a[i] = in.readBoolean();
+                return a;
+            }
+            case SHORT_ARRAY -> {
+                short[] a = new short[length];
+                for (int i = 0; i < length; i++) a[i] = in.readShort();
+                return a;
+            }
+            case CHAR_ARRAY -> {
+                char[] a = new char[length];
+                for (int i = 0; i < length; i++) a[i] = in.readChar();
+                return a;
+            }
+            case INT_ARRAY -> {
+                int[] a = new int[length];
+                for (int i = 0; i < length; i++) a[i] = in.readInt();
+                return a;
+            }
+            case LONG_ARRAY -> {
+                long[] a = new long[length];
+                for (int i = 0; i < length; i++) a[i] = in.readLong();
+                return a;
+            }
+            case FLOAT_ARRAY -> {
+                float[] a = new float[length];
+                for (int i = 0; i < length; i++) a[i] = in.readFloat();
+                return a;
+            }
+            default -> {
+                double[] a = new double[length];
+                for (int i = 0; i < length; i++) a[i] = in.readDouble();
+                return a;
+            }
+        }
+    }
+
+    private void writeElements(DataOutputStream out, Collection<?> collection) throws IOException {
+        out.writeInt(collection.size());
+        for (Object element : collection) {
+            write(out, element);
+        }
+    }
+
+    private <C extends Collection<Object>> C readElements(DataInputStream in, C collection) throws IOException {
+        int size = readLength(in);
+        for (int i = 0; i < size; i++) {
+            collection.add(read(in));
+        }
+        return collection;
+    }
+
+    private static Object readEnum(DataInputStream in) throws IOException {
+        String className = readString(in);
+        String name = readString(in);
+        Class<?> enumType;
+        try {
+            enumType = ClassUtils.forName(className, ClassUtils.getDefaultClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            throw new IllegalArgumentException(String.format("Unknown enum %s", className), e);
+        }
+        if (!enumType.isEnum()) {
+            throw new IllegalArgumentException(String.format("%s is not an enum", className));
+        }
+        for (Object constant : enumType.getEnumConstants()) {
+            if (((Enum<?>) constant).name().equals(name)) {
+                return constant;
+            }
+        }
+        throw new IllegalArgumentException(String.format("Unknown constant %s of enum %s", name, className));
+    }
+
+    private static boolean isPlainCollection(Object value, Class<?> type, Class<?> sortedType) {
+        return type.isInstance(value) && (sortedType == null || !sortedType.isInstance(value))
+                && value.getClass().getName().startsWith("java.util.");
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        writeBytes(out, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return new String(readBytes(in), StandardCharsets.UTF_8);
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+        out.writeInt(value.length);
+        out.write(value);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] value = new byte[readLength(in)];
+        in.readFully(value);
+        return value;
+    }
+
+    /**
+     * The filter input of the class of a value to encode, its fields are checked by the decoding consumer.
+     */
+    private record TopLevelClass(Class<?> serialClass) implements ObjectInputFilter.FilterInfo {
+        @Override
+        public long arrayLength() {
+            return -1;
+        }
+
+        @Override
+        public long depth() {
+            return 1;
+        }
+
+        @Override
+        public long references() {
+            return 0;
+        }
+
+        @Override
+        public long streamBytes() {
+            return 0;
+        }
+    }
+
+    // every element takes at least one byte, a corrupt length must not allocate more than the data
+    private static int readLength(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > in.available()) {
+            throw new IOException(String.format("Invalid length %s", length));
+        }
+        return length;
+    }
+}
@@ -0,0 +1,40 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+import java.util.List;
+
+/**
+ * {@link PayloadCodec} with the encoding name {@value #ENCODING}, writing payloads in the format of the
+ * {@link BinaryHeaderCodec}: {@code UUID}, {@code Instant}, enums, primitives, strings, primitive arrays and
+ * {@code java.util} collections of these types without Java serialization, other values only Java-serialized if
+ * their classes are in the allowlist.
+ */
+public final class BinaryPayloadCodec implements PayloadCodec {
+    public static final String ENCODING = "binary";
+    private final BinaryHeaderCodec format;
+
+    public BinaryPayloadCodec() {
+        this(List.of());
+    }
+
+    /**
+     * @param javaSerializationAllowlist see {@link BinaryHeaderCodec#BinaryHeaderCodec(List)}
+     */
+    public BinaryPayloadCodec(List<String> javaSerializationAllowlist) {
+        this.format = new BinaryHeaderCodec(javaSerializationAllowlist);
+    }
+
+    @Override
+    public String getEncoding() {
+        return ENCODING;
+    }
+
+    @Override
+    public byte[] encode(Object payload) {
+        return format.encode(payload);
+    }
+
+    @Override
+    public Object decode(byte[] data) {
+        return format.decode(data);
+    }
+}
@@ -0,0 +1,16 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+/**
+ * The payload type of consumed {@code BytesMessage}s.
+ */
+public enum BytesPayloadType {
+    /**
+     * A {@code byte[]} copy of the message data (default).
+     */
+    BYTE_ARRAY,
+    /**
+     * A read-only {@link java.nio.ByteBuffer} view of the message attachment, without copying it. The view is only
+     * valid as long as the consumed message is, handlers must not keep it after processing the message.
+     */
+    BYTE_BUFFER
+}
@@ -0,0 +1,64 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * {@link PayloadCompressor} with the encoding name {@value #ENCODING}, writing zlib streams with the JDK
+ * {@link Deflater}.
+ * <p>The {@link Deflater} and {@link Inflater} are created per payload and ended right after it, so their native
+ * zlib state is freed immediately instead of by the garbage collector, also on short-lived virtual threads.</p>
+ */
+public final class DeflatePayloadCompressor implements PayloadCompressor {
+    public static final String ENCODING = "deflate";
+    private static final int BUFFER_SIZE = 8192;
+
+    @Override
+    public String getEncoding() {
+        return ENCODING;
+    }
+
+    @Override
+    public byte[] compress(byte[] data) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 2));
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int maxSize) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.min(maxSize, data.length * 4L));
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("Truncated deflate payload");
+                }
+                if (out.size() + (long) length > maxSize) {
+                    throw new IllegalArgumentException(String.format("Deflate payload exceeds %d bytes decompressed", maxSize));
+                }
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Invalid deflate payload", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
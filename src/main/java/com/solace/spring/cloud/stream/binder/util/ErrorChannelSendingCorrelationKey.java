@@ -12,6 +12,8 @@ import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.MessagingException;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 public class ErrorChannelSendingCorrelationKey {
@@ -25,7 +27,9 @@ public class ErrorChannelSendingCorrelationKey {
     @Getter
     @Setter
     private CorrelationData confirmCorrelation;
-
+    // only for messages published with JCSMPOutboundMessageHandler#publishAsync
+    private volatile CompletableFuture<Void> published;
+    private final AtomicInteger pendingAcknowledgments = new AtomicInteger();
 
     public ErrorChannelSendingCorrelationKey(Message<?> inputMessage, MessageChannel errorChannel,
                                              ErrorMessageStrategy errorMessageStrategy) {
@@ -55,4 +59,60 @@ public class ErrorChannelSendingCorrelationKey {
         }
         return exception;
     }
+
+    /**
+     * Reports a failed publish that cannot be thrown to the publishing application anymore: sends the message to
+     * the error channel if defined and fails the {@link #getConfirmCorrelation() confirm correlation}.
+     *
+     * @param msg   the failure description
+     * @param cause the failure cause
+     * @return the exception wrapper containing the failed input message
+     */
+    public MessagingException fail(String msg, Exception cause) {
+        MessagingException exception = send(msg, cause);
+        failed(exception);
+        return exception;
+    }
+
+    /**
+     * Tracks the publish of the {@link #getRawMessages() raw messages}. Must be called before the first raw message
+     * is sent.
+     *
+     * @param acknowledgments the number of {@link #acknowledged() acknowledgments} completing the publish
+     * @return a future completed once all acknowledgments were received, or exceptionally on the first failure
+     */
+    public CompletableFuture<Void> trackPublish(int acknowledgments) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        pendingAcknowledgments.set(acknowledgments);
+        published = future;
+        if (acknowledgments <= 0) {
+            future.complete(null);
+        }
+        return future;
+    }
+
+    /**
+     * Counts the acknowledgment of a raw message: the broker acknowledgment of a persistent message, or the
+     * successful send of a direct message.
+     */
+    public void acknowledged() {
+        CompletableFuture<Void> future = published;
+        if (future != null && pendingAcknowledgments.decrementAndGet() == 0) {
+            future.complete(null);
+        }
+    }
+
+    /**
+     * Fails the {@link #getConfirmCorrelation() confirm correlation} and the {@link #trackPublish(int) tracked
+     * publish}, without sending to the error channel.
+     */
+    void failed(MessagingException exception) {
+        if (confirmCorrelation != null) {
+            confirmCorrelation.failed(exception);
+        }
+        CompletableFuture<Void> future = published;
+        if (future != null) {
+            future.completeExceptionally(exception);
+        }
+    }
 }
@@ -0,0 +1,52 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * {@link PayloadCompressor} with the encoding name {@value #ENCODING}, writing the gzip format with the JDK
+ * {@link GZIPOutputStream}. Compressed payloads can be read by any gzip implementation, e.g. by non-Java consumers.
+ */
+public final class GzipPayloadCompressor implements PayloadCompressor {
+    public static final String ENCODING = "gzip";
+    private static final int BUFFER_SIZE = 8192;
+
+    @Override
+    public String getEncoding() {
+        return ENCODING;
+    }
+
+    @Override
+    public byte[] compress(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 2));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out, BUFFER_SIZE)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public byte[] decompress(byte[] data, int maxSize) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.min(maxSize, data.length * 4L));
+        // the GZIPInputStream ends its Inflater when it is closed
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data), BUFFER_SIZE)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int length;
+            while ((length = gzip.read(buffer)) != -1) {
+                if (out.size() + (long) length > maxSize) {
+                    throw new IllegalArgumentException(String.format("Gzip payload exceeds %d bytes decompressed", maxSize));
+                }
+                out.write(buffer, 0, length);
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid gzip payload", e);
+        }
+        return out.toByteArray();
+    }
+}
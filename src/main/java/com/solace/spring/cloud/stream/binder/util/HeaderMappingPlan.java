@@ -0,0 +1,391 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+import com.solace.spring.cloud.stream.binder.messaging.SolaceBinderHeaderMeta;
+import com.solace.spring.cloud.stream.binder.messaging.SolaceBinderHeaders;
+import com.solace.spring.cloud.stream.binder.messaging.SolaceHeaderMeta;
+import com.solace.spring.cloud.stream.binder.properties.SolaceConsumerProperties;
+import com.solace.spring.cloud.stream.binder.properties.SolaceProducerProperties;
+import com.solacesystems.jcsmp.DeliveryMode;
+import com.solacesystems.jcsmp.JCSMPFactory;
+import com.solacesystems.jcsmp.SDTMap;
+import com.solacesystems.jcsmp.XMLMessage;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.integration.IntegrationMessageHeaderAccessor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * How {@link XMLMessageMapper} maps the headers (and serialized or compressed payloads) of one binding, compiled once from the
+ * binding's properties.
+ * <p>Every decision that does not depend on the message is taken here: the header exclusions are a {@link Set},
+ * the {@link SolaceHeaderMeta} headers are arrays of accessors with the exclusions already applied, and the default
+ * headers of a producer are resolved per Solace header and mapped to a template of user properties that every
+ * published message starts from. The mapper then loops over the accessors without filtering per message.</p>
+ * <p>A plan is immutable and can be shared by all threads of a binding. The only state is whether reading a Solace
+ * header turned out to be unsupported by the JCSMP version, which is remembered per accessor.</p>
+ */
+@Slf4j
+public final class HeaderMappingPlan {
+    private static final int DEFAULT_MAX_DECOMPRESSED_PAYLOAD_SIZE = 256 * 1024 * 1024;
+    private static final Set<String> NON_USER_PROPERTIES;
+
+    static {
+        Set<String> nonUserProperties = new HashSet<>(SolaceHeaderMeta.META.keySet());
+        nonUserProperties.addAll(SolaceBinderHeaderMeta.META.keySet());
+        nonUserProperties.add(IntegrationMessageHeaderAccessor.SOURCE_DATA);
+        nonUserProperties.add(IntegrationMessageHeaderAccessor.ACKNOWLEDGMENT_CALLBACK);
+        NON_USER_PROPERTIES = Collections.unmodifiableSet(nonUserProperties);
+    }
+
+    private final Set<String> exclusions;
+    private final ReadableHeader[] readableHeaders;
+    private final Map<String, ReadableHeader> readableHeadersByName;
+    private final WritableHeader[] writableHeaders;
+    private final Set<String> skippedUserProperties;
+    private final Map<String, Object> defaultHeaders;
+    private final boolean convertNonSerializableHeadersToString;
+    private final DeliveryMode deliveryMode;
+    private final SerializedHeaderCodec serializedHeaderCodec;
+    private final PayloadCodec payloadCodec;
+    private final PayloadCompressor payloadCompressor;
+    private final int compressionThreshold;
+    private final int maxDecompressedPayloadSize;
+    // decode the binary encoding with the allowlist of the consumer, null to use the registered codecs
+    private final BinaryHeaderCodec binaryHeaderDecoder;
+    private final BinaryPayloadCodec binaryPayloadDecoder;
+    private final SDTMap userPropertiesTemplate;
+    private final Set<String> serializedDefaultHeaders;
+
+    private HeaderMappingPlan(Collection<String> exclusions, boolean convertNonSerializableHeadersToString,
+                              DeliveryMode deliveryMode, Map<String, Object> defaultHeaders,
+                              SerializedHeaderCodec serializedHeaderCodec, PayloadCodec payloadCodec,
+                              PayloadCompressor payloadCompressor, int compressionThreshold,
+                              int maxDecompressedPayloadSize, List<String> javaSerializationAllowlist) {
+        this.exclusions = exclusions != null ? Set.copyOf(exclusions) : Set.of();
+        this.convertNonSerializableHeadersToString = convertNonSerializableHeadersToString;
+        this.deliveryMode = deliveryMode;
+        this.serializedHeaderCodec = serializedHeaderCodec;
+        this.payloadCodec = payloadCodec;
+        this.payloadCompressor = payloadCompressor;
+        this.compressionThreshold = compressionThreshold;
+        this.maxDecompressedPayloadSize = maxDecompressedPayloadSize;
+        boolean allowlisted = javaSerializationAllowlist != null && !javaSerializationAllowlist.isEmpty();
+        this.binaryHeaderDecoder = allowlisted ? new BinaryHeaderCodec(javaSerializationAllowlist) : null;
+        this.binaryPayloadDecoder = allowlisted ? new BinaryPayloadCodec(javaSerializationAllowlist) : null;
+        this.defaultHeaders = defaultHeaders != null ? Collections.unmodifiableMap(new HashMap<>(defaultHeaders)) : Map.of();
+
+        List<ReadableHeader> readable = new ArrayList<>();
+        List<WritableHeader> writable = new ArrayList<>();
+        for (Map.Entry<String, SolaceHeaderMeta<?>> header : SolaceHeaderMeta.META.entrySet()) {
+            if (header.getValue().isReadable() && !this.exclusions.contains(header.getKey())) {
+                readable.add(new ReadableHeader(header.getKey(), header.getValue().getReadAction()));
+            }
+            // excluding Solace message headers on publish is not supported
+            if (header.getValue().isWritable()) {
+                writable.add(new WritableHeader(header.getKey(), header.getValue(), this.defaultHeaders));
+            }
+        }
+        this.readableHeaders = readable.toArray(new ReadableHeader[0]);
+        Map<String, ReadableHeader> byName = new HashMap<>();
+        for (ReadableHeader header : readableHeaders) {
+            byName.put(header.name(), header);
+        }
+        this.readableHeadersByName = Collections.unmodifiableMap(byName);
+        this.writableHeaders = writable.toArray(new WritableHeader[0]);
+
+        Set<String> skipped = new HashSet<>(NON_USER_PROPERTIES);
+        skipped.addAll(this.exclusions);
+        this.skippedUserProperties = Collections.unmodifiableSet(skipped);
+
+        Set<String> serializedDefaults = new HashSet<>();
+        this.userPropertiesTemplate = createUserPropertiesTemplate(serializedDefaults);
+        this.serializedDefaultHeaders = Collections.unmodifiableSet(serializedDefaults);
+    }
+
+    /**
+     * Maps the default headers and the message version once, with the same rules as the headers of a message.
+     */
+    @SneakyThrows
+    private SDTMap createUserPropertiesTemplate(Set<String> serializedDefaults) {
+        SDTMap template = JCSMPFactory.onlyInstance().createMap();
+        for (Map.Entry<String, Object> header : defaultHeaders.entrySet()) {
+            XMLMessageMapper.addUserProperty(template, serializedDefaults, header.getKey(), header.getValue(), this);
+        }
+        template.putInteger(SolaceBinderHeaders.MESSAGE_VERSION, XMLMessageMapper.MESSAGE_VERSION);
+        return template;
+    }
+
+    public static HeaderMappingPlan forConsumer(SolaceConsumerProperties consumerProperties) {
+        return new HeaderMappingPlan(consumerProperties.getHeaderExclusions(), false, DeliveryMode.PERSISTENT, null,
+                null, null, null, 0, consumerProperties.getMaxDecompressedPayloadSize(),
+                consumerProperties.getJavaSerializationAllowlist());
+    }
+
+    /**
+     * @throws IllegalArgumentException if no codec is registered for the {@code serializedHeadersEncoding} or the
+     * {@code serializedPayloadEncoding}, or no compressor for the {@code compression}
+     */
+    public static HeaderMappingPlan forProducer(SolaceProducerProperties producerProperties) {
+        return new HeaderMappingPlan(producerProperties.getHeaderExclusions(),
+                producerProperties.isNonserializableHeaderConvertToString(),
+                producerProperties.getDeliveryMode(),
+                producerProperties.getDefaultHeader(),
+                getSerializedHeaderCodec(producerProperties.getSerializedHeadersEncoding(), producerProperties.getJavaSerializationAllowlist()),
+                getPayloadCodec(producerProperties.getSerializedPayloadEncoding(), producerProperties.getJavaSerializationAllowlist()),
+                getPayloadCompressor(producerProperties.getCompression()),
+                producerProperties.getCompressionThreshold(),
+                DEFAULT_MAX_DECOMPRESSED_PAYLOAD_SIZE, null);
+    }
+
+    static HeaderMappingPlan inbound(Collection<String> exclusions) {
+        return new HeaderMappingPlan(exclusions, false, DeliveryMode.PERSISTENT, null, null, null, null, 0,
+                DEFAULT_MAX_DECOMPRESSED_PAYLOAD_SIZE, null);
+    }
+
+    /**
+     * The plan of the legacy {@link XMLMessageMapper} overloads that take the header options one by one. It neither
+     * encodes headers and payloads with a codec nor compresses payloads, see {@link #forProducer} for those.
+     */
+    static HeaderMappingPlan outbound(Collection<String> exclusions, boolean convertNonSerializableHeadersToString,
+                                      DeliveryMode deliveryMode, Map<String, Object> defaultHeaders) {
+        return new HeaderMappingPlan(exclusions, convertNonSerializableHeadersToString, deliveryMode, defaultHeaders,
+                null, null, null, 0, DEFAULT_MAX_DECOMPRESSED_PAYLOAD_SIZE, null);
+    }
+
+    private static SerializedHeaderCodec getSerializedHeaderCodec(String encoding, List<String> javaSerializationAllowlist) {
+        if (encoding == null || XMLMessageMapper.DEFAULT_ENCODING.getName().equals(encoding)) {
+            return null;
+        }
+        if (BinaryHeaderCodec.ENCODING.equals(encoding) && javaSerializationAllowlist != null && !javaSerializationAllowlist.isEmpty()) {
+            return new BinaryHeaderCodec(javaSerializationAllowlist);
+        }
+        SerializedHeaderCodec codec = SerializedHeaderCodecs.get(encoding);
+        if (codec == null) {
+            throw new IllegalArgumentException(String.format("Serialized headers encoding %s is not supported", encoding));
+        }
+        return codec;
+    }
+
+    private static PayloadCodec getPayloadCodec(String encoding, List<String> javaSerializationAllowlist) {
+        if (encoding == null || PayloadCodecs.JAVA_SERIALIZATION.equals(encoding)) {
+            return null;
+        }
+        if (BinaryPayloadCodec.ENCODING.equals(encoding) && javaSerializationAllowlist != null && !javaSerializationAllowlist.isEmpty()) {
+            return new BinaryPayloadCodec(javaSerializationAllowlist);
+        }
+        PayloadCodec codec = PayloadCodecs.get(encoding);
+        if (codec == null) {
+            throw new IllegalArgumentException(String.format("Serialized payload encoding %s is not supported", encoding));
+        }
+        return codec;
+    }
+
+    private static PayloadCompressor getPayloadCompressor(String encoding) {
+        if (encoding == null || PayloadCompressors.NONE.equals(encoding)) {
+            return null;
+        }
+        PayloadCompressor compressor = PayloadCompressors.get(encoding);
+        if (compressor == null) {
+            throw new IllegalArgumentException(String.format("Payload compression %s is not supported", encoding));
+        }
+        return compressor;
+    }
+
+    boolean isExcluded(String name) {
+        return exclusions.contains(name);
+    }
+
+    ReadableHeader[] getReadableHeaders() {
+        return readableHeaders;
+    }
+
+    /**
+     * @return the readable Solace header, or {@code null} if {@code name} is none or is excluded
+     */
+    ReadableHeader getReadableHeader(String name) {
+        return readableHeadersByName.get(name);
+    }
+
+    WritableHeader[] getWritableHeaders() {
+        return writableHeaders;
+    }
+
+    /**
+     * @return {@code true} if the header is never published as a user property: it is excluded, a Solace or binder
+     * header, or a local Spring Integration header
+     */
+    boolean isSkippedUserProperty(String name) {
+        return skippedUserProperties.contains(name);
+    }
+
+    Map<String, Object> getDefaultHeaders() {
+        return defaultHeaders;
+    }
+
+    /**
+     * @return a new map with the user properties every published message starts from: the default headers and the
+     * message version
+     */
+    @SneakyThrows
+    SDTMap newUserProperties() {
+        SDTMap userProperties = JCSMPFactory.onlyInstance().createMap();
+        userProperties.putAll(userPropertiesTemplate);
+        return userProperties;
+    }
+
+    /**
+     * @return the default headers in {@link #newUserProperties()} that were serialized
+     */
+    Set<String> getSerializedDefaultHeaders() {
+        return serializedDefaultHeaders;
+    }
+
+    boolean isConvertNonSerializableHeadersToString() {
+        return convertNonSerializableHeadersToString;
+    }
+
+    DeliveryMode getDeliveryMode() {
+        return deliveryMode;
+    }
+
+    /**
+     * @return the codec of published headers that are not supported by the user properties, {@code null} to
+     * Java-serialize and Base64-encode them
+     */
+    SerializedHeaderCodec getSerializedHeaderCodec() {
+        return serializedHeaderCodec;
+    }
+
+    /**
+     * @return the codec of published payloads that are not supported by Solace messages, {@code null} to
+     * Java-serialize them
+     */
+    PayloadCodec getPayloadCodec() {
+        return payloadCodec;
+    }
+
+    /**
+     * @return the codec to decode consumed headers of the encoding, {@code null} if none is registered for it
+     */
+    SerializedHeaderCodec getSerializedHeaderDecoder(String encoding) {
+        return binaryHeaderDecoder != null && BinaryHeaderCodec.ENCODING.equals(encoding)
+                ? binaryHeaderDecoder
+                : SerializedHeaderCodecs.get(encoding);
+    }
+
+    /**
+     * @return the codec to decode consumed payloads of the encoding, {@code null} if none is registered for it
+     */
+    PayloadCodec getPayloadDecoder(String encoding) {
+        return binaryPayloadDecoder != null && BinaryPayloadCodec.ENCODING.equals(encoding)
+                ? binaryPayloadDecoder
+                : PayloadCodecs.get(encoding);
+    }
+
+    /**
+     * @return the compressor of published binary payloads, {@code null} to publish them uncompressed
+     */
+    PayloadCompressor getPayloadCompressor() {
+        return payloadCompressor;
+    }
+
+    /**
+     * @return the size in bytes from which binary payloads are compressed
+     */
+    int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    /**
+     * @return the maximum size in bytes of a consumed compressed payload once it is decompressed
+     */
+    int getMaxDecompressedPayloadSize() {
+        return maxDecompressedPayloadSize;
+    }
+
+    /**
+     * A {@link SolaceHeaderMeta} header that is read from received messages.
+     */
+    static final class ReadableHeader {
+        private final String name;
+        private final Function<XMLMessage, ?> readAction;
+        private volatile boolean unsupported = false;
+
+        private ReadableHeader(String name, Function<XMLMessage, ?> readAction) {
+            this.name = name;
+            this.readAction = readAction;
+        }
+
+        String name() {
+            return name;
+        }
+
+        /**
+         * @return the value, or {@code null} if the message does not have it or the JCSMP version does not
+         * support reading it
+         */
+        Object read(XMLMessage xmlMessage) {
+            if (unsupported) {
+                return null;
+            }
+            try {
+                return readAction.apply(xmlMessage);
+            } catch (UnsupportedOperationException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Ignoring Solace header %s. Error: %s", name, e.getMessage()));
+                }
+                unsupported = true;
+                return null;
+            }
+        }
+    }
+
+    /**
+     * A {@link SolaceHeaderMeta} header that is written to published messages, with the value to write when the
+     * message does not have the header.
+     */
+    static final class WritableHeader {
+        private final String name;
+        private final SolaceHeaderMeta<?> meta;
+        private final Object defaultValue;
+
+        private WritableHeader(String name, SolaceHeaderMeta<?> meta, Map<String, Object> defaultHeaders) {
+            this.name = name;
+            this.meta = meta;
+            Object configuredDefault = defaultHeaders.get(name);
+            if (configuredDefault != null && !meta.getType().isInstance(configuredDefault)) {
+                try {
+                    configuredDefault = DefaultConversionService.getSharedInstance().convert(configuredDefault, meta.getType());
+                } catch (Exception e) {
+                    // Ignored, the value is rejected like an invalid header value of the message
+                }
+            }
+            this.defaultValue = configuredDefault;
+        }
+
+        String name() {
+            return name;
+        }
+
+        SolaceHeaderMeta<?> meta() {
+            return meta;
+        }
+
+        /**
+         * @return the configured default header of the producer, {@code null} if none
+         */
+        Object defaultValue() {
+            return defaultValue;
+        }
+    }
+}
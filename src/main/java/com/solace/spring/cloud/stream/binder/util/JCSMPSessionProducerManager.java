@@ -8,7 +8,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.integration.StaticMessageHeaderAccessor;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHeaders;
-import org.springframework.messaging.MessagingException;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -45,6 +44,7 @@ public class JCSMPSessionProducerManager extends SharedResourceManager<XMLMessag
                 if (key.getConfirmCorrelation() != null) {
                     key.getConfirmCorrelation().success();
                 }
+                key.acknowledged();
             } else if (correlationKey instanceof ErrorQueueRepublishCorrelationKey key) {
                 try {
                     key.handleSuccess();
@@ -70,11 +70,7 @@ public class JCSMPSessionProducerManager extends SharedResourceManager<XMLMessag
                 String msg = String.format("Producer received error during publishing (Spring message %s) at %s",
                         springMessageId, timestamp);
                 log.warn(msg, cause);
-                MessagingException messagingException = key.send(msg, cause);
-
-                if (key.getConfirmCorrelation() != null) {
-                    key.getConfirmCorrelation().failed(messagingException);
-                }
+                key.fail(msg, cause);
             } else if (correlationKey instanceof ErrorQueueRepublishCorrelationKey key) {
                 try {
                     key.handleError();
@@ -0,0 +1,18 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+/**
+ * How the chunks of a consumed large message are reassembled.
+ */
+public enum LargeMessageReassembly {
+    /**
+     * Into one {@code byte[]} on the heap once all chunks were received (default).
+     */
+    HEAP,
+    /**
+     * Into a temporary file, each chunk is written as it arrives and not kept on the heap. The payload is the
+     * {@link java.nio.file.Path} of the file, or a read-only {@link java.nio.ByteBuffer} mapping it with
+     * {@link BytesPayloadType#BYTE_BUFFER}. The file is deleted once the message was acknowledged. Compressed and
+     * serialized payloads are reassembled on the heap.
+     */
+    FILE
+}
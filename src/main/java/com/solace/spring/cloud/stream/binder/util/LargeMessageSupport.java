@@ -8,6 +8,16 @@ import com.solacesystems.jcsmp.impl.JCSMPGenericXMLMessage;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.integration.acks.AcknowledgmentCallback;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.security.SecureRandom;
 import java.time.Instant;
 import java.util.*;
@@ -20,11 +30,98 @@ import java.util.stream.Collectors;
 @Slf4j
 public class LargeMessageSupport {
     public static final long RECEIVE_TIMEOUT = TimeUnit.SECONDS.toMillis(60);
+    /**
+     * The default size of a chunk, see {@code largeMessageChunkSize}.
+     */
     public static final int CHUNK_SIZE = 1024 * 1024 * 8;
+    private static final String FILE_PREFIX = "large-message-";
+    private static final String FILE_SUFFIX = ".tmp";
+    private static final String LOCK_FILE_NAME = ".lock";
     private final SecureRandom secureRandom = new SecureRandom();
     private final Map<Long, MessageContextBytes[]> context = new HashMap<>();
+    private final Map<Long, FileReassembly> fileContext = new HashMap<>();
+    // null reassembles large messages on the heap
+    private final Path reassemblyDirectory;
     private final AtomicBoolean running = new AtomicBoolean(false);
     private volatile ScheduledExecutorService housekeepingExecutor;
+    // held while the reassembly directory is open, the files in it are only deleted by the holder
+    private FileLock directoryLock;
+
+    public LargeMessageSupport() {
+        this(null);
+    }
+
+    /**
+     * @param reassemblyDirectory the directory consumed large messages are reassembled in, see
+     *                            {@link LargeMessageReassembly#FILE}, {@code null} reassembles them on the heap
+     */
+    public LargeMessageSupport(Path reassemblyDirectory) {
+        this.reassemblyDirectory = reassemblyDirectory;
+    }
+
+    /**
+     * Creates the reassembly directory and deletes the files of the large messages that a previous run left
+     * incomplete, e.g. after a crash. The directory stays locked until {@link #closeReassemblyDirectory()}, its files
+     * are kept if another process holds the lock.
+     */
+    public synchronized void openReassemblyDirectory() throws IOException {
+        if (reassemblyDirectory == null || directoryLock != null) {
+            return;
+        }
+        Files.createDirectories(reassemblyDirectory);
+        FileChannel lockChannel = FileChannel.open(reassemblyDirectory.resolve(LOCK_FILE_NAME),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            directoryLock = lockChannel.tryLock();
+        } catch (IOException | OverlappingFileLockException e) {
+            log.debug("Unable to lock large message directory {}", reassemblyDirectory, e);
+        }
+        if (directoryLock == null) {
+            lockChannel.close();
+            log.warn("Large message directory {} is used by another consumer, the files of incomplete messages in it are kept", reassemblyDirectory);
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(reassemblyDirectory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                log.info("Deleting large message file {} of a previous run", file);
+                deletePayloadFile(file);
+            }
+        }
+    }
+
+    /**
+     * Requeues the chunks of the large messages that are still incomplete, deletes their files and releases the lock
+     * of the reassembly directory.
+     */
+    public void closeReassemblyDirectory() {
+        discardIncompleteFiles();
+        synchronized (this) {
+            if (directoryLock == null) {
+                return;
+            }
+            try {
+                directoryLock.channel().close();
+            } catch (IOException e) {
+                log.debug("Unable to unlock large message directory {}", reassemblyDirectory, e);
+            }
+            directoryLock = null;
+        }
+    }
+
+    /**
+     * Requeues the chunks of the large messages that are still reassembled in a file and deletes their files.
+     */
+    public void discardIncompleteFiles() {
+        List<Map.Entry<Long, FileReassembly>> incomplete;
+        synchronized (fileContext) {
+            incomplete = List.copyOf(fileContext.entrySet());
+            fileContext.clear();
+        }
+        for (var o : incomplete) {
+            log.info("Incomplete large message {} requeued, the binding is stopping", o.getKey());
+            o.getValue().discard(AcknowledgmentCallback.Status.REQUEUE);
+        }
+    }
 
     public void startHousekeeping() {
         synchronized (running) {
@@ -74,6 +171,16 @@ public class LargeMessageSupport {
                     }
                 }
             }
+            List<Map.Entry<Long, FileReassembly>> outdatedFiles;
+            synchronized (fileContext) {
+                outdatedFiles = fileContext.entrySet().stream().filter(e -> e.getValue().tooOld()).toList();
+                outdatedFiles.forEach(e -> fileContext.remove(e.getKey()));
+            }
+            for (var o : outdatedFiles) {
+                log.warn("Check if Queue is partitioned correctly!");
+                log.warn("Incomplete large message dropped/rejected, no message received within 1 Minute. Dropped chunk {}", o.getKey());
+                o.getValue().discard(AcknowledgmentCallback.Status.REJECT);
+            }
         } catch (Exception ex) {
             log.error("Error during housekeeping", ex);
         }
@@ -104,6 +211,9 @@ public class LargeMessageSupport {
             if (!(smfMessage instanceof BytesMessage)) {
                 throw new RuntimeException("LargeMessageSupport is only available for BytesMessages");
             }
+            if (reassemblyDirectory != null && !isDecodedAsWhole(smfMessage.getProperties())) {
+                return assembleInFile((BytesMessage) smfMessage, acknowledgmentCallback, chunkId, chunkIndex, chunkCount);
+            }
 
             MessageContextBytes[] chunkArray;
             synchronized (context) {
@@ -135,22 +245,7 @@ public class LargeMessageSupport {
                     nestedAcknowledgementCallback.addAcknowledgmentCallback(messageContext.acknowledgmentCallback());
                 }
             }
-            BytesMessage bytesMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
-            bytesMessage.setData(data);
-            bytesMessage.setHTTPContentType(smfMessage.getHTTPContentType());
-            bytesMessage.setDeliveryMode(smfMessage.getDeliveryMode());
-            bytesMessage.setPriority(smfMessage.getPriority());
-            bytesMessage.setCorrelationKey(smfMessage.getCorrelationKey());
-            if (((BytesMessageImpl) bytesMessage).getWrappedMessage() instanceof JCSMPGenericXMLMessage msg) {
-                msg.setDestinationReceived(smfMessage.getDestination());
-            }
-            SDTMap metadata = JCSMPFactory.onlyInstance().createMap();
-            metadata.putAll(smfMessage.getProperties());
-            metadata.remove(SolaceBinderHeaders.CHUNK_ID);
-            metadata.remove(SolaceBinderHeaders.CHUNK_INDEX);
-            metadata.remove(SolaceBinderHeaders.CHUNK_COUNT);
-            bytesMessage.setProperties(metadata);
-            bytesMessage.setReadOnly();
+            BytesMessage bytesMessage = createReassembledMessage(smfMessage, data);
             synchronized (context) {
                 context.remove(chunkId);
             }
@@ -160,34 +255,156 @@ public class LargeMessageSupport {
         }
     }
 
+    /**
+     * Writes the chunk into the file of its message instead of keeping it, the message is complete once all chunks
+     * were written. If a chunk cannot be written, the chunks received so far are requeued.
+     */
+    private MessageContext assembleInFile(BytesMessage chunk, AcknowledgmentCallback acknowledgmentCallback, long chunkId, int chunkIndex, int chunkCount) throws IOException, SDTException {
+        FileReassembly reassembly;
+        synchronized (fileContext) {
+            reassembly = fileContext.get(chunkId);
+            if (reassembly == null) {
+                reassembly = new FileReassembly(Files.createTempFile(reassemblyDirectory, FILE_PREFIX, FILE_SUFFIX), chunkCount);
+                fileContext.put(chunkId, reassembly);
+            }
+        }
+        synchronized (reassembly) {
+            try {
+                if (!reassembly.add(chunkIndex, chunk.getData(), acknowledgmentCallback)) {
+                    log.warn("Duplicate chunk id={} index={} of {} received, drop it", chunkId, chunkIndex, chunkCount);
+                    return null;
+                }
+            } catch (IOException e) {
+                log.error("Unable to write chunk id={} index={} of {} to {}, requeue the received chunks", chunkId, chunkIndex, chunkCount, reassembly.file, e);
+                synchronized (fileContext) {
+                    fileContext.remove(chunkId);
+                }
+                reassembly.discard(AcknowledgmentCallback.Status.REQUEUE);
+                if (acknowledgmentCallback != null) {
+                    acknowledgmentCallback.acknowledge(AcknowledgmentCallback.Status.REQUEUE);
+                }
+                return null;
+            }
+            if (!reassembly.isComplete()) {
+                return null;
+            }
+        }
+        synchronized (fileContext) {
+            fileContext.remove(chunkId);
+        }
+        reassembly.close();
+        NestedAcknowledgementCallback nestedAcknowledgementCallback = new NestedAcknowledgementCallback();
+        for (AcknowledgmentCallback chunkAcknowledgmentCallback : reassembly.acknowledgmentCallbacks) {
+            if (chunkAcknowledgmentCallback != null) {
+                nestedAcknowledgementCallback.addAcknowledgmentCallback(chunkAcknowledgmentCallback);
+            }
+        }
+        // after the chunks, the file is deleted once they were settled
+        nestedAcknowledgementCallback.addAcknowledgmentCallback(new PayloadFileCleanup(reassembly.file));
+        return new MessageContext(createReassembledMessage(chunk, null), nestedAcknowledgementCallback, Instant.now(), reassembly.file);
+    }
+
+    /**
+     * The payload of a large message reassembled in a file, see {@link MessageContext#payloadFile()}.
+     *
+     * @return the path of the file, or a read-only buffer mapping it with {@link BytesPayloadType#BYTE_BUFFER}
+     */
+    public static Object filePayload(Path file, BytesPayloadType bytesPayloadType) throws IOException {
+        if (bytesPayloadType != BytesPayloadType.BYTE_BUFFER) {
+            return file;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Compressed and serialized payloads are decoded as a whole, they are reassembled on the heap.
+     */
+    private static boolean isDecodedAsWhole(SDTMap properties) throws SDTException {
+        return properties.containsKey(SolaceBinderHeaders.PAYLOAD_COMPRESSION)
+                || (properties.containsKey(SolaceBinderHeaders.SERIALIZED_PAYLOAD)
+                && Boolean.TRUE.equals(properties.getBoolean(SolaceBinderHeaders.SERIALIZED_PAYLOAD)));
+    }
+
+    /**
+     * @param data the reassembled data, {@code null} if it was reassembled in a file
+     */
+    private static BytesMessage createReassembledMessage(BytesXMLMessage chunk, byte[] data) throws SDTException {
+        BytesMessage bytesMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
+        if (data != null) {
+            bytesMessage.setData(data);
+        }
+        bytesMessage.setHTTPContentType(chunk.getHTTPContentType());
+        bytesMessage.setDeliveryMode(chunk.getDeliveryMode());
+        bytesMessage.setPriority(chunk.getPriority());
+        bytesMessage.setCorrelationKey(chunk.getCorrelationKey());
+        if (((BytesMessageImpl) bytesMessage).getWrappedMessage() instanceof JCSMPGenericXMLMessage msg) {
+            msg.setDestinationReceived(chunk.getDestination());
+        }
+        SDTMap metadata = JCSMPFactory.onlyInstance().createMap();
+        metadata.putAll(chunk.getProperties());
+        metadata.remove(SolaceBinderHeaders.CHUNK_ID);
+        metadata.remove(SolaceBinderHeaders.CHUNK_INDEX);
+        metadata.remove(SolaceBinderHeaders.CHUNK_COUNT);
+        bytesMessage.setProperties(metadata);
+        bytesMessage.setReadOnly();
+        return bytesMessage;
+    }
+
+    private static void deletePayloadFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Unable to delete large message file {}", file, e);
+        }
+    }
+
     public List<XMLMessage> split(XMLMessage smfMessage) {
+        return split(smfMessage, CHUNK_SIZE);
+    }
+
+    public List<XMLMessage> split(XMLMessage smfMessage, int chunkSize) {
         if (!(smfMessage instanceof BytesMessage)) {
             throw new RuntimeException("LargeMessageSupport is only available for BytesMessage");
         }
         byte[] data = ((BytesMessage) smfMessage).getData();
-        if (data.length <= CHUNK_SIZE) {
+        if (data.length <= chunkSize) {
             return List.of(smfMessage);
         }
 
-        long rest = data.length % CHUNK_SIZE;
-        int chunks = data.length / CHUNK_SIZE;
+        long rest = data.length % chunkSize;
+        int chunks = data.length / chunkSize;
         int chunkCount = chunks + (rest > 0 ? 1 : 0);
 
         long chunkId = secureRandom.nextLong();
         List<XMLMessage> result = new ArrayList<>();
         for (int i = 0; i < chunks; i++) {
-            int from = i * CHUNK_SIZE;
-            int to = (i + 1) * CHUNK_SIZE;
-            result.add(createChunkMessage(smfMessage, data, from, to, chunkId, i, chunkCount));
+            int from = i * chunkSize;
+            int to = (i + 1) * chunkSize;
+            result.add(createChunkMessage(smfMessage, Arrays.copyOfRange(data, from, to), chunkId, i, chunkCount));
         }
         if (rest > 0) {
-            result.add(createChunkMessage(smfMessage, data, chunks * CHUNK_SIZE, data.length, chunkId, chunkCount - 1, chunkCount));
+            result.add(createChunkMessage(smfMessage, Arrays.copyOfRange(data, chunks * chunkSize, data.length), chunkId, chunkCount - 1, chunkCount));
         }
         return result;
     }
 
-    private static BytesMessage createChunkMessage(XMLMessage original, byte[] data, int from, int to, long chunkId, int index, int chunkCount) {
-        byte[] dataChunk = Arrays.copyOfRange(data, from, to);
+    /**
+     * Splits a streamed payload lazily, each chunk is read from the payload when it is first requested.
+     *
+     * @param smfMessage the mapped message without payload, its headers are copied to every chunk
+     * @param payload    the payload to split, closed once its last chunk was read or the chunks are closed
+     * @param chunkSize  the maximum size of a chunk in bytes
+     */
+    public ChunkedMessages split(XMLMessage smfMessage, StreamedPayload payload, int chunkSize) {
+        if (!(smfMessage instanceof BytesMessage)) {
+            throw new RuntimeException("LargeMessageSupport is only available for BytesMessage");
+        }
+        return new ChunkedMessages((BytesMessage) smfMessage, payload, chunkSize, secureRandom.nextLong());
+    }
+
+    private static BytesMessage createChunkMessage(XMLMessage original, byte[] dataChunk, long chunkId, int index, int chunkCount) {
         BytesMessage bytesMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
         bytesMessage.setData(dataChunk);
         bytesMessage.setHTTPContentType(original.getHTTPContentType());
@@ -210,9 +427,207 @@ public class LargeMessageSupport {
         return bytesMessage;
     }
 
+    /**
+     * The chunks of a streamed payload. They must be requested in order: only the chunk read last is kept, so at
+     * most one chunk per list is on the heap besides the chunks the producer did not get acknowledged yet. A
+     * payload that fits into one chunk is published as the original message without chunk headers.
+     */
+    public static final class ChunkedMessages extends AbstractList<XMLMessage> implements AutoCloseable {
+        private final BytesMessage original;
+        private final StreamedPayload payload;
+        private final int chunkSize;
+        private final int chunkCount;
+        private final long chunkId;
+        private int index = -1;
+        private XMLMessage current;
+
+        private ChunkedMessages(BytesMessage original, StreamedPayload payload, int chunkSize, long chunkId) {
+            this.original = original;
+            this.payload = payload;
+            this.chunkSize = chunkSize;
+            this.chunkCount = Math.max(Math.toIntExact((payload.length() + chunkSize - 1) / chunkSize), 1);
+            this.chunkId = chunkId;
+        }
+
+        /**
+         * @throws IllegalStateException if a chunk before the one read last is requested
+         * @throws UncheckedIOException  if the chunk cannot be read from the payload
+         */
+        @Override
+        public synchronized XMLMessage get(int chunkIndex) {
+            Objects.checkIndex(chunkIndex, chunkCount);
+            if (chunkIndex == index) {
+                return current;
+            }
+            if (chunkIndex != index + 1) {
+                throw new IllegalStateException(String.format("Chunk %s of %s cannot be read, chunk %s was read last",
+                        chunkIndex, chunkCount, index));
+            }
+            try {
+                byte[] data = payload.read((int) Math.min(chunkSize, payload.length() - (long) chunkIndex * chunkSize));
+                if (chunkCount == 1) {
+                    original.setData(data);
+                    current = original;
+                } else {
+                    current = createChunkMessage(original, data, chunkId, chunkIndex, chunkCount);
+                }
+                index = chunkIndex;
+                if (chunkIndex == chunkCount - 1) {
+                    payload.close();
+                }
+                return current;
+            } catch (IOException e) {
+                throw new UncheckedIOException(String.format("Unable to read chunk %s of %s of the payload",
+                        chunkIndex, chunkCount), e);
+            }
+        }
+
+        @Override
+        public int size() {
+            return chunkCount;
+        }
+
+        /**
+         * Closes the payload, the chunks that were not read yet are not published anymore.
+         */
+        @Override
+        public void close() throws IOException {
+            payload.close();
+        }
+    }
+
     public record MessageContextBytes(BytesMessage bytesMessage, AcknowledgmentCallback acknowledgmentCallback, Instant timestamp) {
     }
 
-    public record MessageContext(BytesXMLMessage bytesMessage, AcknowledgmentCallback acknowledgmentCallback, Instant timestamp) {
+    /**
+     * @param payloadFile the file the payload was reassembled in, {@code null} if the payload is the data of the
+     *                    message
+     */
+    public record MessageContext(BytesXMLMessage bytesMessage, AcknowledgmentCallback acknowledgmentCallback, Instant timestamp, Path payloadFile) {
+        public MessageContext(BytesXMLMessage bytesMessage, AcknowledgmentCallback acknowledgmentCallback, Instant timestamp) {
+            this(bytesMessage, acknowledgmentCallback, timestamp, null);
+        }
+    }
+
+    /**
+     * A large message reassembled in a file. All chunks but the last one have the same length, so each chunk is
+     * written at its final position as it arrives. A last chunk that arrives first is kept until that length is
+     * known.
+     */
+    private static final class FileReassembly {
+        private final Path file;
+        private final FileChannel channel;
+        private final AcknowledgmentCallback[] acknowledgmentCallbacks;
+        private final boolean[] received;
+        private int receivedCount;
+        private int chunkLength = -1;
+        private byte[] lastChunk;
+        private volatile Instant timestamp = Instant.now();
+
+        private FileReassembly(Path file, int chunkCount) throws IOException {
+            this.file = file;
+            this.channel = FileChannel.open(file, StandardOpenOption.WRITE);
+            this.acknowledgmentCallbacks = new AcknowledgmentCallback[chunkCount];
+            this.received = new boolean[chunkCount];
+        }
+
+        /**
+         * @return {@code false} if the chunk was received before
+         */
+        boolean add(int index, byte[] data, AcknowledgmentCallback acknowledgmentCallback) throws IOException {
+            if (received[index]) {
+                return false;
+            }
+            int last = received.length - 1;
+            if (index < last) {
+                if (chunkLength < 0) {
+                    chunkLength = data.length;
+                } else if (data.length != chunkLength) {
+                    throw new IOException(String.format("Chunk %s has %s bytes instead of %s", index, data.length, chunkLength));
+                }
+                write(data, (long) index * chunkLength);
+                if (lastChunk != null) {
+                    write(lastChunk, (long) last * chunkLength);
+                    lastChunk = null;
+                }
+            } else if (chunkLength >= 0 || last == 0) {
+                write(data, (long) last * Math.max(chunkLength, 0));
+            } else {
+                lastChunk = data;
+            }
+            received[index] = true;
+            acknowledgmentCallbacks[index] = acknowledgmentCallback;
+            receivedCount++;
+            timestamp = Instant.now();
+            return true;
+        }
+
+        boolean isComplete() {
+            return receivedCount == received.length;
+        }
+
+        boolean tooOld() {
+            return timestamp.toEpochMilli() < Instant.now().toEpochMilli() - RECEIVE_TIMEOUT;
+        }
+
+        void close() throws IOException {
+            channel.close();
+        }
+
+        /**
+         * Settles the received chunks and deletes the file.
+         */
+        synchronized void discard(AcknowledgmentCallback.Status status) {
+            for (AcknowledgmentCallback acknowledgmentCallback : acknowledgmentCallbacks) {
+                if (acknowledgmentCallback != null) {
+                    try {
+                        acknowledgmentCallback.acknowledge(status);
+                    } catch (RuntimeException e) {
+                        log.warn("Unable to {} a chunk of large message file {}", status, file, e);
+                    }
+                }
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.debug("Unable to close large message file {}", file, e);
+            }
+            deletePayloadFile(file);
+        }
+
+        private void write(byte[] data, long position) throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        }
+    }
+
+    /**
+     * Deletes the file of a reassembled large message once the message was acknowledged, whatever the status.
+     */
+    private static final class PayloadFileCleanup implements AcknowledgmentCallback {
+        private final Path file;
+        private volatile boolean acknowledged;
+
+        private PayloadFileCleanup(Path file) {
+            this.file = file;
+        }
+
+        @Override
+        public void acknowledge(Status status) {
+            acknowledged = true;
+            deletePayloadFile(file);
+        }
+
+        @Override
+        public boolean isAcknowledged() {
+            return acknowledged;
+        }
+
+        @Override
+        public void noAutoAck() {
+            // deleted when the application acknowledges the message
+        }
     }
 }
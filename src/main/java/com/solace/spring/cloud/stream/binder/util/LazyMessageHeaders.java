@@ -0,0 +1,189 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+import org.springframework.messaging.MessageHeaders;
+
+import java.io.Serial;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link MessageHeaders} of an inbound message that decode a header of the received {@code XMLMessage} only when it
+ * is accessed.
+ * <p>The headers given to the constructor (ID, timestamp, acknowledgment callback, source data, ...) are set right
+ * away. {@link #get(Object)} and {@link #containsKey(Object)} of any other header ask the {@link HeaderResolver} for
+ * this single header and remember the answer. Every operation on the headers as a whole ({@link #keySet()},
+ * {@link #entrySet()}, {@link #size()}, equality, serialization, copying into a {@code MessageBuilder}, ...) resolves
+ * all headers once, afterwards the instance behaves like plain {@link MessageHeaders}.</p>
+ * <p>Note that {@code MessageHeaders.equals} of another instance only sees the resolved headers of this instance.</p>
+ */
+final class LazyMessageHeaders extends MessageHeaders {
+    @Serial
+    private static final long serialVersionUID = 1L;
+    private static final Object ABSENT = new Object();
+
+    // null once all headers are resolved
+    private transient volatile HeaderResolver resolver;
+    // guarded by this, headers resolved one by one before all headers are resolved
+    private transient Map<String, Object> resolved = new HashMap<>();
+
+    LazyMessageHeaders(Map<String, Object> eagerHeaders, HeaderResolver resolver) {
+        super(eagerHeaders, null, null);
+        this.resolver = resolver;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (resolver == null) {
+            return super.get(key);
+        }
+        synchronized (this) {
+            if (resolver == null) {
+                return super.get(key);
+            }
+            return resolve(key);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        Object value = get(key);
+        if (value == null) {
+            return null;
+        }
+        if (!type.isAssignableFrom(value.getClass())) {
+            throw new IllegalArgumentException("Incorrect type specified for header '" + key + "'. Expected [" + type +
+                    "] but actual type is [" + value.getClass() + "]");
+        }
+        return (T) value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        // neither the eager nor the resolved headers contain null values
+        return get(key) != null;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        resolveAll();
+        return super.containsValue(value);
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        resolveAll();
+        return super.entrySet();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        resolveAll();
+        return super.isEmpty();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        resolveAll();
+        return super.keySet();
+    }
+
+    @Override
+    public int size() {
+        resolveAll();
+        return super.size();
+    }
+
+    @Override
+    public Collection<Object> values() {
+        resolveAll();
+        return super.values();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        resolveAll();
+        return super.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+        resolveAll();
+        return super.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        resolveAll();
+        return super.toString();
+    }
+
+    boolean isResolved() {
+        return resolver == null;
+    }
+
+    // guarded by this
+    private Object resolve(Object key) {
+        if (!(key instanceof String name)) {
+            return null;
+        }
+        Object value = super.get(name);
+        if (value != null) {
+            return value;
+        }
+        value = resolved.get(name);
+        if (value == null) {
+            value = resolver.resolve(name);
+            resolved.put(name, value != null ? value : ABSENT);
+        }
+        return value == ABSENT ? null : value;
+    }
+
+    private void resolveAll() {
+        if (resolver == null) {
+            return;
+        }
+        synchronized (this) {
+            if (resolver == null) {
+                return;
+            }
+            Map<String, Object> rawHeaders = getRawHeaders();
+            // keep the instances handed out already, e.g. of deserialized headers
+            resolved.forEach((name, value) -> {
+                if (value != ABSENT) {
+                    rawHeaders.putIfAbsent(name, value);
+                }
+            });
+            resolver.resolveAll().forEach((name, value) -> {
+                if (value != null) {
+                    rawHeaders.putIfAbsent(name, value);
+                }
+            });
+            resolved = null;
+            resolver = null;
+        }
+    }
+
+    @Serial
+    private Object writeReplace() {
+        resolveAll();
+        return this;
+    }
+
+    /**
+     * Decodes the headers of one received message.
+     */
+    interface HeaderResolver {
+        /**
+         * @return the value of the header, or {@code null} if the message does not have it
+         */
+        Object resolve(String name);
+
+        /**
+         * @return all headers of the message, entries with a {@code null} value are ignored
+         */
+        Map<String, Object> resolveAll();
+    }
+}
@@ -0,0 +1,57 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+import org.springframework.util.ConcurrentLruCache;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded, concurrent least-recently-used cache of values computed from their key, counting its hits, misses and
+ * evictions for the {@code solace.message.cache} metric.
+ * <p>A value may be computed more than once if several threads miss the same key at the same time, the eviction
+ * count is derived from the misses and the current size and is therefore approximate.</p>
+ */
+public final class MeteredLruCache<K, V> {
+    private final ConcurrentLruCache<K, V> cache;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param capacity  the maximum number of cached values, {@code 0} computes every value
+     * @param generator computes the value of a key that is not cached, must not return {@code null}
+     */
+    public MeteredLruCache(int capacity, Function<K, V> generator) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException(String.format("Cache capacity must not be negative, but was %s", capacity));
+        }
+        this.cache = new ConcurrentLruCache<>(capacity, key -> {
+            misses.increment();
+            return generator.apply(key);
+        });
+    }
+
+    public V get(K key) {
+        requests.increment();
+        return cache.get(key);
+    }
+
+    public int capacity() {
+        return cache.capacity();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public long getHitCount() {
+        return Math.max(requests.sum() - misses.sum(), 0);
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return cache.capacity() > 0 ? Math.max(misses.sum() - cache.size(), 0) : 0;
+    }
+}
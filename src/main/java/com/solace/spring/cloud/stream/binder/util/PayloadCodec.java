@@ -0,0 +1,33 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+/**
+ * Encodes published payloads that are not natively supported by Solace messages (anything other than
+ * {@code byte[]}, {@code String}, {@code SDTMap} and {@code SDTStream}) into the data of a binary message, and
+ * decodes them again on the consumer side.
+ * <p>{@link #getEncoding()} is written to the {@code solace_scst_serializedPayloadEncoding} user property,
+ * consumers pick the codec by this name. The binder ships the {@link BinaryPayloadCodec}, further codecs are
+ * discovered with {@link java.util.ServiceLoader} and must be available to the publishing and to all consuming
+ * applications.</p>
+ * <p>Without a codec, payloads are Java-serialized, which every binder version can read.</p>
+ * <p>Implementations must be thread-safe.</p>
+ */
+public interface PayloadCodec {
+    /**
+     * @return the name of the encoding, published in {@code solace_scst_serializedPayloadEncoding}
+     */
+    String getEncoding();
+
+    /**
+     * @param payload a {@link java.io.Serializable} payload, never {@code null}
+     * @return the data of the published binary message
+     * @throws IllegalArgumentException if the payload cannot be encoded
+     */
+    byte[] encode(Object payload);
+
+    /**
+     * @param data the data of a consumed binary message encoded by {@link #encode(Object)}
+     * @return the payload
+     * @throws IllegalArgumentException if the data cannot be decoded
+     */
+    Object decode(byte[] data);
+}
@@ -0,0 +1,44 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * The {@link PayloadCodec}s known to the binder: the {@link BinaryPayloadCodec} and the codecs registered with
+ * {@link ServiceLoader}.
+ */
+@Slf4j
+final class PayloadCodecs {
+    /**
+     * The encoding of Java-serialized payloads, which is not published to stay readable by all binder versions.
+     */
+    static final String JAVA_SERIALIZATION = "java";
+    private static final Map<String, PayloadCodec> CODECS;
+
+    static {
+        Map<String, PayloadCodec> codecs = new HashMap<>();
+        codecs.put(BinaryPayloadCodec.ENCODING, new BinaryPayloadCodec());
+        for (PayloadCodec codec : ServiceLoader.load(PayloadCodec.class, PayloadCodecs.class.getClassLoader())) {
+            if (JAVA_SERIALIZATION.equals(codec.getEncoding()) || codecs.containsKey(codec.getEncoding())) {
+                log.warn("Ignoring payload codec {}, the encoding {} is already registered", codec.getClass().getName(), codec.getEncoding());
+                continue;
+            }
+            codecs.put(codec.getEncoding(), codec);
+        }
+        CODECS = Collections.unmodifiableMap(codecs);
+    }
+
+    private PayloadCodecs() {
+    }
+
+    /**
+     * @return the codec, or {@code null} if no codec is registered for the encoding
+     */
+    static PayloadCodec get(String encoding) {
+        return encoding != null ? CODECS.get(encoding) : null;
+    }
+}
@@ -0,0 +1,31 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+/**
+ * Compresses the data of published binary messages and decompresses it again on the consumer side.
+ * <p>{@link #getEncoding()} is written to the {@code solace_scst_payloadCompression} user property, consumers pick
+ * the compressor by this name. The binder ships {@link GzipPayloadCompressor} and {@link DeflatePayloadCompressor},
+ * further compressors are discovered with {@link java.util.ServiceLoader} and must be available to the publishing
+ * and to all consuming applications.</p>
+ * <p>Implementations must be thread-safe.</p>
+ */
+public interface PayloadCompressor {
+    /**
+     * @return the name of the compression, published in {@code solace_scst_payloadCompression}
+     */
+    String getEncoding();
+
+    /**
+     * @param data the data of the binary message to publish, never empty
+     * @return the compressed data
+     */
+    byte[] compress(byte[] data);
+
+    /**
+     * @param data    the data of a consumed binary message compressed by {@link #compress(byte[])}
+     * @param maxSize the maximum size of the original data in bytes, the consumer's {@code maxDecompressedPayloadSize}
+     * @return the original data
+     * @throws IllegalArgumentException if the data cannot be decompressed, or is larger than {@code maxSize}
+     *                                  decompressed
+     */
+    byte[] decompress(byte[] data, int maxSize);
+}
@@ -0,0 +1,45 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * The {@link PayloadCompressor}s known to the binder: the {@link GzipPayloadCompressor}, the
+ * {@link DeflatePayloadCompressor} and the compressors registered with {@link ServiceLoader}.
+ */
+@Slf4j
+final class PayloadCompressors {
+    /**
+     * The producer's {@code compression} to publish uncompressed payloads.
+     */
+    static final String NONE = "none";
+    private static final Map<String, PayloadCompressor> COMPRESSORS;
+
+    static {
+        Map<String, PayloadCompressor> compressors = new HashMap<>();
+        compressors.put(GzipPayloadCompressor.ENCODING, new GzipPayloadCompressor());
+        compressors.put(DeflatePayloadCompressor.ENCODING, new DeflatePayloadCompressor());
+        for (PayloadCompressor compressor : ServiceLoader.load(PayloadCompressor.class, PayloadCompressors.class.getClassLoader())) {
+            if (NONE.equals(compressor.getEncoding()) || compressors.containsKey(compressor.getEncoding())) {
+                log.warn("Ignoring payload compressor {}, the encoding {} is already registered", compressor.getClass().getName(), compressor.getEncoding());
+                continue;
+            }
+            compressors.put(compressor.getEncoding(), compressor);
+        }
+        COMPRESSORS = Collections.unmodifiableMap(compressors);
+    }
+
+    private PayloadCompressors() {
+    }
+
+    /**
+     * @return the compressor, or {@code null} if no compressor is registered for the encoding
+     */
+    static PayloadCompressor get(String encoding) {
+        return encoding != null ? COMPRESSORS.get(encoding) : null;
+    }
+}
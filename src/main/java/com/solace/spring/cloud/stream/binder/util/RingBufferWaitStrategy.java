@@ -0,0 +1,22 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+/**
+ * How an idle worker thread waits for the next message in a {@link WorkerQueueType#RING_BUFFER} worker queue.
+ */
+public enum RingBufferWaitStrategy {
+    /**
+     * Park on a condition that the dispatcher signals only while workers are waiting (default). No CPU is used
+     * while idle; under load the dispatcher never touches the lock.
+     */
+    BLOCKING,
+    /**
+     * Spin briefly and then {@link Thread#yield()} until a message arrives. Lower wake-up latency than
+     * {@link #BLOCKING}, but every idle worker keeps a core busy.
+     */
+    YIELDING,
+    /**
+     * Spin with {@link Thread#onSpinWait()} until a message arrives. Lowest latency, but every worker occupies a
+     * core at all times. Only useful with dedicated cores and {@code concurrency} below the number of cores.
+     */
+    BUSY_SPIN
+}
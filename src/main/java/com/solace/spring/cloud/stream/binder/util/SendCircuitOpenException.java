@@ -0,0 +1,10 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+/**
+ * Thrown instead of publishing while the send circuit breaker of a producer binding is open.
+ */
+public class SendCircuitOpenException extends RuntimeException {
+    public SendCircuitOpenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,34 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+/**
+ * Encodes the headers of a published message that are not natively supported by the {@code SDTMap} user properties,
+ * and decodes them again on the consumer side.
+ * <p>The encoded headers are published as binary user properties. Their names are listed in the
+ * {@code solace_scst_serializedHeaders} user property and {@link #getEncoding()} is written to
+ * {@code solace_scst_serializedHeadersEncoding}, consumers pick the codec by this name. The binder ships the
+ * {@link BinaryHeaderCodec}, further codecs are discovered with {@link java.util.ServiceLoader} and must be
+ * available to the publishing and to all consuming applications.</p>
+ * <p>Without a codec, headers are Java-serialized and Base64-encoded ({@code base64}), which every binder version
+ * can read.</p>
+ * <p>Implementations must be thread-safe.</p>
+ */
+public interface SerializedHeaderCodec {
+    /**
+     * @return the name of the encoding, published in {@code solace_scst_serializedHeadersEncoding}
+     */
+    String getEncoding();
+
+    /**
+     * @param value a header value, never {@code null}
+     * @return the encoded header value
+     * @throws IllegalArgumentException if the value cannot be encoded
+     */
+    byte[] encode(Object value);
+
+    /**
+     * @param data a header value encoded by {@link #encode(Object)}
+     * @return the header value
+     * @throws IllegalArgumentException if the data cannot be decoded
+     */
+    Object decode(byte[] data);
+}
@@ -0,0 +1,40 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * The {@link SerializedHeaderCodec}s known to the binder: the {@link BinaryHeaderCodec} and the codecs registered
+ * with {@link ServiceLoader}.
+ */
+@Slf4j
+final class SerializedHeaderCodecs {
+    private static final Map<String, SerializedHeaderCodec> CODECS;
+
+    static {
+        Map<String, SerializedHeaderCodec> codecs = new HashMap<>();
+        codecs.put(BinaryHeaderCodec.ENCODING, new BinaryHeaderCodec());
+        for (SerializedHeaderCodec codec : ServiceLoader.load(SerializedHeaderCodec.class, SerializedHeaderCodecs.class.getClassLoader())) {
+            if (XMLMessageMapper.Encoder.getByName(codec.getEncoding()) != null || codecs.containsKey(codec.getEncoding())) {
+                log.warn("Ignoring serialized header codec {}, the encoding {} is already registered", codec.getClass().getName(), codec.getEncoding());
+                continue;
+            }
+            codecs.put(codec.getEncoding(), codec);
+        }
+        CODECS = Collections.unmodifiableMap(codecs);
+    }
+
+    private SerializedHeaderCodecs() {
+    }
+
+    /**
+     * @return the codec, or {@code null} if no codec is registered for the encoding
+     */
+    static SerializedHeaderCodec get(String encoding) {
+        return encoding != null ? CODECS.get(encoding) : null;
+    }
+}
@@ -0,0 +1,119 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+import com.solace.spring.cloud.stream.binder.messaging.SolaceBinderHeaders;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Payload of a large message that is read chunk by chunk while the chunks are published, instead of being mapped to
+ * one {@code byte[]} as a whole. Supported payloads are an {@link InputStream}, whose length must be given by the
+ * {@link SolaceBinderHeaders#LARGE_MESSAGE_LENGTH} header, a {@link ByteBuffer} and a {@link Path}.
+ */
+public abstract class StreamedPayload implements Closeable {
+    private final long length;
+    private long position;
+
+    private StreamedPayload(long length) {
+        this.length = length;
+    }
+
+    public static boolean isStreamed(Object payload) {
+        return payload instanceof InputStream || payload instanceof ByteBuffer || payload instanceof Path;
+    }
+
+    /**
+     * @param payload a payload for which {@link #isStreamed(Object)} is {@code true}
+     * @param length  the value of the {@link SolaceBinderHeaders#LARGE_MESSAGE_LENGTH} header, only used for an
+     *                {@link InputStream}
+     * @throws IllegalArgumentException if the length of an {@link InputStream} is missing or negative
+     * @throws IOException              if the file of a {@link Path} cannot be opened
+     */
+    public static StreamedPayload of(Object payload, Object length) throws IOException {
+        if (payload instanceof ByteBuffer buffer) {
+            return new BufferPayload(buffer.duplicate());
+        } else if (payload instanceof Path path) {
+            long size = Files.size(path);
+            return new StreamPayload(Files.newInputStream(path), size);
+        } else if (payload instanceof InputStream inputStream) {
+            if (!(length instanceof Number number) || number.longValue() < 0) {
+                throw new IllegalArgumentException(String.format(
+                        "An InputStream payload requires its length in header '%s', but was [ %s ]",
+                        SolaceBinderHeaders.LARGE_MESSAGE_LENGTH, length));
+            }
+            return new StreamPayload(inputStream, number.longValue());
+        }
+        throw new IllegalArgumentException(String.format("Payload of type %s cannot be streamed",
+                payload == null ? null : payload.getClass().getName()));
+    }
+
+    public long length() {
+        return length;
+    }
+
+    /**
+     * Reads the next bytes of the payload.
+     *
+     * @param count the number of bytes to read, at most the remaining length
+     * @throws EOFException if the payload ends before its length was read
+     */
+    public byte[] read(int count) throws IOException {
+        if (count < 0 || count > length - position) {
+            throw new IllegalArgumentException(String.format("Cannot read %s bytes at position %s of %s",
+                    count, position, length));
+        }
+        byte[] data = new byte[count];
+        readFully(data);
+        position += count;
+        return data;
+    }
+
+    abstract void readFully(byte[] data) throws IOException;
+
+    private static final class BufferPayload extends StreamedPayload {
+        private final ByteBuffer buffer;
+
+        private BufferPayload(ByteBuffer buffer) {
+            super(buffer.remaining());
+            this.buffer = buffer;
+        }
+
+        @Override
+        void readFully(byte[] data) {
+            buffer.get(data);
+        }
+
+        @Override
+        public void close() {
+            // the buffer belongs to the application
+        }
+    }
+
+    private static final class StreamPayload extends StreamedPayload {
+        private final InputStream inputStream;
+
+        private StreamPayload(InputStream inputStream, long length) {
+            super(length);
+            this.inputStream = inputStream;
+        }
+
+        @Override
+        void readFully(byte[] data) throws IOException {
+            int read = inputStream.readNBytes(data, 0, data.length);
+            if (read < data.length) {
+                throw new EOFException(String.format("Payload ended after %s of %s bytes of the chunk were read",
+                        read, data.length));
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            inputStream.close();
+        }
+    }
+}
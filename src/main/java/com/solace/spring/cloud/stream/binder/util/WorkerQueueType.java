@@ -0,0 +1,16 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+/**
+ * The queue that hands received messages from the Solace dispatcher thread to the worker threads of a binding.
+ */
+public enum WorkerQueueType {
+    /**
+     * Unbounded linked deque guarded by a lock (default).
+     */
+    LINKED,
+    /**
+     * Bounded, pre-allocated ring buffer with reusable slots. Offers and polls are lock-free; a message that does
+     * not fit into a full ring buffer is settled as failed and redelivered by the broker.
+     */
+    RING_BUFFER
+}
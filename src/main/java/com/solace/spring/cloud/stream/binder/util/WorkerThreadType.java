@@ -0,0 +1,17 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+/**
+ * The kind of threads a queue consumer binding processes its messages on.
+ */
+public enum WorkerThreadType {
+    /**
+     * {@code concurrency} long-lived platform threads per binding, each polling the internal worker queue.
+     */
+    PLATFORM,
+    /**
+     * Every dispatched message runs as a task on a virtual thread, at most {@code concurrency} at the same time.
+     * Requires a Java 21+ runtime; on older runtimes the tasks run on an elastic platform thread pool that
+     * releases idle threads.
+     */
+    VIRTUAL
+}
@@ -1,6 +1,5 @@
 package com.solace.spring.cloud.stream.binder.util;
 
-import com.solace.spring.cloud.stream.binder.messaging.SolaceBinderHeaderMeta;
 import com.solace.spring.cloud.stream.binder.messaging.SolaceBinderHeaders;
 import com.solace.spring.cloud.stream.binder.messaging.SolaceHeaderMeta;
 import com.solace.spring.cloud.stream.binder.properties.SolaceConsumerProperties;
@@ -13,11 +12,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.stream.binder.BinderHeaders;
 import org.springframework.integration.IntegrationMessageHeaderAccessor;
 import org.springframework.integration.acks.AcknowledgmentCallback;
-import org.springframework.integration.support.AbstractIntegrationMessageBuilder;
-import org.springframework.integration.support.DefaultMessageBuilderFactory;
-import org.springframework.integration.support.MessageBuilderFactory;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.GenericMessage;
 import org.springframework.util.MimeType;
 import org.springframework.util.SerializationUtils;
 import tools.jackson.core.type.TypeReference;
@@ -27,25 +24,50 @@ import tools.jackson.databind.ObjectWriter;
 
 import org.springframework.core.convert.support.DefaultConversionService;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
+/**
+ * Maps between Spring and Solace messages. Instances hold no per-message state and are shared by all the worker
+ * threads of a binding.
+ */
 @Slf4j
 public class XMLMessageMapper {
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
-    private static final MessageBuilderFactory MESSAGE_BUILDER_FACTORY = new DefaultMessageBuilderFactory();
     private static final String KAFKA_TOPIC = "k_topic";
     static final int MESSAGE_VERSION = 1;
     static final Encoder DEFAULT_ENCODING = Encoder.BASE64;
+    /**
+     * The header types that are always supported by {@link SDTMap#putObject}.
+     */
+    private static final Set<Class<?>> SDT_TYPES = Set.of(String.class, Boolean.class, Byte.class, Short.class,
+            Integer.class, Long.class, Float.class, Double.class, Character.class, byte[].class, ByteArray.class);
+    /**
+     * Whether {@link SDTMap#putObject} supports a header type, {@code null} until the first value of the type was
+     * mapped. Held by the class itself, so the verdicts of application types go away with their class loader.
+     */
+    private static final ClassValue<AtomicReference<Boolean>> SDT_TYPE_VERDICTS = new ClassValue<>() {
+        @Override
+        protected AtomicReference<Boolean> computeValue(Class<?> type) {
+            return new AtomicReference<>();
+        }
+    };
+    private static final int CONTENT_TYPE_CACHE_SIZE = 64;
 
     private final ObjectWriter stringSetWriter = OBJECT_MAPPER.writerFor(new TypeReference<Set<String>>() {
     });
     private final ObjectReader stringSetReader = OBJECT_MAPPER.readerFor(new TypeReference<Set<String>>() {
     });
-    private final Set<String> ignoredHeaderProperties = ConcurrentHashMap.newKeySet();
+    /**
+     * The normalized form of the content type strings of published messages, a binding rarely uses more than a few.
+     */
+    @Getter
+    private final MeteredLruCache<String, String> contentTypeCache = new MeteredLruCache<>(CONTENT_TYPE_CACHE_SIZE,
+            contentType -> MimeType.valueOf(contentType).toString());
 
     public BytesXMLMessage mapError(BytesXMLMessage inputMessage, SolaceConsumerProperties consumerProperties) {
         BytesXMLMessage errorMessage = JCSMPFactory.onlyInstance().createMessage(inputMessage);
@@ -62,25 +84,32 @@ public class XMLMessageMapper {
     }
 
     public XMLMessage map(Message<?> message, Collection<String> excludedHeaders, boolean convertNonSerializableHeadersToString, DeliveryMode deliveryMode) {
-        return map(message.getPayload(), message.getHeaders(), message.getHeaders().getId(), excludedHeaders, convertNonSerializableHeadersToString, deliveryMode, null);
+        return map(message, HeaderMappingPlan.outbound(excludedHeaders, convertNonSerializableHeadersToString, deliveryMode, null));
     }
 
     public XMLMessage map(Message<?> message, Collection<String> excludedHeaders, boolean convertNonSerializableHeadersToString, DeliveryMode deliveryMode, Map<String, Object> defaultHeader) {
-        return map(message.getPayload(), message.getHeaders(), message.getHeaders().getId(), excludedHeaders, convertNonSerializableHeadersToString, deliveryMode, defaultHeader);
+        return map(message, HeaderMappingPlan.outbound(excludedHeaders, convertNonSerializableHeadersToString, deliveryMode, defaultHeader));
+    }
+
+    /**
+     * Maps a Spring message to a message to publish with the header mapping plan of the producer binding, see
+     * {@link HeaderMappingPlan#forProducer}.
+     */
+    public XMLMessage map(Message<?> message, HeaderMappingPlan headerMappingPlan) {
+        return map(message.getPayload(), message.getHeaders(), message.getHeaders().getId(), headerMappingPlan);
     }
 
     // exposed for testing
-    @SneakyThrows
     XMLMessage map(Object payload, Map<String, Object> headers, UUID messageId, Collection<String> excludedHeaders, boolean convertNonSerializableHeadersToString, DeliveryMode deliveryMode, Map<String, Object> defaultHeader) {
+        return map(payload, headers, messageId, HeaderMappingPlan.outbound(excludedHeaders, convertNonSerializableHeadersToString, deliveryMode, defaultHeader));
+    }
+
+    @SneakyThrows
+    private XMLMessage map(Object payload, Map<String, Object> headers, UUID messageId, HeaderMappingPlan headerMappingPlan) {
         XMLMessage xmlMessage;
-        Map<String, Object> effectiveHeaders = new HashMap<>();
-        if (defaultHeader != null) {
-            effectiveHeaders.putAll(defaultHeader);
-        }
-        effectiveHeaders.putAll(headers);
-        validateExclusiveSolaceHeaders(effectiveHeaders, messageId);
-        SDTMap metadata = map(effectiveHeaders, excludedHeaders, convertNonSerializableHeadersToString);
-        metadata.putInteger(SolaceBinderHeaders.MESSAGE_VERSION, MESSAGE_VERSION);
+        Map<String, Object> defaultHeaders = headerMappingPlan.getDefaultHeaders();
+        validateExclusiveSolaceHeaders(headers, defaultHeaders, messageId);
+        SDTMap metadata = map(headers, headerMappingPlan);
         if (payload instanceof byte[]) {
             BytesMessage bytesMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
             bytesMessage.setData((byte[]) payload);
@@ -99,7 +128,13 @@ public class XMLMessageMapper {
             xmlMessage = mapMessage;
         } else if (payload instanceof Serializable) {
             BytesMessage bytesMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
-            bytesMessage.setData(SerializationUtils.serialize(payload));
+            PayloadCodec payloadCodec = headerMappingPlan.getPayloadCodec();
+            if (payloadCodec != null) {
+                bytesMessage.setData(payloadCodec.encode(payload));
+                metadata.putString(SolaceBinderHeaders.SERIALIZED_PAYLOAD_ENCODING, payloadCodec.getEncoding());
+            } else {
+                bytesMessage.setData(SerializationUtils.serialize(payload));
+            }
             metadata.putBoolean(SolaceBinderHeaders.SERIALIZED_PAYLOAD, true);
             xmlMessage = bytesMessage;
         } else {
@@ -109,49 +144,50 @@ public class XMLMessageMapper {
             throw exception;
         }
 
+        if (xmlMessage instanceof BytesMessage bytesMessage) {
+            compress(bytesMessage, metadata, headers, headerMappingPlan);
+        }
+
         Object contentType = headers.get(MessageHeaders.CONTENT_TYPE);
         if (contentType != null) {
             // derived from StaticMessageHeaderAccessor.getContentType(Message<?>)
-            xmlMessage.setHTTPContentType(contentType instanceof MimeType ? contentType.toString() : MimeType.valueOf(contentType.toString()).toString());
+            xmlMessage.setHTTPContentType(contentType instanceof MimeType ? contentType.toString() : contentTypeCache.get(contentType.toString()));
         }
 
         // Copy Solace properties from Spring Message to JCSMP XMLMessage
-        for (Map.Entry<String, SolaceHeaderMeta<?>> header : SolaceHeaderMeta.META.entrySet()) {
-            if (!header.getValue().isWritable()) {
-                continue;
-            }
-
-            Object value = headers.get(header.getKey());
+        for (HeaderMappingPlan.WritableHeader header : headerMappingPlan.getWritableHeaders()) {
+            SolaceHeaderMeta<?> meta = header.meta();
+            Object value = headers.get(header.name());
 
-            if (value == null && defaultHeader != null && defaultHeader.containsKey(header.getKey())) {
-                value = defaultHeader.get(header.getKey());
+            if (value == null) {
+                value = header.defaultValue();
             }
 
             if (value != null) {
-                if (!header.getValue().getType().isInstance(value)) {
+                if (!meta.getType().isInstance(value)) {
                     try {
-                        value = DefaultConversionService.getSharedInstance().convert(value, header.getValue().getType());
+                        value = DefaultConversionService.getSharedInstance().convert(value, meta.getType());
                     } catch (Exception e) {
                         // Ignored, will be caught by the next isInstance check
                     }
                 }
 
-                if (!header.getValue().getType().isInstance(value)) {
-                    String msg = String.format("Message %s has an invalid value type for header %s. Expected %s but received %s.", messageId, header.getKey(), header.getValue().getType(), value.getClass());
+                if (!meta.getType().isInstance(value)) {
+                    String msg = String.format("Message %s has an invalid value type for header %s. Expected %s but received %s.", messageId, header.name(), meta.getType(), value.getClass());
                     SolaceMessageConversionException exception = new SolaceMessageConversionException(msg);
                     log.warn(msg, exception);
                     throw exception;
                 }
-            } else if (header.getValue().hasOverriddenDefaultValue()) {
-                value = header.getValue().getDefaultValueOverride();
+            } else if (meta.hasOverriddenDefaultValue()) {
+                value = meta.getDefaultValueOverride();
             } else {
                 continue;
             }
 
             try {
-                header.getValue().getWriteAction().accept(xmlMessage, value);
+                meta.getWriteAction().accept(xmlMessage, value);
             } catch (Exception e) {
-                String msg = String.format("Could not set %s property from header %s of message %s", XMLMessage.class.getSimpleName(), header.getKey(), messageId);
+                String msg = String.format("Could not set %s property from header %s of message %s", XMLMessage.class.getSimpleName(), header.name(), messageId);
                 SolaceMessageConversionException exception = new SolaceMessageConversionException(msg, e);
                 log.warn(msg, exception);
                 throw exception;
@@ -159,35 +195,103 @@ public class XMLMessageMapper {
         }
 
         xmlMessage.setProperties(metadata);
-        xmlMessage.setDeliveryMode(deliveryMode);
+        xmlMessage.setDeliveryMode(headerMappingPlan.getDeliveryMode());
 
         return xmlMessage;
     }
 
+    /**
+     * Compresses the data of a binary message to publish with the compressor of the header mapping plan. The data
+     * is left as is if it is below the compression threshold, if the application already set a content encoding, or
+     * if compressing does not make it smaller. Chunking of large messages happens after the mapping, so a large
+     * message is compressed as a whole and split into fewer chunks.
+     */
+    private void compress(BytesMessage bytesMessage, SDTMap metadata, Map<String, Object> headers, HeaderMappingPlan headerMappingPlan) throws SDTException {
+        PayloadCompressor compressor = headerMappingPlan.getPayloadCompressor();
+        if (compressor == null) {
+            return;
+        }
+        byte[] data = bytesMessage.getData();
+        if (data == null || data.length == 0 || data.length < headerMappingPlan.getCompressionThreshold()
+                || getHeaderOrDefault(headers, headerMappingPlan.getDefaultHeaders(), SolaceHeaders.HTTP_CONTENT_ENCODING) != null) {
+            return;
+        }
+        byte[] compressed = compressor.compress(data);
+        if (compressed.length < data.length) {
+            bytesMessage.setData(compressed);
+            metadata.putString(SolaceBinderHeaders.PAYLOAD_COMPRESSION, compressor.getEncoding());
+        }
+    }
+
     public Message<?> map(XMLMessage xmlMessage, AcknowledgmentCallback acknowledgmentCallback, SolaceConsumerProperties solaceConsumerProperties) {
         return map(xmlMessage, acknowledgmentCallback, false, solaceConsumerProperties);
     }
 
     public Message<?> map(XMLMessage xmlMessage, AcknowledgmentCallback acknowledgmentCallback, boolean setRawMessageHeader, SolaceConsumerProperties solaceConsumerProperties) {
+        return map(xmlMessage, acknowledgmentCallback, setRawMessageHeader, HeaderMappingPlan.forConsumer(solaceConsumerProperties),
+                solaceConsumerProperties.getBytesPayloadType());
+    }
+
+    public Message<?> map(XMLMessage xmlMessage, AcknowledgmentCallback acknowledgmentCallback, boolean setRawMessageHeader, HeaderMappingPlan headerMappingPlan) {
+        return map(xmlMessage, acknowledgmentCallback, setRawMessageHeader, headerMappingPlan, BytesPayloadType.BYTE_ARRAY);
+    }
+
+    /**
+     * Maps a received message to a Spring message. Only the payload and the headers every consumer needs (content
+     * type, acknowledgment callback, delivery attempt, source data) are set right away, any other header is decoded
+     * from the {@link XMLMessage} when it is accessed, see {@link LazyMessageHeaders}. The headers are mapped with
+     * the header mapping plan of the consumer binding, see {@link HeaderMappingPlan#forConsumer}.
+     */
+    public Message<?> map(XMLMessage xmlMessage, AcknowledgmentCallback acknowledgmentCallback, boolean setRawMessageHeader, HeaderMappingPlan headerMappingPlan, BytesPayloadType bytesPayloadType) {
+        try {
+            return mapInternal(xmlMessage, null, acknowledgmentCallback, setRawMessageHeader ? xmlMessage : null, headerMappingPlan, bytesPayloadType);
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Maps a received message whose payload was reassembled outside of it, like a large message reassembled into a
+     * file by {@link LargeMessageSupport}. The data of the message is ignored.
+     */
+    public Message<?> mapReassembled(XMLMessage xmlMessage, Object reassembledPayload, AcknowledgmentCallback acknowledgmentCallback, boolean setRawMessageHeader, HeaderMappingPlan headerMappingPlan) {
         try {
-            return injectRootMessageHeaders(mapInternal(xmlMessage, solaceConsumerProperties), acknowledgmentCallback, setRawMessageHeader ? xmlMessage : null).build();
+            return mapInternal(xmlMessage, reassembledPayload, acknowledgmentCallback, setRawMessageHeader ? xmlMessage : null, headerMappingPlan, BytesPayloadType.BYTE_ARRAY);
         } catch (Exception ex) {
             throw new RuntimeException(ex);
         }
     }
 
     @SneakyThrows
-    private AbstractIntegrationMessageBuilder<?> mapInternal(XMLMessage xmlMessage, SolaceConsumerProperties solaceConsumerProperties) {
+    private Message<?> mapInternal(XMLMessage xmlMessage, Object reassembledPayload, AcknowledgmentCallback acknowledgmentCallback, Object sourceData, HeaderMappingPlan headerMappingPlan, BytesPayloadType bytesPayloadType) {
         SDTMap metadata = xmlMessage.getProperties();
-        List<String> excludedHeaders = solaceConsumerProperties.getHeaderExclusions();
 
         Object payload;
-        if (xmlMessage instanceof BytesMessage) {
-            payload = ((BytesMessage) xmlMessage).getData();
-            if (metadata != null && metadata.containsKey(SolaceBinderHeaders.SERIALIZED_PAYLOAD)) {
-                if (metadata.getBoolean(SolaceBinderHeaders.SERIALIZED_PAYLOAD)) {
-                    payload = SerializationUtils.deserialize((byte[]) payload);
+        if (reassembledPayload != null) {
+            payload = reassembledPayload;
+        } else if (xmlMessage instanceof BytesMessage) {
+            boolean serializedPayload = metadata != null && metadata.containsKey(SolaceBinderHeaders.SERIALIZED_PAYLOAD)
+                    && metadata.getBoolean(SolaceBinderHeaders.SERIALIZED_PAYLOAD);
+            String compression = metadata != null && metadata.containsKey(SolaceBinderHeaders.PAYLOAD_COMPRESSION)
+                    ? metadata.getString(SolaceBinderHeaders.PAYLOAD_COMPRESSION)
+                    : null;
+            if (compression != null) {
+                byte[] data = decompress(((BytesMessage) xmlMessage).getData(), compression, headerMappingPlan.getMaxDecompressedPayloadSize());
+                if (serializedPayload) {
+                    payload = deserializePayload(data, metadata, headerMappingPlan);
+                } else if (bytesPayloadType == BytesPayloadType.BYTE_BUFFER) {
+                    payload = data != null ? ByteBuffer.wrap(data).asReadOnlyBuffer() : null;
+                } else {
+                    payload = data;
                 }
+            } else if (serializedPayload) {
+                payload = deserializePayload(((BytesMessage) xmlMessage).getData(), metadata, headerMappingPlan);
+            } else if (bytesPayloadType == BytesPayloadType.BYTE_BUFFER) {
+                // a view of the attachment instead of a copy, see BytesPayloadType
+                ByteBuffer attachment = xmlMessage.getAttachmentByteBuffer();
+                payload = attachment != null ? attachment.asReadOnlyBuffer() : null;
+            } else {
+                payload = ((BytesMessage) xmlMessage).getData();
             }
         } else if (xmlMessage instanceof TextMessage) {
             payload = ((TextMessage) xmlMessage).getText();
@@ -208,7 +312,7 @@ public class XMLMessageMapper {
         if (isNullPayload) {
             //Set empty payload equivalent to null
             if (xmlMessage instanceof BytesMessage) {
-                payload = new byte[0];
+                payload = bytesPayloadType == BytesPayloadType.BYTE_BUFFER ? ByteBuffer.allocate(0).asReadOnlyBuffer() : new byte[0];
             } else if (xmlMessage instanceof TextMessage || xmlMessage instanceof XMLContentMessage) {
                 payload = "";
             } else if (xmlMessage instanceof MapMessage) {
@@ -218,41 +322,64 @@ public class XMLMessageMapper {
             }
         }
 
-        AbstractIntegrationMessageBuilder<?> builder = MESSAGE_BUILDER_FACTORY.withPayload(payload).copyHeaders(map(metadata, excludedHeaders)).setHeaderIfAbsent(MessageHeaders.CONTENT_TYPE, xmlMessage.getHTTPContentType());
+        InboundHeaderResolver headerResolver = new InboundHeaderResolver(xmlMessage, metadata, headerMappingPlan);
+        Map<String, Object> eagerHeaders = new HashMap<>();
+        Object contentType = headerResolver.resolveUserHeader(MessageHeaders.CONTENT_TYPE);
+        putIfNotNull(eagerHeaders, MessageHeaders.CONTENT_TYPE, contentType != null ? contentType : xmlMessage.getHTTPContentType());
 
         if (isNullPayload) {
             if (log.isDebugEnabled()) {
                 log.debug("Null payload detected, setting Spring header " + SolaceBinderHeaders.NULL_PAYLOAD);
             }
-            builder.setHeader(SolaceBinderHeaders.NULL_PAYLOAD, isNullPayload);
+            eagerHeaders.put(SolaceBinderHeaders.NULL_PAYLOAD, isNullPayload);
         }
 
-        for (Map.Entry<String, SolaceHeaderMeta<?>> header : SolaceHeaderMeta.META.entrySet()) {
-            if (!header.getValue().isReadable()) {
-                continue;
-            }
-            if (excludedHeaders != null && excludedHeaders.contains(header.getKey())) {
-                continue;
-            }
-            if (ignoredHeaderProperties.contains(header.getKey())) {
-                continue;
-            }
-            try {
-                builder.setHeaderIfAbsent(header.getKey(), header.getValue().getReadAction().apply(xmlMessage));
-            } catch (UnsupportedOperationException e) {
-                if (log.isDebugEnabled()) {
-                    log.debug(String.format("Ignoring Solace header %s. Error: %s", header.getKey(), e.getMessage()));
-                }
-                ignoredHeaderProperties.add(header.getKey());
-            }
+        Object deliveryAttempt = headerResolver.resolveUserHeader(IntegrationMessageHeaderAccessor.DELIVERY_ATTEMPT);
+        eagerHeaders.put(IntegrationMessageHeaderAccessor.DELIVERY_ATTEMPT, deliveryAttempt != null ? deliveryAttempt : new AtomicInteger(0));
+        putIfNotNull(eagerHeaders, IntegrationMessageHeaderAccessor.ACKNOWLEDGMENT_CALLBACK, acknowledgmentCallback);
+        putIfNotNull(eagerHeaders, IntegrationMessageHeaderAccessor.SOURCE_DATA, sourceData);
+
+        return new GenericMessage<>(payload, new LazyMessageHeaders(eagerHeaders, headerResolver));
+    }
+
+    private static byte[] decompress(byte[] data, String compression, int maxSize) {
+        PayloadCompressor compressor = PayloadCompressors.get(compression);
+        if (compressor == null) {
+            String msg = String.format("%s payload compression is not supported", compression);
+            SolaceMessageConversionException exception = new SolaceMessageConversionException(msg);
+            log.warn(msg, exception);
+            throw exception;
         }
+        return data != null ? compressor.decompress(data, maxSize) : null;
+    }
+
+    @SneakyThrows
+    private static Object deserializePayload(byte[] data, SDTMap metadata, HeaderMappingPlan headerMappingPlan) {
+        String encoding = metadata.containsKey(SolaceBinderHeaders.SERIALIZED_PAYLOAD_ENCODING)
+                ? metadata.getString(SolaceBinderHeaders.SERIALIZED_PAYLOAD_ENCODING)
+                : null;
+        if (encoding == null) {
+            return SerializationUtils.deserialize(data);
+        }
+        PayloadCodec payloadCodec = headerMappingPlan.getPayloadDecoder(encoding);
+        if (payloadCodec == null) {
+            String msg = String.format("%s payload encoding is not supported", encoding);
+            SolaceMessageConversionException exception = new SolaceMessageConversionException(msg);
+            log.warn(msg, exception);
+            throw exception;
+        }
+        return data != null ? payloadCodec.decode(data) : null;
+    }
 
-        return builder;
+    private static void putIfNotNull(Map<String, Object> headers, String name, Object value) {
+        if (value != null) {
+            headers.put(name, value);
+        }
     }
 
-    private void validateExclusiveSolaceHeaders(Map<String, Object> headers, UUID messageId) {
-        Object expiration = headers.get(SolaceHeaders.EXPIRATION);
-        Object timeToLive = headers.get(SolaceHeaders.TIME_TO_LIVE);
+    private void validateExclusiveSolaceHeaders(Map<String, Object> headers, Map<String, Object> defaultHeaders, UUID messageId) {
+        Object expiration = getHeaderOrDefault(headers, defaultHeaders, SolaceHeaders.EXPIRATION);
+        Object timeToLive = getHeaderOrDefault(headers, defaultHeaders, SolaceHeaders.TIME_TO_LIVE);
 
         if (expiration != null && timeToLive != null && !Objects.equals(expiration, timeToLive)) {
             String msg = String.format("Message %s cannot set conflicting values for headers %s and %s because they map to the same Solace XMLMessage field. Set only one header, or keep both values identical when round-tripping an inbound message.",
@@ -263,36 +390,31 @@ public class XMLMessageMapper {
         }
     }
 
-    private <T> AbstractIntegrationMessageBuilder<T> injectRootMessageHeaders(AbstractIntegrationMessageBuilder<T> builder, AcknowledgmentCallback acknowledgmentCallback, Object sourceData) {
-        return builder.setHeader(IntegrationMessageHeaderAccessor.ACKNOWLEDGMENT_CALLBACK, acknowledgmentCallback).setHeaderIfAbsent(IntegrationMessageHeaderAccessor.DELIVERY_ATTEMPT, new AtomicInteger(0)).setHeader(IntegrationMessageHeaderAccessor.SOURCE_DATA, sourceData);
+    SDTMap map(Map<String, Object> headers, Collection<String> excludedHeaders, boolean convertNonSerializableHeadersToString) {
+        return map(headers, HeaderMappingPlan.outbound(excludedHeaders, convertNonSerializableHeadersToString, DeliveryMode.PERSISTENT, null));
     }
 
+    /**
+     * Maps the headers to the user properties of a message to publish. The default headers and the message version
+     * are copied from the template of the header mapping plan, a message header replaces the default header of the
+     * same name.
+     */
     @SneakyThrows
-    SDTMap map(Map<String, Object> headers, Collection<String> excludedHeaders, boolean convertNonSerializableHeadersToString) {
-        SDTMap metadata = JCSMPFactory.onlyInstance().createMap();
-        Set<String> serializedHeaders = new HashSet<>();
-
-        Set<String> keys = new HashSet<>(headers.keySet());
-
-        for (String key : keys) {
-            Object value = headers.get(key);
-
-            if (isJcsmpDefaultHeader(key, value) || isSpringPollutedHeader(key, value)) {
-                continue;
-            }
-            if (excludedHeaders != null && excludedHeaders.contains(key)) {
-                continue;
-            }
-            if (IntegrationMessageHeaderAccessor.SOURCE_DATA.equals(key) ||
-                    IntegrationMessageHeaderAccessor.ACKNOWLEDGMENT_CALLBACK.equals(key)) {
-                continue;
+    private SDTMap map(Map<String, Object> headers, HeaderMappingPlan headerMappingPlan) {
+        SDTMap metadata = headerMappingPlan.newUserProperties();
+        Set<String> serializedHeaders = new HashSet<>(headerMappingPlan.getSerializedDefaultHeaders());
+        Map<String, Object> defaultHeaders = headerMappingPlan.getDefaultHeaders();
+
+        for (Map.Entry<String, Object> header : headers.entrySet()) {
+            if (!defaultHeaders.isEmpty() && defaultHeaders.containsKey(header.getKey())) {
+                metadata.remove(header.getKey());
+                serializedHeaders.remove(header.getKey());
             }
-
-            addSDTMapObject(metadata, serializedHeaders, key, value, convertNonSerializableHeadersToString);
+            addUserProperty(metadata, serializedHeaders, header.getKey(), header.getValue(), headerMappingPlan);
         }
 
-        if (headers.containsKey(SolaceBinderHeaders.PARTITION_KEY)) {
-            Object partitionKeyObj = headers.get(SolaceBinderHeaders.PARTITION_KEY);
+        Object partitionKeyObj = getHeaderOrDefault(headers, defaultHeaders, SolaceBinderHeaders.PARTITION_KEY);
+        if (partitionKeyObj != null) {
             if (partitionKeyObj instanceof String partitionKey) {
                 metadata.putString(XMLMessage.MessageUserPropertyConstants.QUEUE_PARTITION_KEY, partitionKey);
             } else {
@@ -306,7 +428,8 @@ public class XMLMessageMapper {
         if (!serializedHeaders.isEmpty()) {
             String var1 = stringSetWriter.writeValueAsString(serializedHeaders);
             metadata.putString(SolaceBinderHeaders.SERIALIZED_HEADERS, var1);
-            metadata.putString(SolaceBinderHeaders.SERIALIZED_HEADERS_ENCODING, DEFAULT_ENCODING.getName());
+            SerializedHeaderCodec codec = headerMappingPlan.getSerializedHeaderCodec();
+            metadata.putString(SolaceBinderHeaders.SERIALIZED_HEADERS_ENCODING, codec != null ? codec.getEncoding() : DEFAULT_ENCODING.getName());
         }
         return metadata;
     }
@@ -317,64 +440,228 @@ public class XMLMessageMapper {
                 (key.equals("timestamp"));// JCSMP lib supports better supported header via config flags: GENERATE_RCV_TIMESTAMPS and GENERATE_SEND_TIMESTAMPS don't use the polluted version from: https://github.com/spring-projects/spring-framework/blob/6.2.x/spring-messaging/src/main/java/org/springframework/messaging/MessageHeaders.java#L151
     }
 
-    private static boolean isJcsmpDefaultHeader(String key, Object value) {
+    static void addUserProperty(SDTMap metadata, Set<String> serializedHeaders, String key, Object value, HeaderMappingPlan headerMappingPlan) {
+        // excluded, Solace and binder headers are skipped by the plan
+        if (headerMappingPlan.isSkippedUserProperty(key) || isJcsmpDefaultHeader(key) || isSpringPollutedHeader(key, value)) {
+            return;
+        }
+        addSDTMapObject(metadata, serializedHeaders, key, value, headerMappingPlan);
+    }
+
+    private static Object getHeaderOrDefault(Map<String, Object> headers, Map<String, Object> defaultHeaders, String name) {
+        Object value = headers.get(name);
+        return value != null || headers.containsKey(name) ? value : defaultHeaders.get(name);
+    }
+
+    private static boolean isJcsmpDefaultHeader(String key) {
         return key.equalsIgnoreCase(IntegrationMessageHeaderAccessor.ACKNOWLEDGMENT_CALLBACK) ||
                 key.equalsIgnoreCase(BinderHeaders.TARGET_DESTINATION) ||
-                key.equalsIgnoreCase(SolaceBinderHeaders.CONFIRM_CORRELATION) ||
-                SolaceHeaderMeta.META.containsKey(key) ||
-                SolaceBinderHeaderMeta.META.containsKey(key);
+                key.equalsIgnoreCase(SolaceBinderHeaders.CONFIRM_CORRELATION);
     }
 
-    @SneakyThrows
     MessageHeaders map(SDTMap metadata, Collection<String> excludedHeaders) {
         if (metadata == null) {
             return new MessageHeaders(Collections.emptyMap());
         }
+        return new MessageHeaders(new InboundHeaderResolver(null, metadata, HeaderMappingPlan.inbound(excludedHeaders)).resolveUserHeaders());
+    }
 
-        final Collection<String> exclusionList = excludedHeaders != null ? excludedHeaders : Collections.emptyList();
+    /**
+     * @return {@code true} if the type is known to be supported by {@link SDTMap#putObject}, {@code false} if it is
+     * known not to be, {@code null} if no value of this type was mapped yet
+     */
+    private static Boolean isSdtType(Class<?> type) {
+        if (SDT_TYPES.contains(type) || SDTMap.class.isAssignableFrom(type) || SDTStream.class.isAssignableFrom(type)) {
+            return true;
+        }
+        return SDT_TYPE_VERDICTS.get(type).get();
+    }
 
-        Map<String, Object> headers = new HashMap<>();
+    /**
+     * Wrapper function which converts Serializable objects to byte[] if they aren't naturally supported by the SDTMap.
+     * Whether {@link SDTMap#putObject} supports a header type is remembered per type after the first value, so
+     * values of unsupported types are converted right away instead of after a failed {@code putObject}.
+     */
+    @SneakyThrows
+    private static void addSDTMapObject(SDTMap sdtMap, Set<String> serializedHeaders, String key, Object object, HeaderMappingPlan headerMappingPlan) {
+        Boolean sdtType = object != null ? isSdtType(object.getClass()) : Boolean.TRUE;
+        if (!Boolean.FALSE.equals(sdtType)) {
+            try {
+                sdtMap.putObject(key, object);
+                if (sdtType == null) {
+                    SDT_TYPE_VERDICTS.get(object.getClass()).compareAndSet(null, true);
+                }
+                return;
+            } catch (IllegalArgumentException | SDTException e) {
+                if (sdtType == null) {
+                    SDT_TYPE_VERDICTS.get(object.getClass()).compareAndSet(null, false);
+                }
+            }
+        }
+        if (!putConverted(sdtMap, serializedHeaders, key, object, headerMappingPlan)) {
+            // neither supported nor convertible, fail with the error of the SDTMap
+            sdtMap.putObject(key, object);
+        }
+    }
+
+    /**
+     * @return {@code false} if the value is not {@link Serializable} and may not be converted to a String
+     */
+    private static boolean putConverted(SDTMap sdtMap, Set<String> serializedHeaders, String key, Object object, HeaderMappingPlan headerMappingPlan) throws SDTException {
+        SerializedHeaderCodec codec = headerMappingPlan.getSerializedHeaderCodec();
+        byte[] encoded = object instanceof Serializable && codec != null ? encode(codec, key, object, headerMappingPlan) : null;
+        if (encoded != null) {
+            sdtMap.putBytes(key, encoded);
+            serializedHeaders.add(key);
+        } else if (object instanceof Serializable && codec == null) {
+            String var1 = DEFAULT_ENCODING.encode(SerializationUtils.serialize(object));
+            sdtMap.putString(key, var1);
+            serializedHeaders.add(key);
+        } else if (headerMappingPlan.isConvertNonSerializableHeadersToString() && object != null) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Irreversibly converting header %s to String", key));
+            }
+            sdtMap.putString(key, object.toString());
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the encoded value, {@code null} if the codec does not support it and it may be converted to a String
+     * instead
+     */
+    private static byte[] encode(SerializedHeaderCodec codec, String key, Object object, HeaderMappingPlan headerMappingPlan) {
+        try {
+            return codec.encode(object);
+        } catch (IllegalArgumentException e) {
+            if (!headerMappingPlan.isConvertNonSerializableHeadersToString()) {
+                String msg = String.format("Header %s cannot be encoded with the %s header encoding", key, codec.getEncoding());
+                SolaceMessageConversionException exception = new SolaceMessageConversionException(msg, e);
+                log.warn(msg, exception);
+                throw exception;
+            }
+            return null;
+        }
+    }
 
-        // Deserialize headers
-        if (!exclusionList.contains(SolaceBinderHeaders.SERIALIZED_HEADERS) && metadata.containsKey(SolaceBinderHeaders.SERIALIZED_HEADERS)) {
-            Encoder encoder = null;
-            if (metadata.containsKey(SolaceBinderHeaders.SERIALIZED_HEADERS_ENCODING)) {
+    /**
+     * Decodes the headers of one received message: the user properties of its {@link SDTMap}, including the headers
+     * serialized by the publishing binder, and the readable {@link SolaceHeaderMeta} headers of the message itself.
+     */
+    private final class InboundHeaderResolver implements LazyMessageHeaders.HeaderResolver {
+        private static final Object NO_HEADER = new Object();
+        private final XMLMessage xmlMessage;
+        private final SDTMap metadata;
+        private final HeaderMappingPlan headerMappingPlan;
+        private final Encoder encoder;
+        private final SerializedHeaderCodec serializedHeaderCodec;
+        private Set<String> serializedHeaders;
+
+        @SneakyThrows
+        private InboundHeaderResolver(XMLMessage xmlMessage, SDTMap metadata, HeaderMappingPlan headerMappingPlan) {
+            this.xmlMessage = xmlMessage;
+            this.metadata = metadata;
+            this.headerMappingPlan = headerMappingPlan;
+            Encoder serializedHeadersEncoder = null;
+            SerializedHeaderCodec codec = null;
+            // an unknown encoding fails the mapping right away instead of the first access of a header
+            if (hasSerializedHeaders() && metadata.containsKey(SolaceBinderHeaders.SERIALIZED_HEADERS_ENCODING)) {
                 String encoding = metadata.getString(SolaceBinderHeaders.SERIALIZED_HEADERS_ENCODING);
-                encoder = Encoder.getByName(encoding);
-                if (encoder == null) {
+                serializedHeadersEncoder = Encoder.getByName(encoding);
+                if (serializedHeadersEncoder == null) {
+                    codec = headerMappingPlan.getSerializedHeaderDecoder(encoding);
+                }
+                if (serializedHeadersEncoder == null && codec == null) {
                     String msg = String.format("%s encoding is not supported", encoding);
                     SolaceMessageConversionException exception = new SolaceMessageConversionException(msg);
                     log.warn(msg, exception);
                     throw exception;
                 }
             }
+            this.encoder = serializedHeadersEncoder;
+            this.serializedHeaderCodec = codec;
+        }
 
-            Set<String> serializedHeaders = stringSetReader.readValue(metadata.getString(SolaceBinderHeaders.SERIALIZED_HEADERS));
+        @Override
+        public Object resolve(String name) {
+            if (IntegrationMessageHeaderAccessor.ACKNOWLEDGMENT_CALLBACK.equals(name) || IntegrationMessageHeaderAccessor.SOURCE_DATA.equals(name)) {
+                return null; // always set by the binder
+            }
+            Object value = resolveUserHeader(name);
+            return value != null ? value : resolveSolaceHeader(name);
+        }
 
-            for (String headerName : serializedHeaders) {
-                if (metadata.containsKey(headerName)) {
-                    byte[] serializedValue;
-                    if (encoder != null) {
-                        serializedValue = encoder.decode(metadata.getString(headerName));
-                    } else {
-                        serializedValue = metadata.getBytes(headerName);
-                    }
-                    Object value = SerializationUtils.deserialize(serializedValue);
-                    if (value instanceof ByteArray) { // Just in case...
-                        value = ((ByteArray) value).asBytes();
+        @Override
+        public Map<String, Object> resolveAll() {
+            Map<String, Object> headers = resolveUserHeaders();
+            headers.remove(IntegrationMessageHeaderAccessor.ACKNOWLEDGMENT_CALLBACK);
+            headers.remove(IntegrationMessageHeaderAccessor.SOURCE_DATA);
+            if (xmlMessage != null) {
+                for (HeaderMappingPlan.ReadableHeader header : headerMappingPlan.getReadableHeaders()) {
+                    if (headers.get(header.name()) == null) {
+                        headers.put(header.name(), header.read(xmlMessage));
                     }
-                    headers.put(headerName, value);
                 }
             }
+            return headers;
         }
 
-        metadata.keySet().stream().filter(h -> !exclusionList.contains(h)).filter(h -> !headers.containsKey(h)).filter(h -> !SolaceBinderHeaderMeta.META.containsKey(h)).filter(h -> !SolaceHeaderMeta.META.containsKey(h)).forEach(h -> {
-            Object value = null;
-            try {
-                value = metadata.get(h);
-            } catch (SDTException e) {
-                throw new RuntimeException(e);
+        Object resolveUserHeader(String name) {
+            Object value = lookupUserHeader(name);
+            return value != NO_HEADER ? value : null;
+        }
+
+        /**
+         * @return the user properties, a property without value is mapped to a {@code null} entry
+         */
+        @SneakyThrows
+        Map<String, Object> resolveUserHeaders() {
+            Map<String, Object> headers = new HashMap<>();
+            if (metadata == null) {
+                return headers;
             }
+            for (String name : metadata.keySet()) {
+                Object value = lookupUserHeader(name);
+                if (value != NO_HEADER) {
+                    headers.put(name, value);
+                }
+            }
+            Object partitionKey = lookupUserHeader(SolaceBinderHeaders.PARTITION_KEY);
+            if (partitionKey != NO_HEADER) {
+                headers.put(SolaceBinderHeaders.PARTITION_KEY, partitionKey);
+            }
+            return headers;
+        }
+
+        @SneakyThrows
+        private Object lookupUserHeader(String name) {
+            if (metadata == null) {
+                return NO_HEADER;
+            }
+            if (SolaceBinderHeaders.MESSAGE_VERSION.equals(name) && !headerMappingPlan.isExcluded(name)
+                    && metadata.containsKey(SolaceBinderHeaders.MESSAGE_VERSION)) {
+                return metadata.getInteger(SolaceBinderHeaders.MESSAGE_VERSION);
+            }
+            // Expose the Solace queue-partition-key (JMSXGroupID) message property as the binder's
+            // partition-key header, mirroring how the producer maps SolaceBinderHeaders.PARTITION_KEY onto
+            // that property. This lets consumers read the partition key of each received message (e.g. to
+            // implement per-partition ordered processing when concurrency > 1).
+            if (SolaceBinderHeaders.PARTITION_KEY.equals(name) && !headerMappingPlan.isExcluded(name)
+                    && metadata.containsKey(XMLMessage.MessageUserPropertyConstants.QUEUE_PARTITION_KEY)) {
+                return metadata.getString(XMLMessage.MessageUserPropertyConstants.QUEUE_PARTITION_KEY);
+            }
+            if (!metadata.containsKey(name)) {
+                return NO_HEADER;
+            }
+            if (getSerializedHeaders().contains(name)) {
+                return deserialize(name);
+            }
+            if (headerMappingPlan.isSkippedUserProperty(name)) {
+                return NO_HEADER;
+            }
+            Object value = metadata.get(name);
             if (value instanceof ByteArray byteArray) {
                 value = byteArray.asBytes();
 
@@ -382,54 +669,49 @@ public class XMLMessageMapper {
                     try {
                         value = new String((byte[]) value, StandardCharsets.UTF_8);
                     } catch (Exception e) {
-                        log.warn(
-                                "Header conversion failed for Kafka byte[] header {} to String",
-                                headers.keySet(),
-                                e
-                        );
+                        log.warn("Header conversion failed for Kafka byte[] header {} to String", name, e);
                     }
                 }
             }
-            headers.put(h, value);
-        });
+            return value;
+        }
 
-        if (!exclusionList.contains(SolaceBinderHeaders.MESSAGE_VERSION) && metadata.containsKey(SolaceBinderHeaders.MESSAGE_VERSION)) {
-            int messageVersion = metadata.getInteger(SolaceBinderHeaders.MESSAGE_VERSION);
-            headers.put(SolaceBinderHeaders.MESSAGE_VERSION, messageVersion);
+        private Object resolveSolaceHeader(String name) {
+            HeaderMappingPlan.ReadableHeader header = headerMappingPlan.getReadableHeader(name);
+            return xmlMessage != null && header != null ? header.read(xmlMessage) : null;
         }
 
-        // Expose the Solace queue-partition-key (JMSXGroupID) message property as the binder's
-        // partition-key header, mirroring how the producer maps SolaceBinderHeaders.PARTITION_KEY onto
-        // that property. This lets consumers read the partition key of each received message (e.g. to
-        // implement per-partition ordered processing when concurrency > 1).
-        if (!exclusionList.contains(SolaceBinderHeaders.PARTITION_KEY)
-                && metadata.containsKey(XMLMessage.MessageUserPropertyConstants.QUEUE_PARTITION_KEY)) {
-            headers.put(SolaceBinderHeaders.PARTITION_KEY,
-                    metadata.getString(XMLMessage.MessageUserPropertyConstants.QUEUE_PARTITION_KEY));
+        private boolean hasSerializedHeaders() {
+            return metadata != null && !headerMappingPlan.isExcluded(SolaceBinderHeaders.SERIALIZED_HEADERS)
+                    && metadata.containsKey(SolaceBinderHeaders.SERIALIZED_HEADERS);
         }
-        return new MessageHeaders(headers);
-    }
 
-    /**
-     * Wrapper function which converts Serializable objects to byte[] if they aren't naturally supported by the SDTMap
-     */
-    @SneakyThrows
-    private void addSDTMapObject(SDTMap sdtMap, Set<String> serializedHeaders, String key, Object object, boolean convertNonSerializableHeadersToString) {
-        try {
-            sdtMap.putObject(key, object);
-        } catch (IllegalArgumentException | SDTException e) {
-            if (object instanceof Serializable) {
-                String var1 = DEFAULT_ENCODING.encode(SerializationUtils.serialize(object));
-                sdtMap.putString(key, var1);
-                serializedHeaders.add(key);
-            } else if (convertNonSerializableHeadersToString && object != null) {
-                if (log.isDebugEnabled()) {
-                    log.debug(String.format("Irreversibly converting header %s to String", key));
-                }
-                sdtMap.putString(key, object.toString());
+        @SneakyThrows
+        private Set<String> getSerializedHeaders() {
+            if (serializedHeaders == null) {
+                serializedHeaders = hasSerializedHeaders()
+                        ? stringSetReader.readValue(metadata.getString(SolaceBinderHeaders.SERIALIZED_HEADERS))
+                        : Collections.emptySet();
+            }
+            return serializedHeaders;
+        }
+
+        @SneakyThrows
+        private Object deserialize(String name) {
+            if (serializedHeaderCodec != null) {
+                return serializedHeaderCodec.decode(metadata.getBytes(name));
+            }
+            byte[] serializedValue;
+            if (encoder != null) {
+                serializedValue = encoder.decode(metadata.getString(name));
             } else {
-                throw e;
+                serializedValue = metadata.getBytes(name);
+            }
+            Object value = SerializationUtils.deserialize(serializedValue);
+            if (value instanceof ByteArray) { // Just in case...
+                value = ((ByteArray) value).asBytes();
             }
+            return value;
         }
     }
 
@@ -139,6 +139,37 @@ class JCSMPAcknowledgementCallbackTest {
                 .hasMessageContaining("Failed to send XMLMessage");
     }
 
+    @Test
+    void testSettlementPipeline_settlementHandedOver() throws JCSMPException {
+        SettlementPipeline settlementPipeline = mock(SettlementPipeline.class);
+
+        JCSMPAcknowledgementCallback accepted = new JCSMPAcknowledgementCallback(message, Optional.empty(), settlementPipeline);
+        accepted.acknowledge(Status.ACCEPT);
+        JCSMPAcknowledgementCallback requeued = new JCSMPAcknowledgementCallback(message, Optional.empty(), settlementPipeline);
+        requeued.acknowledge(Status.REQUEUE);
+
+        verify(settlementPipeline).settle(message, XMLMessage.Outcome.ACCEPTED);
+        verify(settlementPipeline).settle(message, XMLMessage.Outcome.FAILED);
+        verify(message, never()).ackMessage();
+        verify(message, never()).settle(any());
+        assertThat(accepted.isAcknowledged()).isTrue();
+        assertThat(requeued.isAcknowledged()).isTrue();
+    }
+
+    @Test
+    void testSettlementPipeline_errorQueueRepublishStaysOnCallingThread() {
+        SettlementPipeline settlementPipeline = mock(SettlementPipeline.class);
+        ErrorQueueRepublishCorrelationKey correlationKey = mock(ErrorQueueRepublishCorrelationKey.class);
+        when(errorQueueInfrastructure.createCorrelationKey(message)).thenReturn(correlationKey);
+        when(errorQueueInfrastructure.getErrorQueueName()).thenReturn("error-queue");
+
+        new JCSMPAcknowledgementCallback(message, Optional.of(errorQueueInfrastructure), settlementPipeline)
+                .acknowledge(Status.REJECT);
+
+        verify(correlationKey).handleError();
+        verifyNoInteractions(settlementPipeline);
+    }
+
     private JCSMPAcknowledgementCallback createCallback(Optional<ErrorQueueInfrastructure> eqi) {
         return new JCSMPAcknowledgementCallback(message, eqi);
     }
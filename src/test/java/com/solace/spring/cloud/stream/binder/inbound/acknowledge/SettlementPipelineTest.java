@@ -0,0 +1,114 @@
+package com.solace.spring.cloud.stream.binder.inbound.acknowledge;
+
+import com.solace.spring.cloud.stream.binder.meter.SolaceMeterAccessor;
+import com.solacesystems.jcsmp.BytesXMLMessage;
+import com.solacesystems.jcsmp.JCSMPException;
+import com.solacesystems.jcsmp.XMLMessage;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SettlementPipelineTest {
+
+    @Test
+    void testInvalidBatchSize() {
+        assertThatThrownBy(() -> new SettlementPipeline("binding", 0, Optional.empty()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testSettlesOnAckerThreadInOrder() throws JCSMPException {
+        SettlementPipeline pipeline = new SettlementPipeline("binding", 16, Optional.empty());
+        try {
+            List<String> settlingThreads = new ArrayList<>();
+            BytesXMLMessage accepted = mock(BytesXMLMessage.class);
+            doAnswer(invocation -> settlingThreads.add(Thread.currentThread().getName())).when(accepted).ackMessage();
+            BytesXMLMessage rejected = mock(BytesXMLMessage.class);
+            BytesXMLMessage requeued = mock(BytesXMLMessage.class);
+
+            pipeline.settle(accepted, XMLMessage.Outcome.ACCEPTED);
+            pipeline.settle(rejected, XMLMessage.Outcome.REJECTED);
+            pipeline.settle(requeued, XMLMessage.Outcome.FAILED);
+            assertThat(pipeline.flush(5000)).isTrue();
+
+            InOrder inOrder = inOrder(accepted, rejected, requeued);
+            inOrder.verify(accepted).ackMessage();
+            inOrder.verify(rejected).settle(XMLMessage.Outcome.REJECTED);
+            inOrder.verify(requeued).settle(XMLMessage.Outcome.FAILED);
+            assertThat(settlingThreads).containsExactly("binding-acker");
+            assertThat(pipeline.getQueuedSettlements()).isZero();
+        } finally {
+            pipeline.stop(5000);
+        }
+    }
+
+    @Test
+    void testFailedSettlementDoesNotStopTheAcker() throws JCSMPException {
+        SettlementPipeline pipeline = new SettlementPipeline("binding", 16, Optional.empty());
+        try {
+            BytesXMLMessage failing = mock(BytesXMLMessage.class);
+            doThrow(new IllegalStateException("flow closed")).when(failing).ackMessage();
+            BytesXMLMessage next = mock(BytesXMLMessage.class);
+
+            pipeline.settle(failing, XMLMessage.Outcome.ACCEPTED);
+            pipeline.settle(next, XMLMessage.Outcome.ACCEPTED);
+            assertThat(pipeline.flush(5000)).isTrue();
+
+            verify(next).ackMessage();
+        } finally {
+            pipeline.stop(5000);
+        }
+    }
+
+    @Test
+    void testStop_flushesAndSettlesLaterOnCallingThread() throws Exception {
+        SettlementPipeline pipeline = new SettlementPipeline("binding", 16, Optional.empty());
+        CountDownLatch ackerBusy = new CountDownLatch(1);
+        CountDownLatch releaseAcker = new CountDownLatch(1);
+        BytesXMLMessage slow = mock(BytesXMLMessage.class);
+        doAnswer(invocation -> {
+            ackerBusy.countDown();
+            releaseAcker.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(slow).ackMessage();
+        BytesXMLMessage queued = mock(BytesXMLMessage.class);
+
+        pipeline.settle(slow, XMLMessage.Outcome.ACCEPTED);
+        assertThat(ackerBusy.await(5, TimeUnit.SECONDS)).isTrue();
+        pipeline.settle(queued, XMLMessage.Outcome.ACCEPTED);
+        releaseAcker.countDown();
+        pipeline.stop(5000);
+        verify(queued).ackMessage();
+
+        BytesXMLMessage afterStop = mock(BytesXMLMessage.class);
+        pipeline.settle(afterStop, XMLMessage.Outcome.ACCEPTED);
+        verify(afterStop).ackMessage();
+    }
+
+    @Test
+    void testMetersRecorded() {
+        SolaceMeterAccessor meterAccessor = mock(SolaceMeterAccessor.class);
+        SettlementPipeline pipeline = new SettlementPipeline("binding", 16, Optional.of(meterAccessor));
+        try {
+            pipeline.settle(mock(BytesXMLMessage.class), XMLMessage.Outcome.ACCEPTED);
+            assertThat(pipeline.flush(5000)).isTrue();
+
+            verify(meterAccessor).recordSettleLatency(eq("binding"), anyLong());
+            verify(meterAccessor, atLeastOnce()).recordSettleQueueSize(eq("binding"), anyInt());
+        } finally {
+            pipeline.stop(5000);
+        }
+    }
+}
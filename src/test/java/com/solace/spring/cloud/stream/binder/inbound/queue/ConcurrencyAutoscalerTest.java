@@ -0,0 +1,69 @@
+package com.solace.spring.cloud.stream.binder.inbound.queue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrencyAutoscalerTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void testInvalidRange() {
+        assertThatThrownBy(() -> new ConcurrencyAutoscaler(0, 4, 1000, 60000, 10000))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ConcurrencyAutoscaler(5, 4, 1000, 60000, 10000))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testScaleUp_byHalfUntilMax() {
+        ConcurrencyAutoscaler scaler = new ConcurrencyAutoscaler(2, 10, 1000, 60000, 0);
+        assertThat(scaler.decide(2, 100, 2, 999, 0)).as("below threshold").isEqualTo(2);
+        assertThat(scaler.decide(2, 100, 2, 1000, SECOND)).isEqualTo(3);
+        assertThat(scaler.decide(3, 100, 3, 1000, 2 * SECOND)).isEqualTo(4);
+        assertThat(scaler.decide(4, 100, 4, 1000, 3 * SECOND)).isEqualTo(6);
+        assertThat(scaler.decide(6, 100, 6, 1000, 4 * SECOND)).isEqualTo(9);
+        assertThat(scaler.decide(9, 100, 9, 1000, 5 * SECOND)).isEqualTo(10);
+        assertThat(scaler.decide(10, 100, 10, 1000, 6 * SECOND)).isEqualTo(10);
+    }
+
+    @Test
+    void testCooldown_noDecisionRightAfterScaling() {
+        ConcurrencyAutoscaler scaler = new ConcurrencyAutoscaler(1, 10, 1000, 60000, 10000);
+        assertThat(scaler.decide(2, 100, 2, 5000, 0)).isEqualTo(3);
+        assertThat(scaler.decide(3, 100, 3, 5000, 5 * SECOND)).as("in cooldown").isEqualTo(3);
+        assertThat(scaler.decide(3, 100, 3, 5000, 10 * SECOND)).isEqualTo(4);
+    }
+
+    @Test
+    void testScaleDown_onlyAfterIdlePeriod() {
+        ConcurrencyAutoscaler scaler = new ConcurrencyAutoscaler(1, 10, 1000, 30 * 1000, 0);
+        assertThat(scaler.decide(4, 0, 1, 0, 0)).isEqualTo(4);
+        assertThat(scaler.decide(4, 0, 1, 0, 29 * SECOND)).isEqualTo(4);
+        assertThat(scaler.decide(4, 0, 1, 0, 30 * SECOND)).isEqualTo(3);
+        assertThat(scaler.decide(3, 0, 1, 0, 31 * SECOND)).as("the next step needs a full idle period again").isEqualTo(3);
+        assertThat(scaler.decide(3, 0, 1, 0, 60 * SECOND)).isEqualTo(2);
+    }
+
+    @Test
+    void testHysteresis_busyWorkersResetIdlePeriod() {
+        ConcurrencyAutoscaler scaler = new ConcurrencyAutoscaler(1, 10, 1000, 30 * 1000, 0);
+        assertThat(scaler.decide(4, 0, 1, 0, 0)).isEqualTo(4);
+        // all workers busy and a few messages waiting, but not long enough to scale up
+        assertThat(scaler.decide(4, 2, 4, 100, 20 * SECOND)).isEqualTo(4);
+        assertThat(scaler.decide(4, 0, 1, 0, 40 * SECOND)).isEqualTo(4);
+        assertThat(scaler.decide(4, 0, 1, 0, 70 * SECOND)).isEqualTo(3);
+    }
+
+    @Test
+    void testNeverBelowMin() {
+        ConcurrencyAutoscaler scaler = new ConcurrencyAutoscaler(2, 10, 1000, 1000, 0);
+        assertThat(scaler.decide(2, 0, 0, 0, 0)).isEqualTo(2);
+        assertThat(scaler.decide(2, 0, 0, 0, 10 * SECOND)).isEqualTo(2);
+        assertThat(scaler.clamp(1)).isEqualTo(2);
+        assertThat(scaler.clamp(20)).isEqualTo(10);
+    }
+}
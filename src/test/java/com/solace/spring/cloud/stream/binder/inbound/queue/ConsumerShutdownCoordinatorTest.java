@@ -0,0 +1,56 @@
+package com.solace.spring.cloud.stream.binder.inbound.queue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsumerShutdownCoordinatorTest {
+
+    @Test
+    void testStopsRunInParallel() {
+        ConsumerShutdownCoordinator coordinator = new ConsumerShutdownCoordinator();
+        AtomicInteger stopped = new AtomicInteger();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            coordinator.submit("binding-" + i, () -> {
+                sleepQuietly(500);
+                stopped.incrementAndGet();
+            });
+        }
+        coordinator.shutdown();
+        long shutdownMs = (System.nanoTime() - start) / 1_000_000L;
+
+        assertThat(stopped.get()).isEqualTo(10);
+        assertThat(coordinator.getPendingStopCount()).isZero();
+        assertThat(shutdownMs).as("about the time of one binding, not of ten").isLessThan(3000);
+    }
+
+    @Test
+    void testFailedStopDoesNotFailOthers() throws Exception {
+        ConsumerShutdownCoordinator coordinator = new ConsumerShutdownCoordinator();
+        CompletableFuture<Void> failed = coordinator.submit("failing", () -> {
+            throw new IllegalStateException("expected");
+        });
+        AtomicInteger stopped = new AtomicInteger();
+        CompletableFuture<Void> ok = coordinator.submit("ok", stopped::incrementAndGet);
+
+        failed.get(5, TimeUnit.SECONDS);
+        ok.get(5, TimeUnit.SECONDS);
+        assertThat(failed).isNotCompletedExceptionally();
+        assertThat(stopped.get()).isEqualTo(1);
+        coordinator.shutdown();
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
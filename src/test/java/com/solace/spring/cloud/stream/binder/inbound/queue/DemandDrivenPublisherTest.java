@@ -0,0 +1,168 @@
+package com.solace.spring.cloud.stream.binder.inbound.queue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class DemandDrivenPublisherTest {
+    private final ExecutorService workers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        workers.shutdownNow();
+    }
+
+    @Test
+    void testEmit_waitsForDemand() throws Exception {
+        DemandDrivenPublisher publisher = new DemandDrivenPublisher("test", () -> {
+        });
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.getFlux().subscribe(subscriber);
+
+        CompletableFuture<Boolean> emitted = emitAsync(publisher, "1");
+        Thread.sleep(200);
+        assertThat(emitted).isNotDone();
+        assertThat(subscriber.received).isEmpty();
+
+        subscriber.request(1);
+        assertThat(emitted.get(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(subscriber.received).containsExactly("1");
+        assertThat(publisher.isDemandExhausted()).isTrue();
+    }
+
+    @Test
+    void testDemandChanged_onExhaustionAndNewDemand() throws Exception {
+        AtomicInteger changes = new AtomicInteger();
+        DemandDrivenPublisher publisher = new DemandDrivenPublisher("test", changes::incrementAndGet);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.getFlux().subscribe(subscriber);
+        assertThat(publisher.isDemandExhausted()).isTrue();
+
+        subscriber.request(2);
+        assertThat(changes).hasValue(1);
+        assertThat(publisher.isDemandExhausted()).isFalse();
+
+        assertThat(publisher.emit(MessageBuilder.withPayload("1").build())).isTrue();
+        assertThat(changes).as("demand left").hasValue(1);
+        assertThat(publisher.emit(MessageBuilder.withPayload("2").build())).isTrue();
+        assertThat(changes).hasValue(2);
+        assertThat(publisher.isDemandExhausted()).isTrue();
+
+        subscriber.request(1);
+        assertThat(changes).hasValue(3);
+        subscriber.request(1);
+        assertThat(changes).as("demand was not exhausted").hasValue(3);
+        assertThat(publisher.getDemand()).isEqualTo(2);
+    }
+
+    @Test
+    void testUnboundedDemand_neverExhausted() throws Exception {
+        AtomicInteger changes = new AtomicInteger();
+        DemandDrivenPublisher publisher = new DemandDrivenPublisher("test", changes::incrementAndGet);
+        List<Object> received = new CopyOnWriteArrayList<>();
+        publisher.getFlux().subscribe(m -> received.add(m.getPayload()));
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(publisher.emit(MessageBuilder.withPayload(i).build())).isTrue();
+        }
+        assertThat(received).hasSize(100);
+        assertThat(publisher.getDemand()).isEqualTo(Long.MAX_VALUE);
+        assertThat(changes).hasValue(1);
+    }
+
+    @Test
+    void testCancel_releasesWaitingWorkers() {
+        DemandDrivenPublisher publisher = new DemandDrivenPublisher("test", () -> {
+        });
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.getFlux().subscribe(subscriber);
+
+        List<CompletableFuture<Boolean>> emitted = List.of(
+                emitAsync(publisher, "1"),
+                emitAsync(publisher, "2"));
+        subscriber.cancel();
+
+        await().atMost(2, TimeUnit.SECONDS).until(() -> emitted.stream().allMatch(CompletableFuture::isDone));
+        assertThat(emitted).allSatisfy(e -> assertThat(e.join()).as("must be requeued").isFalse());
+        assertThat(subscriber.received).isEmpty();
+        assertThat(publisher.isCancelled()).isTrue();
+        assertThat(publisher.isDemandExhausted()).as("keeps the flow stopped").isTrue();
+    }
+
+    @Test
+    void testConcurrentWorkers_emitExactlyTheRequestedMessages() throws Exception {
+        DemandDrivenPublisher publisher = new DemandDrivenPublisher("test", () -> {
+        });
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.getFlux().subscribe(subscriber);
+
+        List<CompletableFuture<Boolean>> emitted = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            emitted.add(emitAsync(publisher, Integer.toString(i)));
+        }
+        subscriber.request(5);
+        await().atMost(2, TimeUnit.SECONDS).until(() -> subscriber.received.size() == 5);
+        Thread.sleep(200);
+        assertThat(subscriber.received).hasSize(5);
+
+        subscriber.request(3);
+        CompletableFuture.allOf(emitted.toArray(new CompletableFuture[0])).get(2, TimeUnit.SECONDS);
+        assertThat(subscriber.received).hasSize(8).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void testSecondSubscriber_isRejected() {
+        DemandDrivenPublisher publisher = new DemandDrivenPublisher("test", () -> {
+        });
+        publisher.getFlux().subscribe(new RecordingSubscriber());
+        RecordingSubscriber second = new RecordingSubscriber();
+        publisher.getFlux().subscribe(second);
+
+        assertThat(second.error).isInstanceOf(IllegalStateException.class);
+    }
+
+    private CompletableFuture<Boolean> emitAsync(DemandDrivenPublisher publisher, String payload) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return publisher.emit(MessageBuilder.withPayload(payload).build());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }, workers);
+    }
+
+    private static class RecordingSubscriber extends BaseSubscriber<Message<?>> {
+        private final List<Object> received = new CopyOnWriteArrayList<>();
+        private volatile Throwable error;
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            // no initial demand, the tests request explicitly
+        }
+
+        @Override
+        protected void hookOnNext(Message<?> value) {
+            received.add(value.getPayload());
+        }
+
+        @Override
+        protected void hookOnError(Throwable throwable) {
+            error = throwable;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.solace.spring.cloud.stream.binder.inbound.queue;
+
+import com.solacesystems.jcsmp.BytesXMLMessage;
+import com.solacesystems.jcsmp.JCSMPException;
+import com.solacesystems.jcsmp.JCSMPFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.*;
+
+class FlowBackpressureTest {
+
+    @Test
+    void testMessageWatermarks_stopAtHighAndStartAtLow() throws JCSMPException {
+        FlowBackpressure.FlowAction stopFlow = mock(FlowBackpressure.FlowAction.class);
+        FlowBackpressure.FlowAction startFlow = mock(FlowBackpressure.FlowAction.class);
+        FlowBackpressure backpressure = new FlowBackpressure("test", 4, 1, 0, 0, stopFlow, startFlow);
+        try {
+            for (int i = 0; i < 3; i++) {
+                backpressure.onEnqueued(10);
+            }
+            assertThat(backpressure.isFlowStopped()).isFalse();
+
+            backpressure.onEnqueued(10);
+            assertThat(backpressure.isFlowStopped()).isTrue();
+            verify(stopFlow, timeout(2000)).run();
+
+            backpressure.onCompleted(10);
+            backpressure.onCompleted(10);
+            assertThat(backpressure.isFlowStopped()).isTrue();
+
+            backpressure.onCompleted(10);
+            assertThat(backpressure.isFlowStopped()).isFalse();
+            verify(startFlow, timeout(2000)).run();
+            assertThat(backpressure.getBufferedMessages()).isEqualTo(1);
+            assertThat(backpressure.getBufferedBytes()).isEqualTo(10);
+        } finally {
+            backpressure.close();
+        }
+    }
+
+    @Test
+    void testByteWatermarks_stopAtHighAndStartAtLow() throws JCSMPException {
+        FlowBackpressure.FlowAction stopFlow = mock(FlowBackpressure.FlowAction.class);
+        FlowBackpressure.FlowAction startFlow = mock(FlowBackpressure.FlowAction.class);
+        FlowBackpressure backpressure = new FlowBackpressure("test", 0, 0, 1000, 400, stopFlow, startFlow);
+        try {
+            backpressure.onEnqueued(600);
+            assertThat(backpressure.isFlowStopped()).isFalse();
+            backpressure.onEnqueued(600);
+            assertThat(backpressure.isFlowStopped()).isTrue();
+            verify(stopFlow, timeout(2000)).run();
+
+            backpressure.onCompleted(600);
+            assertThat(backpressure.isFlowStopped()).isTrue();
+            backpressure.onCompleted(600);
+            assertThat(backpressure.isFlowStopped()).isFalse();
+            verify(startFlow, timeout(2000)).run();
+        } finally {
+            backpressure.close();
+        }
+    }
+
+    @Test
+    void testRacingTransitions_flowEndsInWantedState() throws Exception {
+        AtomicInteger applied = new AtomicInteger();
+        CountDownLatch stopEntered = new CountDownLatch(1);
+        CountDownLatch releaseStop = new CountDownLatch(1);
+        FlowBackpressure backpressure = new FlowBackpressure("test", 1, 0, 0, 0,
+                () -> {
+                    stopEntered.countDown();
+                    releaseStop.await();
+                    applied.incrementAndGet();
+                },
+                applied::decrementAndGet);
+        try {
+            backpressure.onEnqueued(0);
+            assertThat(stopEntered.await(2, TimeUnit.SECONDS)).isTrue();
+            // stop is still in progress while the buffer already drained and wants the flow started again
+            backpressure.onCompleted(0);
+            releaseStop.countDown();
+
+            await().atMost(2, TimeUnit.SECONDS).untilAsserted(() -> assertThat(applied).hasValue(0));
+            assertThat(backpressure.isFlowStopped()).isFalse();
+        } finally {
+            backpressure.close();
+        }
+    }
+
+    @Test
+    void testDemand_stopsFlowWithoutDemandIndependentOfWatermarks() throws JCSMPException {
+        FlowBackpressure.FlowAction stopFlow = mock(FlowBackpressure.FlowAction.class);
+        FlowBackpressure.FlowAction startFlow = mock(FlowBackpressure.FlowAction.class);
+        AtomicBoolean demandExhausted = new AtomicBoolean(false);
+        FlowBackpressure backpressure = new FlowBackpressure("test", 0, 0, 0, 0, stopFlow, startFlow);
+        try {
+            backpressure.setDemandExhausted(demandExhausted::get);
+            assertThat(backpressure.isFlowStopped()).isFalse();
+
+            demandExhausted.set(true);
+            backpressure.onDemandChanged();
+            assertThat(backpressure.isFlowStopped()).isTrue();
+            verify(stopFlow, timeout(2000)).run();
+
+            // the buffer is empty, but the flow must stay stopped until there is demand again
+            backpressure.onEnqueued(10);
+            backpressure.onCompleted(10);
+            verify(startFlow, after(200).never()).run();
+
+            demandExhausted.set(false);
+            backpressure.onDemandChanged();
+            assertThat(backpressure.isFlowStopped()).isFalse();
+            verify(startFlow, timeout(2000)).run();
+        } finally {
+            backpressure.close();
+        }
+    }
+
+    @Test
+    void testClose_noFurtherFlowControl() throws JCSMPException {
+        FlowBackpressure.FlowAction stopFlow = mock(FlowBackpressure.FlowAction.class);
+        FlowBackpressure.FlowAction startFlow = mock(FlowBackpressure.FlowAction.class);
+        FlowBackpressure backpressure = new FlowBackpressure("test", 1, 0, 0, 0, stopFlow, startFlow);
+        backpressure.close();
+
+        backpressure.onEnqueued(0);
+        backpressure.onCompleted(0);
+
+        verifyNoInteractions(stopFlow, startFlow);
+    }
+
+    @Test
+    void testListener_stopsFlowWhileWorkerIsBlocked() throws Exception {
+        FlowBackpressure.FlowAction stopFlow = mock(FlowBackpressure.FlowAction.class);
+        FlowBackpressure.FlowAction startFlow = mock(FlowBackpressure.FlowAction.class);
+        CountDownLatch release = new CountDownLatch(1);
+        Consumer<BytesXMLMessage> messageConsumer = m -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        listener.setBackpressure(new FlowBackpressure("test", 3, 0, 0, 0, stopFlow, startFlow));
+        try {
+            listener.startReceiverThreads(1, "testListener_stopsFlowWhileWorkerIsBlocked", messageConsumer, 60000);
+            for (int i = 0; i < 3; i++) {
+                BytesXMLMessage message = mock(BytesXMLMessage.class);
+                when(message.getDestination()).thenReturn(JCSMPFactory.onlyInstance().createTopic("test/topic"));
+                listener.onReceive(message);
+            }
+
+            verify(stopFlow, timeout(2000)).run();
+            assertThat(listener.isFlowStoppedByBackpressure()).isTrue();
+
+            release.countDown();
+            verify(startFlow, timeout(5000)).run();
+            assertThat(listener.isFlowStoppedByBackpressure()).isFalse();
+            await().atMost(5, TimeUnit.SECONDS).until(listener::isIdle);
+        } finally {
+            release.countDown();
+            listener.setBackpressure(null);
+            listener.stopReceiverThreads();
+        }
+    }
+}
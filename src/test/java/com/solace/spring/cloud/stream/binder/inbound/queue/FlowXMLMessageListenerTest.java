@@ -1,5 +1,8 @@
 package com.solace.spring.cloud.stream.binder.inbound.queue;
 
+import com.solace.spring.cloud.stream.binder.util.RingBufferWaitStrategy;
+import com.solace.spring.cloud.stream.binder.util.WorkerQueueType;
+import com.solace.spring.cloud.stream.binder.util.WorkerThreadType;
 import com.solacesystems.jcsmp.BytesXMLMessage;
 import com.solacesystems.jcsmp.JCSMPFactory;
 import com.solacesystems.jcsmp.SDTException;
@@ -12,7 +15,7 @@ import org.mockito.Mockito;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -23,10 +26,10 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.awaitility.Awaitility.await;
 import static org.mockito.Mockito.*;
 
@@ -137,7 +140,7 @@ class FlowXMLMessageListenerTest {
     }
 
     @Test
-    void testStartReceiverThreads_WatchdogLogsDeadlockWarning() throws InterruptedException, NoSuchFieldException, IllegalAccessException {
+    void testStartReceiverThreads_WatchdogLogsDeadlockWarning() {
         FlowXMLMessageListener listener = new FlowXMLMessageListener();
 
         try {
@@ -163,20 +166,12 @@ class FlowXMLMessageListenerTest {
             listener.onReceive(mockMessage);
 
             // Wait for deadlock detection to occur (watchdog runs every 1000ms)
-            Field field = FlowXMLMessageListener.class.getDeclaredField("activeMessages");
-            field.setAccessible(true);
-            @SuppressWarnings("unchecked")
-            Set<FlowXMLMessageListener.MessageInProgress> activeMessages = (Set<FlowXMLMessageListener.MessageInProgress>) field.get(listener);
-
-            await().atMost(4500, TimeUnit.MILLISECONDS).until(() ->
-                    activeMessages.stream().anyMatch(FlowXMLMessageListener.MessageInProgress::isWarned)
-            );
-
-            boolean warned = activeMessages.stream().anyMatch(FlowXMLMessageListener.MessageInProgress::isWarned);
-            assertThat(warned).as("Expected a message to be warned due to deadlock").isTrue();
+            await().atMost(4500, TimeUnit.MILLISECONDS).until(() -> listener.getStuckMessageCount() == 1);
+            assertThat(listener.getActiveMessageCount()).as("Expected the stuck message to still be in processing").isEqualTo(1);
 
             // Wait for processing to complete to avoid interfering with next tests
-            await().atMost(4000, TimeUnit.MILLISECONDS).until(activeMessages::isEmpty);
+            await().atMost(4000, TimeUnit.MILLISECONDS).until(listener::isIdle);
+            assertThat(listener.getStuckMessageCount()).as("A stuck message is reported only once").isEqualTo(1);
 
         } finally {
             listener.stopReceiverThreads();
@@ -184,106 +179,41 @@ class FlowXMLMessageListenerTest {
     }
 
     @Test
-    void testMessageInProgress_EqualsAndHashCode_UsesOnlyImmutableFields() {
-        BytesXMLMessage mockMessage = mock(BytesXMLMessage.class);
-        when(mockMessage.getMessageId()).thenReturn("TestMessageId");
-        when(mockMessage.getDestination()).thenReturn(JCSMPFactory.onlyInstance().createTopic("test/topic"));
-
-        long receivedNanos = System.nanoTime();
-
-        FlowXMLMessageListener.MessageInProgress mip1 = new FlowXMLMessageListener.MessageInProgress(receivedNanos, mockMessage);
-        FlowXMLMessageListener.MessageInProgress mip2 = new FlowXMLMessageListener.MessageInProgress(receivedNanos, mockMessage);
-
-        // Initially equal
-        assertThat(mip1).isEqualTo(mip2);
-        assertThat(mip1.hashCode()).isEqualTo(mip2.hashCode());
-
-        // Modify mutable fields - should still be equal
-        mip1.setStartNanos(1000L);
-        mip1.setThreadName("thread-1");
-        mip1.setWarned(true);
-
-
-        mip2.setStartNanos(2000L);
-        mip2.setThreadName("thread-2");
-        mip2.setWarned(false);
-
-
-        // Still equal because only receivedNanos and bytesXMLMessage are used
-        assertThat(mip1).isEqualTo(mip2);
-        assertThat(mip1.hashCode()).isEqualTo(mip2.hashCode());
-    }
-
-    @Test
-    void testMessageInProgress_HashCodeIsCached() {
-        BytesXMLMessage mockMessage = mock(BytesXMLMessage.class);
-        when(mockMessage.getMessageId()).thenReturn("TestMessageId");
-        when(mockMessage.getDestination()).thenReturn(JCSMPFactory.onlyInstance().createTopic("test/topic"));
-
-        FlowXMLMessageListener.MessageInProgress mip = new FlowXMLMessageListener.MessageInProgress(System.nanoTime(), mockMessage);
+    void testStartReceiverThreads_WatchdogIgnoresMessagesCompletedInTime() throws InterruptedException {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        try {
+            listener.startReceiverThreads(4, "WatchdogInTimeTestThread", message -> {
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException ignored) {
+                }
+            }, 200);
 
-        int hash1 = mip.hashCode();
-        int hash2 = mip.hashCode();
-        int hash3 = mip.hashCode();
+            for (int i = 0; i < 100; i++) {
+                BytesXMLMessage mockMessage = mock(BytesXMLMessage.class);
+                when(mockMessage.getMessageId()).thenReturn("InTime-" + i);
+                when(mockMessage.getDestination()).thenReturn(JCSMPFactory.onlyInstance().createTopic("test/topic"));
+                listener.onReceive(mockMessage);
+            }
 
-        // All calls should return the same cached value
-        assertThat(hash1).isEqualTo(hash2).isEqualTo(hash3);
+            await().atMost(5, TimeUnit.SECONDS).until(listener::isIdle);
+            // let the watchdog pass the deadlines of all processed messages
+            Thread.sleep(500);
+            assertThat(listener.getStuckMessageCount()).isZero();
+        } finally {
+            listener.stopReceiverThreads();
+        }
     }
 
     @Test
-    void testMessageInProgress_CanBeAddedAndRemovedFromHashSetAfterMutation() {
+    void testMessageInProgress_IdentityEquality() {
         BytesXMLMessage mockMessage = mock(BytesXMLMessage.class);
-        when(mockMessage.getMessageId()).thenReturn("TestMessageId");
-        when(mockMessage.getDestination()).thenReturn(JCSMPFactory.onlyInstance().createTopic("test/topic"));
-
-        FlowXMLMessageListener.MessageInProgress mip = new FlowXMLMessageListener.MessageInProgress(System.nanoTime(), mockMessage);
-
-        Set<FlowXMLMessageListener.MessageInProgress> set = new HashSet<>();
-        set.add(mip);
-
-        assertThat(set).contains(mip);
-
-        // Modify mutable fields
-        mip.setStartNanos(1000L);
-        mip.setThreadName("thread-1");
-        mip.setWarned(true);
-
-
-        // Should still be in the set and removable
-        assertThat(set).contains(mip);
-        boolean removed = set.remove(mip);
-        assertThat(removed).isTrue();
-        assertThat(set).isEmpty();
-    }
-
-    @Test
-    void testMessageInProgress_DifferentMessagesAreNotEqual() {
-        BytesXMLMessage mockMessage1 = mock(BytesXMLMessage.class);
-        when(mockMessage1.getMessageId()).thenReturn("TestMessageId1");
-        when(mockMessage1.getDestination()).thenReturn(JCSMPFactory.onlyInstance().createTopic("test/topic"));
-
-        BytesXMLMessage mockMessage2 = mock(BytesXMLMessage.class);
-        when(mockMessage2.getMessageId()).thenReturn("TestMessageId2");
-        when(mockMessage2.getDestination()).thenReturn(JCSMPFactory.onlyInstance().createTopic("test/topic"));
-
         long receivedNanos = System.nanoTime();
 
-        FlowXMLMessageListener.MessageInProgress mip1 = new FlowXMLMessageListener.MessageInProgress(receivedNanos, mockMessage1);
-        FlowXMLMessageListener.MessageInProgress mip2 = new FlowXMLMessageListener.MessageInProgress(receivedNanos, mockMessage2);
-
-        assertThat(mip1).isNotEqualTo(mip2);
-    }
-
-    @Test
-    void testMessageInProgress_DifferentReceivedNanosAreNotEqual() {
-        BytesXMLMessage mockMessage = mock(BytesXMLMessage.class);
-        when(mockMessage.getMessageId()).thenReturn("TestMessageId");
-        when(mockMessage.getDestination()).thenReturn(JCSMPFactory.onlyInstance().createTopic("test/topic"));
-
-        FlowXMLMessageListener.MessageInProgress mip1 = new FlowXMLMessageListener.MessageInProgress(1000L, mockMessage);
-        FlowXMLMessageListener.MessageInProgress mip2 = new FlowXMLMessageListener.MessageInProgress(2000L, mockMessage);
+        FlowXMLMessageListener.MessageInProgress mip1 = new FlowXMLMessageListener.MessageInProgress(receivedNanos, mockMessage);
+        FlowXMLMessageListener.MessageInProgress mip2 = new FlowXMLMessageListener.MessageInProgress(receivedNanos, mockMessage);
 
-        assertThat(mip1).isNotEqualTo(mip2);
+        assertThat(mip1).isEqualTo(mip1).isNotEqualTo(mip2);
     }
 
     @Test
@@ -372,7 +302,7 @@ class FlowXMLMessageListenerTest {
     }
 
     @Test
-    void testStartReceiverThreads_100ConsumersActiveMessagesSetIntegrity() throws Exception {
+    void testStartReceiverThreads_100ConsumersActiveMessageCountIntegrity() throws Exception {
         FlowXMLMessageListener listener = new FlowXMLMessageListener();
         try {
             int threadCount = 100;
@@ -381,13 +311,6 @@ class FlowXMLMessageListenerTest {
             AtomicInteger processedCount = new AtomicInteger(0);
             Set<String> processedThreadNames = java.util.concurrent.ConcurrentHashMap.newKeySet();
 
-            // Access activeMessages via reflection to verify integrity
-            Field activeMessagesField = FlowXMLMessageListener.class.getDeclaredField("activeMessages");
-            activeMessagesField.setAccessible(true);
-            @SuppressWarnings("unchecked")
-            Set<FlowXMLMessageListener.MessageInProgress> activeMessages =
-                    (Set<FlowXMLMessageListener.MessageInProgress>) activeMessagesField.get(listener);
-
             Consumer<BytesXMLMessage> messageConsumer = message -> {
                 processedThreadNames.add(Thread.currentThread().getName());
                 // Simulate some processing with varying times to create contention
@@ -430,12 +353,12 @@ class FlowXMLMessageListenerTest {
                     .as("Multiple threads should have been used for processing")
                     .isGreaterThanOrEqualTo(threadCount / 2);
 
-            // After all messages are processed, activeMessages should be empty
-            await().atMost(5, TimeUnit.SECONDS).until(activeMessages::isEmpty);
+            // After all messages are processed, no message should be counted as active
+            await().atMost(5, TimeUnit.SECONDS).until(listener::isIdle);
 
-            assertThat(activeMessages)
-                    .as("Active messages set should be empty after all processing completes")
-                    .isEmpty();
+            assertThat(listener.getActiveMessageCount())
+                    .as("Active message count should be zero after all processing completes")
+                    .isZero();
 
         } finally {
             listener.stopReceiverThreads();
@@ -447,7 +370,7 @@ class FlowXMLMessageListenerTest {
      *
      * <p>Models the {@code JCSMPInboundQueueMessageProducer.doStop()} ordering at the listener level.
      * The {@link Consumer} passed to {@code startReceiverThreads} stands in for
-     * {@code onReceiveConcurrent}, whose {@code activeMessages} window spans the message ACK. A shared
+     * {@code onReceiveConcurrent}, whose active-message window spans the message ACK. A shared
      * {@link AtomicBoolean} simulates {@code FlowReceiver.close()}: any "ACK" that runs after it is set
      * is the bug we are guarding against (an ACK on a closed flow throws {@code IllegalStateException}).
      *
@@ -495,32 +418,98 @@ class FlowXMLMessageListenerTest {
                 .isEqualTo(n);
     }
 
+    @Test
+    void testDrain_returnsAsSoonAsLastMessageCompletes() {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        try {
+            listener.startReceiverThreads(2, "drainSignalTest", msg -> sleepQuietly(200), 2000);
+            for (int i = 0; i < 4; i++) {
+                listener.onReceive(mockMessage());
+            }
+
+            long start = System.nanoTime();
+            listener.drain(10_000);
+            long drainMs = (System.nanoTime() - start) / 1_000_000L;
+
+            assertThat(listener.isIdle()).isTrue();
+            assertThat(drainMs).as("drain is woken up by the last message, not by the timeout").isLessThan(2000);
+        } finally {
+            listener.stopReceiverThreads();
+        }
+    }
+
+    @Test
+    void testDrain_messagesOfPreviousRunDoNotCount() {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            listener.startReceiverThreads(1, "drainRestartTest", msg -> {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ignored) {
+                }
+            }, 60000);
+            listener.onReceive(mockMessage());
+            listener.onReceive(mockMessage());
+            await().atMost(2, TimeUnit.SECONDS).until(() -> listener.getActiveMessageCount() == 1);
+
+            // the stuck worker is interrupted, the queued message is discarded with the old worker queue
+            listener.startReceiverThreads(1, "drainRestartTest", msg -> {
+            }, 60000);
+            release.countDown();
+
+            assertThat(listener.isIdle()).isTrue();
+            listener.onReceive(mockMessage());
+            listener.drain(5000);
+            assertThat(listener.isIdle()).isTrue();
+        } finally {
+            listener.stopReceiverThreads();
+        }
+    }
+
+    @Test
+    void testStopReceiverThreads_stuckThreadsShareOneTimeout() {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        listener.startReceiverThreads(3, "stopTimeoutTest", msg -> sleepQuietly(30_000), 60000);
+        for (int i = 0; i < 3; i++) {
+            listener.onReceive(mockMessage());
+        }
+        await().atMost(2, TimeUnit.SECONDS).until(() -> listener.getActiveMessageCount() == 3);
+
+        long start = System.nanoTime();
+        listener.stopReceiverThreads();
+        long stopMs = (System.nanoTime() - start) / 1_000_000L;
+
+        assertThat(stopMs).as("3 stuck threads must not take 3 times the 5 second timeout").isLessThan(8000);
+    }
+
     // ---------------------------------------------------------------------------------------------
     // Partition-aware dispatch (STTRS-3135 variant 2)
     // ---------------------------------------------------------------------------------------------
 
     @Test
-    void testPartitionAware_sameKeyAlwaysHandledBySameThread_andOrderPreserved() throws InterruptedException {
+    void testPartitionAware_perKeyOrderPreservedAndSerialized() throws InterruptedException {
         FlowXMLMessageListener listener = new FlowXMLMessageListener();
         try {
             int threadCount = 4;
             int keyCount = 8;
             int perKey = 25;
             CountDownLatch latch = new CountDownLatch(keyCount * perKey);
-            Map<String, Set<String>> threadsByKey = new ConcurrentHashMap<>();
             Map<String, List<Integer>> seqByKey = new ConcurrentHashMap<>();
+            Map<String, AtomicInteger> inProcessingByKey = new ConcurrentHashMap<>();
+            List<String> overlaps = new CopyOnWriteArrayList<>();
+            Set<String> allThreads = ConcurrentHashMap.newKeySet();
 
             Consumer<BytesXMLMessage> consumer = msg -> {
                 String key = readPartitionKey(msg);
+                if (inProcessingByKey.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet() > 1) {
+                    overlaps.add(key);
+                }
+                allThreads.add(Thread.currentThread().getName());
                 int seq = Integer.parseInt(msg.getMessageId().substring(msg.getMessageId().indexOf('#') + 1));
-                threadsByKey.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet())
-                        .add(Thread.currentThread().getName());
                 seqByKey.computeIfAbsent(key, k -> Collections.synchronizedList(new ArrayList<>())).add(seq);
-                try {
-                    Thread.sleep(1); // create contention so a non-affine dispatch would interleave threads
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
+                sleepQuietly(1); // create contention so an unordered dispatch would interleave
+                inProcessingByKey.get(key).decrementAndGet();
                 latch.countDown();
             };
 
@@ -536,27 +525,58 @@ class FlowXMLMessageListenerTest {
 
             assertThat(latch.await(30, TimeUnit.SECONDS)).as("all messages processed").isTrue();
 
-            assertThat(threadsByKey).hasSize(keyCount);
-            threadsByKey.forEach((key, threads) -> assertThat(threads)
-                    .as("partition %s must be processed by exactly one worker thread", key)
-                    .hasSize(1));
-
+            assertThat(overlaps).as("messages of one partition key must never be processed concurrently").isEmpty();
+            assertThat(seqByKey).hasSize(keyCount);
             seqByKey.forEach((key, seqs) -> assertThat(seqs)
                     .as("messages of partition %s must be processed in receive order", key)
                     .containsExactlyElementsOf(IntStream.range(0, perKey).boxed().toList()));
-
-            Set<String> allThreads = threadsByKey.values().stream()
-                    .flatMap(Set::stream).collect(Collectors.toSet());
             assertThat(allThreads)
                     .as("multiple worker threads should be used across partitions")
                     .hasSizeGreaterThanOrEqualTo(2);
+            await().atMost(5, TimeUnit.SECONDS).until(listener::isIdle);
         } finally {
             listener.stopReceiverThreads();
         }
     }
 
     @Test
-    void testPartitionAware_nullPartitionKey_distributedRoundRobinWithoutError() throws InterruptedException {
+    void testPartitionAware_slowKeyDoesNotBlockOtherKeys() throws InterruptedException {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        CountDownLatch releaseSlowKey = new CountDownLatch(1);
+        try {
+            int otherKeys = 20;
+            CountDownLatch othersProcessed = new CountDownLatch(otherKeys);
+            Consumer<BytesXMLMessage> consumer = msg -> {
+                if ("slow".equals(readPartitionKey(msg))) {
+                    try {
+                        releaseSlowKey.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                } else {
+                    othersProcessed.countDown();
+                }
+            };
+
+            listener.startReceiverThreads(2, "pa-slowkey", consumer, 60000, true);
+            listener.onReceive(mockPartitionedMessage("slow", "slow#0"));
+            listener.onReceive(mockPartitionedMessage("slow", "slow#1"));
+            for (int k = 0; k < otherKeys; k++) {
+                // with hash-pinned workers about half of these keys would wait behind the blocked one
+                listener.onReceive(mockPartitionedMessage("key-" + k, "key-" + k + "#0"));
+            }
+
+            assertThat(othersProcessed.await(10, TimeUnit.SECONDS))
+                    .as("other partition keys must be processed while one key is blocked")
+                    .isTrue();
+        } finally {
+            releaseSlowKey.countDown();
+            listener.stopReceiverThreads();
+        }
+    }
+
+    @Test
+    void testPartitionAware_nullPartitionKey_processedByAnyWorkerWithoutError() throws InterruptedException {
         FlowXMLMessageListener listener = new FlowXMLMessageListener();
         try {
             int threadCount = 4;
@@ -566,6 +586,7 @@ class FlowXMLMessageListenerTest {
 
             Consumer<BytesXMLMessage> consumer = msg -> {
                 threads.add(Thread.currentThread().getName());
+                sleepQuietly(2);
                 latch.countDown();
             };
 
@@ -578,7 +599,7 @@ class FlowXMLMessageListenerTest {
 
             assertThat(latch.await(30, TimeUnit.SECONDS)).as("all messages processed").isTrue();
             assertThat(threads)
-                    .as("messages without a partition key should be spread round-robin across threads")
+                    .as("messages without a partition key should be spread across threads")
                     .hasSizeGreaterThanOrEqualTo(2);
         } finally {
             listener.stopReceiverThreads();
@@ -622,55 +643,459 @@ class FlowXMLMessageListenerTest {
     }
 
     @Test
-    void testPartitionAware_singleThread_usesSingleQueue() throws Exception {
+    void testPartitionAware_singleThread_noLanes() throws Exception {
         FlowXMLMessageListener listener = new FlowXMLMessageListener();
         try {
             @SuppressWarnings("unchecked")
             Consumer<BytesXMLMessage> consumer = mock(Consumer.class);
             listener.startReceiverThreads(1, "pa-single", consumer, 60000, true);
-            assertThat(workerQueueCount(listener))
-                    .as("with concurrency 1, partition-aware mode must not create per-thread queues")
-                    .isEqualTo(1);
+            assertThat(partitionLanes(listener))
+                    .as("with concurrency 1, partition-aware mode needs no per-key serialization")
+                    .isNull();
         } finally {
             listener.stopReceiverThreads();
         }
     }
 
     @Test
-    void testPartitionAware_multiThread_createsOneQueuePerThread() throws Exception {
+    void testPartitionAware_multiThread_usesLanes() throws Exception {
         FlowXMLMessageListener listener = new FlowXMLMessageListener();
         try {
             @SuppressWarnings("unchecked")
             Consumer<BytesXMLMessage> consumer = mock(Consumer.class);
             listener.startReceiverThreads(5, "pa-multi", consumer, 60000, true);
-            assertThat(workerQueueCount(listener))
-                    .as("partition-aware mode must create one queue per worker thread")
-                    .isEqualTo(5);
+            assertThat(partitionLanes(listener))
+                    .as("partition-aware mode must serialize per partition key")
+                    .isNotNull();
         } finally {
             listener.stopReceiverThreads();
         }
     }
 
     @Test
-    void testNonPartitionAware_multiThread_usesSingleQueue() throws Exception {
+    void testNonPartitionAware_multiThread_noLanes() throws Exception {
         FlowXMLMessageListener listener = new FlowXMLMessageListener();
         try {
             @SuppressWarnings("unchecked")
             Consumer<BytesXMLMessage> consumer = mock(Consumer.class);
             listener.startReceiverThreads(5, "shared-multi", consumer, 60000); // partitionAware defaults to false
-            assertThat(workerQueueCount(listener))
-                    .as("default mode must use a single shared queue regardless of thread count")
-                    .isEqualTo(1);
+            assertThat(partitionLanes(listener))
+                    .as("default mode must not serialize per partition key")
+                    .isNull();
         } finally {
             listener.stopReceiverThreads();
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private static int workerQueueCount(FlowXMLMessageListener listener) throws Exception {
-        Field field = FlowXMLMessageListener.class.getDeclaredField("messageQueues");
+    // ---------------------------------------------------------------------------------------------
+    // Virtual worker threads
+    // ---------------------------------------------------------------------------------------------
+
+    @Test
+    void testVirtualThreads_concurrencyLimitedBySemaphore() throws InterruptedException {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        try {
+            int concurrency = 3;
+            int messageCount = 30;
+            CountDownLatch latch = new CountDownLatch(messageCount);
+            AtomicInteger inProcessing = new AtomicInteger();
+            AtomicInteger maxInProcessing = new AtomicInteger();
+
+            Consumer<BytesXMLMessage> consumer = msg -> {
+                maxInProcessing.accumulateAndGet(inProcessing.incrementAndGet(), Math::max);
+                sleepQuietly(20);
+                inProcessing.decrementAndGet();
+                latch.countDown();
+            };
+
+            listener.startReceiverThreads(concurrency, "virtual-limit", consumer, 60000, false, WorkerThreadType.VIRTUAL);
+            for (int i = 0; i < messageCount; i++) {
+                listener.onReceive(mockMessage());
+            }
+
+            assertThat(latch.await(30, TimeUnit.SECONDS)).as("all messages processed").isTrue();
+            assertThat(maxInProcessing.get())
+                    .as("no more than concurrency messages may be processed at the same time")
+                    .isBetween(2, concurrency);
+            await().atMost(5, TimeUnit.SECONDS).until(listener::isIdle);
+        } finally {
+            listener.stopReceiverThreads();
+        }
+    }
+
+    @Test
+    void testVirtualThreads_noPollingThreadsStarted() throws InterruptedException {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        try {
+            @SuppressWarnings("unchecked")
+            Consumer<BytesXMLMessage> consumer = mock(Consumer.class);
+            String threadNamePrefix = "testVirtualThreads_noPollingThreadsStarted";
+            listener.startReceiverThreads(10, threadNamePrefix, consumer, 60000, false, WorkerThreadType.VIRTUAL);
+            Thread.sleep(200);
+
+            long pollingThreads = Thread.getAllStackTraces().keySet().stream()
+                    .filter(t -> t.getName().startsWith(threadNamePrefix))
+                    .count();
+            assertThat(pollingThreads).as("only the watchdog thread runs while the binding is idle").isEqualTo(1);
+
+            BytesXMLMessage message = mockMessage();
+            listener.onReceive(message);
+            verify(consumer, timeout(2000)).accept(message);
+        } finally {
+            listener.stopReceiverThreads();
+        }
+    }
+
+    @Test
+    void testVirtualThreads_partitionAware_perKeyOrderPreservedAndSerialized() throws InterruptedException {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        try {
+            int keyCount = 8;
+            int perKey = 25;
+            CountDownLatch latch = new CountDownLatch(keyCount * perKey);
+            Map<String, List<Integer>> seqByKey = new ConcurrentHashMap<>();
+            Map<String, AtomicInteger> inProcessingByKey = new ConcurrentHashMap<>();
+            List<String> overlaps = new CopyOnWriteArrayList<>();
+
+            Consumer<BytesXMLMessage> consumer = msg -> {
+                String key = readPartitionKey(msg);
+                if (inProcessingByKey.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet() > 1) {
+                    overlaps.add(key);
+                }
+                int seq = Integer.parseInt(msg.getMessageId().substring(msg.getMessageId().indexOf('#') + 1));
+                seqByKey.computeIfAbsent(key, k -> Collections.synchronizedList(new ArrayList<>())).add(seq);
+                sleepQuietly(1);
+                inProcessingByKey.get(key).decrementAndGet();
+                latch.countDown();
+            };
+
+            listener.startReceiverThreads(4, "virtual-partitionAware", consumer, 60000, true, WorkerThreadType.VIRTUAL);
+            for (int seq = 0; seq < perKey; seq++) {
+                for (int k = 0; k < keyCount; k++) {
+                    listener.onReceive(mockPartitionedMessage("key-" + k, "key-" + k + "#" + seq));
+                }
+            }
+
+            assertThat(latch.await(30, TimeUnit.SECONDS)).as("all messages processed").isTrue();
+            assertThat(overlaps).as("messages of one partition key must never be processed concurrently").isEmpty();
+            assertThat(seqByKey).hasSize(keyCount);
+            seqByKey.forEach((key, seqs) -> assertThat(seqs)
+                    .as("messages of partition %s must be processed in receive order", key)
+                    .containsExactlyElementsOf(IntStream.range(0, perKey).boxed().toList()));
+            await().atMost(5, TimeUnit.SECONDS).until(listener::isIdle);
+        } finally {
+            listener.stopReceiverThreads();
+        }
+    }
+
+    @Test
+    void testVirtualThreads_drainSettlesAllMessages() {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        AtomicInteger processed = new AtomicInteger();
+        Consumer<BytesXMLMessage> consumer = msg -> {
+            sleepQuietly(100);
+            processed.incrementAndGet();
+        };
+
+        int n = 12;
+        listener.startReceiverThreads(3, "virtual-drain", consumer, 60000, false, WorkerThreadType.VIRTUAL);
+        for (int i = 0; i < n; i++) {
+            listener.onReceive(mockMessage());
+        }
+
+        listener.drain(10_000);
+        listener.stopReceiverThreads();
+
+        assertThat(listener.isIdle()).isTrue();
+        assertThat(processed.get()).isEqualTo(n);
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Adaptive concurrency
+    // ---------------------------------------------------------------------------------------------
+
+    @Test
+    void testAutoscaling_scalesUpUnderBackpressureAndDownWhenIdle() {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        listener.setAutoscaler(new ConcurrencyAutoscaler(1, 4, 100, 300, 0));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger processed = new AtomicInteger();
+        Consumer<BytesXMLMessage> consumer = msg -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            processed.incrementAndGet();
+        };
+        try {
+            // watchdogTimeoutMs drives the tick rate of the watchdog, which also takes the scaling decisions
+            listener.startReceiverThreads(1, "autoscale", consumer, 100);
+            assertThat(listener.getWorkerCount()).isEqualTo(1);
+            for (int i = 0; i < 20; i++) {
+                listener.onReceive(mockMessage());
+            }
+
+            await().atMost(5, TimeUnit.SECONDS).until(() -> listener.getWorkerCount() == 4);
+
+            release.countDown();
+            await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> assertThat(processed).hasValue(20));
+            await().atMost(10, TimeUnit.SECONDS).until(() -> listener.getWorkerCount() == 1);
+            assertThat(listener.isIdle()).isTrue();
+        } finally {
+            release.countDown();
+            listener.stopReceiverThreads();
+        }
+    }
+
+    @Test
+    void testAutoscaling_initialWorkersClampedToRange() {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        listener.setAutoscaler(new ConcurrencyAutoscaler(2, 3, 1000, 60000, 10000));
+        try {
+            @SuppressWarnings("unchecked")
+            Consumer<BytesXMLMessage> consumer = mock(Consumer.class);
+            listener.startReceiverThreads(10, "autoscale-clamp", consumer, 60000);
+            assertThat(listener.getWorkerCount()).isEqualTo(3);
+        } finally {
+            listener.stopReceiverThreads();
+        }
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // Ring buffer worker queue
+    // ---------------------------------------------------------------------------------------------
+
+    @Test
+    void testRingBuffer_allMessagesProcessed() {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        listener.setWorkerQueue(WorkerQueueType.RING_BUFFER, 1024, RingBufferWaitStrategy.BLOCKING);
+        AtomicInteger processed = new AtomicInteger();
+        try {
+            listener.startReceiverThreads(4, "ring-all", msg -> processed.incrementAndGet(), 60000);
+            for (int i = 0; i < 500; i++) {
+                listener.onReceive(mockMessage());
+            }
+            await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> assertThat(processed).hasValue(500));
+            await().atMost(5, TimeUnit.SECONDS).until(listener::isIdle);
+        } finally {
+            listener.stopReceiverThreads();
+        }
+    }
+
+    @Test
+    void testRingBuffer_fullRingBufferMakesDispatcherWait() throws Exception {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        listener.setWorkerQueue(WorkerQueueType.RING_BUFFER, 2, RingBufferWaitStrategy.YIELDING);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger processed = new AtomicInteger();
+        Consumer<BytesXMLMessage> consumer = msg -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            processed.incrementAndGet();
+        };
+        List<BytesXMLMessage> messages = IntStream.range(0, 4).mapToObj(i -> mockMessage()).toList();
+        try {
+            listener.startReceiverThreads(1, "ring-full", consumer, 60000);
+            listener.onReceive(messages.get(0));
+            assertThat(started.await(2, TimeUnit.SECONDS)).isTrue();
+
+            // the worker is blocked, two messages fill the ring, the dispatcher waits with the third one
+            listener.onReceive(messages.get(1));
+            listener.onReceive(messages.get(2));
+            CountDownLatch dispatched = new CountDownLatch(1);
+            Thread dispatcher = new Thread(() -> {
+                listener.onReceive(messages.get(3));
+                dispatched.countDown();
+            });
+            dispatcher.start();
+            assertThat(dispatched.await(200, TimeUnit.MILLISECONDS)).isFalse();
+
+            release.countDown();
+            assertThat(dispatched.await(2, TimeUnit.SECONDS)).isTrue();
+            await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> assertThat(processed).hasValue(4));
+            for (BytesXMLMessage message : messages) {
+                verify(message, never()).settle(XMLMessage.Outcome.FAILED);
+            }
+        } finally {
+            release.countDown();
+            listener.stopReceiverThreads();
+        }
+    }
+
+    @Test
+    void testRingBuffer_partitionAware_workerProcessesNextMessageOfFullRing() throws Exception {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        listener.setWorkerQueue(WorkerQueueType.RING_BUFFER, 2, RingBufferWaitStrategy.YIELDING);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> processed = new CopyOnWriteArrayList<>();
+        Consumer<BytesXMLMessage> consumer = msg -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            processed.add(msg.getMessageId());
+        };
+        try {
+            listener.startReceiverThreads(2, "ring-lanes", consumer, 60000, true);
+            // both workers block on a message of key-a and key-b, their next messages are parked behind them
+            // while messages of two other keys fill the ring
+            listener.onReceive(mockPartitionedMessage("key-a", "key-a#0"));
+            listener.onReceive(mockPartitionedMessage("key-b", "key-b#0"));
+            await().atMost(2, TimeUnit.SECONDS).until(() -> listener.getActiveMessageCount() == 2);
+            listener.onReceive(mockPartitionedMessage("key-a", "key-a#1"));
+            listener.onReceive(mockPartitionedMessage("key-b", "key-b#1"));
+            listener.onReceive(mockPartitionedMessage("key-c", "key-c#0"));
+            listener.onReceive(mockPartitionedMessage("key-d", "key-d#0"));
+
+            release.countDown();
+            await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> assertThat(processed).hasSize(6));
+            assertThat(processed.indexOf("key-a#0")).isLessThan(processed.indexOf("key-a#1"));
+            assertThat(processed.indexOf("key-b#0")).isLessThan(processed.indexOf("key-b#1"));
+            await().atMost(5, TimeUnit.SECONDS).until(listener::isIdle);
+        } finally {
+            release.countDown();
+            listener.stopReceiverThreads();
+        }
+    }
+
+    @Test
+    void testRingBuffer_virtualThreads() {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        listener.setWorkerQueue(WorkerQueueType.RING_BUFFER, 64, RingBufferWaitStrategy.BLOCKING);
+        AtomicInteger processed = new AtomicInteger();
+        try {
+            listener.startReceiverThreads(3, "ring-virtual", msg -> processed.incrementAndGet(), 60000, false, WorkerThreadType.VIRTUAL);
+            for (int i = 0; i < 50; i++) {
+                listener.onReceive(mockMessage());
+            }
+            await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> assertThat(processed).hasValue(50));
+        } finally {
+            listener.stopReceiverThreads();
+        }
+    }
+
+    @Test
+    void testBatching_collectsUpToMaxSize() throws InterruptedException {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        try {
+            List<List<String>> batches = new CopyOnWriteArrayList<>();
+            listener.setBatching(10, 500, batch -> batches.add(batch.stream().map(BytesXMLMessage::getMessageId).toList()));
+            listener.startReceiverThreads(1, "batching", msg -> {
+                throw new AssertionError("single message consumer must not be called in batch mode");
+            }, 60000, false);
+            Thread.sleep(200);
+
+            for (int i = 0; i < 25; i++) {
+                listener.onReceive(mockPartitionedMessage(null, "msg#" + i));
+            }
+
+            await().atMost(5, TimeUnit.SECONDS).until(() -> batches.stream().mapToInt(List::size).sum() == 25);
+            assertThat(batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(10));
+            assertThat(batches.get(0)).hasSize(10);
+            assertThat(batches.stream().flatMap(List::stream).toList())
+                    .as("a single worker keeps the receive order")
+                    .containsExactlyElementsOf(IntStream.range(0, 25).mapToObj(i -> "msg#" + i).toList());
+            await().atMost(5, TimeUnit.SECONDS).until(listener::isIdle);
+        } finally {
+            listener.stopReceiverThreads();
+        }
+    }
+
+    @Test
+    void testBatching_processesIncompleteBatchAfterTimeout() throws InterruptedException {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        try {
+            List<List<BytesXMLMessage>> batches = new CopyOnWriteArrayList<>();
+            listener.setBatching(100, 300, batches::add);
+            listener.startReceiverThreads(1, "batchTimeout", msg -> {
+            }, 60000, false);
+            Thread.sleep(200);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < 3; i++) {
+                listener.onReceive(mockMessage());
+            }
+
+            await().atMost(5, TimeUnit.SECONDS).until(() -> !batches.isEmpty());
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(250);
+            assertThat(batches).hasSize(1);
+            assertThat(batches.get(0)).hasSize(3);
+        } finally {
+            listener.stopReceiverThreads();
+        }
+    }
+
+    @Test
+    void testBatching_partitionAware_perKeyOrderPreservedAcrossBatches() throws Exception {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        try {
+            int keyCount = 6;
+            int perKey = 20;
+            CountDownLatch latch = new CountDownLatch(keyCount * perKey);
+            Map<String, List<Integer>> seqByKey = new ConcurrentHashMap<>();
+            Map<String, AtomicInteger> inProcessingByKey = new ConcurrentHashMap<>();
+            List<String> overlaps = new CopyOnWriteArrayList<>();
+
+            listener.setBatching(8, 20, batch -> {
+                Set<String> keys = new LinkedHashSet<>();
+                batch.forEach(msg -> keys.add(readPartitionKey(msg)));
+                keys.forEach(key -> {
+                    if (inProcessingByKey.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet() > 1) {
+                        overlaps.add(key);
+                    }
+                });
+                for (BytesXMLMessage msg : batch) {
+                    String key = readPartitionKey(msg);
+                    int seq = Integer.parseInt(msg.getMessageId().substring(msg.getMessageId().indexOf('#') + 1));
+                    seqByKey.computeIfAbsent(key, k -> Collections.synchronizedList(new ArrayList<>())).add(seq);
+                }
+                sleepQuietly(2);
+                keys.forEach(key -> inProcessingByKey.get(key).decrementAndGet());
+                batch.forEach(msg -> latch.countDown());
+            });
+            listener.startReceiverThreads(4, "batchPartitionAware", msg -> {
+            }, 60000, true);
+            Thread.sleep(200);
+
+            for (int seq = 0; seq < perKey; seq++) {
+                for (int k = 0; k < keyCount; k++) {
+                    listener.onReceive(mockPartitionedMessage("key-" + k, "key-" + k + "#" + seq));
+                }
+            }
+
+            assertThat(latch.await(30, TimeUnit.SECONDS)).as("all messages processed").isTrue();
+            assertThat(overlaps).as("a partition key must never be in two batches at the same time").isEmpty();
+            seqByKey.forEach((key, seqs) -> assertThat(seqs)
+                    .as("messages of partition %s must be processed in receive order", key)
+                    .containsExactlyElementsOf(IntStream.range(0, perKey).boxed().toList()));
+            await().atMost(5, TimeUnit.SECONDS).until(listener::isIdle);
+            assertThat(partitionLanes(listener).parkedMessages()).isZero();
+        } finally {
+            listener.stopReceiverThreads();
+        }
+    }
+
+    @Test
+    void testBatching_virtualThreadsRejected() {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        listener.setBatching(10, 100, batch -> {
+        });
+        assertThatThrownBy(() -> listener.startReceiverThreads(2, "batchVirtual", msg -> {
+        }, 60000, false, WorkerThreadType.VIRTUAL)).isInstanceOf(IllegalStateException.class);
+        listener.stopReceiverThreads();
+    }
+
+    private static PartitionLanes partitionLanes(FlowXMLMessageListener listener) throws Exception {
+        Field field = FlowXMLMessageListener.class.getDeclaredField("partitionLanes");
         field.setAccessible(true);
-        return ((List<?>) field.get(listener)).size();
+        return (PartitionLanes) field.get(listener);
     }
 
     private static String readPartitionKey(BytesXMLMessage msg) {
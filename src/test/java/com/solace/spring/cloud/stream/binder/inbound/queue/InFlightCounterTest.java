@@ -0,0 +1,52 @@
+package com.solace.spring.cloud.stream.binder.inbound.queue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InFlightCounterTest {
+
+    @Test
+    void testAwaitZero_returnsImmediatelyWhenNothingInFlight() throws InterruptedException {
+        InFlightCounter counter = new InFlightCounter();
+        assertThat(counter.awaitZero(0, TimeUnit.MILLISECONDS)).isTrue();
+    }
+
+    @Test
+    void testAwaitZero_timesOut() throws InterruptedException {
+        InFlightCounter counter = new InFlightCounter();
+        counter.increment();
+
+        long start = System.nanoTime();
+        assertThat(counter.awaitZero(100, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(counter.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testAwaitZero_wokenByLastDecrement() throws InterruptedException {
+        InFlightCounter counter = new InFlightCounter();
+        counter.increment();
+        counter.increment();
+
+        Thread worker = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+                counter.decrement();
+                Thread.sleep(100);
+                counter.decrement();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        worker.start();
+
+        long start = System.nanoTime();
+        assertThat(counter.awaitZero(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(5));
+        assertThat(counter.get()).isZero();
+        worker.join(1000);
+    }
+}
@@ -4,18 +4,28 @@ import com.solace.spring.cloud.stream.binder.messaging.SolaceBinderHeaders;
 import com.solace.spring.cloud.stream.binder.properties.SolaceConsumerProperties;
 import com.solace.spring.cloud.stream.binder.provisioning.SolaceConsumerDestination;
 import com.solace.spring.cloud.stream.binder.util.ErrorQueueInfrastructure;
+import com.solace.spring.cloud.stream.binder.util.WorkerQueueType;
 import com.solacesystems.jcsmp.*;
+import org.assertj.core.api.InstanceOfAssertFactories;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.cloud.stream.binder.ExtendedConsumerProperties;
+import org.springframework.cloud.stream.binder.RequeueCurrentMessageException;
+import org.springframework.integration.IntegrationMessageHeaderAccessor;
 import org.springframework.integration.channel.DirectChannel;
+import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessagingException;
 
+import java.util.List;
 import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -139,6 +149,82 @@ class JCSMPInboundQueueMessageProducerTest {
         verify(chunk2_3, times(1)).ackMessage();
     }
 
+    @Test
+    void testBatch_allMessagesHandedOverAsOneMessageAndAcknowledged() throws SDTException {
+        BytesMessage message1 = createMessage(new byte[]{1});
+        BytesMessage message2 = createMessage(new byte[]{2});
+        BytesMessage chunk = createChunk(12345L, 0, 2);
+
+        producer.onReceiveBatch(List.of(message1, chunk, message2));
+
+        ArgumentCaptor<Message<?>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(messageHandler, times(1)).handleMessage(captor.capture());
+        Message<?> batch = captor.getValue();
+        assertThat(batch.getPayload()).asInstanceOf(InstanceOfAssertFactories.LIST)
+                .as("the incomplete large message is not part of the batch")
+                .containsExactly(new byte[]{1}, new byte[]{2});
+        assertThat(batch.getHeaders().get(SolaceBinderHeaders.BATCHED_HEADERS)).asInstanceOf(InstanceOfAssertFactories.LIST)
+                .hasSize(2)
+                .allSatisfy(headers -> assertThat(headers).asInstanceOf(InstanceOfAssertFactories.MAP)
+                        .containsKey(IntegrationMessageHeaderAccessor.ACKNOWLEDGMENT_CALLBACK));
+        verify(message1, times(1)).ackMessage();
+        verify(message2, times(1)).ackMessage();
+        verify(chunk, times(0)).ackMessage();
+    }
+
+    @Test
+    void testBatch_allMessagesRequeued_whenConsumerRequestsRequeue() throws Exception {
+        BytesMessage message1 = createMessage(new byte[]{1});
+        BytesMessage message2 = createMessage(new byte[]{2});
+        doNothing().when(message1).settle(any());
+        doNothing().when(message2).settle(any());
+        doThrow(new RequeueCurrentMessageException()).when(messageHandler).handleMessage(any());
+
+        producer.onReceiveBatch(List.of(message1, message2));
+
+        verify(message1, times(0)).ackMessage();
+        verify(message2, times(0)).ackMessage();
+        verify(message1, times(1)).settle(XMLMessage.Outcome.FAILED);
+        verify(message2, times(1)).settle(XMLMessage.Outcome.FAILED);
+    }
+
+    @Test
+    void testReactive_failsToStart_whenOutputChannelIsNotReactive() {
+        SolaceConsumerProperties extension = new SolaceConsumerProperties();
+        extension.setReactive(true);
+        when(consumerProperties.getExtension()).thenReturn(extension);
+        when(consumerProperties.getConcurrency()).thenReturn(1);
+
+        assertThatThrownBy(() -> producer.start())
+                .isInstanceOf(MessagingException.class)
+                .rootCause()
+                .hasMessageContaining("reactive requires a reactive output channel");
+        verifyNoInteractions(jcsmpSession);
+    }
+
+    @Test
+    void testRingBuffer_failsToStart_whenHighWatermarkLeavesNoRoomForSubAckWindow() {
+        SolaceConsumerProperties extension = new SolaceConsumerProperties();
+        extension.setWorkerQueueType(WorkerQueueType.RING_BUFFER);
+        extension.setRingBufferSize(1024);
+        extension.setSubAckWindowSize(255);
+        extension.setBufferHighWatermarkMessages(1024 - 254);
+        when(consumerProperties.getExtension()).thenReturn(extension);
+        when(consumerProperties.getConcurrency()).thenReturn(1);
+
+        assertThatThrownBy(() -> producer.start())
+                .isInstanceOf(MessagingException.class)
+                .rootCause()
+                .hasMessageContaining("bufferHighWatermarkMessages must not exceed ringBufferSize minus subAckWindowSize");
+        verifyNoInteractions(jcsmpSession);
+    }
+
+    private BytesMessage createMessage(byte[] data) {
+        BytesMessage message = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
+        message.setData(data);
+        return spy(message);
+    }
+
     private BytesMessage createChunk(long chunkId, int index, int count) throws SDTException {
         BytesMessage message = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
         message.setData(new byte[]{1, 2, 3});
@@ -0,0 +1,134 @@
+package com.solace.spring.cloud.stream.binder.inbound.queue;
+
+import com.solace.spring.cloud.stream.binder.util.RingBufferWaitStrategy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RingBufferQueueTest {
+
+    @Test
+    void testCapacity_roundedUpToPowerOfTwo() {
+        assertThat(new RingBufferQueue<>(1000, RingBufferWaitStrategy.BLOCKING).capacity()).isEqualTo(1024);
+        assertThat(new RingBufferQueue<>(1024, RingBufferWaitStrategy.BLOCKING).capacity()).isEqualTo(1024);
+        assertThatThrownBy(() -> new RingBufferQueue<>(0, RingBufferWaitStrategy.BLOCKING))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testOfferAndPoll_fifoAndRejectWhenFull() {
+        RingBufferQueue<Integer> queue = new RingBufferQueue<>(4, RingBufferWaitStrategy.BLOCKING);
+        for (int i = 0; i < 4; i++) {
+            assertThat(queue.offer(i)).isTrue();
+        }
+        assertThat(queue.offer(4)).isFalse();
+        assertThat(queue.size()).isEqualTo(4);
+        assertThat(queue.peek()).isEqualTo(0);
+
+        assertThat(queue.poll()).isEqualTo(0);
+        assertThat(queue.offer(4)).isTrue();
+        assertThat(queue).containsExactly(1, 2, 3, 4);
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(queue.drainTo(drained)).isEqualTo(4);
+        assertThat(drained).containsExactly(1, 2, 3, 4);
+        assertThat(queue.poll()).isNull();
+        assertThat(queue.isEmpty()).isTrue();
+    }
+
+    @Test
+    void testSlotsReusedAcrossLaps() {
+        RingBufferQueue<Integer> queue = new RingBufferQueue<>(8, RingBufferWaitStrategy.BLOCKING);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(queue.offer(i)).isTrue();
+            assertThat(queue.poll()).isEqualTo(i);
+        }
+        assertThat(queue.remainingCapacity()).isEqualTo(8);
+    }
+
+    @ParameterizedTest
+    @EnumSource(RingBufferWaitStrategy.class)
+    void testPollWithTimeout_returnsNullWhenEmpty(RingBufferWaitStrategy waitStrategy) throws InterruptedException {
+        RingBufferQueue<Integer> queue = new RingBufferQueue<>(8, waitStrategy);
+        long start = System.nanoTime();
+        assertThat(queue.poll(50, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @ParameterizedTest
+    @EnumSource(RingBufferWaitStrategy.class)
+    void testSingleProducerManyConsumers_everyElementTakenExactlyOnce(RingBufferWaitStrategy waitStrategy) throws Exception {
+        RingBufferQueue<Integer> queue = new RingBufferQueue<>(64, waitStrategy);
+        int elements = 20_000;
+        int consumers = 4;
+        Set<Integer> taken = ConcurrentHashMap.newKeySet();
+        AtomicBoolean duplicate = new AtomicBoolean();
+        CountDownLatch done = new CountDownLatch(elements);
+        List<Thread> threads = new ArrayList<>();
+        for (int c = 0; c < consumers; c++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    while (done.getCount() > 0) {
+                        Integer element = queue.poll(10, TimeUnit.MILLISECONDS);
+                        if (element != null) {
+                            if (!taken.add(element)) {
+                                duplicate.set(true);
+                            }
+                            done.countDown();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (int i = 0; i < elements; i++) {
+            while (!queue.offer(i)) {
+                Thread.onSpinWait();
+            }
+        }
+
+        assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+        assertThat(duplicate).isFalse();
+        assertThat(taken).hasSize(elements);
+        assertThat(queue.isEmpty()).isTrue();
+    }
+
+    @Test
+    void testBlockingWaitStrategy_consumerWokenByOffer() throws Exception {
+        RingBufferQueue<Integer> queue = new RingBufferQueue<>(8, RingBufferWaitStrategy.BLOCKING);
+        CountDownLatch received = new CountDownLatch(1);
+        Thread consumer = new Thread(() -> {
+            try {
+                if (queue.poll(10, TimeUnit.SECONDS) != null) {
+                    received.countDown();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        consumer.start();
+        Thread.sleep(100); // let the consumer park
+        queue.offer(1);
+
+        assertThat(received.await(2, TimeUnit.SECONDS)).isTrue();
+        consumer.join(1000);
+    }
+}
@@ -0,0 +1,109 @@
+package com.solace.spring.cloud.stream.binder.inbound.queue;
+
+import com.solacesystems.jcsmp.BytesXMLMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class StuckMessageWheelTest {
+    private static final long TICK = 1000;
+
+    private final List<FlowXMLMessageListener.MessageInProgress> expired = new ArrayList<>();
+
+    @Test
+    void testInvalidArguments() {
+        assertThatThrownBy(() -> new StuckMessageWheel(0, 8, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new StuckMessageWheel(TICK, 6, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testExpire_onlyAfterDeadline() {
+        StuckMessageWheel wheel = new StuckMessageWheel(TICK, 8, 0);
+        FlowXMLMessageListener.MessageInProgress mip = newMessage();
+        wheel.schedule(mip, 2500);
+
+        wheel.expire(1000, expired::add);
+        wheel.expire(2000, expired::add);
+        assertThat(expired).isEmpty();
+        assertThat(mip.getDeadlineNanos()).isEqualTo(2500);
+
+        wheel.expire(2400, expired::add);
+        assertThat(expired).as("same tick, deadline not reached yet").isEmpty();
+
+        wheel.expire(2600, expired::add);
+        assertThat(expired).containsExactly(mip);
+
+        wheel.expire(10_000, expired::add);
+        assertThat(expired).as("expired only once").containsExactly(mip);
+    }
+
+    @Test
+    void testCancel_beforeDeadline() {
+        StuckMessageWheel wheel = new StuckMessageWheel(TICK, 8, 0);
+        FlowXMLMessageListener.MessageInProgress first = newMessage();
+        FlowXMLMessageListener.MessageInProgress second = newMessage();
+        FlowXMLMessageListener.MessageInProgress third = newMessage();
+        wheel.schedule(first, 1500);
+        wheel.schedule(second, 1600);
+        wheel.schedule(third, 1700);
+
+        wheel.cancel(second);
+        assertThat(second.wheelBucket).isNull();
+
+        wheel.expire(2000, expired::add);
+        assertThat(expired).containsExactlyInAnyOrder(first, third);
+    }
+
+    @Test
+    void testCancel_afterExpireIsNoOp() {
+        StuckMessageWheel wheel = new StuckMessageWheel(TICK, 8, 0);
+        FlowXMLMessageListener.MessageInProgress mip = newMessage();
+        wheel.schedule(mip, 500);
+        wheel.expire(1000, expired::add);
+        assertThat(expired).containsExactly(mip);
+
+        wheel.cancel(mip);
+        wheel.schedule(mip, 3000);
+        wheel.expire(3000, expired::add);
+        assertThat(expired).as("can be scheduled again").containsExactly(mip, mip);
+    }
+
+    @Test
+    void testDeadlineBeyondOneRevolution() {
+        StuckMessageWheel wheel = new StuckMessageWheel(TICK, 8, 0);
+        FlowXMLMessageListener.MessageInProgress mip = newMessage();
+        wheel.schedule(mip, 20_000); // 2.5 revolutions ahead
+
+        for (long now = 1000; now < 20_000; now += 1000) {
+            wheel.expire(now, expired::add);
+        }
+        assertThat(expired).isEmpty();
+
+        wheel.expire(20_000, expired::add);
+        assertThat(expired).containsExactly(mip);
+    }
+
+    @Test
+    void testWatchdogLate_visitsEveryBucketOnce() {
+        StuckMessageWheel wheel = new StuckMessageWheel(TICK, 8, 0);
+        List<FlowXMLMessageListener.MessageInProgress> scheduled = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            FlowXMLMessageListener.MessageInProgress mip = newMessage();
+            wheel.schedule(mip, i * TICK + 100);
+            scheduled.add(mip);
+        }
+
+        // the watchdog was not called for more than a revolution
+        wheel.expire(50_000, expired::add);
+        assertThat(expired).containsExactlyInAnyOrderElementsOf(scheduled);
+    }
+
+    private static FlowXMLMessageListener.MessageInProgress newMessage() {
+        return new FlowXMLMessageListener.MessageInProgress(0, mock(BytesXMLMessage.class));
+    }
+}
@@ -1,5 +1,6 @@
 package com.solace.spring.cloud.stream.binder.meter;
 
+import com.solace.spring.cloud.stream.binder.util.MeteredLruCache;
 import com.solacesystems.jcsmp.BytesMessage;
 import com.solacesystems.jcsmp.JCSMPFactory;
 import com.solacesystems.jcsmp.XMLMessage;
@@ -11,6 +12,7 @@ import io.micrometer.core.instrument.binder.BaseUnits;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.assertj.core.api.ThrowingConsumer;
+import org.junit.jupiter.api.Test;
 import org.junitpioneer.jupiter.cartesian.CartesianTest;
 import org.junitpioneer.jupiter.cartesian.CartesianTest.Values;
 import org.mockito.Mockito;
@@ -22,6 +24,7 @@ import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.assertj.core.api.InstanceOfAssertFactories.DOUBLE;
 
 @SpringJUnitConfig(SolaceMessageMeterBinderTest.Config.class)
@@ -67,6 +70,129 @@ public class SolaceMessageMeterBinderTest {
                         message.getContentLength() + message.getAttachmentContentLength()));
     }
 
+    @Test
+    public void testFlowBackpressureMeter(@Autowired SolaceMessageMeterBinder solaceMessageMeterBinder,
+                                          @Autowired MeterRegistry meterRegistry) {
+        String bindingName = RandomStringUtils.randomAlphanumeric(100);
+        solaceMessageMeterBinder.recordFlowBackpressure(bindingName, true);
+        solaceMessageMeterBinder.recordFlowBackpressure(bindingName, false);
+        solaceMessageMeterBinder.recordFlowBackpressure(bindingName, true);
+
+        assertThat(meterRegistry.find(SolaceMessageMeterBinder.METER_NAME_FLOW_BACKPRESSURE)
+                .tag(SolaceMessageMeterBinder.TAG_NAME, bindingName)
+                .tag(SolaceMessageMeterBinder.TAG_STATE, SolaceMessageMeterBinder.STATE_STOPPED)
+                .counter())
+                .isNotNull()
+                .extracting(c -> c.count())
+                .isEqualTo(2.0);
+        assertThat(meterRegistry.find(SolaceMessageMeterBinder.METER_NAME_FLOW_BACKPRESSURE)
+                .tag(SolaceMessageMeterBinder.TAG_NAME, bindingName)
+                .tag(SolaceMessageMeterBinder.TAG_STATE, SolaceMessageMeterBinder.STATE_STARTED)
+                .counter())
+                .isNotNull()
+                .extracting(c -> c.count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    public void testQueueBytesMeter(@Autowired SolaceMessageMeterBinder solaceMessageMeterBinder,
+                                    @Autowired MeterRegistry meterRegistry) {
+        String bindingName = RandomStringUtils.randomAlphanumeric(100);
+        solaceMessageMeterBinder.recordQueueBytes(bindingName, 4096);
+
+        assertThat(meterRegistry.find(SolaceMessageMeterBinder.METER_NAME_QUEUE_BYTES)
+                .tag(SolaceMessageMeterBinder.TAG_NAME, bindingName)
+                .meters())
+                .hasSize(1)
+                .first()
+                .satisfies(isValidMessageSizeMeter(bindingName, 4096));
+    }
+
+    @Test
+    public void testWorkerThreadsMeter(@Autowired SolaceMessageMeterBinder solaceMessageMeterBinder,
+                                       @Autowired MeterRegistry meterRegistry) {
+        String bindingName = RandomStringUtils.randomAlphanumeric(100);
+        solaceMessageMeterBinder.recordWorkerThreads(bindingName, 4);
+        solaceMessageMeterBinder.recordWorkerThreads(bindingName, 6);
+
+        assertThat(meterRegistry.find(SolaceMessageMeterBinder.METER_NAME_WORKER_THREADS)
+                .tag(SolaceMessageMeterBinder.TAG_NAME, bindingName)
+                .summary())
+                .isNotNull()
+                .satisfies(summary -> {
+                    assertThat(summary.count()).isEqualTo(2);
+                    assertThat(summary.max()).isEqualTo(6.0);
+                });
+    }
+
+    @Test
+    public void testSettleMeters(@Autowired SolaceMessageMeterBinder solaceMessageMeterBinder,
+                                 @Autowired MeterRegistry meterRegistry) {
+        String bindingName = RandomStringUtils.randomAlphanumeric(100);
+        solaceMessageMeterBinder.recordSettleLatency(bindingName, 3);
+        solaceMessageMeterBinder.recordSettleQueueSize(bindingName, 40);
+        solaceMessageMeterBinder.recordSettleQueueSize(bindingName, 10);
+
+        assertThat(meterRegistry.find(SolaceMessageMeterBinder.METER_NAME_SETTLE_LATENCY)
+                .tag(SolaceMessageMeterBinder.TAG_NAME, bindingName)
+                .summary())
+                .isNotNull()
+                .satisfies(summary -> assertThat(summary.max()).isEqualTo(3.0));
+        assertThat(meterRegistry.find(SolaceMessageMeterBinder.METER_NAME_SETTLE_QUEUE_SIZE)
+                .tag(SolaceMessageMeterBinder.TAG_NAME, bindingName)
+                .summary())
+                .isNotNull()
+                .satisfies(summary -> {
+                    assertThat(summary.count()).isEqualTo(2);
+                    assertThat(summary.max()).isEqualTo(40.0);
+                });
+    }
+
+    @Test
+    public void testSendCircuitBreakerMeter(@Autowired SolaceMessageMeterBinder solaceMessageMeterBinder,
+                                            @Autowired MeterRegistry meterRegistry) {
+        String bindingName = RandomStringUtils.randomAlphanumeric(100);
+        solaceMessageMeterBinder.recordSendCircuitBreaker(bindingName, "open");
+        solaceMessageMeterBinder.recordSendCircuitBreaker(bindingName, "half_open");
+        solaceMessageMeterBinder.recordSendCircuitBreaker(bindingName, "open");
+
+        assertThat(meterRegistry.find(SolaceMessageMeterBinder.METER_NAME_SEND_CIRCUIT_BREAKER)
+                .tag(SolaceMessageMeterBinder.TAG_NAME, bindingName)
+                .tag(SolaceMessageMeterBinder.TAG_STATE, "open")
+                .counter())
+                .isNotNull()
+                .extracting(c -> c.count())
+                .isEqualTo(2.0);
+        assertThat(meterRegistry.find(SolaceMessageMeterBinder.METER_NAME_SEND_CIRCUIT_BREAKER)
+                .tag(SolaceMessageMeterBinder.TAG_NAME, bindingName)
+                .tag(SolaceMessageMeterBinder.TAG_STATE, "half_open")
+                .counter())
+                .isNotNull()
+                .extracting(c -> c.count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    public void testCacheMeter(@Autowired SolaceMessageMeterBinder solaceMessageMeterBinder,
+                               @Autowired MeterRegistry meterRegistry) {
+        String bindingName = RandomStringUtils.randomAlphanumeric(100);
+        MeteredLruCache<String, String> cache = new MeteredLruCache<>(1, String::toUpperCase);
+        solaceMessageMeterBinder.registerCache(bindingName, "destination", cache);
+        cache.get("a");
+        cache.get("a");
+        cache.get("b");
+
+        assertThat(meterRegistry.find(SolaceMessageMeterBinder.METER_NAME_CACHE)
+                .tag(SolaceMessageMeterBinder.TAG_NAME, bindingName)
+                .tag(SolaceMessageMeterBinder.TAG_CACHE, "destination")
+                .functionCounters())
+                .extracting(c -> c.getId().getTag(SolaceMessageMeterBinder.TAG_RESULT), c -> c.count())
+                .containsExactlyInAnyOrder(
+                        tuple(SolaceMessageMeterBinder.RESULT_HIT, 1.0),
+                        tuple(SolaceMessageMeterBinder.RESULT_MISS, 2.0),
+                        tuple(SolaceMessageMeterBinder.RESULT_EVICTION, 1.0));
+    }
+
     private BytesMessage createTestMessage(boolean writeAttachment, boolean writeXmlContent, boolean writeMetadata) {
         BytesMessage message = Mockito.spy(JCSMPFactory.onlyInstance().createMessage(BytesMessage.class));
         int expectedAttachmentLength = 0;
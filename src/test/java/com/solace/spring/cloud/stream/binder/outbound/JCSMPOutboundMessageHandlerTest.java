@@ -1,5 +1,10 @@
 package com.solace.spring.cloud.stream.binder.outbound;
 
+import com.solace.spring.cloud.stream.binder.health.SolaceBinderHealthAccessor;
+import com.solace.spring.cloud.stream.binder.health.base.SolaceHealthIndicator;
+import com.solace.spring.cloud.stream.binder.health.contributors.BindingsHealthContributor;
+import com.solace.spring.cloud.stream.binder.health.contributors.SolaceBinderHealthContributor;
+import com.solace.spring.cloud.stream.binder.health.indicators.SessionHealthIndicator;
 import com.solace.spring.cloud.stream.binder.messaging.SolaceBinderHeaders;
 import com.solace.spring.cloud.stream.binder.messaging.SolaceHeaders;
 import com.solace.spring.cloud.stream.binder.meter.SolaceMeterAccessor;
@@ -14,6 +19,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.junitpioneer.jupiter.cartesian.CartesianTest;
@@ -22,6 +28,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.health.contributor.Status;
 import org.springframework.cloud.stream.binder.BinderHeaders;
 import org.springframework.cloud.stream.binder.ExtendedProducerProperties;
 import org.springframework.cloud.stream.provisioning.ProducerDestination;
@@ -31,14 +38,22 @@ import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.support.MessageBuilder;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -58,6 +73,10 @@ public class JCSMPOutboundMessageHandlerTest {
     private ArgumentCaptor<ProducerFlowProperties> producerFlowPropertiesCaptor;
     private ExtendedProducerProperties<SolaceProducerProperties> producerProperties;
     private JCSMPSessionProducerManager sessionProducerManager;
+    private final SolaceBinderHealthContributor healthContributor = new SolaceBinderHealthContributor(
+            new SessionHealthIndicator(),
+            new BindingsHealthContributor(),
+            new SolaceHealthIndicator());
     @Mock
     private JCSMPSession session;
     @Mock
@@ -97,7 +116,8 @@ public class JCSMPOutboundMessageHandlerTest {
                 sessionProducerManager,
                 producerProperties,
                 Optional.of(solaceMeterAccessor),
-                Optional.of(tracingProxy)
+                Optional.of(tracingProxy),
+                Optional.of(new SolaceBinderHealthAccessor(healthContributor))
         );
         messageHandler.setErrorMessageStrategy(errorMessageStrategy);
     }
@@ -339,6 +359,386 @@ public class JCSMPOutboundMessageHandlerTest {
                 .send(any(XMLMessage.class), any(Destination.class));
     }
 
+    @Test
+    public void test_send_circuitBreakerOpen_failsFast() throws Exception {
+        producerProperties.getExtension().setSendRetryTimeoutMs(0);
+        producerProperties.getExtension().setSendCircuitBreakerFailureThreshold(2);
+        producerProperties.getExtension().setSendCircuitBreakerOpenMs(60000);
+        messageHandler.start();
+        SolaceHealthIndicator bindingHealthIndicator = healthContributor.getSolaceBindingsHealthContributor()
+                .getContributor(producerProperties.getBindingName());
+        assertThat(bindingHealthIndicator.health().getStatus()).isEqualTo(Status.UP);
+
+        JCSMPException exception = new JCSMPException("boom");
+        Mockito.doThrow(exception)
+                .when(messageProducer)
+                .send(any(XMLMessage.class), any(Destination.class));
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> messageHandler.handleMessage(MessageBuilder.withPayload("payload").build()))
+                    .isInstanceOf(MessagingException.class)
+                    .hasCause(exception);
+        }
+
+        assertThatThrownBy(() -> messageHandler.handleMessage(MessageBuilder.withPayload("payload").build()))
+                .isInstanceOf(MessagingException.class)
+                .hasCauseInstanceOf(SendCircuitOpenException.class);
+        assertThat(messageHandler.publishAsync(MessageBuilder.withPayload("payload").build()))
+                .failsWithin(100, TimeUnit.MILLISECONDS)
+                .withThrowableOfType(ExecutionException.class)
+                .havingCause()
+                .withCauseInstanceOf(SendCircuitOpenException.class);
+        Mockito.verify(messageProducer, Mockito.times(2))
+                .send(any(XMLMessage.class), any(Destination.class));
+        assertThat(bindingHealthIndicator.health().getStatus()).isEqualTo(Status.DOWN);
+        assertThat(bindingHealthIndicator.health().getDetails()).containsEntry("sendCircuitBreaker", "OPEN");
+        Mockito.verify(solaceMeterAccessor).recordSendCircuitBreaker(producerProperties.getBindingName(), "open");
+
+        messageHandler.stop();
+        assertThat(healthContributor.getSolaceBindingsHealthContributor()
+                .getContributor(producerProperties.getBindingName())).isNull();
+    }
+
+    @Test
+    public void test_publishBatch_sendsWithSendMultiple() throws Exception {
+        producerProperties.getExtension().setPublishBatchMaxSize(10);
+        producerProperties.getExtension().setPublishBatchTimeoutMicros(1000);
+        messageHandler.start();
+
+        List<XMLMessage> sentMessages = new CopyOnWriteArrayList<>();
+        Mockito.when(messageProducer.sendMultiple(any(), Mockito.anyInt(), Mockito.anyInt(), Mockito.anyInt()))
+                .thenAnswer(invocation -> {
+                    JCSMPSendMultipleEntry[] entries = invocation.getArgument(0);
+                    int offset = invocation.getArgument(1);
+                    int length = invocation.getArgument(2);
+                    for (int i = offset; i < offset + length; i++) {
+                        sentMessages.add(entries[i].getMessage());
+                    }
+                    return length;
+                });
+
+        for (int i = 0; i < 3; i++) {
+            messageHandler.handleMessage(MessageBuilder.withPayload("payload-" + i).build());
+        }
+
+        Mockito.verify(solaceMeterAccessor, Mockito.timeout(5000).times(3))
+                .recordMessage(Mockito.eq(producerProperties.getBindingName()), any());
+        assertThat(sentMessages)
+                .extracting(m -> ((TextMessage) m).getText())
+                .containsExactly("payload-0", "payload-1", "payload-2");
+        Mockito.verify(messageProducer, Mockito.never()).send(any(XMLMessage.class), any(Destination.class));
+    }
+
+    @Test
+    public void test_publishBatch_failureCompletesCorrelationData() throws Exception {
+        producerProperties.getExtension().setPublishBatchMaxSize(10);
+        producerProperties.getExtension().setSendRetryTimeoutMs(0);
+        messageHandler.start();
+
+        JCSMPException exception = new JCSMPException("boom");
+        Mockito.when(messageProducer.sendMultiple(any(), Mockito.anyInt(), Mockito.anyInt(), Mockito.anyInt()))
+                .thenThrow(exception);
+
+        CorrelationData correlationData = new CorrelationData();
+        assertDoesNotThrow(() -> messageHandler.handleMessage(MessageBuilder.withPayload("payload")
+                .setHeader(SolaceBinderHeaders.CONFIRM_CORRELATION, correlationData)
+                .build()));
+
+        assertThatThrownBy(() -> correlationData.getFuture().get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasRootCause(exception);
+    }
+
+    @Test
+    public void test_publishBatch_stopSendsWaitingMessages() throws Exception {
+        producerProperties.getExtension().setPublishBatchMaxSize(10);
+        producerProperties.getExtension().setPublishBatchTimeoutMicros(TimeUnit.SECONDS.toMicros(30));
+        messageHandler.start();
+
+        AtomicInteger sent = new AtomicInteger();
+        Mockito.when(messageProducer.sendMultiple(any(), Mockito.anyInt(), Mockito.anyInt(), Mockito.anyInt()))
+                .thenAnswer(invocation -> {
+                    int length = invocation.getArgument(2);
+                    sent.addAndGet(length);
+                    return length;
+                });
+
+        messageHandler.handleMessage(MessageBuilder.withPayload("payload").build());
+        messageHandler.stop();
+
+        assertThat(sent).hasValue(1);
+        assertThatThrownBy(() -> messageHandler.handleMessage(MessageBuilder.withPayload("payload").build()))
+                .isInstanceOf(MessagingException.class);
+    }
+
+    @Test
+    public void test_publishAsync_completesOnAcknowledgment() throws Exception {
+        messageHandler.start();
+
+        Message<String> message = MessageBuilder.withPayload("payload").build();
+        CompletableFuture<PublishReceipt> receipt = messageHandler.publishAsync(message);
+        assertThat(receipt).isNotDone();
+
+        getCorrelationKeys().forEach(pubEventHandlerCaptor.getValue()::responseReceivedEx);
+        assertThat(receipt).succeedsWithin(100, TimeUnit.MILLISECONDS)
+                .isEqualTo(new PublishReceipt(message.getHeaders().getId(), "fake/topic", 1));
+    }
+
+    @Test
+    public void test_publishAsync_failsOnError() throws Exception {
+        messageHandler.start();
+
+        CorrelationData correlationData = new CorrelationData();
+        CompletableFuture<PublishReceipt> receipt = messageHandler.publishAsync(MessageBuilder.withPayload("payload")
+                .setHeader(SolaceBinderHeaders.CONFIRM_CORRELATION, correlationData)
+                .build());
+
+        JCSMPException exception = new JCSMPException("ooooops");
+        getCorrelationKeys().forEach(k -> pubEventHandlerCaptor.getValue().handleErrorEx(k, exception, 1111));
+        assertThat(receipt)
+                .failsWithin(100, TimeUnit.MILLISECONDS)
+                .withThrowableOfType(ExecutionException.class)
+                .havingCause()
+                .isInstanceOf(MessagingException.class)
+                .withCause(exception);
+        assertThat(correlationData.getFuture()).isCompletedExceptionally();
+    }
+
+    @Test
+    public void test_publishAsync_windowFull() throws Exception {
+        producerProperties.getExtension().setPublishAsyncWindowSize(1);
+        messageHandler.start();
+
+        CompletableFuture<PublishReceipt> first = messageHandler.publishAsync(MessageBuilder.withPayload("a").build());
+        CompletableFuture<PublishReceipt> rejected = messageHandler.publishAsync(MessageBuilder.withPayload("b").build());
+        assertThat(rejected).isCompletedExceptionally();
+        Mockito.verify(messageProducer, Mockito.times(1)).send(any(XMLMessage.class), any(Destination.class));
+
+        getCorrelationKeys().forEach(pubEventHandlerCaptor.getValue()::responseReceivedEx);
+        assertThat(first).isCompleted();
+        assertThat(messageHandler.publishAsync(MessageBuilder.withPayload("c").build())).isNotDone();
+        Mockito.verify(messageProducer, Mockito.times(2)).send(any(XMLMessage.class), any(Destination.class));
+    }
+
+    @Test
+    public void test_publishAsync_retriedOnScheduler() throws Exception {
+        producerProperties.getExtension().setSendRetryTimeoutMs(30000);
+        messageHandler.start();
+
+        CountDownLatch retried = new CountDownLatch(1);
+        Mockito.doThrow(new JCSMPException("transient"))
+                .doAnswer(invocation -> {
+                    retried.countDown();
+                    return null;
+                })
+                .when(messageProducer)
+                .send(any(XMLMessage.class), any(Destination.class));
+
+        CompletableFuture<PublishReceipt> receipt = messageHandler.publishAsync(MessageBuilder.withPayload("payload")
+                .build());
+        assertThat(receipt).isNotDone();
+        assertThat(retried.await(5, TimeUnit.SECONDS)).isTrue();
+
+        getCorrelationKeys().forEach(pubEventHandlerCaptor.getValue()::responseReceivedEx);
+        assertThat(receipt).succeedsWithin(100, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void test_publishAsync_retryDisabled_fails() throws Exception {
+        producerProperties.getExtension().setSendRetryTimeoutMs(0);
+        messageHandler.start();
+
+        JCSMPException exception = new JCSMPException("boom");
+        Mockito.doThrow(exception).when(messageProducer).send(any(XMLMessage.class), any(Destination.class));
+
+        assertThat(messageHandler.publishAsync(MessageBuilder.withPayload("payload").build()))
+                .failsWithin(100, TimeUnit.MILLISECONDS)
+                .withThrowableOfType(ExecutionException.class)
+                .havingCause()
+                .isInstanceOf(MessagingException.class)
+                .withCause(exception);
+    }
+
+    @Test
+    public void test_publishAsync_notRunning() {
+        assertThat(messageHandler.publishAsync(MessageBuilder.withPayload("payload").build()))
+                .failsWithin(100, TimeUnit.MILLISECONDS)
+                .withThrowableOfType(ExecutionException.class)
+                .havingCause()
+                .isInstanceOf(MessagingException.class)
+                .withCauseInstanceOf(ClosedChannelBindingException.class);
+    }
+
+    @Test
+    public void test_producerFlowCount_roundRobin(@Mock XMLMessageProducer otherProducer) throws Exception {
+        producerProperties.getExtension().setProducerFlowCount(2);
+        Mockito.when(session.createProducer(any(), any())).thenReturn(messageProducer, otherProducer);
+        messageHandler.start();
+
+        for (int i = 0; i < 4; i++) {
+            messageHandler.handleMessage(MessageBuilder.withPayload("payload-" + i).build());
+        }
+
+        Mockito.verify(messageProducer, Mockito.times(2)).send(any(XMLMessage.class), any(Destination.class));
+        Mockito.verify(otherProducer, Mockito.times(2)).send(any(XMLMessage.class), any(Destination.class));
+
+        messageHandler.stop();
+        Mockito.verify(messageProducer).close();
+        Mockito.verify(otherProducer).close();
+    }
+
+    @Test
+    public void test_producerFlowCount_partitionKeyKeepsFlow(@Mock XMLMessageProducer otherProducer) throws Exception {
+        producerProperties.getExtension().setProducerFlowCount(2);
+        Mockito.when(session.createProducer(any(), any())).thenReturn(messageProducer, otherProducer);
+        messageHandler.start();
+
+        for (int i = 0; i < 4; i++) {
+            messageHandler.handleMessage(MessageBuilder.withPayload("payload-" + i)
+                    .setHeader(SolaceBinderHeaders.PARTITION_KEY, "key")
+                    .build());
+        }
+
+        // "key".hashCode() is odd
+        Mockito.verify(otherProducer, Mockito.times(4)).send(any(XMLMessage.class), any(Destination.class));
+        Mockito.verify(messageProducer, Mockito.never()).send(any(XMLMessage.class), any(Destination.class));
+    }
+
+    @Test
+    public void test_producerFlowCount_acknowledgedByEitherFlow(@Mock XMLMessageProducer otherProducer) throws Exception {
+        producerProperties.getExtension().setProducerFlowCount(2);
+        Mockito.when(session.createProducer(any(), pubEventHandlerCaptor.capture()))
+                .thenReturn(messageProducer, otherProducer);
+        messageHandler.start();
+
+        assertThat(pubEventHandlerCaptor.getAllValues()).hasSize(2).containsOnly(pubEventHandlerCaptor.getValue());
+
+        List<CorrelationData> correlations = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            CorrelationData correlationData = new CorrelationData();
+            correlations.add(correlationData);
+            messageHandler.handleMessage(MessageBuilder.withPayload("payload-" + i)
+                    .setHeader(SolaceBinderHeaders.CONFIRM_CORRELATION, correlationData)
+                    .build());
+        }
+
+        ArgumentCaptor<XMLMessage> otherMessageCaptor = ArgumentCaptor.forClass(XMLMessage.class);
+        Mockito.verify(messageProducer).send(xmlMessageCaptor.capture(), any(Destination.class));
+        Mockito.verify(otherProducer).send(otherMessageCaptor.capture(), any(Destination.class));
+        pubEventHandlerCaptor.getValue().responseReceivedEx(otherMessageCaptor.getValue().getCorrelationKey());
+        pubEventHandlerCaptor.getValue().responseReceivedEx(xmlMessageCaptor.getValue().getCorrelationKey());
+
+        for (CorrelationData correlationData : correlations) {
+            assertDoesNotThrow(() -> correlationData.getFuture().get(100, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    public void test_producerFlowCount_invalid() {
+        producerProperties.getExtension().setProducerFlowCount(0);
+        assertThatThrownBy(() -> messageHandler.start()).isInstanceOf(IllegalArgumentException.class);
+        assertThat(messageHandler.isRunning()).isFalse();
+    }
+
+    @Test
+    public void test_outbox_returnsOnceJournaled(@TempDir Path outboxDirectory) throws Exception {
+        producerProperties.getExtension().setOutboxDirectory(outboxDirectory.toString());
+        producerProperties.getExtension().setSendRetryTimeoutMs(0);
+        producerProperties.getExtension().setSendRetryInitialBackoffMs(1);
+        Mockito.doThrow(new JCSMPException("broker unreachable"))
+                .doNothing()
+                .when(messageProducer).send(any(XMLMessage.class), any(Destination.class));
+        messageHandler.start();
+
+        CorrelationData correlationData = new CorrelationData();
+        messageHandler.handleMessage(MessageBuilder.withPayload("payload")
+                .setHeader(SolaceBinderHeaders.CONFIRM_CORRELATION, correlationData)
+                .build());
+
+        Mockito.verify(messageProducer, Mockito.timeout(5000).times(2))
+                .send(xmlMessageCaptor.capture(), any(Destination.class));
+        assertThat(correlationData.getFuture()).isNotDone();
+        pubEventHandlerCaptor.getValue().responseReceivedEx(xmlMessageCaptor.getValue().getCorrelationKey());
+        assertThat(correlationData.getFuture()).succeedsWithin(1, TimeUnit.SECONDS);
+        assertThat(xmlMessageCaptor.getValue()).isInstanceOf(TextMessage.class)
+                .extracting(m -> ((TextMessage) m).getText())
+                .isEqualTo("payload");
+
+        // acknowledged messages are not forwarded again
+        messageHandler.stop();
+        messageHandler.start();
+        Mockito.verify(messageProducer, Mockito.after(200).times(2)).send(any(XMLMessage.class), any(Destination.class));
+        messageHandler.stop();
+    }
+
+    @Test
+    public void test_outbox_forwardsUnacknowledgedAfterRestart(@TempDir Path outboxDirectory) throws Exception {
+        producerProperties.getExtension().setOutboxDirectory(outboxDirectory.toString());
+        messageHandler.start();
+        messageHandler.handleMessage(MessageBuilder.withPayload("payload").build());
+        Mockito.verify(messageProducer, Mockito.timeout(5000)).send(any(XMLMessage.class), any(Destination.class));
+        messageHandler.stop();
+
+        messageHandler.start();
+        Mockito.verify(messageProducer, Mockito.timeout(5000).times(2))
+                .send(xmlMessageCaptor.capture(), any(Destination.class));
+        assertThat(xmlMessageCaptor.getAllValues())
+                .extracting(m -> ((TextMessage) m).getText())
+                .containsExactly("payload", "payload");
+        messageHandler.stop();
+    }
+
+    @Test
+    public void test_outbox_directDeliveryMode() {
+        producerProperties.getExtension().setOutboxDirectory("outbox");
+        producerProperties.getExtension().setDeliveryMode(DeliveryMode.DIRECT);
+        assertThatThrownBy(() -> messageHandler.start()).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void test_largeMessage_streamedPayload() throws Exception {
+        producerProperties.getExtension().setLargeMessageChunkSize(4);
+        messageHandler.start();
+
+        byte[] payload = RandomStringUtils.randomAlphanumeric(10).getBytes();
+        AtomicBoolean closed = new AtomicBoolean();
+        messageHandler.handleMessage(MessageBuilder.withPayload(new FilterInputStream(new ByteArrayInputStream(payload)) {
+                    @Override
+                    public void close() {
+                        closed.set(true);
+                    }
+                })
+                .setHeader(SolaceBinderHeaders.LARGE_MESSAGE_SUPPORT, true)
+                .setHeader(SolaceBinderHeaders.LARGE_MESSAGE_LENGTH, (long) payload.length)
+                .build());
+
+        Mockito.verify(messageProducer, Mockito.times(3)).send(xmlMessageCaptor.capture(), any(Destination.class));
+        ByteArrayOutputStream published = new ByteArrayOutputStream();
+        for (XMLMessage chunk : xmlMessageCaptor.getAllValues()) {
+            assertThat(chunk.getProperties().getInteger(SolaceBinderHeaders.CHUNK_COUNT)).isEqualTo(3);
+            published.write(((BytesMessage) chunk).getData());
+        }
+        assertThat(published.toByteArray()).isEqualTo(payload);
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    public void test_largeMessage_streamedPayload_missingLength() throws Exception {
+        messageHandler.start();
+        Message<ByteArrayInputStream> message = MessageBuilder.withPayload(new ByteArrayInputStream(new byte[10]))
+                .setHeader(SolaceBinderHeaders.LARGE_MESSAGE_SUPPORT, true)
+                .build();
+        assertThatThrownBy(() -> messageHandler.handleMessage(message))
+                .isInstanceOf(MessagingException.class)
+                .hasRootCauseInstanceOf(IllegalArgumentException.class);
+        Mockito.verify(messageProducer, Mockito.never()).send(any(XMLMessage.class), any(Destination.class));
+    }
+
+    @Test
+    public void test_largeMessageChunkSize_invalid() {
+        producerProperties.getExtension().setLargeMessageChunkSize(0);
+        assertThatThrownBy(() -> messageHandler.start()).isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     public void test_dynamic_destinationName_only() throws JCSMPException {
         messageHandler.start();
@@ -423,7 +823,8 @@ public class JCSMPOutboundMessageHandlerTest {
                 new JCSMPSessionProducerManager(session),
                 new ExtendedProducerProperties<>(producerProperties),
                 Optional.of(solaceMeterAccessor),
-                Optional.of(tracingProxy)
+                Optional.of(tracingProxy),
+                Optional.empty()
         );
         messageHandler.start();
 
@@ -509,6 +910,64 @@ public class JCSMPOutboundMessageHandlerTest {
                         p -> assertThat(p.getAckEventMode()).isEqualTo(ackEventMode));
     }
 
+    @Test
+    public void test_dynamic_destination_cached() throws JCSMPException {
+        messageHandler.start();
+
+        for (int i = 0; i < 2; i++) {
+            messageHandler.handleMessage(MessageBuilder.withPayload("payload")
+                    .setHeader(BinderHeaders.TARGET_DESTINATION, "dynamic/topic")
+                    .build());
+        }
+        messageHandler.handleMessage(MessageBuilder.withPayload("payload")
+                .setHeader(BinderHeaders.TARGET_DESTINATION, "dynamic/topic")
+                .setHeader(SolaceBinderHeaders.TARGET_DESTINATION_TYPE, "QUEUE")
+                .build());
+
+        Mockito.verify(messageProducer, Mockito.times(3)).send(any(XMLMessage.class), destinationCaptor.capture());
+        List<Destination> destinations = destinationCaptor.getAllValues();
+        assertThat(destinations.get(1)).isSameAs(destinations.get(0)).isInstanceOf(Topic.class);
+        assertThat(destinations.get(2)).isInstanceOf(Queue.class).extracting(Destination::getName).isEqualTo("dynamic/topic");
+    }
+
+    @Test
+    public void test_destinationExpression() throws JCSMPException {
+        producerProperties.getExtension().setDestinationExpression("headers['region'] + '/orders'");
+        messageHandler.start();
+
+        messageHandler.handleMessage(MessageBuilder.withPayload("payload").setHeader("region", "eu").build());
+        messageHandler.handleMessage(MessageBuilder.withPayload("payload")
+                .setHeader("region", "eu")
+                .setHeader(BinderHeaders.TARGET_DESTINATION, "override")
+                .build());
+
+        Mockito.verify(messageProducer, Mockito.times(2)).send(any(XMLMessage.class), destinationCaptor.capture());
+        assertThat(destinationCaptor.getAllValues())
+                .extracting(Destination::getName)
+                .containsExactly("eu/orders", "override");
+    }
+
+    @Test
+    public void test_destinationExpression_nullUsesBindingDestination() throws JCSMPException {
+        producerProperties.getExtension().setDestinationExpression("headers['region']");
+        messageHandler.start();
+
+        messageHandler.handleMessage(MessageBuilder.withPayload("payload").build());
+
+        Mockito.verify(messageProducer).send(any(XMLMessage.class), destinationCaptor.capture());
+        assertThat(destinationCaptor.getValue().getName()).isEqualTo("fake/topic");
+    }
+
+    @Test
+    public void test_destinationExpression_evaluationFails() {
+        producerProperties.getExtension().setDestinationExpression("payload.missing");
+        messageHandler.start();
+
+        assertThatThrownBy(() -> messageHandler.handleMessage(MessageBuilder.withPayload("payload").build()))
+                .isInstanceOf(MessagingException.class)
+                .hasMessageContaining("Unable to evaluate destinationExpression payload.missing");
+    }
+
     @Test
     public void testPubAckWindowSizeBindingPropertyOverridesSessionDefault() {
         Mockito.when(session.getProperty(JCSMPProperties.ACK_EVENT_MODE))
@@ -0,0 +1,186 @@
+package com.solace.spring.cloud.stream.binder.outbound;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Timeout(value = 10)
+class OutboxJournalTest {
+    private static final int SEGMENT_SIZE = 256;
+
+    @TempDir
+    Path directory;
+
+    private static byte[] data(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String take(OutboxJournal journal) throws InterruptedException {
+        OutboxJournal.Entry entry = journal.take(0, TimeUnit.MILLISECONDS);
+        return entry != null ? new String(entry.data(), StandardCharsets.UTF_8) : null;
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".journal")).count();
+        }
+    }
+
+    @Test
+    void testTakesInOrder() throws Exception {
+        try (OutboxJournal journal = new OutboxJournal(directory, SEGMENT_SIZE, 4, false)) {
+            assertThat(journal.append(data("a"))).isEqualTo(1);
+            assertThat(journal.append(data("b"))).isEqualTo(2);
+
+            assertThat(take(journal)).isEqualTo("a");
+            assertThat(take(journal)).isEqualTo("b");
+            assertThat(take(journal)).isNull();
+            assertThat(journal.getPendingCount()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void testTakeWaitsForAppend() throws Exception {
+        try (OutboxJournal journal = new OutboxJournal(directory, SEGMENT_SIZE, 4, false)) {
+            Thread appender = new Thread(() -> {
+                try {
+                    Thread.sleep(100);
+                    journal.append(data("late"));
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            appender.start();
+
+            OutboxJournal.Entry entry = journal.take(5, TimeUnit.SECONDS);
+            assertThat(entry).isNotNull();
+            assertThat(new String(entry.data(), StandardCharsets.UTF_8)).isEqualTo("late");
+        }
+    }
+
+    @Test
+    void testRollsSegmentsAndDeletesAcknowledged() throws Exception {
+        byte[] record = new byte[100];
+        try (OutboxJournal journal = new OutboxJournal(directory, SEGMENT_SIZE, 4, false)) {
+            for (int i = 0; i < 6; i++) {
+                journal.append(record);
+            }
+            assertThat(segmentFiles()).isEqualTo(3);
+
+            for (int i = 0; i < 6; i++) {
+                assertThat(journal.take(0, TimeUnit.MILLISECONDS)).isNotNull();
+            }
+            journal.acknowledge(2);
+            journal.acknowledge(1);
+            journal.acknowledge(4);
+            assertThat(segmentFiles()).isEqualTo(2);
+            assertThat(journal.getPendingCount()).isEqualTo(3);
+
+            journal.acknowledge(3);
+            journal.acknowledge(5);
+            journal.acknowledge(6);
+            assertThat(segmentFiles()).isEqualTo(1);
+            assertThat(journal.getPendingCount()).isZero();
+        }
+    }
+
+    @Test
+    void testFull() throws Exception {
+        try (OutboxJournal journal = new OutboxJournal(directory, SEGMENT_SIZE, 2, false)) {
+            for (int i = 0; i < 4; i++) {
+                journal.append(new byte[100]);
+            }
+            assertThatThrownBy(() -> journal.append(new byte[100]))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("is full");
+
+            journal.take(0, TimeUnit.MILLISECONDS);
+            journal.take(0, TimeUnit.MILLISECONDS);
+            journal.take(0, TimeUnit.MILLISECONDS);
+            journal.acknowledge(1);
+            journal.acknowledge(2);
+            journal.append(new byte[100]);
+        }
+    }
+
+    @Test
+    void testRecordTooLarge() throws Exception {
+        try (OutboxJournal journal = new OutboxJournal(directory, SEGMENT_SIZE, 2, false)) {
+            assertThatThrownBy(() -> journal.append(new byte[SEGMENT_SIZE]))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void testRecoversUnacknowledged() throws Exception {
+        try (OutboxJournal journal = new OutboxJournal(directory, SEGMENT_SIZE, 4, false)) {
+            journal.append(data("a"));
+            journal.append(data("b"));
+            journal.append(data("c"));
+            take(journal);
+            take(journal);
+            journal.acknowledge(1);
+        }
+
+        try (OutboxJournal journal = new OutboxJournal(directory, SEGMENT_SIZE, 4, false)) {
+            assertThat(journal.getPendingCount()).isEqualTo(2);
+            assertThat(take(journal)).isEqualTo("b");
+            assertThat(take(journal)).isEqualTo("c");
+            assertThat(journal.append(data("d"))).isEqualTo(4);
+            assertThat(take(journal)).isEqualTo("d");
+        }
+    }
+
+    @Test
+    void testSkipsTornRecord() throws Exception {
+        try (OutboxJournal journal = new OutboxJournal(directory, SEGMENT_SIZE, 4, false)) {
+            journal.append(data("a"));
+            journal.append(data("b"));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(file -> file.getFileName().toString().endsWith(".journal")).findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            // corrupts the data of the second record
+            channel.write(ByteBuffer.wrap(data("x")), 2L * OutboxJournal.RECORD_HEADER_SIZE + 1);
+        }
+
+        try (OutboxJournal journal = new OutboxJournal(directory, SEGMENT_SIZE, 4, false)) {
+            assertThat(take(journal)).isEqualTo("a");
+            assertThat(take(journal)).isNull();
+            assertThat(journal.append(data("c"))).isEqualTo(2);
+            assertThat(take(journal)).isEqualTo("c");
+        }
+    }
+
+    @Test
+    void testDirectoryLocked() throws Exception {
+        try (OutboxJournal ignored = new OutboxJournal(directory, SEGMENT_SIZE, 4, false)) {
+            assertThatThrownBy(() -> new OutboxJournal(directory, SEGMENT_SIZE, 4, false))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+        new OutboxJournal(directory, SEGMENT_SIZE, 4, false).close();
+    }
+
+    @Test
+    void testClosed() throws Exception {
+        OutboxJournal journal = new OutboxJournal(directory, SEGMENT_SIZE, 4, false);
+        journal.close();
+        assertThatThrownBy(() -> journal.append(data("a"))).isInstanceOf(IllegalStateException.class);
+        assertThat(journal.take(1, TimeUnit.SECONDS)).isNull();
+    }
+}
@@ -0,0 +1,155 @@
+package com.solace.spring.cloud.stream.binder.outbound;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@Timeout(value = 10)
+class OutboxTest {
+    private static final int SEGMENT_SIZE = 4096;
+    private final BlockingQueue<Message<?>> forwarded = new LinkedBlockingQueue<>();
+    private final BlockingQueue<CompletableFuture<Void>> acknowledgments = new LinkedBlockingQueue<>();
+
+    @TempDir
+    Path directory;
+
+    private Outbox outbox() throws Exception {
+        return new Outbox("binding", new OutboxJournal(directory, SEGMENT_SIZE, 4, false), message -> {
+            CompletableFuture<Void> acknowledgment = new CompletableFuture<>();
+            forwarded.add(message);
+            acknowledgments.add(acknowledgment);
+            return acknowledgment;
+        });
+    }
+
+    private static void awaitPendingCount(Outbox outbox, long pendingCount) throws InterruptedException {
+        while (outbox.getPendingCount() != pendingCount) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void testForwardsInOrderWithHeaders() throws Exception {
+        Outbox outbox = outbox();
+        MessageChannel channel = mock(MessageChannel.class);
+        Message<String> first = MessageBuilder.withPayload("first")
+                .setHeader("custom", 42)
+                .setHeader("channel", channel)
+                .build();
+        Message<byte[]> second = MessageBuilder.withPayload(new byte[]{1, 2, 3}).build();
+        outbox.append(first);
+        outbox.append(second);
+        outbox.start();
+
+        Message<?> forwardedFirst = forwarded.poll(5, TimeUnit.SECONDS);
+        Message<?> forwardedSecond = forwarded.poll(5, TimeUnit.SECONDS);
+        assertThat(forwardedFirst).isNotNull();
+        assertThat(forwardedFirst.getPayload()).isEqualTo("first");
+        assertThat(forwardedFirst.getHeaders())
+                .containsEntry("custom", 42)
+                .containsEntry("channel", channel)
+                .containsEntry("id", first.getHeaders().getId())
+                .containsEntry("timestamp", first.getHeaders().getTimestamp());
+        assertThat(forwardedSecond).isNotNull();
+        assertThat(forwardedSecond.getPayload()).isEqualTo(new byte[]{1, 2, 3});
+
+        assertThat(outbox.getPendingCount()).isEqualTo(2);
+        acknowledgments.take().complete(null);
+        acknowledgments.take().completeExceptionally(new RuntimeException("rejected"));
+        awaitPendingCount(outbox, 0);
+        outbox.stop(5000);
+    }
+
+    @Test
+    void testForwardsUnacknowledgedAgainAfterRestart() throws Exception {
+        Outbox outbox = outbox();
+        outbox.append(MessageBuilder.withPayload("first").build());
+        outbox.append(MessageBuilder.withPayload("second").build());
+        outbox.start();
+        assertThat(forwarded.poll(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(forwarded.poll(5, TimeUnit.SECONDS)).isNotNull();
+        acknowledgments.take().complete(null);
+        awaitPendingCount(outbox, 1);
+        outbox.stop(5000);
+        forwarded.clear();
+
+        Outbox restarted = outbox();
+        restarted.start();
+        Message<?> message = forwarded.poll(5, TimeUnit.SECONDS);
+        assertThat(message).isNotNull();
+        assertThat(message.getPayload()).isEqualTo("second");
+        assertThat(forwarded.poll(100, TimeUnit.MILLISECONDS)).isNull();
+        restarted.stop(5000);
+    }
+
+    @Test
+    void testDropsMessageThatCannotBeForwarded() throws Exception {
+        Outbox outbox = new Outbox("binding", new OutboxJournal(directory, SEGMENT_SIZE, 4, false), message -> {
+            if ("bad".equals(message.getPayload())) {
+                throw new IllegalArgumentException("cannot be mapped");
+            }
+            forwarded.add(message);
+            return CompletableFuture.completedFuture(null);
+        });
+        outbox.append(MessageBuilder.withPayload("bad").build());
+        outbox.append(MessageBuilder.withPayload("good").build());
+        outbox.start();
+
+        Message<?> message = forwarded.poll(5, TimeUnit.SECONDS);
+        assertThat(message).isNotNull();
+        assertThat(message.getPayload()).isEqualTo("good");
+        awaitPendingCount(outbox, 0);
+        outbox.stop(5000);
+    }
+
+    @Test
+    void testStopKeepsForwardingMessage() throws Exception {
+        Outbox outbox = new Outbox("binding", new OutboxJournal(directory, SEGMENT_SIZE, 4, false), message -> {
+            forwarded.add(message);
+            // broker unreachable until the outbox is stopped
+            Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            return CompletableFuture.completedFuture(null);
+        });
+        outbox.append(MessageBuilder.withPayload("first").build());
+        outbox.start();
+        assertThat(forwarded.poll(5, TimeUnit.SECONDS)).isNotNull();
+        outbox.stop(5000);
+
+        Outbox restarted = outbox();
+        assertThat(restarted.getPendingCount()).isEqualTo(1);
+        restarted.start();
+        assertThat(forwarded.poll(5, TimeUnit.SECONDS)).extracting(Message::getPayload).isEqualTo("first");
+        restarted.stop(5000);
+    }
+
+    @Test
+    void testPayloadsInOrder() throws Exception {
+        Outbox outbox = outbox();
+        for (int i = 0; i < 100; i++) {
+            outbox.append(MessageBuilder.withPayload("payload-" + i).build());
+        }
+        outbox.start();
+        for (int i = 0; i < 100; i++) {
+            Message<?> message = forwarded.poll(5, TimeUnit.SECONDS);
+            assertThat(message).isNotNull();
+            assertThat(message.getPayload()).isEqualTo("payload-" + i);
+            acknowledgments.take().complete(null);
+        }
+        awaitPendingCount(outbox, 0);
+        outbox.stop(5000);
+        assertThat(List.copyOf(forwarded)).isEmpty();
+    }
+}
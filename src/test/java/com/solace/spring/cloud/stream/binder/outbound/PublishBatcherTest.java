@@ -0,0 +1,146 @@
+package com.solace.spring.cloud.stream.binder.outbound;
+
+import com.solace.spring.cloud.stream.binder.util.ClosedChannelBindingException;
+import com.solace.spring.cloud.stream.binder.util.ErrorChannelSendingCorrelationKey;
+import com.solacesystems.jcsmp.Destination;
+import com.solacesystems.jcsmp.JCSMPException;
+import com.solacesystems.jcsmp.JCSMPFactory;
+import com.solacesystems.jcsmp.JCSMPSendMultipleEntry;
+import com.solacesystems.jcsmp.TextMessage;
+import com.solacesystems.jcsmp.XMLMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@Timeout(value = 10)
+class PublishBatcherTest {
+    private final Destination destination = JCSMPFactory.onlyInstance().createTopic("topic");
+    private final List<List<XMLMessage>> batches = new CopyOnWriteArrayList<>();
+    private final List<XMLMessage> sentMessages = new CopyOnWriteArrayList<>();
+
+    private static XMLMessage message() {
+        return JCSMPFactory.onlyInstance().createMessage(TextMessage.class);
+    }
+
+    private int record(JCSMPSendMultipleEntry[] entries, int offset, int length) {
+        List<XMLMessage> batch = new ArrayList<>();
+        for (int i = offset; i < offset + length; i++) {
+            batch.add(entries[i].getMessage());
+        }
+        batches.add(batch);
+        return length;
+    }
+
+    @Test
+    void testInvalidBatchSize() {
+        assertThatThrownBy(() -> new PublishBatcher("binding", 0, 0, this::record, sentMessages::add))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testSendsInOrderInBatchesOfMaxSize() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PublishBatcher batcher = new PublishBatcher("binding", 4, TimeUnit.SECONDS.toMicros(1), (entries, offset, length) -> {
+            blocked.countDown();
+            release.await();
+            return record(entries, offset, length);
+        }, sentMessages::add);
+        try {
+            List<XMLMessage> messages = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                messages.add(message());
+            }
+            batcher.publish(messages.subList(0, 1), destination, mock(ErrorChannelSendingCorrelationKey.class));
+            // the first batch is sent once the batch timeout elapsed, the others queue up meanwhile
+            assertThat(blocked.await(5, TimeUnit.SECONDS)).isTrue();
+            for (XMLMessage message : messages.subList(1, 10)) {
+                batcher.publish(List.of(message), destination, mock(ErrorChannelSendingCorrelationKey.class));
+            }
+            release.countDown();
+
+            batcher.stop(5000);
+            assertThat(batches).extracting(List::size).containsExactly(1, 4, 4, 1);
+            assertThat(batches.stream().flatMap(List::stream)).containsExactlyElementsOf(messages);
+            assertThat(sentMessages).containsExactlyElementsOf(messages);
+        } finally {
+            release.countDown();
+            batcher.stop(5000);
+        }
+    }
+
+    @Test
+    void testSendsPartialBatchAfterTimeout() throws Exception {
+        PublishBatcher batcher = new PublishBatcher("binding", 100, 1000, this::record, sentMessages::add);
+        try {
+            XMLMessage message = message();
+            batcher.publish(List.of(message), destination, mock(ErrorChannelSendingCorrelationKey.class));
+
+            long start = System.nanoTime();
+            while (sentMessages.isEmpty() && System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5)) {
+                Thread.sleep(1);
+            }
+            assertThat(batches).containsExactly(List.of(message));
+        } finally {
+            batcher.stop(5000);
+        }
+    }
+
+    @Test
+    void testSendsRemainderOfPartiallySentBatch() throws Exception {
+        PublishBatcher batcher = new PublishBatcher("binding", 10, TimeUnit.SECONDS.toMicros(30),
+                (entries, offset, length) -> record(entries, offset, 1), sentMessages::add);
+        List<XMLMessage> messages = List.of(message(), message(), message());
+        batcher.publish(messages, destination, mock(ErrorChannelSendingCorrelationKey.class));
+        batcher.stop(5000);
+
+        assertThat(batches).extracting(List::size).containsExactly(1, 1, 1);
+        assertThat(sentMessages).containsExactlyElementsOf(messages);
+    }
+
+    @Test
+    void testFailureIsReportedOncePerCorrelationKey() throws Exception {
+        JCSMPException exception = new JCSMPException("boom");
+        AtomicInteger calls = new AtomicInteger();
+        PublishBatcher batcher = new PublishBatcher("binding", 10, TimeUnit.SECONDS.toMicros(30), (entries, offset, length) -> {
+            if (calls.getAndIncrement() == 0) {
+                return record(entries, offset, 1);
+            }
+            throw exception;
+        }, sentMessages::add);
+        ErrorChannelSendingCorrelationKey sentKey = mock(ErrorChannelSendingCorrelationKey.class);
+        ErrorChannelSendingCorrelationKey chunkedKey = mock(ErrorChannelSendingCorrelationKey.class);
+        batcher.publish(List.of(message()), destination, sentKey);
+        batcher.publish(List.of(message(), message()), destination, chunkedKey);
+        batcher.stop(5000);
+
+        verify(sentKey, never()).fail(any(), any());
+        verify(chunkedKey, times(1)).fail(any(), eq(exception));
+        assertThat(sentMessages).hasSize(3);
+    }
+
+    @Test
+    void testPublishAfterStop() {
+        PublishBatcher batcher = new PublishBatcher("binding", 10, 0, this::record, sentMessages::add);
+        batcher.stop(5000);
+        assertThatThrownBy(() -> batcher.publish(List.of(message()), destination,
+                mock(ErrorChannelSendingCorrelationKey.class)))
+                .isInstanceOf(ClosedChannelBindingException.class);
+        assertThat(batcher.getQueuedMessages()).isZero();
+    }
+}
@@ -0,0 +1,78 @@
+package com.solace.spring.cloud.stream.binder.outbound;
+
+import com.solace.spring.cloud.stream.binder.outbound.SendCircuitBreaker.State;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SendCircuitBreakerTest {
+    private final List<State> transitions = new CopyOnWriteArrayList<>();
+
+    @Test
+    void testOpensAfterConsecutiveFailures() {
+        SendCircuitBreaker breaker = new SendCircuitBreaker(3, 60000, transitions::add);
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(transitions).containsExactly(State.OPEN);
+    }
+
+    @Test
+    void testTrialSuccessCloses() {
+        SendCircuitBreaker breaker = new SendCircuitBreaker(1, 0, transitions::add);
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+        breaker.onSuccess();
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(transitions).containsExactly(State.OPEN, State.HALF_OPEN, State.CLOSED);
+    }
+
+    @Test
+    void testTrialFailureOpens() {
+        SendCircuitBreaker breaker = new SendCircuitBreaker(2, 0, transitions::add);
+        breaker.onFailure();
+        breaker.onFailure();
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+        assertThat(transitions).containsExactly(State.OPEN, State.HALF_OPEN, State.OPEN);
+    }
+
+    @Test
+    void testSingleTrial() {
+        SendCircuitBreaker breaker = new SendCircuitBreaker(1, 60000, transitions::add);
+        breaker.onFailure();
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        SendCircuitBreaker expired = new SendCircuitBreaker(1, 0, transitions::add);
+        expired.onFailure();
+        assertThat(expired.tryAcquire()).isTrue();
+        assertThat(expired.getState()).isEqualTo(State.HALF_OPEN);
+    }
+
+    @Test
+    void testDisabled() {
+        SendCircuitBreaker breaker = new SendCircuitBreaker(0, 60000, transitions::add);
+        for (int i = 0; i < 100; i++) {
+            breaker.onFailure();
+        }
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(transitions).isEmpty();
+    }
+}
@@ -0,0 +1,36 @@
+package com.solace.spring.cloud.stream.binder.outbound;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SendRetryBackoffTest {
+    @Test
+    void testExponentialBackoff() {
+        SendRetryBackoff backoff = new SendRetryBackoff(100, 1000, 2.0, 0);
+        assertThat(backoff.delayMs(1)).isEqualTo(100);
+        assertThat(backoff.delayMs(2)).isEqualTo(200);
+        assertThat(backoff.delayMs(4)).isEqualTo(800);
+        assertThat(backoff.delayMs(5)).isEqualTo(1000);
+        assertThat(backoff.delayMs(Integer.MAX_VALUE)).isEqualTo(1000);
+    }
+
+    @Test
+    void testJitter() {
+        SendRetryBackoff backoff = new SendRetryBackoff(1000, 1000, 1.0, 0.5);
+        for (int i = 0; i < 100; i++) {
+            assertThat(backoff.delayMs(1)).isBetween(500L, 1000L);
+        }
+    }
+
+    @Test
+    void testInvalid() {
+        assertThatThrownBy(() -> new SendRetryBackoff(2000, 1000, 2.0, 0.5))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SendRetryBackoff(100, 1000, 0.5, 0.5))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SendRetryBackoff(100, 1000, 2.0, 1.5))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
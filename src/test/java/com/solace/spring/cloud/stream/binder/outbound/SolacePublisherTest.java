@@ -0,0 +1,41 @@
+package com.solace.spring.cloud.stream.binder.outbound;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SolacePublisherTest {
+    private final SolacePublisher publisher = new SolacePublisher();
+
+    @Test
+    void testPublish() {
+        JCSMPOutboundMessageHandler handler = mock(JCSMPOutboundMessageHandler.class);
+        Message<String> message = MessageBuilder.withPayload("payload").build();
+        CompletableFuture<PublishReceipt> receipt = CompletableFuture.completedFuture(
+                new PublishReceipt(message.getHeaders().getId(), "topic", 1));
+        when(handler.publishAsync(message)).thenReturn(receipt);
+
+        publisher.register("binding-out-0", handler);
+        assertThat(publisher.publish("binding-out-0", message)).isSameAs(receipt);
+    }
+
+    @Test
+    void testPublish_UnknownBinding() {
+        publisher.register("binding-out-0", mock(JCSMPOutboundMessageHandler.class));
+        publisher.unregister("binding-out-0");
+
+        assertThat(publisher.publish("binding-out-0", MessageBuilder.withPayload("payload").build()))
+                .failsWithin(100, TimeUnit.MILLISECONDS)
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(MessagingException.class);
+    }
+}
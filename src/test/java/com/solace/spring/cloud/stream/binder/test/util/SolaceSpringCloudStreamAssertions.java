@@ -2,6 +2,7 @@ package com.solace.spring.cloud.stream.binder.test.util;
 
 import com.solace.spring.cloud.stream.binder.health.base.SolaceHealthIndicator;
 import com.solace.spring.cloud.stream.binder.health.contributors.BindingsHealthContributor;
+import com.solace.spring.cloud.stream.binder.messaging.SolaceBinderHeaders;
 import com.solace.spring.cloud.stream.binder.meter.SolaceMessageMeterBinder;
 import com.solace.spring.cloud.stream.binder.properties.SolaceConsumerProperties;
 import com.solacesystems.jcsmp.*;
@@ -55,7 +56,14 @@ public class SolaceSpringCloudStreamAssertions {
             ThrowingConsumer<Map<String, Object>> satisfiesHeader = msgHeaders -> assertThat(msgHeaders.get(header))
                     .isInstanceOf(type)
                     .satisfies(headerValue -> requirements.accept(type.cast(headerValue)));
-            assertThat(message.getHeaders()).satisfies(satisfiesHeader);
+            if (message.getHeaders().containsKey(SolaceBinderHeaders.BATCHED_HEADERS)) {
+                assertThat(message.getHeaders().get(SolaceBinderHeaders.BATCHED_HEADERS))
+                        .asInstanceOf(InstanceOfAssertFactories.list(Map.class))
+                        .isNotEmpty()
+                        .allSatisfy(msgHeaders -> satisfiesHeader.accept(castHeaders(msgHeaders)));
+            } else {
+                assertThat(message.getHeaders()).satisfies(satisfiesHeader);
+            }
         };
     }
 
@@ -71,10 +79,22 @@ public class SolaceSpringCloudStreamAssertions {
      */
     public static ThrowingConsumer<Message<?>> noNestedHeader(String header) {
         return message -> {
-            assertThat(message.getHeaders()).doesNotContainKey(header);
+            if (message.getHeaders().containsKey(SolaceBinderHeaders.BATCHED_HEADERS)) {
+                assertThat(message.getHeaders().get(SolaceBinderHeaders.BATCHED_HEADERS))
+                        .asInstanceOf(InstanceOfAssertFactories.list(Map.class))
+                        .isNotEmpty()
+                        .allSatisfy(msgHeaders -> assertThat(castHeaders(msgHeaders)).doesNotContainKey(header));
+            } else {
+                assertThat(message.getHeaders()).doesNotContainKey(header);
+            }
         };
     }
 
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> castHeaders(Map<?, ?> headers) {
+        return (Map<String, Object>) headers;
+    }
+
     /**
      * <p>Returns a function to evaluate that a consumed Solace message is valid.</p>
      * <p>Should be used as a parameter of
@@ -0,0 +1,102 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+import com.solace.spring.cloud.stream.binder.test.util.SerializableFoo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryHeaderCodecTest {
+    private final BinaryHeaderCodec codec = new BinaryHeaderCodec();
+
+    static Stream<Object> values() {
+        return Stream.of(UUID.randomUUID(), Instant.now(), Duration.ofMillis(1234), TimeUnit.SECONDS, "value", 'c',
+                (byte) 1, (short) 2, 3, 4L, 5f, 6d, true,
+                new byte[]{1, 2}, new boolean[]{true, false}, new short[]{3}, new char[]{'a', 'b'}, new int[]{1, 2},
+                new long[]{1L, 2L}, new float[]{1.5f}, new double[]{2.5},
+                List.of("a", 1), Set.of("b"));
+    }
+
+    static Stream<Object> javaSerializedValues() {
+        return Stream.of(new TreeMap<>(Map.of("k", "v")), new BigDecimal("1.23"), new SerializableFoo("abc", "123"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("values")
+    void testRoundTrip(Object value) {
+        assertThat(codec.decode(codec.encode(value))).isEqualTo(value);
+    }
+
+    @ParameterizedTest
+    @MethodSource("javaSerializedValues")
+    void testRoundTrip_JavaSerializationAllowlist(Object value) {
+        BinaryHeaderCodec allowlistCodec = new BinaryHeaderCodec(List.of("java.lang.*", "java.math.*", "java.util.*",
+                SerializableFoo.class.getPackageName() + ".*"));
+        assertThat(allowlistCodec.decode(allowlistCodec.encode(value))).isEqualTo(value);
+    }
+
+    @ParameterizedTest
+    @MethodSource("javaSerializedValues")
+    void testEncode_NotAllowed(Object value) {
+        assertThatThrownBy(() -> codec.encode(value))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("is not supported");
+    }
+
+    @Test
+    void testDecode_JavaSerializedWithoutAllowlist() {
+        byte[] data = new BinaryHeaderCodec(List.of(SerializableFoo.class.getName()))
+                .encode(new SerializableFoo("abc", "123"));
+        assertThatThrownBy(() -> codec.decode(data))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("not allowed");
+    }
+
+    @Test
+    void testDecode_JavaSerializedClassNotInAllowlist() {
+        byte[] data = new BinaryHeaderCodec(List.of("*")).encode(new SerializableFoo("abc", "123"));
+        assertThatThrownBy(() -> new BinaryHeaderCodec(List.of("java.math.*")).decode(data))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testRoundTrip_Map() {
+        UUID uuid = UUID.randomUUID();
+        Map<String, Object> map = new HashMap<>();
+        map.put("uuid", uuid);
+        map.put("null", null);
+        map.put("list", List.of(1, 2L, "x"));
+
+        Object decoded = codec.decode(codec.encode(map));
+
+        assertThat(decoded).isInstanceOf(Map.class).isEqualTo(map);
+    }
+
+    @Test
+    void testEncode_IsSmallerThanJavaSerialization() {
+        UUID uuid = UUID.randomUUID();
+
+        assertThat(codec.encode(uuid)).hasSize(18);
+    }
+
+    @Test
+    void testDecode_InvalidData() {
+        assertThatThrownBy(() -> codec.decode(new byte[]{2, 1})).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> codec.decode(new byte[]{1, 1, 0x7f, -1, -1, -1})).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> codec.decode(new byte[]{1, 100})).isInstanceOf(IllegalArgumentException.class);
+    }
+}
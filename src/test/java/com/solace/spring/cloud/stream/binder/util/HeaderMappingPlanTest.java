@@ -0,0 +1,143 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+import com.solace.spring.cloud.stream.binder.messaging.SolaceBinderHeaders;
+import com.solace.spring.cloud.stream.binder.messaging.SolaceHeaders;
+import com.solace.spring.cloud.stream.binder.properties.SolaceProducerProperties;
+import com.solace.spring.cloud.stream.binder.test.util.SerializableFoo;
+import com.solacesystems.jcsmp.DeliveryMode;
+import com.solacesystems.jcsmp.SDTMap;
+import com.solacesystems.jcsmp.XMLMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.integration.IntegrationMessageHeaderAccessor;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HeaderMappingPlanTest {
+
+    @Test
+    void testInbound_excludedSolaceHeadersAreNotReadable() {
+        HeaderMappingPlan plan = HeaderMappingPlan.inbound(List.of(SolaceHeaders.PRIORITY, "custom"));
+
+        assertThat(plan.getReadableHeader(SolaceHeaders.PRIORITY)).isNull();
+        assertThat(plan.getReadableHeader(SolaceHeaders.DESTINATION)).isNotNull();
+        assertThat(plan.getReadableHeader("custom")).isNull();
+        assertThat(Arrays.stream(plan.getReadableHeaders()).map(HeaderMappingPlan.ReadableHeader::name))
+                .contains(SolaceHeaders.DESTINATION, SolaceHeaders.APPLICATION_MESSAGE_ID)
+                .doesNotContain(SolaceHeaders.PRIORITY);
+        assertThat(plan.isExcluded("custom")).isTrue();
+    }
+
+    @Test
+    void testInbound_skippedUserProperties() {
+        HeaderMappingPlan plan = HeaderMappingPlan.inbound(List.of("custom"));
+
+        assertThat(plan.isSkippedUserProperty("custom")).isTrue();
+        assertThat(plan.isSkippedUserProperty(SolaceHeaders.PRIORITY)).isTrue();
+        assertThat(plan.isSkippedUserProperty(SolaceBinderHeaders.MESSAGE_VERSION)).isTrue();
+        assertThat(plan.isSkippedUserProperty(IntegrationMessageHeaderAccessor.SOURCE_DATA)).isTrue();
+        assertThat(plan.isSkippedUserProperty("other")).isFalse();
+    }
+
+    @Test
+    void testReadableHeader_unsupportedHeaderIsNotReadAgain() {
+        HeaderMappingPlan plan = HeaderMappingPlan.inbound(null);
+        XMLMessage xmlMessage = mock(XMLMessage.class);
+        when(xmlMessage.getApplicationMessageId()).thenThrow(new UnsupportedOperationException("not supported"));
+
+        HeaderMappingPlan.ReadableHeader header = plan.getReadableHeader(SolaceHeaders.APPLICATION_MESSAGE_ID);
+        assertThat(header.read(xmlMessage)).isNull();
+        assertThat(header.read(xmlMessage)).isNull();
+        verify(xmlMessage, times(1)).getApplicationMessageId();
+    }
+
+    @Test
+    void testOutbound_writableHeadersWithConvertedDefaults() {
+        HeaderMappingPlan plan = HeaderMappingPlan.outbound(List.of(SolaceHeaders.PRIORITY), true,
+                DeliveryMode.DIRECT, Map.of(SolaceHeaders.PRIORITY, "5", "custom", "value"));
+
+        HeaderMappingPlan.WritableHeader priority = Arrays.stream(plan.getWritableHeaders())
+                .filter(h -> h.name().equals(SolaceHeaders.PRIORITY))
+                .findFirst()
+                .orElseThrow();
+        assertThat(priority.defaultValue()).as("excluding Solace headers on publish is not supported").isEqualTo(5);
+        assertThat(Arrays.stream(plan.getWritableHeaders()).map(HeaderMappingPlan.WritableHeader::name))
+                .doesNotContain(SolaceHeaders.DESTINATION);
+        assertThat(plan.getDefaultHeaders()).containsEntry("custom", "value");
+        assertThat(plan.isConvertNonSerializableHeadersToString()).isTrue();
+        assertThat(plan.getDeliveryMode()).isEqualTo(DeliveryMode.DIRECT);
+    }
+
+    @Test
+    void testOutbound_userPropertiesTemplate() throws Exception {
+        SerializableFoo serializedDefault = new SerializableFoo("abc", "123");
+        HeaderMappingPlan plan = HeaderMappingPlan.outbound(List.of("excluded"), false, DeliveryMode.PERSISTENT,
+                Map.of("custom", "value", "serialized", serializedDefault, "excluded", "value",
+                        SolaceHeaders.PRIORITY, 5));
+
+        SDTMap userProperties = plan.newUserProperties();
+        assertThat(userProperties.keySet())
+                .containsExactlyInAnyOrder("custom", "serialized", SolaceBinderHeaders.MESSAGE_VERSION);
+        assertThat(userProperties.getString("custom")).isEqualTo("value");
+        assertThat(userProperties.getInteger(SolaceBinderHeaders.MESSAGE_VERSION)).isEqualTo(XMLMessageMapper.MESSAGE_VERSION);
+        assertThat(plan.getSerializedDefaultHeaders()).containsExactly("serialized");
+
+        userProperties.putString("custom", "changed");
+        assertThat(plan.newUserProperties().getString("custom")).as("the template is copied").isEqualTo("value");
+    }
+
+    @Test
+    void testForProducer_serializedHeadersEncoding() {
+        SolaceProducerProperties producerProperties = new SolaceProducerProperties();
+        assertThat(HeaderMappingPlan.forProducer(producerProperties).getSerializedHeaderCodec()).isNull();
+
+        producerProperties.setSerializedHeadersEncoding(BinaryHeaderCodec.ENCODING);
+        assertThat(HeaderMappingPlan.forProducer(producerProperties).getSerializedHeaderCodec())
+                .isInstanceOf(BinaryHeaderCodec.class);
+
+        producerProperties.setSerializedHeadersEncoding("abc");
+        assertThatThrownBy(() -> HeaderMappingPlan.forProducer(producerProperties))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("abc");
+    }
+
+    @Test
+    void testForProducer_serializedPayloadEncoding() {
+        SolaceProducerProperties producerProperties = new SolaceProducerProperties();
+        assertThat(HeaderMappingPlan.forProducer(producerProperties).getPayloadCodec()).isNull();
+
+        producerProperties.setSerializedPayloadEncoding(BinaryPayloadCodec.ENCODING);
+        assertThat(HeaderMappingPlan.forProducer(producerProperties).getPayloadCodec())
+                .isInstanceOf(BinaryPayloadCodec.class);
+
+        producerProperties.setSerializedPayloadEncoding("abc");
+        assertThatThrownBy(() -> HeaderMappingPlan.forProducer(producerProperties))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("abc");
+    }
+
+    @Test
+    void testForProducer_compression() {
+        SolaceProducerProperties producerProperties = new SolaceProducerProperties();
+        assertThat(HeaderMappingPlan.forProducer(producerProperties).getPayloadCompressor()).isNull();
+
+        producerProperties.setCompression(GzipPayloadCompressor.ENCODING);
+        producerProperties.setCompressionThreshold(10);
+        HeaderMappingPlan plan = HeaderMappingPlan.forProducer(producerProperties);
+        assertThat(plan.getPayloadCompressor()).isInstanceOf(GzipPayloadCompressor.class);
+        assertThat(plan.getCompressionThreshold()).isEqualTo(10);
+
+        producerProperties.setCompression("abc");
+        assertThatThrownBy(() -> HeaderMappingPlan.forProducer(producerProperties))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("abc");
+    }
+}
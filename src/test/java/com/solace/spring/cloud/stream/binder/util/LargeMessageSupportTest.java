@@ -1,13 +1,22 @@
 package com.solace.spring.cloud.stream.binder.util;
 
+import com.solace.spring.cloud.stream.binder.messaging.SolaceBinderHeaders;
 import com.solacesystems.jcsmp.BytesMessage;
 import com.solacesystems.jcsmp.BytesXMLMessage;
 import com.solacesystems.jcsmp.JCSMPFactory;
+import com.solacesystems.jcsmp.SDTException;
+import com.solacesystems.jcsmp.SDTMap;
 import com.solacesystems.jcsmp.XMLMessage;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.integration.acks.AcknowledgmentCallback;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.SecureRandom;
 import java.time.Instant;
 import java.util.ArrayList;
@@ -17,6 +26,7 @@ import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -75,6 +85,113 @@ class LargeMessageSupportTest {
         assertThat(done.get()).isTrue();
     }
 
+    @Test
+    void split_shouldUseChunkSize() {
+        LargeMessageSupport largeMessageSupport = new LargeMessageSupport();
+        BytesMessage originalMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
+        originalMessage.setData(new byte[10]);
+        List<XMLMessage> chunks = largeMessageSupport.split(originalMessage, 4);
+        assertThat(chunks).extracting(chunk -> ((BytesMessage) chunk).getData().length).containsExactly(4, 4, 2);
+    }
+
+    @Test
+    void split_shouldReadStreamedPayloadLazily() throws IOException {
+        LargeMessageSupport largeMessageSupport = new LargeMessageSupport();
+        byte[] userData = new byte[10];
+        secureRandom.nextBytes(userData);
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(userData);
+        List<XMLMessage> chunks = largeMessageSupport.split(JCSMPFactory.onlyInstance().createMessage(BytesMessage.class),
+                StreamedPayload.of(inputStream, 10L), 4);
+        assertThat(chunks).hasSize(3);
+        assertThat(inputStream.available()).isEqualTo(10);
+
+        LargeMessageSupport.MessageContext messageContext = null;
+        for (int i = 0; i < chunks.size(); i++) {
+            XMLMessage chunk = chunks.get(i);
+            assertThat(inputStream.available()).isEqualTo(Math.max(10 - (i + 1) * 4, 0));
+            messageContext = largeMessageSupport.assemble((BytesXMLMessage) chunk, mock(AcknowledgmentCallback.class));
+        }
+        assertThat(messageContext).isNotNull();
+        assertThat(((BytesMessage) messageContext.bytesMessage()).getData()).isEqualTo(userData);
+    }
+
+    @Test
+    void split_shouldNotSplitSmallStreamedPayload() throws IOException {
+        LargeMessageSupport largeMessageSupport = new LargeMessageSupport();
+        BytesMessage originalMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
+        byte[] userData = new byte[10];
+        secureRandom.nextBytes(userData);
+        List<XMLMessage> chunks = largeMessageSupport.split(originalMessage, StreamedPayload.of(ByteBuffer.wrap(userData), null), 10);
+        assertThat(chunks).hasSize(1);
+        assertThat(chunks.get(0)).isSameAs(originalMessage);
+        assertThat(((BytesMessage) chunks.get(0)).getData()).isEqualTo(userData);
+    }
+
+    @Test
+    void split_streamedChunksMustBeReadInOrder() throws IOException {
+        LargeMessageSupport largeMessageSupport = new LargeMessageSupport();
+        List<XMLMessage> chunks = largeMessageSupport.split(JCSMPFactory.onlyInstance().createMessage(BytesMessage.class),
+                StreamedPayload.of(new ByteArrayInputStream(new byte[10]), 10L), 4);
+        XMLMessage first = chunks.get(0);
+        assertThat(chunks.get(0)).isSameAs(first);
+        assertThatThrownBy(() -> chunks.get(2)).isInstanceOf(IllegalStateException.class);
+        chunks.get(1);
+        assertThatThrownBy(() -> chunks.get(0)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void assemble_shouldReassembleInFile(@TempDir Path directory) throws IOException {
+        LargeMessageSupport largeMessageSupport = new LargeMessageSupport(directory);
+        BytesMessage originalMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
+        byte[] userData = new byte[10];
+        secureRandom.nextBytes(userData);
+        originalMessage.setData(userData);
+        List<XMLMessage> chunks = new ArrayList<>(largeMessageSupport.split(originalMessage, 4));
+        // the last chunk first, its position is only known from another chunk
+        Collections.reverse(chunks);
+        List<AcknowledgmentCallback> callbacks = new ArrayList<>();
+        LargeMessageSupport.MessageContext messageContext = null;
+        for (XMLMessage chunk : chunks) {
+            AcknowledgmentCallback callback = mock(AcknowledgmentCallback.class);
+            callbacks.add(callback);
+            messageContext = largeMessageSupport.assemble((BytesXMLMessage) chunk, callback);
+        }
+        assertThat(messageContext).isNotNull();
+        assertThat(messageContext.payloadFile()).isNotNull().hasParent(directory);
+        assertThat(Files.readAllBytes(messageContext.payloadFile())).isEqualTo(userData);
+        assertThat(messageContext.bytesMessage().getProperties().containsKey(SolaceBinderHeaders.CHUNK_ID)).isFalse();
+        assertThat(((ByteBuffer) LargeMessageSupport.filePayload(messageContext.payloadFile(), BytesPayloadType.BYTE_BUFFER)))
+                .isEqualTo(ByteBuffer.wrap(userData));
+
+        messageContext.acknowledgmentCallback().acknowledge(AcknowledgmentCallback.Status.ACCEPT);
+        assertThat(messageContext.payloadFile()).doesNotExist();
+        for (AcknowledgmentCallback ack : callbacks) {
+            verify(ack).acknowledge(eq(AcknowledgmentCallback.Status.ACCEPT));
+        }
+    }
+
+    @Test
+    void assemble_shouldReassembleSerializedPayloadOnHeap(@TempDir Path directory) throws IOException, SDTException {
+        LargeMessageSupport largeMessageSupport = new LargeMessageSupport(directory);
+        BytesMessage originalMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
+        byte[] userData = new byte[10];
+        secureRandom.nextBytes(userData);
+        originalMessage.setData(userData);
+        SDTMap properties = JCSMPFactory.onlyInstance().createMap();
+        properties.putBoolean(SolaceBinderHeaders.SERIALIZED_PAYLOAD, true);
+        originalMessage.setProperties(properties);
+        LargeMessageSupport.MessageContext messageContext = null;
+        for (XMLMessage chunk : largeMessageSupport.split(originalMessage, 4)) {
+            messageContext = largeMessageSupport.assemble((BytesXMLMessage) chunk, mock(AcknowledgmentCallback.class));
+        }
+        assertThat(messageContext).isNotNull();
+        assertThat(messageContext.payloadFile()).isNull();
+        assertThat(((BytesMessage) messageContext.bytesMessage()).getData()).isEqualTo(userData);
+        try (var files = Files.list(directory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
     @Test
     void housekeeping_ignore_new_messages() {
         LargeMessageSupport largeMessageSupport = new LargeMessageSupport();
@@ -133,4 +250,74 @@ class LargeMessageSupportTest {
             verify(ack).acknowledge(eq(AcknowledgmentCallback.Status.REJECT));
         }
     }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void housekeeping_remove_old_files(@TempDir Path directory) throws Exception {
+        LargeMessageSupport largeMessageSupport = new LargeMessageSupport(directory);
+        BytesMessage originalMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
+        originalMessage.setData(new byte[10]);
+        List<XMLMessage> chunks = largeMessageSupport.split(originalMessage, 4);
+        List<AcknowledgmentCallback> callbacks = new ArrayList<>();
+        for (XMLMessage xmlMessage : chunks.stream().skip(1).toList()) {
+            AcknowledgmentCallback callback = mock(AcknowledgmentCallback.class);
+            callbacks.add(callback);
+            largeMessageSupport.assemble((BytesXMLMessage) xmlMessage, callback);
+        }
+        try (var files = Files.list(directory)) {
+            assertThat(files).hasSize(1);
+        }
+        Field contextField = largeMessageSupport.getClass().getDeclaredField("fileContext");
+        contextField.setAccessible(true);
+        var context = (Map<Long, Object>) contextField.get(largeMessageSupport);
+        Object reassembly = context.values().iterator().next();
+        Field timestampField = reassembly.getClass().getDeclaredField("timestamp");
+        timestampField.setAccessible(true);
+        timestampField.set(reassembly, Instant.now().minusSeconds(61));
+
+        largeMessageSupport.housekeeping();
+        assertThat(context).isEmpty();
+        try (var files = Files.list(directory)) {
+            assertThat(files).isEmpty();
+        }
+        for (AcknowledgmentCallback ack : callbacks) {
+            verify(ack).acknowledge(eq(AcknowledgmentCallback.Status.REJECT));
+        }
+    }
+
+    @Test
+    void openReassemblyDirectory_shouldDeleteFilesOfPreviousRun(@TempDir Path directory) throws IOException {
+        Path reassemblyDirectory = directory.resolve("large-messages-input-in-0");
+        Files.createDirectories(reassemblyDirectory);
+        Path staleFile = Files.createTempFile(reassemblyDirectory, "large-message-", ".tmp");
+        Path otherFile = Files.createFile(reassemblyDirectory.resolve("other.txt"));
+        LargeMessageSupport largeMessageSupport = new LargeMessageSupport(reassemblyDirectory);
+        largeMessageSupport.openReassemblyDirectory();
+        assertThat(staleFile).doesNotExist();
+        assertThat(otherFile).exists();
+        largeMessageSupport.closeReassemblyDirectory();
+    }
+
+    @Test
+    void closeReassemblyDirectory_shouldRequeueIncompleteMessages(@TempDir Path directory) throws IOException {
+        LargeMessageSupport largeMessageSupport = new LargeMessageSupport(directory);
+        largeMessageSupport.openReassemblyDirectory();
+        BytesMessage originalMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
+        originalMessage.setData(new byte[10]);
+        List<XMLMessage> chunks = largeMessageSupport.split(originalMessage, 4);
+        List<AcknowledgmentCallback> callbacks = new ArrayList<>();
+        for (XMLMessage xmlMessage : chunks.stream().skip(1).toList()) {
+            AcknowledgmentCallback callback = mock(AcknowledgmentCallback.class);
+            callbacks.add(callback);
+            largeMessageSupport.assemble((BytesXMLMessage) xmlMessage, callback);
+        }
+
+        largeMessageSupport.closeReassemblyDirectory();
+        try (var files = Files.list(directory)) {
+            assertThat(files).noneMatch(file -> file.getFileName().toString().startsWith("large-message-"));
+        }
+        for (AcknowledgmentCallback ack : callbacks) {
+            verify(ack).acknowledge(eq(AcknowledgmentCallback.Status.REQUEUE));
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.util.SerializationUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LazyMessageHeadersTest {
+
+    @Test
+    void testGet_resolvesOnlyTheAccessedHeaderOnce() {
+        CountingResolver resolver = new CountingResolver(Map.of("a", "1", "b", "2"));
+        LazyMessageHeaders headers = new LazyMessageHeaders(Map.of("eager", "e"), resolver);
+
+        assertThat(headers.get("eager")).isEqualTo("e");
+        assertThat(headers.getId()).isNotNull();
+        assertThat(resolver.resolved).isEmpty();
+
+        assertThat(headers.get("a")).isEqualTo("1");
+        assertThat(headers.get("a")).isEqualTo("1");
+        assertThat(headers.containsKey("missing")).isFalse();
+        assertThat(headers.get("missing")).isNull();
+        assertThat(resolver.resolved).containsExactly("a", "missing");
+        assertThat(headers.isResolved()).isFalse();
+    }
+
+    @Test
+    void testGetWithType_rejectsWrongType() {
+        LazyMessageHeaders headers = new LazyMessageHeaders(Map.of(), new CountingResolver(Map.of("a", "1")));
+
+        assertThat(headers.get("a", String.class)).isEqualTo("1");
+        assertThatThrownBy(() -> headers.get("a", Integer.class)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testKeySet_resolvesAllHeadersAndKeepsResolvedInstances() {
+        Object first = new Object();
+        Map<String, Object> values = new HashMap<>();
+        values.put("a", first);
+        values.put("b", "2");
+        values.put("eager", "overridden");
+        values.put("empty", null);
+        CountingResolver resolver = new CountingResolver(values);
+        LazyMessageHeaders headers = new LazyMessageHeaders(Map.of("eager", "e"), resolver);
+        Object resolvedBefore = headers.get("a");
+
+        values.put("a", new Object());
+        assertThat(headers.keySet()).contains("a", "b", "eager", MessageHeaders.ID, MessageHeaders.TIMESTAMP)
+                .doesNotContain("empty");
+        assertThat(headers.isResolved()).isTrue();
+        assertThat(headers.get("a")).isSameAs(resolvedBefore);
+        assertThat(headers.get("eager")).as("eager headers win").isEqualTo("e");
+        assertThat(resolver.resolveAllCount).isEqualTo(1);
+
+        headers.size();
+        headers.get("b");
+        assertThat(resolver.resolveAllCount).isEqualTo(1);
+        assertThat(resolver.resolved).containsExactly("a");
+    }
+
+    @Test
+    void testEquals_comparesAllHeaders() {
+        LazyMessageHeaders headers = new LazyMessageHeaders(Map.of(), new CountingResolver(Map.of("a", "1")));
+
+        assertThat(new HashMap<>(headers)).containsEntry("a", "1").containsKey(MessageHeaders.ID);
+        assertThat(headers).isEqualTo(headers);
+        assertThat(headers.hashCode()).isEqualTo(headers.hashCode());
+    }
+
+    @Test
+    void testSerialization_resolvesAllHeaders() {
+        LazyMessageHeaders headers = new LazyMessageHeaders(Map.of("eager", "e"), new CountingResolver(Map.of("a", "1")));
+
+        @SuppressWarnings("deprecation")
+        MessageHeaders copy = (MessageHeaders) SerializationUtils.deserialize(SerializationUtils.serialize(headers));
+
+        assertThat(copy).isNotNull();
+        assertThat(copy.get("a")).isEqualTo("1");
+        assertThat(copy.get("eager")).isEqualTo("e");
+        assertThat(copy.getId()).isEqualTo(headers.getId());
+    }
+
+    private static class CountingResolver implements LazyMessageHeaders.HeaderResolver {
+        private final Map<String, Object> values;
+        private final List<String> resolved = new CopyOnWriteArrayList<>();
+        private int resolveAllCount;
+
+        private CountingResolver(Map<String, Object> values) {
+            this.values = values;
+        }
+
+        @Override
+        public Object resolve(String name) {
+            resolved.add(name);
+            return values.get(name);
+        }
+
+        @Override
+        public Map<String, Object> resolveAll() {
+            resolveAllCount++;
+            return new HashMap<>(values);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MeteredLruCacheTest {
+    @Test
+    public void testHitsAndMisses() {
+        AtomicInteger generated = new AtomicInteger();
+        MeteredLruCache<String, String> cache = new MeteredLruCache<>(2, key -> {
+            generated.incrementAndGet();
+            return key.toUpperCase();
+        });
+
+        assertThat(cache.get("a")).isEqualTo("A");
+        assertThat(cache.get("a")).isEqualTo("A");
+        assertThat(cache.get("b")).isEqualTo("B");
+
+        assertThat(generated).hasValue(2);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(2);
+        assertThat(cache.getEvictionCount()).isZero();
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        MeteredLruCache<String, String> cache = new MeteredLruCache<>(2, String::toUpperCase);
+
+        cache.get("a");
+        cache.get("b");
+        cache.get("a");
+        cache.get("c");
+        cache.get("a");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getHitCount()).isEqualTo(2);
+        assertThat(cache.getMissCount()).isEqualTo(3);
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testZeroCapacity() {
+        MeteredLruCache<String, String> cache = new MeteredLruCache<>(0, String::toUpperCase);
+
+        assertThat(cache.get("a")).isEqualTo("A");
+        assertThat(cache.get("a")).isEqualTo("A");
+
+        assertThat(cache.getHitCount()).isZero();
+        assertThat(cache.getMissCount()).isEqualTo(2);
+        assertThat(cache.getEvictionCount()).isZero();
+    }
+
+    @Test
+    public void testNegativeCapacity() {
+        assertThatThrownBy(() -> new MeteredLruCache<String, String>(-1, String::toUpperCase))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,62 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PayloadCompressorTest {
+    private static final int MAX_SIZE = 1024 * 1024;
+
+    static Stream<PayloadCompressor> compressors() {
+        return Stream.of(PayloadCompressors.get(GzipPayloadCompressor.ENCODING),
+                PayloadCompressors.get(DeflatePayloadCompressor.ENCODING));
+    }
+
+    @ParameterizedTest
+    @MethodSource("compressors")
+    void testRoundTrip(PayloadCompressor compressor) {
+        byte[] data = "{\"id\":1,\"name\":\"value\"},".repeat(10_000).getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = compressor.compress(data);
+        assertThat(compressed.length).isLessThan(data.length / 10);
+        assertThat(compressor.decompress(compressed, MAX_SIZE)).isEqualTo(data);
+    }
+
+    @ParameterizedTest
+    @MethodSource("compressors")
+    void testRoundTrip_incompressible(PayloadCompressor compressor) {
+        byte[] data = new byte[100_000];
+        ThreadLocalRandom.current().nextBytes(data);
+        assertThat(compressor.decompress(compressor.compress(data), MAX_SIZE)).isEqualTo(data);
+        byte[] small = {1, 2, 3};
+        assertThat(compressor.decompress(compressor.compress(small), MAX_SIZE)).isEqualTo(small);
+    }
+
+    @ParameterizedTest
+    @MethodSource("compressors")
+    void testDecompress_invalid(PayloadCompressor compressor) {
+        byte[] compressed = compressor.compress(new byte[1000]);
+        assertThatThrownBy(() -> compressor.decompress(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12}, MAX_SIZE))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> compressor.decompress(Arrays.copyOf(compressed, compressed.length / 2), MAX_SIZE))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @ParameterizedTest
+    @MethodSource("compressors")
+    void testDecompress_exceedsMaxSize(PayloadCompressor compressor) {
+        byte[] data = new byte[MAX_SIZE + 1];
+        byte[] compressed = compressor.compress(data);
+        assertThat(compressed.length).isLessThan(MAX_SIZE / 100);
+        assertThatThrownBy(() -> compressor.decompress(compressed, MAX_SIZE))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("exceeds " + MAX_SIZE + " bytes");
+        assertThat(compressor.decompress(compressed, MAX_SIZE + 1)).isEqualTo(data);
+    }
+}
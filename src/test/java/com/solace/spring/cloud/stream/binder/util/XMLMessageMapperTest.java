@@ -2,6 +2,7 @@ package com.solace.spring.cloud.stream.binder.util;
 
 import com.solace.spring.cloud.stream.binder.messaging.*;
 import com.solace.spring.cloud.stream.binder.properties.SolaceConsumerProperties;
+import com.solace.spring.cloud.stream.binder.properties.SolaceProducerProperties;
 import com.solace.spring.cloud.stream.binder.test.util.SerializableFoo;
 import com.solacesystems.jcsmp.*;
 import lombok.extern.slf4j.Slf4j;
@@ -46,6 +47,7 @@ import tools.jackson.databind.ObjectWriter;
 
 import java.lang.reflect.Array;
 import java.lang.reflect.Parameter;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
@@ -244,6 +246,7 @@ public class XMLMessageMapperTest {
                     yield RandomStringUtils.randomAlphanumeric(10);
                 }
                 case SolaceBinderHeaders.LARGE_MESSAGE_SUPPORT -> true;
+                case SolaceBinderHeaders.LARGE_MESSAGE_LENGTH -> 1024L;
                 case SolaceBinderHeaders.CHUNK_ID -> 123L;
                 case SolaceBinderHeaders.CHUNK_COUNT -> 2;
                 case SolaceBinderHeaders.CHUNK_INDEX -> 0;
@@ -280,7 +283,8 @@ public class XMLMessageMapperTest {
                      SolaceBinderHeaders.TARGET_DESTINATION_TYPE ->
                     // These Spring headers aren't ever reflected in the SMF message
                         assertNull(xmlMessage.getProperties().get(header.getKey()));
-                case SolaceBinderHeaders.LARGE_MESSAGE_SUPPORT -> assertNull(xmlMessage.getProperties().get(header.getKey()));
+                case SolaceBinderHeaders.LARGE_MESSAGE_SUPPORT,
+                     SolaceBinderHeaders.LARGE_MESSAGE_LENGTH -> assertNull(xmlMessage.getProperties().get(header.getKey()));
                 case SolaceBinderHeaders.CHUNK_ID -> assertEquals(123L, xmlMessage.getProperties().get(header.getKey()));
                 case SolaceBinderHeaders.CHUNK_COUNT -> assertEquals(2, xmlMessage.getProperties().get(header.getKey()));
                 case SolaceBinderHeaders.CHUNK_INDEX -> assertEquals(0, xmlMessage.getProperties().get(header.getKey()));
@@ -351,12 +355,15 @@ public class XMLMessageMapperTest {
                     assertEquals("base64", xmlMessage.getProperties().getString(header.getKey()));
                     break;
                 case SolaceBinderHeaders.SERIALIZED_PAYLOAD:
+                case SolaceBinderHeaders.SERIALIZED_PAYLOAD_ENCODING:
+                case SolaceBinderHeaders.PAYLOAD_COMPRESSION:
                 case SolaceBinderHeaders.CONFIRM_CORRELATION:
                 case SolaceBinderHeaders.NULL_PAYLOAD:
                 case SolaceBinderHeaders.TARGET_DESTINATION_TYPE:
                 case SolaceBinderHeaders.CHUNK_ID:
                 case SolaceBinderHeaders.CHUNK_COUNT:
                 case SolaceBinderHeaders.CHUNK_INDEX:
+                case SolaceBinderHeaders.BATCHED_HEADERS:
                     assertNull(xmlMessage.getProperties().get(header.getKey()));
                     break;
                 default:
@@ -967,6 +974,12 @@ public class XMLMessageMapperTest {
                 case SolaceBinderHeaders.SERIALIZED_PAYLOAD:
                     metadata.putBoolean(header.getKey(), false);
                     break;
+                case SolaceBinderHeaders.SERIALIZED_PAYLOAD_ENCODING:
+                    metadata.putString(header.getKey(), BinaryPayloadCodec.ENCODING);
+                    break;
+                case SolaceBinderHeaders.PAYLOAD_COMPRESSION:
+                    metadata.putString(header.getKey(), GzipPayloadCompressor.ENCODING);
+                    break;
                 case SolaceBinderHeaders.CONFIRM_CORRELATION:
                     metadata.putString(header.getKey(), "random_string");
                     break;
@@ -976,6 +989,9 @@ public class XMLMessageMapperTest {
                 case SolaceBinderHeaders.LARGE_MESSAGE_SUPPORT:
                     metadata.putBoolean(header.getKey(), true);
                     break;
+                case SolaceBinderHeaders.LARGE_MESSAGE_LENGTH:
+                    metadata.putLong(header.getKey(), 1024L);
+                    break;
                 case SolaceBinderHeaders.CHUNK_ID:
                     metadata.putLong(header.getKey(), 123L);
                     break;
@@ -1053,7 +1069,8 @@ public class XMLMessageMapperTest {
 
         for (Map.Entry<String, ? extends HeaderMeta<?>> header : readableLocalHeaders) {
             Object actualValue = springMessageHeaders.get(header.getKey());
-            if (header.getKey().equals(SolaceBinderHeaders.NULL_PAYLOAD)) {
+            if (header.getKey().equals(SolaceBinderHeaders.NULL_PAYLOAD)
+                    || header.getKey().equals(SolaceBinderHeaders.BATCHED_HEADERS)) {
                 assertNull(actualValue);
             } else {
                 fail(String.format("no test for header %s", header.getKey()));
@@ -1127,6 +1144,66 @@ public class XMLMessageMapperTest {
         assertEquals(Boolean.TRUE, springMessageHeaders.get(SolaceBinderHeaders.NULL_PAYLOAD, Boolean.class));
     }
 
+    @Test
+    void testMapXMLMessageToSpringMessage_WithByteBufferPayload() {
+        BytesMessage xmlMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
+        byte[] data = RandomStringUtils.randomAlphanumeric(100).getBytes(StandardCharsets.UTF_8);
+        xmlMessage.setData(data);
+        SolaceConsumerProperties consumerProperties = new SolaceConsumerProperties();
+        consumerProperties.setBytesPayloadType(BytesPayloadType.BYTE_BUFFER);
+
+        Message<?> springMessage = xmlMessageMapper.map(xmlMessage, Mockito.mock(AcknowledgmentCallback.class), consumerProperties);
+
+        ByteBuffer payload = assertInstanceOf(ByteBuffer.class, springMessage.getPayload());
+        assertTrue(payload.isReadOnly());
+        byte[] payloadBytes = new byte[payload.remaining()];
+        payload.get(payloadBytes);
+        assertArrayEquals(data, payloadBytes);
+        assertNull(springMessage.getHeaders().get(SolaceBinderHeaders.NULL_PAYLOAD));
+    }
+
+    @Test
+    void testMapXMLMessageToSpringMessage_WithByteBufferPayload_NullPayload() {
+        BytesMessage xmlMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
+        SolaceConsumerProperties consumerProperties = new SolaceConsumerProperties();
+        consumerProperties.setBytesPayloadType(BytesPayloadType.BYTE_BUFFER);
+
+        Message<?> springMessage = xmlMessageMapper.map(xmlMessage, Mockito.mock(AcknowledgmentCallback.class), consumerProperties);
+
+        ByteBuffer payload = assertInstanceOf(ByteBuffer.class, springMessage.getPayload());
+        assertFalse(payload.hasRemaining());
+        assertEquals(Boolean.TRUE, springMessage.getHeaders().get(SolaceBinderHeaders.NULL_PAYLOAD, Boolean.class));
+    }
+
+    @Test
+    void testMapXMLMessageToSpringMessage_HeadersDecodedOnAccess() throws Exception {
+        BytesMessage xmlMessage = Mockito.spy(JCSMPFactory.onlyInstance().createMessage(BytesMessage.class));
+        xmlMessage.setApplicationMessageId("appMessageId");
+        SerializableFoo serializedValue = new SerializableFoo("abc", "123");
+        SDTMap metadata = JCSMPFactory.onlyInstance().createMap();
+        metadata.putString("foo", Base64.getEncoder().encodeToString(SerializationUtils.serialize(serializedValue)));
+        metadata.putString("plain", "value");
+        metadata.putString(SolaceBinderHeaders.SERIALIZED_HEADERS, objectWriter.writeValueAsString(Collections.singleton("foo")));
+        metadata.putString(SolaceBinderHeaders.SERIALIZED_HEADERS_ENCODING, "base64");
+        xmlMessage.setProperties(metadata);
+        Mockito.clearInvocations(xmlMessage);
+
+        MessageHeaders springMessageHeaders = xmlMessageMapper.map(xmlMessage, Mockito.mock(AcknowledgmentCallback.class),
+                new SolaceConsumerProperties()).getHeaders();
+
+        Mockito.verify(xmlMessage, Mockito.never()).getApplicationMessageId();
+        assertNotNull(springMessageHeaders.get(IntegrationMessageHeaderAccessor.ACKNOWLEDGMENT_CALLBACK));
+        assertEquals("appMessageId", springMessageHeaders.get(SolaceHeaders.APPLICATION_MESSAGE_ID));
+        assertEquals("appMessageId", springMessageHeaders.get(SolaceHeaders.APPLICATION_MESSAGE_ID));
+        Mockito.verify(xmlMessage, Mockito.times(1)).getApplicationMessageId();
+
+        Object deserialized = springMessageHeaders.get("foo");
+        assertEquals(serializedValue, deserialized);
+        assertThat(springMessageHeaders.keySet(), hasItems("foo", "plain", SolaceHeaders.APPLICATION_MESSAGE_ID));
+        assertSame(deserialized, springMessageHeaders.get("foo"), "resolving all headers keeps decoded instances");
+        assertEquals("value", springMessageHeaders.get("plain"));
+    }
+
     @Test
     void testMapXMLMessageToSpringMessage_WithListPayload() throws Exception {
         BytesMessage xmlMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
@@ -1147,6 +1224,142 @@ public class XMLMessageMapperTest {
         validateSpringHeaders(springMessage.getHeaders(), xmlMessage);
     }
 
+    @Test
+    void testMapSerializedPayload_BinaryEncoding() {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", UUID.randomUUID());
+        payload.put("foo", new SerializableFoo("abc123", "HOOPLA!"));
+        SolaceProducerProperties producerProperties = new SolaceProducerProperties();
+        producerProperties.setSerializedPayloadEncoding(BinaryPayloadCodec.ENCODING);
+        producerProperties.setJavaSerializationAllowlist(List.of(SerializableFoo.class.getName()));
+        HeaderMappingPlan plan = HeaderMappingPlan.forProducer(producerProperties);
+
+        XMLMessage xmlMessage = xmlMessageMapper.map(MessageBuilder.withPayload(payload).build(), plan);
+
+        assertThat(xmlMessage, instanceOf(BytesMessage.class));
+        assertTrue(xmlMessage.getProperties().getBoolean(SolaceBinderHeaders.SERIALIZED_PAYLOAD));
+        assertEquals(BinaryPayloadCodec.ENCODING, xmlMessage.getProperties().getString(SolaceBinderHeaders.SERIALIZED_PAYLOAD_ENCODING));
+
+        assertThrows(RuntimeException.class, () -> xmlMessageMapper.map(xmlMessage,
+                Mockito.mock(AcknowledgmentCallback.class), new SolaceConsumerProperties()),
+                "Java-serialized values are only deserialized with an allowlist");
+        SolaceConsumerProperties consumerProperties = new SolaceConsumerProperties();
+        consumerProperties.setJavaSerializationAllowlist(List.of(SerializableFoo.class.getName()));
+        Message<?> springMessage = xmlMessageMapper.map(xmlMessage, Mockito.mock(AcknowledgmentCallback.class),
+                consumerProperties);
+        assertEquals(payload, springMessage.getPayload());
+        assertNull(springMessage.getHeaders().get(SolaceBinderHeaders.SERIALIZED_PAYLOAD_ENCODING));
+    }
+
+    @Test
+    void testFailMapSerializedPayload_InvalidEncoding() throws Exception {
+        BytesMessage xmlMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
+        xmlMessage.setData(new byte[]{1, 2, 3});
+        SDTMap metadata = JCSMPFactory.onlyInstance().createMap();
+        metadata.putBoolean(SolaceBinderHeaders.SERIALIZED_PAYLOAD, true);
+        metadata.putString(SolaceBinderHeaders.SERIALIZED_PAYLOAD_ENCODING, "abc");
+        xmlMessage.setProperties(metadata);
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> xmlMessageMapper.map(xmlMessage, Mockito.mock(AcknowledgmentCallback.class), new SolaceConsumerProperties()));
+        assertThat(exception.getCause(), instanceOf(SolaceMessageConversionException.class));
+        assertThat(exception.getCause().getMessage(), containsString("payload encoding is not supported"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {GzipPayloadCompressor.ENCODING, DeflatePayloadCompressor.ENCODING})
+    void testMapCompressedPayload(String compression) {
+        byte[] payload = "compressible ".repeat(1000).getBytes(StandardCharsets.UTF_8);
+        SolaceProducerProperties producerProperties = new SolaceProducerProperties();
+        producerProperties.setCompression(compression);
+        producerProperties.setCompressionThreshold(1024);
+        HeaderMappingPlan plan = HeaderMappingPlan.forProducer(producerProperties);
+
+        XMLMessage xmlMessage = xmlMessageMapper.map(MessageBuilder.withPayload(payload).build(), plan);
+
+        assertThat(xmlMessage, instanceOf(BytesMessage.class));
+        assertThat(((BytesMessage) xmlMessage).getData().length, lessThan(payload.length));
+        assertEquals(compression, xmlMessage.getProperties().getString(SolaceBinderHeaders.PAYLOAD_COMPRESSION));
+
+        Message<?> springMessage = xmlMessageMapper.map(xmlMessage, Mockito.mock(AcknowledgmentCallback.class),
+                new SolaceConsumerProperties());
+        assertArrayEquals(payload, (byte[]) springMessage.getPayload());
+        assertNull(springMessage.getHeaders().get(SolaceBinderHeaders.PAYLOAD_COMPRESSION));
+
+        SolaceConsumerProperties consumerProperties = new SolaceConsumerProperties();
+        consumerProperties.setBytesPayloadType(BytesPayloadType.BYTE_BUFFER);
+        ByteBuffer byteBuffer = (ByteBuffer) xmlMessageMapper.map(xmlMessage, Mockito.mock(AcknowledgmentCallback.class),
+                consumerProperties).getPayload();
+        assertEquals(ByteBuffer.wrap(payload), byteBuffer);
+    }
+
+    @Test
+    void testMapCompressedPayload_SerializedPayload() {
+        List<String> payload = new ArrayList<>(Collections.nCopies(100, "compressible"));
+        SolaceProducerProperties producerProperties = new SolaceProducerProperties();
+        producerProperties.setCompression(GzipPayloadCompressor.ENCODING);
+        producerProperties.setCompressionThreshold(0);
+        HeaderMappingPlan plan = HeaderMappingPlan.forProducer(producerProperties);
+
+        XMLMessage xmlMessage = xmlMessageMapper.map(MessageBuilder.withPayload(payload).build(), plan);
+
+        assertTrue(xmlMessage.getProperties().getBoolean(SolaceBinderHeaders.SERIALIZED_PAYLOAD));
+        assertEquals(GzipPayloadCompressor.ENCODING, xmlMessage.getProperties().getString(SolaceBinderHeaders.PAYLOAD_COMPRESSION));
+        assertEquals(payload, xmlMessageMapper.map(xmlMessage, Mockito.mock(AcknowledgmentCallback.class),
+                new SolaceConsumerProperties()).getPayload());
+    }
+
+    @Test
+    void testMapCompressedPayload_NotCompressed() {
+        SolaceProducerProperties producerProperties = new SolaceProducerProperties();
+        producerProperties.setCompression(GzipPayloadCompressor.ENCODING);
+        HeaderMappingPlan plan = HeaderMappingPlan.forProducer(producerProperties);
+        byte[] smallPayload = "compressible ".repeat(10).getBytes(StandardCharsets.UTF_8);
+        byte[] largePayload = "compressible ".repeat(1000).getBytes(StandardCharsets.UTF_8);
+        byte[] incompressiblePayload = new byte[2048];
+        ThreadLocalRandom.current().nextBytes(incompressiblePayload);
+
+        for (Message<byte[]> message : List.of(
+                MessageBuilder.withPayload(smallPayload).build(),
+                MessageBuilder.withPayload(incompressiblePayload).build(),
+                MessageBuilder.withPayload(largePayload).setHeader(SolaceHeaders.HTTP_CONTENT_ENCODING, "br").build())) {
+            XMLMessage xmlMessage = xmlMessageMapper.map(message, plan);
+            assertArrayEquals(message.getPayload(), ((BytesMessage) xmlMessage).getData());
+            assertNull(xmlMessage.getProperties().get(SolaceBinderHeaders.PAYLOAD_COMPRESSION));
+        }
+    }
+
+    @Test
+    void testFailMapCompressedPayload_ExceedsMaxDecompressedPayloadSize() {
+        byte[] payload = new byte[1024 * 1024];
+        SolaceProducerProperties producerProperties = new SolaceProducerProperties();
+        producerProperties.setCompression(DeflatePayloadCompressor.ENCODING);
+        producerProperties.setCompressionThreshold(0);
+        HeaderMappingPlan plan = HeaderMappingPlan.forProducer(producerProperties);
+        XMLMessage xmlMessage = xmlMessageMapper.map(MessageBuilder.withPayload(payload).build(), plan);
+        SolaceConsumerProperties consumerProperties = new SolaceConsumerProperties();
+        consumerProperties.setMaxDecompressedPayloadSize(payload.length - 1);
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> xmlMessageMapper.map(xmlMessage, Mockito.mock(AcknowledgmentCallback.class), consumerProperties));
+        assertThat(exception.getCause(), instanceOf(IllegalArgumentException.class));
+        assertThat(exception.getCause().getMessage(), containsString("exceeds"));
+    }
+
+    @Test
+    void testFailMapCompressedPayload_InvalidCompression() throws Exception {
+        BytesMessage xmlMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
+        xmlMessage.setData(new byte[]{1, 2, 3});
+        SDTMap metadata = JCSMPFactory.onlyInstance().createMap();
+        metadata.putString(SolaceBinderHeaders.PAYLOAD_COMPRESSION, "abc");
+        xmlMessage.setProperties(metadata);
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> xmlMessageMapper.map(xmlMessage, Mockito.mock(AcknowledgmentCallback.class), new SolaceConsumerProperties()));
+        assertThat(exception.getCause(), instanceOf(SolaceMessageConversionException.class));
+        assertThat(exception.getCause().getMessage(), containsString("payload compression is not supported"));
+    }
+
     @Test
     void testMapMessageHeadersToSDTMap_JMSXGroupID() throws Exception {
         String jmsxGroupID = "partition-key-value";
@@ -1231,6 +1444,39 @@ public class XMLMessageMapperTest {
         assertThat(serializedHeaders, hasItem(key));
     }
 
+    @Test
+    void testMapMessageHeadersToSDTMap_OverriddenSerializedDefaultHeader() throws Exception {
+        SerializableFoo defaultValue = new SerializableFoo("abc123", "HOOPLA!");
+        Message<?> message = MessageBuilder.withPayload("payload")
+                .setHeader("a", "override")
+                .build();
+
+        XMLMessage xmlMessage = xmlMessageMapper.map(message, List.of(), false, DeliveryMode.PERSISTENT,
+                Map.of("a", defaultValue, "b", defaultValue));
+
+        SDTMap metadata = xmlMessage.getProperties();
+        assertEquals("override", metadata.getString("a"));
+        assertEquals(defaultValue, SerializationUtils.deserialize(Base64.getDecoder().decode(metadata.getString("b"))));
+        Set<String> serializedHeaders = objectReader.forType(new TypeReference<Set<String>>() {
+                })
+                .readValue(metadata.getString(SolaceBinderHeaders.SERIALIZED_HEADERS));
+        assertThat(serializedHeaders, contains("b"));
+    }
+
+    @Test
+    void testMapMessageHeadersToSDTMap_SerializableTwice() throws Exception {
+        // the second value of a type is converted without trying SDTMap.putObject first
+        for (int i = 0; i < 2; i++) {
+            SerializableFoo value = new SerializableFoo("abc" + i, "HOOPLA!");
+            SDTMap sdtMap = xmlMessageMapper.map(new MessageHeaders(Map.of("a", value, "b", "string" + i)),
+                    Collections.emptyList(), false);
+            assertEquals(value, SerializationUtils.deserialize(Base64.getDecoder().decode(sdtMap.getString("a"))));
+            assertEquals("string" + i, sdtMap.getString("b"));
+        }
+        assertThrows(IllegalArgumentException.class, () -> xmlMessageMapper.map(
+                new MessageHeaders(Collections.singletonMap("a", new Object())), Collections.emptyList(), false));
+    }
+
     @Test
     void testMapMessageHeadersToSDTMap_NonSerializable() {
         IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
@@ -1438,6 +1684,62 @@ public class XMLMessageMapperTest {
         assertThat(messageHeaders.keySet(), not(hasItem(SolaceBinderHeaders.SERIALIZED_HEADERS)));
     }
 
+    @Test
+    void testMapSerializedHeaders_BinaryEncoding() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        SerializableFoo foo = new SerializableFoo("abc123", "HOOPLA!");
+        Message<?> springMessage = MessageBuilder.withPayload("payload")
+                .setHeader("uuid", uuid)
+                .setHeader("foo", foo)
+                .setHeader("plain", "value")
+                .build();
+        SolaceProducerProperties producerProperties = new SolaceProducerProperties();
+        producerProperties.setSerializedHeadersEncoding(BinaryHeaderCodec.ENCODING);
+        producerProperties.setJavaSerializationAllowlist(List.of(SerializableFoo.class.getName()));
+        HeaderMappingPlan plan = HeaderMappingPlan.forProducer(producerProperties);
+
+        XMLMessage xmlMessage = xmlMessageMapper.map(springMessage, plan);
+        SDTMap sdtMap = xmlMessage.getProperties();
+
+        assertEquals(BinaryHeaderCodec.ENCODING, sdtMap.getString(SolaceBinderHeaders.SERIALIZED_HEADERS_ENCODING));
+        Set<String> serializedHeaders = objectReader.forType(new TypeReference<Set<String>>() {
+                })
+                .readValue(sdtMap.getString(SolaceBinderHeaders.SERIALIZED_HEADERS));
+        assertThat(serializedHeaders, containsInAnyOrder("uuid", "foo"));
+        assertThat(sdtMap.getBytes("uuid").length, lessThan(SerializationUtils.serialize(uuid).length));
+        assertEquals("value", sdtMap.getString("plain"));
+
+        SolaceConsumerProperties consumerProperties = new SolaceConsumerProperties();
+        consumerProperties.setJavaSerializationAllowlist(List.of(SerializableFoo.class.getName()));
+        MessageHeaders messageHeaders = xmlMessageMapper.map(xmlMessage, Mockito.mock(AcknowledgmentCallback.class),
+                consumerProperties).getHeaders();
+        assertEquals(uuid, messageHeaders.get("uuid"));
+        assertEquals(foo, messageHeaders.get("foo"));
+        assertEquals("value", messageHeaders.get("plain"));
+
+        MessageHeaders withoutAllowlist = xmlMessageMapper.map(sdtMap, List.of());
+        assertEquals(uuid, withoutAllowlist.get("uuid"));
+        assertThrows(IllegalArgumentException.class, () -> xmlMessageMapper.map(xmlMessage,
+                Mockito.mock(AcknowledgmentCallback.class), new SolaceConsumerProperties()).getHeaders().get("foo"));
+    }
+
+    @Test
+    void testFailMapSerializedHeaders_BinaryEncodingNotAllowed() throws Exception {
+        SerializableFoo foo = new SerializableFoo("abc123", "HOOPLA!");
+        Message<?> springMessage = MessageBuilder.withPayload("payload").setHeader("foo", foo).build();
+        SolaceProducerProperties producerProperties = new SolaceProducerProperties();
+        producerProperties.setSerializedHeadersEncoding(BinaryHeaderCodec.ENCODING);
+
+        SolaceMessageConversionException exception = assertThrows(SolaceMessageConversionException.class,
+                () -> xmlMessageMapper.map(springMessage, HeaderMappingPlan.forProducer(producerProperties)));
+        assertThat(exception.getMessage(), containsString("foo"));
+
+        producerProperties.setNonserializableHeaderConvertToString(true);
+        SDTMap sdtMap = xmlMessageMapper.map(springMessage, HeaderMappingPlan.forProducer(producerProperties)).getProperties();
+        assertEquals(foo.toString(), sdtMap.getString("foo"));
+        assertFalse(sdtMap.containsKey(SolaceBinderHeaders.SERIALIZED_HEADERS));
+    }
+
     @Test
     void testFailMapSDTMapToMessageHeaders_InvalidEncoding() throws Exception {
         String key = "a";
@@ -1579,6 +1881,7 @@ public class XMLMessageMapperTest {
                             case SolaceBinderHeaders.PARTITION_KEY -> headerKey = XMLMessage.MessageUserPropertyConstants.QUEUE_PARTITION_KEY;
                             case XMLMessage.MessageUserPropertyConstants.QUEUE_PARTITION_KEY -> headerValue = expectedHeaders.getOrDefault(SolaceBinderHeaders.PARTITION_KEY, headerValue);
                             case SolaceBinderHeaders.LARGE_MESSAGE_SUPPORT,
+                                 SolaceBinderHeaders.LARGE_MESSAGE_LENGTH,
                                  SolaceBinderHeaders.CONFIRM_CORRELATION,
                                  SolaceBinderHeaders.TARGET_DESTINATION_TYPE -> {
                                 Assertions.assertThat(metadata.keySet()).doesNotContain(headerKey);